@@ -0,0 +1,64 @@
+package org.yop.apt;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Read/write line based resources (services file, class index) in the class output.
+ */
+class Resources {
+
+	private Resources() {}
+
+	/**
+	 * Write a line based resource in the class output, merging any entry from a previous (incremental) compilation.
+	 * <br>
+	 * The lines are sorted, so the output does not depend on the compilation order.
+	 * @param env      the processing environment
+	 * @param resource the resource name (e.g. META-INF/services/com.company.Service)
+	 * @param lines    the lines to write
+	 */
+	static void merge(ProcessingEnvironment env, String resource, Set<String> lines) {
+		if (lines.isEmpty()) {
+			return;
+		}
+		Filer filer = env.getFiler();
+		Set<String> entries = new TreeSet<>(lines);
+		try {
+			FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", resource);
+			try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (! line.trim().isEmpty()) {
+						entries.add(line.trim());
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// No previous resource. That's fine.
+		}
+
+		try {
+			FileObject output = filer.createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+			try (Writer writer = new OutputStreamWriter(output.openOutputStream(), StandardCharsets.UTF_8)) {
+				for (String entry : entries) {
+					writer.write(entry);
+					writer.write("\n");
+				}
+			}
+		} catch (IOException e) {
+			env.getMessager().printMessage(
+				Diagnostic.Kind.WARNING,
+				"Could not write [" + resource + "] : " + e.getMessage()
+			);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package org.yop.apt;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the {@code META-INF/yop/index} class index, so Yop does not have to scan the whole classpath at startup.
+ * <br>
+ * Indexed types (one binary name per line) :
+ * <ul>
+ *     <li>{@code @Table} types</li>
+ *     <li>{@code Yopable} subtypes</li>
+ *     <li>{@code @Rest} types</li>
+ * </ul>
+ * The index is read at runtime by {@code org.yop.reflection.ClassIndex}.
+ * <br><br>
+ * The processor does not depend on the ORM or REST modules : annotations and types are matched using their names.
+ * <br>
+ * It has to see every type of the compilation (Yopable subtypes may have no annotation) : it supports '*'.
+ * It never claims any annotation.
+ */
+@SupportedAnnotationTypes("*")
+public class YopIndexProcessor extends AbstractProcessor {
+
+	static final String INDEX   = "META-INF/yop/index";
+	static final String REST    = "org.yop.rest.annotations.Rest";
+	static final String YOPABLE = "org.yop.orm.model.Yopable";
+
+	/** The indexed types binary names, to be written in {@link #INDEX} when processing is over */
+	private final Set<String> indexed = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			Resources.merge(this.processingEnv, INDEX, this.indexed);
+			return false;
+		}
+
+		TypeElement yopable = this.processingEnv.getElementUtils().getTypeElement(YOPABLE);
+		TypeMirror yopableType = yopable == null
+			? null
+			: this.processingEnv.getTypeUtils().erasure(yopable.asType());
+
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+			this.index(type, yopableType);
+		}
+		return false;
+	}
+
+	/**
+	 * Index a type if it is a Yop type, then its member types.
+	 * @param type     the type to check
+	 * @param yopable  the erased Yopable type. Null if Yopable is not on the compilation classpath.
+	 */
+	private void index(TypeElement type, TypeMirror yopable) {
+		if (this.isYopType(type, yopable)) {
+			this.indexed.add(this.processingEnv.getElementUtils().getBinaryName(type).toString());
+		}
+		for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+			this.index(member, yopable);
+		}
+	}
+
+	/**
+	 * Is the type a @Table, @Rest or Yopable (the Yopable interface itself excluded) type ?
+	 * @param type    the type to check
+	 * @param yopable the erased Yopable type. Can be null.
+	 * @return true if the type must be indexed
+	 */
+	private boolean isYopType(TypeElement type, TypeMirror yopable) {
+		if (YopableAccessorProcessor.hasAnnotation(type, YopableAccessorProcessor.TABLE)
+		|| YopableAccessorProcessor.hasAnnotation(type, REST)) {
+			return true;
+		}
+		if (yopable == null || type.getQualifiedName().contentEquals(YOPABLE)) {
+			return false;
+		}
+		Types types = this.processingEnv.getTypeUtils();
+		return types.isAssignable(types.erasure(type.asType()), yopable);
+	}
+}
@@ -0,0 +1,455 @@
+package org.yop.apt;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Generates a plain java {@code org.yop.orm.map.YopableAccessor} for every {@code @Table} class.
+ * <br>
+ * For a class {@code com.company.Book}, the generated class is {@code com.company.Book_YopAccessor}.
+ * The generated classes are registered in
+ * {@code META-INF/services/org.yop.orm.map.YopableAccessor} so the ORM can find them.
+ * <br><br>
+ * The generated accessor handles the @Column/@Id fields (and any 'id' field) that are neither static nor transient :
+ * <ul>
+ *     <li>the field is visible from the class package and not final → direct field access</li>
+ *     <li>
+ *         else → a static final {@link java.lang.invoke.MethodHandle} getter/setter pair, resolved once.
+ *         User getters and setters are never called : they might have side effects.
+ *     </li>
+ * </ul>
+ * The accessor also reads/writes every field at once : parameter binder ('bind') and row mapper ('map').
+ * <br>
+ * Classes that cannot be referenced from their own package (private, non static inner, local) are skipped.
+ * <br><br>
+ * The processor does not depend on the ORM module : annotations are matched using their names.
+ */
+@SupportedAnnotationTypes(YopableAccessorProcessor.TABLE)
+public class YopableAccessorProcessor extends AbstractProcessor {
+
+	static final String TABLE         = "org.yop.orm.annotations.Table";
+	static final String COLUMN        = "org.yop.orm.annotations.Column";
+	static final String ID            = "org.yop.orm.annotations.Id";
+	static final String YOP_TRANSIENT = "org.yop.orm.annotations.YopTransient";
+
+	static final String ACCESSOR_INTERFACE = "org.yop.orm.map.YopableAccessor";
+	static final String SUFFIX = "_YopAccessor";
+	static final String SERVICES = "META-INF/services/" + ACCESSOR_INTERFACE;
+
+	/** The generated accessors qualified names, to be written in {@link #SERVICES} when processing is over */
+	private final Set<String> generated = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			this.writeServices();
+			return false;
+		}
+
+		TypeElement table = this.processingEnv.getElementUtils().getTypeElement(TABLE);
+		if (table == null) {
+			return false;
+		}
+
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(table))) {
+			if (! isReferenceable(type) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+				this.note("Skipping [" + type.getQualifiedName() + "] : not instantiable from its package.", type);
+				continue;
+			}
+			try {
+				this.generate(type);
+			} catch (IOException | RuntimeException e) {
+				this.processingEnv.getMessager().printMessage(
+					Diagnostic.Kind.WARNING,
+					"Could not generate Yop accessor for [" + type.getQualifiedName() + "] : " + e.getMessage(),
+					type
+				);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Generate the accessor source file for a given type.
+	 * @param type the @Table type
+	 * @throws IOException could not write the generated file
+	 */
+	private void generate(TypeElement type) throws IOException {
+		String packageName = this.packageOf(type);
+		String simpleName = accessorSimpleName(type);
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		String target = type.getQualifiedName().toString();
+		List<FieldAccess> fields = this.fields(type, packageName);
+		boolean handles = fields.stream().anyMatch(field -> field.handle);
+
+		StringBuilder out = new StringBuilder();
+		if (! packageName.isEmpty()) {
+			out.append("package ").append(packageName).append(";\n\n");
+		}
+		out.append("/**\n * Generated by ").append(this.getClass().getName()).append(" for {@link ")
+			.append(target).append("}. Do not edit.\n */\n");
+		out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		out.append("public final class ").append(simpleName)
+			.append(" implements ").append(ACCESSOR_INTERFACE).append("<").append(target).append("> {\n\n");
+
+		out.append("\tprivate static final String[] FIELDS = {");
+		for (int i = 0; i < fields.size(); i++) {
+			out.append(i == 0 ? "" : ", ").append('"').append(fields.get(i).name).append('"');
+		}
+		out.append("};\n\n");
+
+		for (int i = 0; i < fields.size(); i++) {
+			if (fields.get(i).handle) {
+				out.append("\tprivate static final java.lang.invoke.MethodHandle GET_").append(i)
+					.append(" = handle(\"").append(fields.get(i).name).append("\", true);\n");
+				out.append("\tprivate static final java.lang.invoke.MethodHandle SET_").append(i)
+					.append(" = handle(\"").append(fields.get(i).name).append("\", false);\n");
+			}
+		}
+		if (handles) {
+			out.append("\n");
+		}
+
+		out.append("\t@Override\n\tpublic Class<").append(target).append("> getTarget() {\n")
+			.append("\t\treturn ").append(target).append(".class;\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic String[] getFields() {\n\t\treturn FIELDS.clone();\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic ").append(target).append(" newInstance() {\n");
+		if (this.hasVisibleNoArgConstructor(type, packageName)) {
+			out.append("\t\treturn new ").append(target).append("();\n");
+		} else {
+			out.append("\t\treturn org.yop.reflection.Reflection.newInstanceNoArgs(").append(target).append(".class);\n");
+		}
+		out.append("\t}\n\n");
+
+		StringBuilder body = new StringBuilder("switch (field) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			body.append("\tcase ").append(i).append(": return ").append(fields.get(i).read(i, "element")).append(";\n");
+		}
+		body.append("\tdefault: throw new IndexOutOfBoundsException(\"No field #\" + field);\n}\n");
+		method(out, "Object read(" + target + " element, int field)", body, handles);
+
+		body = new StringBuilder("switch (field) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			body.append("\tcase ").append(i).append(": ").append(fields.get(i).write(i, "element", "value")).append("; break;\n");
+		}
+		body.append("\tdefault: throw new IndexOutOfBoundsException(\"No field #\" + field);\n}\n");
+		method(out, "void write(" + target + " element, int field, Object value)", body, handles);
+
+		body = new StringBuilder("return new Object[] {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			body.append("\t").append(fields.get(i).read(i, "element")).append(",\n");
+		}
+		body.append("};\n");
+		method(out, "Object[] bind(" + target + " element)", body, handles);
+
+		body = new StringBuilder();
+		for (int i = 0; i < fields.size(); i++) {
+			body.append("if (row[").append(i).append("] != SKIP) ")
+				.append(fields.get(i).write(i, "element", "row[" + i + "]")).append(";\n");
+		}
+		method(out, "void map(" + target + " element, Object[] row)", body, handles);
+
+		if (handles) {
+			out.append("\t/**\n\t * (").append(target).append(")Object getter or (").append(target)
+				.append(", Object)void setter for a field that cannot be accessed directly.\n\t */\n");
+			out.append("\tprivate static java.lang.invoke.MethodHandle handle(String name, boolean getter) {\n");
+			out.append("\t\tjava.lang.reflect.Field field = org.yop.reflection.Reflection.get(")
+				.append(target).append(".class, name);\n");
+			out.append("\t\ttry {\n");
+			out.append("\t\t\tjava.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.lookup();\n");
+			out.append("\t\t\treturn getter\n");
+			out.append("\t\t\t\t? lookup.unreflectGetter(field).asType(java.lang.invoke.MethodType.methodType(Object.class, ")
+				.append(target).append(".class))\n");
+			out.append("\t\t\t\t: lookup.unreflectSetter(field).asType(java.lang.invoke.MethodType.methodType(void.class, ")
+				.append(target).append(".class, Object.class));\n");
+			out.append("\t\t} catch (IllegalAccessException | RuntimeException e) {\n");
+			out.append("\t\t\tthrow new org.yop.reflection.ReflectionException(\"No method handle for [\" + name + \"]\", e);\n");
+			out.append("\t\t}\n\t}\n\n");
+		}
+		out.setLength(out.length() - 1);
+		out.append("}\n");
+
+		JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedName, type);
+		try (Writer writer = file.openWriter()) {
+			writer.write(out.toString());
+		}
+		this.generated.add(qualifiedName);
+	}
+
+	/**
+	 * Append an accessor method.
+	 * <br>
+	 * If the accessor has method handles, the body is wrapped in a try/catch :
+	 * {@link java.lang.invoke.MethodHandle#invokeExact(Object...)} throws Throwable.
+	 * @param out       the generated source
+	 * @param signature the method signature (return type, name and parameters)
+	 * @param body      the method body, not indented
+	 * @param handles   true if the accessor has method handles
+	 */
+	private static void method(StringBuilder out, String signature, CharSequence body, boolean handles) {
+		String indent = handles ? "\t\t\t" : "\t\t";
+		out.append("\t@Override\n\tpublic ").append(signature).append(" {\n");
+		if (handles) {
+			out.append("\t\ttry {\n");
+		}
+		for (String line : body.toString().split("\n")) {
+			out.append(indent).append(line).append("\n");
+		}
+		if (handles) {
+			out.append("\t\t} catch (RuntimeException | Error e) {\n\t\t\tthrow e;\n");
+			out.append("\t\t} catch (Throwable e) {\n\t\t\tthrow new IllegalStateException(e);\n\t\t}\n");
+		}
+		out.append("\t}\n\n");
+	}
+
+	/**
+	 * Find the fields to generate an accessor for, walking up the class hierarchy.
+	 * <br>
+	 * A field that is hidden by a subclass field with the same name is ignored.
+	 * @param type        the @Table type
+	 * @param packageName the package of the generated accessor
+	 * @return the fields the generated accessor handles
+	 */
+	private List<FieldAccess> fields(TypeElement type, String packageName) {
+		List<FieldAccess> out = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+
+		TypeElement current = type;
+		while (current != null && ! "java.lang.Object".equals(current.getQualifiedName().toString())) {
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				String name = field.getSimpleName().toString();
+				if (! names.add(name) || ! isColumn(field)) {
+					continue;
+				}
+
+				boolean direct = this.isVisible(field, packageName)
+					&& ! field.getModifiers().contains(Modifier.FINAL)
+					&& field.asType().getKind() != TypeKind.TYPEVAR;
+				if (! direct) {
+					this.note("Field [" + name + "] will be accessed using a method handle.", field);
+				}
+				out.add(new FieldAccess(name, this.boxed(field.asType()), ! direct));
+			}
+			current = this.superclass(current);
+		}
+		return out;
+	}
+
+	/**
+	 * Is this field a Yop column field that is not static nor transient ?
+	 * @param field the field to check
+	 * @return true for non static, non transient @Column/@Id fields or any non static, non transient 'id' field.
+	 */
+	private static boolean isColumn(VariableElement field) {
+		Set<Modifier> modifiers = field.getModifiers();
+		if (modifiers.contains(Modifier.STATIC)
+		|| modifiers.contains(Modifier.TRANSIENT)
+		|| hasAnnotation(field, YOP_TRANSIENT)) {
+			return false;
+		}
+		return hasAnnotation(field, COLUMN) || hasAnnotation(field, ID) || "id".equals(field.getSimpleName().toString());
+	}
+
+	/**
+	 * Is there a no-arg constructor the generated accessor can call ?
+	 * @param type        the type to instantiate
+	 * @param packageName the generated accessor package
+	 * @return true if there is a visible no-arg constructor
+	 */
+	private boolean hasVisibleNoArgConstructor(TypeElement type, String packageName) {
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && this.isVisible(constructor, packageName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Is the given member visible from the given package ? (public, or not private and declared in the package)
+	 * @param member      the member (field, method, constructor)
+	 * @param packageName the package name
+	 * @return true if the generated accessor can use this member
+	 */
+	private boolean isVisible(Element member, String packageName) {
+		Set<Modifier> modifiers = member.getModifiers();
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			return true;
+		}
+		return ! modifiers.contains(Modifier.PRIVATE) && packageName.equals(this.packageOf(member));
+	}
+
+	/**
+	 * Can the given type be referenced and instantiated from a class of its package ?
+	 * <br>
+	 * i.e. a top level class or a static member class, with no private type in its enclosing types.
+	 * @param type the type to check
+	 * @return true if the type can be referenced
+	 */
+	private static boolean isReferenceable(TypeElement type) {
+		Element current = type;
+		while (current instanceof TypeElement) {
+			TypeElement typeElement = (TypeElement) current;
+			if (typeElement.getKind() != ElementKind.CLASS || typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			NestingKind nesting = typeElement.getNestingKind();
+			if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+				return false;
+			}
+			if (nesting == NestingKind.MEMBER && ! typeElement.getModifiers().contains(Modifier.STATIC)) {
+				return false;
+			}
+			current = typeElement.getEnclosingElement();
+		}
+		return true;
+	}
+
+	/**
+	 * Write the services file, merging any entry from a previous (incremental) compilation.
+	 */
+	private void writeServices() {
+		Resources.merge(this.processingEnv, SERVICES, this.generated);
+	}
+
+	/**
+	 * Get the superclass of a type
+	 * @param type the type
+	 * @return the superclass type element, or null if no superclass
+	 */
+	private TypeElement superclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		return (TypeElement) ((DeclaredType) superclass).asElement();
+	}
+
+	/**
+	 * The boxed type name of a type, for casts.
+	 * @param type the type
+	 * @return the boxed type name if primitive, else the type name
+	 */
+	private String boxed(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return this.processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).toString();
+		}
+		return type.toString();
+	}
+
+	/**
+	 * The package name of an element.
+	 * @param element the element
+	 * @return the package name, empty for the default package
+	 */
+	private String packageOf(Element element) {
+		return this.processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+	}
+
+	/**
+	 * Print a NOTE message.
+	 * @param message the message
+	 * @param element the element the message is about
+	 */
+	private void note(String message, Element element) {
+		this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+	}
+
+	/**
+	 * Outer$Inner → Outer_Inner_YopAccessor
+	 * @param type the type
+	 * @return the generated accessor simple name
+	 */
+	private static String accessorSimpleName(TypeElement type) {
+		StringBuilder name = new StringBuilder(type.getSimpleName());
+		Element enclosing = type.getEnclosingElement();
+		while (enclosing instanceof TypeElement) {
+			name.insert(0, enclosing.getSimpleName() + "_");
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name.append(SUFFIX).toString();
+	}
+
+	/**
+	 * Check if an element has an annotation, using the annotation qualified name.
+	 * @param element    the element
+	 * @param annotation the annotation qualified name
+	 * @return true if the element is annotated
+	 */
+	static boolean hasAnnotation(Element element, String annotation) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			Element annotationType = mirror.getAnnotationType().asElement();
+			if (annotationType instanceof TypeElement
+			&& ((TypeElement) annotationType).getQualifiedName().contentEquals(annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * How to read/write a field in the generated code : direct access or GET_i/SET_i method handles.
+	 */
+	private static class FieldAccess {
+		private final String name;
+		private final String boxed;
+		private final boolean handle;
+
+		/**
+		 * @param name   the field name
+		 * @param boxed  the (boxed) field type
+		 * @param handle true if the field must be accessed using method handles
+		 */
+		private FieldAccess(String name, String boxed, boolean handle) {
+			this.name = name;
+			this.boxed = boxed;
+			this.handle = handle;
+		}
+
+		/**
+		 * @param index   the field index
+		 * @param element the element variable
+		 * @return the read expression
+		 */
+		private String read(int index, String element) {
+			return this.handle
+				? "(Object) GET_" + index + ".invokeExact(" + element + ")"
+				: element + "." + this.name;
+		}
+
+		/**
+		 * @param index   the field index
+		 * @param element the element variable
+		 * @param value   the value expression, of type Object
+		 * @return the write statement, with no trailing ';'
+		 */
+		private String write(int index, String element, String value) {
+			return this.handle
+				? "SET_" + index + ".invokeExact(" + element + ", " + value + ")"
+				: element + "." + this.name + " = (" + this.boxed + ") " + value;
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " (" + this.boxed + ")";
+		}
+	}
+}
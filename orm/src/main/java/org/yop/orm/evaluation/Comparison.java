@@ -2,6 +2,7 @@ package org.yop.orm.evaluation;
 
 import com.google.gson.JsonElement;
 import org.apache.commons.lang3.StringUtils;
+import org.yop.orm.map.Accessors;
 import org.yop.orm.model.JsonAble;
 import org.yop.orm.query.Context;
 import org.yop.orm.query.join.IJoin;
@@ -77,7 +78,7 @@ public class Comparison implements Evaluation {
 	public <T> void fromJSON(Context<T> context, JsonElement element, Config config) {
 		Evaluation.super.fromJSON(context, element, config);
 		this.field = Reflection.get(context.getTarget(), element.getAsJsonObject().get(FIELD).getAsString());
-		this.getter = o -> Reflection.readField(this.field, o);
+		this.getter = o -> Accessors.read(this.field, o);
 		JsonElement ref = element.getAsJsonObject().get(REF);
 
 		if (element.getAsJsonObject().has(REF_TYPE)) {
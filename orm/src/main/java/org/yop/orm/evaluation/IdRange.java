@@ -0,0 +1,80 @@
+package org.yop.orm.evaluation;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.yop.orm.model.JsonAble;
+import org.yop.orm.query.Context;
+import org.yop.orm.sql.Config;
+import org.yop.orm.sql.SQLExpression;
+import org.yop.orm.util.ORMUtil;
+
+import java.lang.reflect.Field;
+
+/**
+ * ID restriction on a range of values, bounds included : '[ID column] {@literal >}= ? AND [ID column] {@literal <}= ?'.
+ * <br>
+ * This was originally added to split a {@link org.yop.orm.query.sql.Select} into ID partitions.
+ */
+public class IdRange implements Evaluation {
+
+	public static final String FROM = "from";
+	public static final String TO   = "to";
+
+	/** Lower bound, included */
+	private Comparable from;
+
+	/** Upper bound, included */
+	private Comparable to;
+
+	private IdRange() {}
+
+	/**
+	 * Default constructor : gimme the bounds !
+	 * @param from the lower bound (included). Must not be null.
+	 * @param to   the upper bound (included). Must not be null.
+	 */
+	public IdRange(Comparable from, Comparable to) {
+		this();
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * Simply build a SQL portion : '[Context][ID column] {@literal >}= ? AND [Context][ID column] {@literal <}= ?'
+	 * and fill the parameters.
+	 */
+	@Override
+	public <Y> CharSequence toSQL(Context<Y> context, Config config) {
+		String idColumn = ORMUtil.getIdColumn(context, config);
+		Field idField = ORMUtil.getIdField(context.getTarget());
+		return SQLExpression.join(
+			" ",
+			idColumn,
+			Operator.GE.toSQL(),
+			SQLExpression.parameter(idColumn + Operator.GE.toSQL() + this.from, this.from, idField, config),
+			"AND",
+			idColumn,
+			Operator.LE.toSQL(),
+			SQLExpression.parameter(idColumn + Operator.LE.toSQL() + this.to, this.to, idField, config)
+		);
+	}
+
+	@Override
+	public <T> JsonElement toJSON(Context<T> context) {
+		JsonObject json = Evaluation.super.toJSON(context).getAsJsonObject();
+		json.add(FROM, JsonAble.jsonValue(context, this.from));
+		json.add(TO, JsonAble.jsonValue(context, this.to));
+		return json;
+	}
+
+	@Override
+	public <T> void fromJSON(Context<T> context, JsonElement element, Config config) {
+		Class<?> idType = ORMUtil.getIdField(context.getTarget()).getType();
+		Gson gson = new Gson();
+		this.from = (Comparable) gson.fromJson(element.getAsJsonObject().get(FROM), idType);
+		this.to   = (Comparable) gson.fromJson(element.getAsJsonObject().get(TO), idType);
+	}
+}
@@ -5,6 +5,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.yop.orm.exception.YopSerializableQueryException;
+import org.yop.orm.map.Accessors;
 import org.yop.orm.query.Context;
 import org.yop.orm.sql.Config;
 import org.yop.orm.sql.SQLExpression;
@@ -92,7 +93,7 @@ public class In implements Evaluation {
 				null
 			);
 		}
-		this.getter = o -> Reflection.readField(field, o);
+		this.getter = o -> Accessors.read(field, o);
 		Gson gson = new Gson();
 		JsonArray values = element.getAsJsonObject().get(VALUES).getAsJsonArray();
 		for (JsonElement value : values) {
@@ -41,6 +41,14 @@ public class NaturalKey<T> implements Evaluation {
 		this.reference = reference;
 	}
 
+	/**
+	 * Get the object from which is taken the Natural ID.
+	 * @return {@link #reference}
+	 */
+	T getReference() {
+		return this.reference;
+	}
+
 	@Override
 	public <U> SQLExpression toSQL(Context<U> context, Config config) {
 		List<Field> naturalKeys = ORMUtil.getNaturalKeyFields(this.reference.getClass());
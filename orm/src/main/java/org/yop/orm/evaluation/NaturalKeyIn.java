@@ -0,0 +1,144 @@
+package org.yop.orm.evaluation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.yop.orm.query.Context;
+import org.yop.orm.sql.Config;
+import org.yop.orm.sql.SQLExpression;
+import org.yop.orm.util.ORMUtil;
+import org.yop.reflection.Reflection;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Natural Key restriction on several object references. Easier on the DBMS than an {@link Or} of {@link NaturalKey}.
+ * <br>
+ * The SQL portion depends on the natural key and on the dialect :
+ * <ul>
+ *     <li>single field natural key : '[column] IN (?,?...)'</li>
+ *     <li>
+ *         composite natural key and {@link org.yop.orm.sql.dialect.IDialect#rowValueIn()} :
+ *         '([column 1],[column 2]) IN ((?,?),(?,?)...)'
+ *     </li>
+ *     <li>
+ *         composite natural key with no row value support, or a reference with a null natural key field :
+ *         fall back to {@link NaturalKey} evaluations joined with " OR "
+ *     </li>
+ * </ul>
+ * There is no chunking here : the caller should keep the number of parameters below {@link Config#maxParams()}.
+ * @param <T> the target type
+ */
+public class NaturalKeyIn<T> implements Evaluation {
+
+	/** JSON query serialization : the reference objects will be serialized as a JSON array for that key. */
+	public static final String REFERENCES = "references";
+
+	/** The objects from which are taken the Natural IDs */
+	private final List<T> references = new ArrayList<>();
+
+	private NaturalKeyIn() {}
+
+	/**
+	 * Default constructor : give me the object references so I can read the natural IDs !
+	 * @param references the target object references. Can be empty. Must not be null.
+	 */
+	public NaturalKeyIn(Collection<T> references) {
+		this();
+		this.references.addAll(references);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * Build a '[column] IN (?,?...)' or a '([column 1],[column 2]) IN ((?,?),(?,?)...)' SQL portion if possible.
+	 * See {@link NaturalKeyIn}.
+	 * <br>
+	 * If {@link #references} is not empty, the output SQL is wrapped into parentheses.
+	 */
+	@Override
+	public <U> CharSequence toSQL(Context<U> context, Config config) {
+		if (this.references.isEmpty()) {
+			return "";
+		}
+
+		List<Field> naturalKeys = ORMUtil.getNaturalKeyFields(context.getTarget());
+		boolean rowValues = naturalKeys.size() == 1 || config.getDialect().rowValueIn();
+
+		List<T> complete = new ArrayList<>();
+		List<CharSequence> evaluations = new ArrayList<>();
+		for (T reference : this.references) {
+			if (rowValues && naturalKeys.stream().allMatch(field -> Reflection.readField(field, reference) != null)) {
+				complete.add(reference);
+			} else {
+				evaluations.add(new NaturalKey<>(reference).toSQL(context, config));
+			}
+		}
+
+		if (! complete.isEmpty()) {
+			evaluations.add(0, this.toSQLIn(complete, naturalKeys, context, config));
+		}
+		return new SQLExpression("(").append(SQLExpression.join(" OR ", evaluations)).append(")");
+	}
+
+	@Override
+	public <U> JsonElement toJSON(Context<U> context) {
+		JsonObject out = new JsonObject();
+		out.addProperty(TYPE, this.getClass().getSimpleName());
+		JsonArray references = new JsonArray();
+		for (T reference : this.references) {
+			references.add(new NaturalKey<>(reference).toJSON(context).getAsJsonObject().get(NaturalKey.REFERENCE));
+		}
+		out.add(REFERENCES, references);
+		return out;
+	}
+
+	@Override
+	public <U> void fromJSON(Context<U> context, JsonElement element, Config config) {
+		for (JsonElement referenceJSON : element.getAsJsonObject().get(REFERENCES).getAsJsonArray()) {
+			JsonObject naturalKeyJSON = new JsonObject();
+			naturalKeyJSON.add(NaturalKey.REFERENCE, referenceJSON);
+			NaturalKey<T> naturalKey = Evaluation.newInstance(NaturalKey.class.getSimpleName());
+			naturalKey.fromJSON(context, naturalKeyJSON, config);
+			this.references.add(naturalKey.getReference());
+		}
+	}
+
+	/**
+	 * Build the IN clause for references whose natural key fields are all set.
+	 * @param references  the references
+	 * @param naturalKeys the natural key fields
+	 * @param context     the current context (→ column prefix)
+	 * @param config      the SQL config
+	 * @return the SQL portion : '[column] IN (?,?...)' or '([column 1],[column 2]) IN ((?,?),(?,?)...)'
+	 */
+	private SQLExpression toSQLIn(List<T> references, List<Field> naturalKeys, Context<?> context, Config config) {
+		List<String> columns = naturalKeys
+			.stream()
+			.map(field -> Evaluation.columnName(field, context, config))
+			.collect(Collectors.toList());
+
+		List<List<SQLExpression>> rows = new ArrayList<>(references.size());
+		for (T reference : references) {
+			List<SQLExpression> row = new ArrayList<>(naturalKeys.size());
+			for (Field field : naturalKeys) {
+				Object value = Reflection.readField(field, reference);
+				String name = context.getPath(config) + "#" + field.getName() + " = " + "?";
+				row.add(SQLExpression.parameter(name, value, field, config));
+			}
+			rows.add(row);
+		}
+
+		if (naturalKeys.size() == 1) {
+			return config.getDialect().in(
+				columns.get(0),
+				rows.stream().map(row -> row.get(0)).collect(Collectors.toList())
+			);
+		}
+		return config.getDialect().in(columns, rows);
+	}
+}
@@ -113,6 +113,8 @@ public class Table implements Comparable<Table> {
 
 	/**
 	 * Find all the tables required to map the Yopable classes with the given package prefix
+	 * <br>
+	 * The Yopable classes are found using {@link ORMUtil#yopables(ClassLoader)} : build time index or classpath scan.
 	 * @param packageName the package name. Can be fickle.
 	 * @param classLoader   the class loader to use
 	 * @return the table objects that can be used to get INSERT queries
@@ -0,0 +1,335 @@
+package org.yop.orm.map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.util.ORMUtil;
+import org.yop.reflection.FieldAccessor;
+import org.yop.reflection.Reflection;
+import org.yop.reflection.ReflectionException;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Entry point to read/write Yopable fields and create Yopable instances.
+ * <br>
+ * If a {@link YopableAccessor} was generated for the class (and the field), it is used.
+ * Else, this is a simple delegation to the cached {@link Reflection#accessor(Field)}.
+ * <br><br>
+ * Resolve the access once and keep it when accessing a lot of elements :
+ * {@link #instantiator(Class)}, {@link #handle(Class, Field)}, {@link #id(Class)} or {@link #row(Class, Collection)}.
+ * {@link #read(Field, Object)} and {@link #write(Field, Object, Object)} look the field up on every call.
+ * <br><br>
+ * The generated accessors are loaded using {@link ServiceLoader}, once per class loader.
+ */
+public final class Accessors {
+
+	private static final Logger logger = LoggerFactory.getLogger(Accessors.class);
+
+	/** Generated accessors, by class loader then by target class. Weak keys to not retain old class loaders. */
+	private static final Map<ClassLoader, Map<Class<?>, YopableAccessor<?>>> LOADED = Collections.synchronizedMap(
+		new WeakHashMap<>()
+	);
+
+	/** The accessor binding for a class : its generated accessor (if any) and the resolved field handles */
+	private static final ClassValue<Binding> BINDINGS = new ClassValue<Binding>() {
+		@Override
+		protected Binding computeValue(Class<?> type) {
+			return new Binding(type, generatedAccessors(type.getClassLoader()).get(type));
+		}
+	};
+
+	private Accessors() {}
+
+	/**
+	 * Is there a generated accessor for the given class ?
+	 * @param clazz the class
+	 * @return true if a generated {@link YopableAccessor} is registered for the class
+	 */
+	public static boolean isGenerated(Class<?> clazz) {
+		return BINDINGS.get(clazz).accessor != null;
+	}
+
+	/**
+	 * Get the instantiator of a class : the generated accessor or a reflection no-arg constructor call.
+	 * @param clazz the class to instantiate
+	 * @param <T> the class type
+	 * @return a T supplier. It throws a {@link ReflectionException} if there is no generated accessor and no no-arg constructor.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<T> instantiator(Class<T> clazz) {
+		return (Supplier<T>) BINDINGS.get(clazz).instantiator;
+	}
+
+	/**
+	 * Create a new instance of the given class.
+	 * <br>
+	 * See {@link #instantiator(Class)} to create a lot of instances.
+	 * @param clazz the class to instantiate
+	 * @param <T> the class type
+	 * @return a new instance of T
+	 * @throws ReflectionException no generated accessor and could not instantiate using reflection
+	 */
+	public static <T> T newInstance(Class<T> clazz) {
+		return instantiator(clazz).get();
+	}
+
+	/**
+	 * Get the resolved handle to read/write a field on the instances of a class.
+	 * @param type  the class of the instances
+	 * @param field the field (declared in the class or a superclass)
+	 * @return the field handle : generated accessor index or reflection
+	 */
+	public static Handle handle(Class<?> type, Field field) {
+		return BINDINGS.get(type).handle(field);
+	}
+
+	/**
+	 * Get the resolved handle to read/write the ID field of a class.
+	 * @param type the Yopable class
+	 * @return the ID field handle
+	 * @throws org.yop.orm.exception.YopMappingException no valid ID field for the class
+	 */
+	public static Handle id(Class<?> type) {
+		return BINDINGS.get(type).id();
+	}
+
+	/**
+	 * Get the row accessor for every @Column field of a class. It is built once per class.
+	 * @param type the Yopable class
+	 * @param <T> the Yopable type
+	 * @return the row accessor of {@link ORMUtil#getColumnFields(Class)}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> RowAccessor<T> columns(Class<T> type) {
+		return (RowAccessor<T>) BINDINGS.get(type).columns();
+	}
+
+	/**
+	 * Build a row accessor for some fields of a class : the generated row mapper and parameter binder, if any.
+	 * @param type   the class of the instances
+	 * @param fields the fields, in the row order
+	 * @param <T> the class type
+	 * @return a new row accessor
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> RowAccessor<T> row(Class<T> type, Collection<Field> fields) {
+		Binding binding = BINDINGS.get(type);
+		Field[] array = fields.toArray(new Field[0]);
+		int[] indexes = new int[array.length];
+		Handle[] handles = new Handle[array.length];
+		for (int i = 0; i < array.length; i++) {
+			indexes[i] = binding.indexes.getOrDefault(array[i], -1);
+			handles[i] = binding.handle(array[i]);
+		}
+		return new RowAccessor<>(
+			(Supplier<T>) binding.instantiator,
+			(YopableAccessor<T>) binding.accessor,
+			array,
+			indexes,
+			handles
+		);
+	}
+
+	/**
+	 * Read a field value on an element.
+	 * <br>
+	 * The field handle is looked up on every call. See {@link #handle(Class, Field)}.
+	 * @param field the field to read
+	 * @param onto  the element to read
+	 * @return the field value
+	 * @throws ReflectionException the field could not be read
+	 */
+	public static Object read(Field field, Object onto) {
+		return onto == null ? Reflection.accessor(field).get(null) : handle(onto.getClass(), field).read(onto);
+	}
+
+	/**
+	 * Write a field value on an element.
+	 * <br>
+	 * The field handle is looked up on every call. See {@link #handle(Class, Field)}.
+	 * @param field the field to write
+	 * @param onto  the element to write onto
+	 * @param value the value to set
+	 * @throws ReflectionException the field could not be set
+	 */
+	public static void write(Field field, Object onto, Object value) {
+		if (onto == null) {
+			Reflection.accessor(field).set(null, value);
+			return;
+		}
+		handle(onto.getClass(), field).write(onto, value);
+	}
+
+	/**
+	 * Load the generated accessors that are visible from a class loader.
+	 * <br>
+	 * An accessor that cannot be loaded is logged and ignored.
+	 * @param classLoader the class loader. If null, the system class loader is used.
+	 * @return the generated accessors, by target class
+	 */
+	private static Map<Class<?>, YopableAccessor<?>> generatedAccessors(ClassLoader classLoader) {
+		ClassLoader loader = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+		return LOADED.computeIfAbsent(loader, key -> {
+			Map<Class<?>, YopableAccessor<?>> accessors = new HashMap<>();
+			Iterator<YopableAccessor> iterator = ServiceLoader.load(YopableAccessor.class, key).iterator();
+			while (true) {
+				try {
+					if (! iterator.hasNext()) {
+						break;
+					}
+					YopableAccessor<?> accessor = iterator.next();
+					accessors.put(accessor.getTarget(), accessor);
+				} catch (ServiceConfigurationError e) {
+					logger.warn("Could not load a generated Yopable accessor. Reflection will be used.", e);
+				}
+			}
+			logger.debug("[{}] generated Yopable accessors for class loader [{}]", accessors.size(), key);
+			return accessors;
+		});
+	}
+
+	/**
+	 * A resolved field access, for a given class : no lookup when reading/writing.
+	 */
+	public interface Handle {
+		/**
+		 * Read the field value.
+		 * @param onto the element to read
+		 * @return the field value
+		 * @throws ReflectionException the field could not be read
+		 */
+		Object read(Object onto);
+
+		/**
+		 * Write the field value.
+		 * @param onto  the element to write onto
+		 * @param value the value to set
+		 * @throws ReflectionException the field could not be set
+		 */
+		void write(Object onto, Object value);
+	}
+
+	/**
+	 * A field handle that uses the generated accessor index of the field.
+	 */
+	private static class GeneratedHandle implements Handle {
+		private final YopableAccessor<Object> accessor;
+		private final int index;
+		private final Field field;
+
+		private GeneratedHandle(YopableAccessor<Object> accessor, int index, Field field) {
+			this.accessor = accessor;
+			this.index = index;
+			this.field = field;
+		}
+
+		@Override
+		public Object read(Object onto) {
+			try {
+				return this.accessor.read(onto, this.index);
+			} catch (RuntimeException e) {
+				throw new ReflectionException(
+					"Could not read [" + Reflection.fieldToString(this.field) + "] on [" + onto + "]",
+					e
+				);
+			}
+		}
+
+		@Override
+		public void write(Object onto, Object value) {
+			try {
+				this.accessor.write(onto, this.index, value);
+			} catch (RuntimeException e) {
+				throw new ReflectionException(
+					"Unable to set " +
+					"field [" + Reflection.fieldToString(this.field) + "] " +
+					"value [" + value + "] " +
+					"onto  [" + onto + "]",
+					e
+				);
+			}
+		}
+	}
+
+	/**
+	 * A class generated accessor (if any), the index of each of its fields and the resolved field handles.
+	 */
+	private static class Binding {
+		private final Class<?> target;
+		private final YopableAccessor<Object> accessor;
+		private final Supplier<?> instantiator;
+		private final Map<Field, Integer> indexes = new HashMap<>();
+		private final Map<Field, Handle> handles = new ConcurrentHashMap<>();
+
+		private volatile Handle id;
+		private volatile RowAccessor<?> columns;
+
+		@SuppressWarnings("unchecked")
+		private Binding(Class<?> target, YopableAccessor<?> accessor) {
+			this.target = target;
+			this.accessor = (YopableAccessor<Object>) accessor;
+			if (accessor == null) {
+				this.instantiator = () -> Reflection.newInstanceNoArgs(target);
+				return;
+			}
+
+			this.instantiator = accessor::newInstance;
+			String[] fields = accessor.getFields();
+			for (int i = 0; i < fields.length; i++) {
+				Field field = Reflection.get(target, fields[i]);
+				if (field != null) {
+					this.indexes.put(field, i);
+				}
+			}
+		}
+
+		/**
+		 * Get the handle of a field : the generated accessor, if it handles the field, or reflection.
+		 * @param field the field
+		 * @return the field handle, resolved once
+		 */
+		private Handle handle(Field field) {
+			return this.handles.computeIfAbsent(field, key -> {
+				Integer index = this.indexes.get(key);
+				if (index == null) {
+					FieldAccessor accessor = Reflection.accessor(key);
+					return new Handle() {
+						@Override
+						public Object read(Object onto) {
+							return accessor.get(onto);
+						}
+
+						@Override
+						public void write(Object onto, Object value) {
+							accessor.set(onto, value);
+						}
+					};
+				}
+				return new GeneratedHandle(this.accessor, index, key);
+			});
+		}
+
+		/**
+		 * @return the ID field handle, resolved once
+		 */
+		private Handle id() {
+			if (this.id == null) {
+				this.id = this.handle(ORMUtil.getIdField(this.target));
+			}
+			return this.id;
+		}
+
+		/**
+		 * @return the @Column fields row accessor, built once
+		 */
+		private RowAccessor<?> columns() {
+			if (this.columns == null) {
+				this.columns = row(this.target, ORMUtil.getColumnFields(this.target));
+			}
+			return this.columns;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.yop.orm.map;
+
+import org.yop.orm.util.ORMUtil;
+import org.yop.reflection.Reflection;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Deep copy of a Yopable data graph.
+ * <br>
+ * The copied state is the mapped state :
+ * <ul>
+ *     <li>@Column fields : the value is copied as is (no copy of the value itself)</li>
+ *     <li>Yopable relations : the related object is deep copied</li>
+ *     <li>Collection relations : the collection content is deep copied into the copy collection</li>
+ * </ul>
+ * The graph shape is preserved : an object that is reachable through several paths (or cycles) is copied once.
+ * <br><br>
+ * <b>⚠⚠⚠ Mutable @Column values (e.g. java.util.Date) are shared between the source and the copy ! ⚠⚠⚠</b>
+ */
+public final class DeepCopy {
+
+	private DeepCopy() {}
+
+	/**
+	 * Deep copy some Yopable objects. See {@link DeepCopy}.
+	 * @param elements the elements to copy
+	 * @param <T> the elements type
+	 * @return a {@link LinkedHashSet} of the copies, in the elements iteration order
+	 */
+	public static <T> Set<T> copy(Collection<T> elements) {
+		Map<Object, Object> copies = new IdentityHashMap<>();
+		Set<T> out = new LinkedHashSet<>(elements.size());
+		for (T element : elements) {
+			out.add(copy(element, copies));
+		}
+		return out;
+	}
+
+	/**
+	 * Deep copy a Yopable object. See {@link DeepCopy}.
+	 * @param element the element to copy
+	 * @param <T> the element type
+	 * @return the copy of the element, null if the element is null
+	 */
+	public static <T> T copy(T element) {
+		return copy(element, new IdentityHashMap<>());
+	}
+
+	/**
+	 * Deep copy an element.
+	 * @param element the element to copy
+	 * @param copies  the already copied objects : source → copy
+	 * @param <T> the element type
+	 * @return the copy of the element (the existing copy if the element was already copied)
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T element, Map<Object, Object> copies) {
+		if (element == null) {
+			return null;
+		}
+		if (copies.containsKey(element)) {
+			return (T) copies.get(element);
+		}
+
+		Class<T> clazz = (Class<T>) element.getClass();
+		RowAccessor<T> columns = Accessors.columns(clazz);
+		T copy = columns.newInstance();
+		copies.put(element, copy);
+		columns.write(copy, columns.read(element));
+
+		for (Field field : ORMUtil.getJoinedFields(clazz)) {
+			Object value = Accessors.read(field, element);
+			if (value == null) {
+				Accessors.write(field, copy, null);
+			} else if (value instanceof Collection) {
+				Collection<Object> target = (Collection<Object>) Accessors.read(field, copy);
+				if (target == null) {
+					target = (Collection<Object>) Reflection.newInstanceNoArgs(value.getClass());
+					Accessors.write(field, copy, target);
+				}
+				target.clear();
+				for (Object item : (Collection<Object>) value) {
+					target.add(copy(item, copies));
+				}
+			} else {
+				Accessors.write(field, copy, copy(value, copies));
+			}
+		}
+		return copy;
+	}
+}
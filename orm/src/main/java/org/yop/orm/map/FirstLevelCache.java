@@ -4,7 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.orm.sql.Results;
 import org.yop.orm.util.ORMUtil;
-import org.yop.reflection.Reflection;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
@@ -113,7 +112,7 @@ public class FirstLevelCache {
 
 		Comparable sourceID = ORMUtil.readId(source);
 		if (! this.associationsCache.get(collectionField).containsKey(sourceID)) {
-			Collection<Object> children = (Collection) Reflection.readField(collectionField, source);
+			Collection<Object> children = (Collection) Accessors.read(collectionField, source);
 			this.associationsCache.get(collectionField).put(
 				sourceID,
 				children.stream().collect(Collectors.toMap(ORMUtil::readId, Function.identity()))
@@ -123,7 +122,7 @@ public class FirstLevelCache {
 		Comparable targetID = ORMUtil.readId(target);
 		Map<Comparable, Object> fieldValueAsMap = this.associationsCache.get(collectionField).get(sourceID);
 		if (! fieldValueAsMap.containsKey(targetID)) {
-			((Collection) Reflection.readField(collectionField, source)).add(target);
+			((Collection) Accessors.read(collectionField, source)).add(target);
 			fieldValueAsMap.put(targetID, target);
 		}
 		return (T) fieldValueAsMap.get(targetID);
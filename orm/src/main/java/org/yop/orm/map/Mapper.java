@@ -6,10 +6,13 @@ import org.yop.orm.annotations.Column;
 import org.yop.orm.exception.YopMapperException;
 import org.yop.orm.exception.YopMappingException;
 import org.yop.orm.exception.YopSQLException;
+import org.yop.orm.sql.Config;
 import org.yop.orm.sql.Results;
 import org.yop.orm.transform.ITransformer;
+import org.yop.orm.util.EntityMetadata;
 import org.yop.orm.util.ORMUtil;
 import org.yop.reflection.Reflection;
+import org.yop.reflection.ReflectionException;
 
 import java.lang.reflect.Field;
 import java.util.*;
@@ -20,6 +23,8 @@ import java.util.*;
  * <b>This mapper is pretty basic for now</b>
  * <br>
  * A {@link FirstLevelCache} is used when reading a ResultSet, but it might not be very effective.
+ * <br><br>
+ * If {@link Config#pipelinedMapping()} is set, the rows are mapped using a {@link MappingPipeline}.
  */
 public class Mapper {
 
@@ -37,9 +42,10 @@ public class Mapper {
 	 */
 	public static <T> Set<T> map(Results results, Class<T> clazz, FirstLevelCache cache) {
 		try {
-			return map(results, clazz, ORMUtil.getTargetName(clazz), cache);
-		} catch (IllegalAccessException e) {
-			throw new YopMapperException("Error mapping resultset to [" + clazz.getName() + "]", e);
+			String context = ORMUtil.getTargetName(clazz);
+			return results.getQuery().getConfig().pipelinedMapping()
+				? MappingPipeline.map(results, clazz, context, cache)
+				: map(results, clazz, context, cache);
 		} catch (YopSQLException e) {
 			throw new YopSQLException(
 				"An SQL error occurred mapping resultset to [" + clazz.getName() + "]",
@@ -61,27 +67,128 @@ public class Mapper {
 	 * @param cache   First level cache to use
 	 * @param <T>     the target type
 	 * @return a {@link LinkedHashSet} of Ts from the result set. (The order can be quite important with an ORDER BY).
-	 * @throws IllegalAccessException could not read a field
-	 * @throws YopSQLException        error reading the resultset
+	 * @throws ReflectionException could not instantiate the target or read/write a field
+	 * @throws YopSQLException     error reading the resultset
 	 */
-	private static <T> Set<T> map(
-		Results results,
-		Class<T> clazz,
-		String context,
-		FirstLevelCache cache)
-		throws IllegalAccessException {
+	private static <T> Set<T> map(Results results, Class<T> clazz, String context, FirstLevelCache cache) {
 
 		Map<Comparable, T> out = new LinkedHashMap<>();
+		Row row = new ResultsRow(results);
+		String separator = results.getQuery().getConfig().sqlSeparator();
 		while (results.getCursor().next()) {
-			T element = Reflection.newInstanceNoArgs(clazz);
-			element = mapSimpleFields(results, element, context, cache);
-			element = searchForSelf(element, out, cache);
-			mapRelationFields(results, element, context, cache);
-			out.put(ORMUtil.readId(element), element);
+			link(row, clazz, context, separator, out, cache);
 		}
 		return new LinkedHashSet<>(out.values());
 	}
 
+	/**
+	 * Map a row onto the target class and link the related objects. Deduplicate using the first level cache.
+	 * @param row       the current row
+	 * @param clazz     the target class
+	 * @param context   the root context
+	 * @param separator the context separator. See {@link Config#sqlSeparator()}.
+	 * @param out       the elements that were already mapped, by ID. The row element is added.
+	 * @param cache     First level cache to use
+	 * @param <T> the target type
+	 */
+	static <T> void link(
+		Row row,
+		Class<T> clazz,
+		String context,
+		String separator,
+		Map<Comparable, T> out,
+		FirstLevelCache cache) {
+
+		T element = row.element(clazz, null, context, cache);
+		element = searchForSelf(element, out, cache);
+		mapRelationFields(row, element, context, separator, cache);
+		out.put(ORMUtil.readId(element), element);
+	}
+
+	/**
+	 * Map every context of the current row onto new instances. No cache, no link between the instances.
+	 * <br>
+	 * This is the costly part of the mapping (instantiation, SQL reads, transformers),
+	 * that {@link MappingPipeline} runs on worker threads.
+	 * <br>
+	 * <b>⚠⚠⚠ This method DOES NOT iterate over the resultset ! ⚠⚠⚠</b>
+	 * @param results   the SQL query results
+	 * @param clazz     the target class for the context
+	 * @param context   the context
+	 * @param separator the context separator. See {@link Config#sqlSeparator()}.
+	 * @param out       context → new instance, mapped from the row. Contexts with no data on the row are skipped.
+	 * @throws YopMapperException Unable to map a field, because of an underlying exception
+	 */
+	static void hydrate(Results results, Class<?> clazz, String context, String separator, Map<String, Object> out) {
+		Object element = results.rowAccessor(context, clazz).newInstance();
+		mapFields(results, element, context);
+		out.put(context, element);
+
+		for (Field field : ORMUtil.getJoinedFields(clazz)) {
+			Class<?> targetClass = relationTarget(field);
+			if (targetClass == null) {
+				// Unsupported relation : see mapRelationFields
+				continue;
+			}
+
+			String newContext = context + separator + field.getName() + separator + ORMUtil.getTargetName(targetClass);
+			if (!results.noContext(newContext, targetClass)) {
+				hydrate(results, targetClass, newContext, separator, out);
+			}
+		}
+	}
+
+	/**
+	 * Find the java type of the selected columns of a context and its sub contexts :
+	 * the type {@link #read(Results, Field, String)} reads the column as.
+	 * <br>
+	 * The current row is not read : {@link MappingPipeline} uses this to read the rows through the column codecs.
+	 * @param results   the SQL query results
+	 * @param clazz     the target class for the context
+	 * @param context   the context
+	 * @param separator the context separator. See {@link Config#sqlSeparator()}.
+	 * @param out       column alias → java type to read the column as
+	 */
+	static void columnTypes(Results results, Class<?> clazz, String context, String separator, Map<String, Class<?>> out) {
+		for (Map.Entry<Field, String> column : results.selectedColumns(context, clazz).entrySet()) {
+			out.put(column.getValue(), columnType(column.getKey()));
+		}
+
+		for (Field field : ORMUtil.getJoinedFields(clazz)) {
+			Class<?> targetClass = relationTarget(field);
+			if (targetClass == null) {
+				continue;
+			}
+			String newContext = context + separator + field.getName() + separator + ORMUtil.getTargetName(targetClass);
+			if (results.hasContext(newContext)) {
+				columnTypes(results, targetClass, newContext, separator, out);
+			}
+		}
+	}
+
+	/**
+	 * The target class of a relation field.
+	 * @param field the relation field
+	 * @return the collection element type or the field type, null if the relation is not supported
+	 */
+	private static Class<?> relationTarget(Field field) {
+		if (ORMUtil.isCollection(field)) {
+			return ORMUtil.getRelationFieldType(field);
+		}
+		return ORMUtil.isYopable(field) ? field.getType() : null;
+	}
+
+	/**
+	 * The java type a @Column field column is read as :
+	 * the column type for an enum (see {@link #enumValue(Field, Object)}), the field type otherwise.
+	 * @param field the @Column field
+	 * @return the type to read the column as
+	 */
+	private static Class<?> columnType(Field field) {
+		Class<?> fieldType = field.getType();
+		return fieldType.isEnum() ? EntityMetadata.column(field).getType() : fieldType;
+	}
+
 	/**
 	 * Map simple fields from a Resultset line for a given context.
 	 * <br>
@@ -109,10 +216,33 @@ public class Mapper {
 			return fromCache;
 		}
 
-		Collection<Field> fields = ORMUtil.getColumnFields(element.getClass());
-		for (Field field : fields) {
+		mapFields(results, element, context);
+		return cache.put(element);
+	}
+
+	/**
+	 * Map simple fields from a Resultset line for a given context. The cache is not used.
+	 * <br>
+	 * The fields whose column is not in the results are skipped. See {@link Results#selectedColumns(String, Class)}.
+	 * <br>
+	 * The values are read, then written at once using the context {@link Results#rowAccessor(String, Class)}.
+	 * <br>
+	 * <b>⚠⚠⚠ This method DOES NOT iterate over the resultset ! ⚠⚠⚠</b>
+	 * @param results the SQL query results
+	 * @param element the target element
+	 * @param context the target element context
+	 * @throws YopMapperException Unable to map a field, because of an underlying exception
+	 */
+	@SuppressWarnings("unchecked")
+	private static void mapFields(Results results, Object element, String context) {
+		// Column not selected (e.g. projection, see Select#columns) : the field keeps its default value
+		Map<Field, String> columns = results.selectedColumns(context, element.getClass());
+		Object[] values = new Object[columns.size()];
+		int i = 0;
+		for (Map.Entry<Field, String> column : columns.entrySet()) {
+			Field field = column.getKey();
 			try {
-				setFieldValue(field, element, context, results);
+				values[i++] = fieldValue(field, column.getValue(), results);
 			} catch (RuntimeException e) {
 				throw new YopMapperException(
 					"Unable to map field [" + Reflection.fieldToString(field) + "] " +
@@ -121,12 +251,19 @@ public class Mapper {
 				);
 			}
 		}
-		return cache.put(element);
+
+		try {
+			results.rowAccessor(context, (Class<Object>) element.getClass()).write(element, values);
+		} catch (RuntimeException e) {
+			throw new YopMapperException("Unable to map fields for context [" + context + "] from result set", e);
+		}
 	}
 
 	/**
 	 * Read the current results row for the given field and context.
 	 * <br>
+	 * The column is read using {@link Results#read(String, Class)} : the JDBC codec is chosen once per column.
+	 * <br>
 	 * <b>⚠⚠⚠ This method DOES NOT iterate over the resultset ! ⚠⚠⚠</b>
 	 * @param results the SQL query results
 	 * @param field   the target element field
@@ -135,29 +272,30 @@ public class Mapper {
 	 * @throws org.yop.orm.exception.YopSQLException an error occurred reading the resultset
 	 */
 	static Object read(Results results, Field field, String context) {
-		String columnName = ORMUtil.getColumnName(field);
-		columnName = context + results.getQuery().getConfig().sqlSeparator() + columnName;
-		String shortened = results.getQuery().getShortened(columnName);
+		return readColumn(results, field, results.alias(context, field));
+	}
 
-		Object rawValue = results.getCursor().getObject(shortened);
-		if (rawValue == null) {
+	/**
+	 * Read the current results row for the given field, from its column alias.
+	 * <br>
+	 * <b>⚠⚠⚠ This method DOES NOT iterate over the resultset ! ⚠⚠⚠</b>
+	 * @param results the SQL query results
+	 * @param field   the target element field
+	 * @param alias   the column alias of the field. See {@link Results#alias(String, Field)}.
+	 * @return the value for the field, at the current row of the results. Maybe null.
+	 * @throws org.yop.orm.exception.YopSQLException an error occurred reading the resultset
+	 */
+	private static Object readColumn(Results results, Field field, String alias) {
+		// Enum : read the column type (String/Integer, from the enum strategy). See #enumValue.
+		Object value = results.read(alias, columnType(field));
+		if (value == null) {
 			return null;
 		}
-
-		Class<?> fieldType = field.getType();
-		ITransformer transformer = ORMUtil.getTransformerFor(field);
-		try {
-			return transformer.fromSQL(results.getCursor().getObject(shortened, fieldType), fieldType);
-		} catch (YopSQLException | AbstractMethodError e) {
-			logger.debug("Error mapping [{}] of type [{}]. Manual fallback.", columnName, fieldType);
-			Object out = transformer.fromSQL(ITransformer.fallbackTransformer().fromSQL(rawValue, fieldType), fieldType);
-			logger.debug("Mapping [{}] of type [{}]. Manual fallback success.", columnName, fieldType);
-			return out;
-		}
+		return EntityMetadata.column(field).getTransformer().fromSQL(value, field.getType());
 	}
 
 	/**
-	 * Map a given field from a Resultset line for a given context.
+	 * Read the value of a given field from a Resultset line for a given context.
 	 * <br>
 	 * If the field @Column defines a {@link ITransformer}, this method uses it.
 	 * <br>
@@ -165,59 +303,42 @@ public class Mapper {
 	 * <br>
 	 * <b>⚠⚠⚠ This method DOES NOT iterate over the resultset ! ⚠⚠⚠</b>
 	 * @param field   the field to map
-	 * @param element the target element
-	 * @param context the target element context
+	 * @param alias   the column alias of the field. See {@link Results#alias(String, Field)}.
 	 * @param results the SQL query results
-	 * @throws YopSQLException        an error occurred reading the resultset
-	 * @throws org.yop.orm.exception.YopRuntimeException could not access a field on the target instance
+	 * @return the field value, or {@link YopableAccessor#SKIP} for a null value on a primitive field
+	 * @throws YopSQLException    an error occurred reading the resultset
+	 * @throws YopMapperException invalid enum value
 	 */
-	@SuppressWarnings("unchecked")
-	private static void setFieldValue(Field field, Object element, String context, Results results) {
-		Object value = read(results, field, context);
+	private static Object fieldValue(Field field, String alias, Results results) {
+		Object value = readColumn(results, field, alias);
 		if (value != null) {
-			if (field.getType().isEnum()) {
-				setEnumValue(field, value, element);
-			} else {
-				Reflection.set(field, element, value);
-			}
-		} else if (!field.getType().isPrimitive()){
-			Reflection.set(field, element, null);
+			return field.getType().isEnum() ? enumValue(field, value) : value;
 		}
+		return field.getType().isPrimitive() ? YopableAccessor.SKIP : null;
 	}
 
 	/**
-	 * Map an enum value onto a field of an element.
+	 * Read an enum value for a field.
 	 * <br>
-	 * This method simply search the value of the field in the result set, the enum strategy from @Column
-	 * and set the field value if some data was found in the resultset.
+	 * This method simply uses the enum strategy from @Column to find the enum constant of the column value.
 	 * <br>
 	 * @param enumField  the enum field. TYPE MUST BE ENUM
-	 * @param element    the element on which the field must be set
-	 * @throws YopMapperException Error accessing the enum field on the element
+	 * @param value      the column value. Not null.
+	 * @return the enum constant for the value
+	 * @throws YopMapperException no enum constant for the value
 	 */
 	@SuppressWarnings("unchecked")
-	private static void setEnumValue(Field enumField, Object value, Object element) {
+	private static Object enumValue(Field enumField, Object value) {
 		Column.EnumStrategy strategy = enumField.getAnnotation(Column.class).enum_strategy();
 		Class<? extends Enum> enumType = (Class<? extends Enum>) enumField.getType();
 
-		if(value == null) {
-			Reflection.set(enumField, element, null);
-			return;
-		}
-
 		try {
 			switch (strategy) {
 				case NAME:
-					Reflection.set(enumField, element, Enum.valueOf(enumType, String.valueOf(value).trim()));
-					break;
+					return Enum.valueOf(enumType, String.valueOf(value).trim());
 				case ORDINAL:
 					// Integer.valueOf(Objects.toString(val)) → ordinal is stored as a string... A bit preposterous !
-					Reflection.set(
-						enumField,
-						element,
-						enumType.getEnumConstants()[Integer.valueOf(Objects.toString(value))]
-					);
-					break;
+					return enumType.getEnumConstants()[Integer.valueOf(Objects.toString(value))];
 				default:
 					throw new YopMappingException("Unknown enum strategy [" + strategy.name() + "] !");
 			}
@@ -247,24 +368,25 @@ public class Mapper {
 	 * </ol>
 	 * <br>
 	 * <b>⚠⚠⚠ This method DOES NOT iterate over the resultset ! ⚠⚠⚠</b>
-	 * @param results the results of the SQL SELECT query
-	 * @param element the target element
-	 * @param context the target element context
+	 * @param row       the current row
+	 * @param element   the target element
+	 * @param context   the target element context
+	 * @param separator the context separator. See {@link Config#sqlSeparator()}.
+	 * @param cache     First level cache to use
 	 * @param <T> the target type
-	 * @throws IllegalAccessException could not read a field
-	 * @throws YopSQLException        error reading the resultset
-	 * @throws YopMappingException    Incorrect mapping. Mostly a non Yopable/Collection of Yopable relationship.
+	 * @throws ReflectionException could not read/write a field
+	 * @throws YopSQLException     error reading the resultset
+	 * @throws YopMappingException Incorrect mapping. Mostly a non Yopable/Collection of Yopable relationship.
 	 */
 	@SuppressWarnings("unchecked")
 	private static <T> void mapRelationFields(
-		Results results,
+		Row row,
 		T element,
 		String context,
-		FirstLevelCache cache)
-		throws IllegalAccessException {
+		String separator,
+		FirstLevelCache cache) {
 
 		Collection<Field> fields = ORMUtil.getJoinedFields(element.getClass());
-		String separator = results.getQuery().getConfig().sqlSeparator();
 		for (Field field : fields) {
 			String newContext = context + separator + field.getName() + separator;
 			Object target;
@@ -272,25 +394,19 @@ public class Mapper {
 				Class targetClass = ORMUtil.getRelationFieldType(field);
 
 				newContext += ORMUtil.getTargetName(targetClass);
-				if(results.noContext(newContext, targetClass)) continue;
+				if(row.noContext(newContext, targetClass)) continue;
 
-				target = Reflection.newInstanceNoArgs(targetClass);
-				target = mapSimpleFields(results, target, newContext, cache);
+				target = row.element(targetClass, null, newContext, cache);
 				target = cache.getOrDefault(field, element, target);
-				mapRelationFields(results, target, newContext, cache);
+				mapRelationFields(row, target, newContext, separator, cache);
 			} else if (ORMUtil.isYopable(field)){
 				Class targetClass = field.getType();
 				newContext += ORMUtil.getTargetName(targetClass);
-				if(results.noContext(newContext, targetClass)) continue;
+				if(row.noContext(newContext, targetClass)) continue;
 
-				target = Reflection.readField(field, element);
-				if(target == null) {
-					target = Reflection.newInstanceNoArgs(field.getType());
-				}
-
-				target = mapSimpleFields(results, target, newContext, cache);
-				field.set(element, target);
-				mapRelationFields(results, target, newContext, cache);
+				target = row.element(targetClass, Accessors.read(field, element), newContext, cache);
+				Accessors.write(field, element, target);
+				mapRelationFields(row, target, newContext, separator, cache);
 			} else {
 				throw new YopMappingException(
 					" Field type [" + field.getType().getName()
@@ -317,4 +433,50 @@ public class Mapper {
 		elements.put(id, cache.put(element));
 		return element;
 	}
+
+	/**
+	 * A row of results, as seen when linking the objects of the row together.
+	 */
+	interface Row {
+		/**
+		 * Check if the row has eligible data for the given context.
+		 * @param context     the context to check (RootClass[→relation→NextClass]*)
+		 * @param targetClass the target class for the context
+		 * @return true if there is no data for this context on the row
+		 */
+		boolean noContext(String context, Class<?> targetClass);
+
+		/**
+		 * Get the element of the row for the given context : the cached one if any, or a new one that gets cached.
+		 * @param clazz   the target class for the context
+		 * @param current the instance the data can be mapped onto (e.g. the current relation field value). Can be null.
+		 * @param context the context
+		 * @param cache   First level cache to use
+		 * @param <T> the target type
+		 * @return the element for the context, from the cache
+		 */
+		<T> T element(Class<T> clazz, T current, String context, FirstLevelCache cache);
+	}
+
+	/**
+	 * The current row of a result cursor. Simple fields are mapped when the element is requested.
+	 */
+	private static class ResultsRow implements Row {
+		private final Results results;
+
+		private ResultsRow(Results results) {
+			this.results = results;
+		}
+
+		@Override
+		public boolean noContext(String context, Class<?> targetClass) {
+			return this.results.noContext(context, targetClass);
+		}
+
+		@Override
+		public <T> T element(Class<T> clazz, T current, String context, FirstLevelCache cache) {
+			T element = current == null ? this.results.rowAccessor(context, clazz).newInstance() : current;
+			return mapSimpleFields(this.results, element, context, cache);
+		}
+	}
 }
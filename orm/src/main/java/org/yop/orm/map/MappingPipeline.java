@@ -0,0 +1,365 @@
+package org.yop.orm.map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.exception.YopRuntimeException;
+import org.yop.orm.sql.Config;
+import org.yop.orm.sql.Results;
+import org.yop.orm.sql.adapter.IResultCursor;
+import org.yop.orm.sql.adapter.SnapshotCursor;
+import org.yop.orm.util.ORMUtil;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipelined mapping of query results. See {@link Config#pipelinedMapping()}.
+ * <br>
+ * Three stages :
+ * <ol>
+ *     <li>
+ *         read : a dedicated reader thread copies the rows ({@link SnapshotCursor}),
+ *         in chunks of {@link Config#mappingChunkSize()} rows.
+ *         The columns are read through their codec, as the sequential mapping would : see {@link Results#read(String, Class)}.
+ *     </li>
+ *     <li>
+ *         hydrate : the bounded pool of worker threads ({@link #WORKERS_PROPERTY}) instantiates the objects of every row
+ *         and converts the values (transformers). See {@link Mapper#hydrate(Results, Class, String, String, Map)}.
+ *     </li>
+ *     <li>
+ *         link : the query thread links the objects together and deduplicates them using the {@link FirstLevelCache},
+ *         in row order. See {@link Mapper#link(Mapper.Row, Class, String, String, Map, FirstLevelCache)}.
+ *     </li>
+ * </ol>
+ * The reader hands the chunks over to the query thread through a bounded buffer (twice the number of workers) :
+ * when the buffer is full, the reader waits for the query thread to link the oldest chunk.
+ * <br><br>
+ * <b>⚠⚠⚠ Every row is hydrated, even if its objects are already in the cache. ⚠⚠⚠</b>
+ * <br>
+ * This only pays off when the mapping is CPU bound : wide rows, costly transformers...
+ */
+final class MappingPipeline {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappingPipeline.class);
+
+	/** System property : the number of mapping worker threads. Default is the number of available processors. */
+	static final String WORKERS_PROPERTY = "yop.mapping.workers";
+
+	/** The number of mapping worker threads */
+	private static final int WORKER_THREADS = Math.max(
+		1,
+		Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors())
+	);
+
+	/** The mapping worker threads, shared by every pipelined mapping. */
+	private static final ExecutorService WORKERS = workers();
+
+	/** The reader threads : one per pipelined mapping, while it reads its results. */
+	private static final ExecutorService READERS = Executors.newCachedThreadPool(daemon("yop-mapping-reader-"));
+
+	/** The chunks buffer capacity */
+	private static final int BUFFER_SIZE = 2 * WORKER_THREADS;
+
+	/** How long the reader waits for room in the buffer before it checks if the mapping was cancelled */
+	private static final long OFFER_TIMEOUT_MS = 100;
+
+	/** The end of the results marker, in the chunks buffer */
+	private static final Future<Chunk> END = CompletableFuture.completedFuture(null);
+
+	private MappingPipeline() {}
+
+	/**
+	 * Map the results of an SQL SELECT request on to a target class, starting from a root context.
+	 * <br>
+	 * <b>⚠⚠⚠ This method iterates over the resultset ! ⚠⚠⚠</b>
+	 * @param results the results of the query
+	 * @param clazz   the target class
+	 * @param context the root context (mostly, the simple name of the target class)
+	 * @param cache   First level cache to use. Only used from the calling thread.
+	 * @param <T>     the target type
+	 * @return a {@link LinkedHashSet} of Ts from the result set, in query order
+	 * @throws YopRuntimeException interrupted while waiting for the rows
+	 */
+	static <T> Set<T> map(Results results, Class<T> clazz, String context, FirstLevelCache cache) {
+		String separator = results.getQuery().getConfig().sqlSeparator();
+		BlockingQueue<Future<Chunk>> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+		AtomicBoolean cancelled = new AtomicBoolean(false);
+		Future<?> reader = READERS.submit(() -> read(results, clazz, context, buffer, cancelled));
+
+		Map<Comparable, T> out = new LinkedHashMap<>();
+		try {
+			for (Future<Chunk> chunk = buffer.take(); chunk != END; chunk = buffer.take()) {
+				link(chunk, clazz, context, separator, out, cache);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new YopRuntimeException("Interrupted mapping the results of [" + clazz.getName() + "]", e);
+		} finally {
+			// The reader must be done with the cursor before the caller closes it.
+			cancelled.set(true);
+			buffer.forEach(future -> future.cancel(false));
+			buffer.clear();
+			awaitReader(reader);
+		}
+		return new LinkedHashSet<>(out.values());
+	}
+
+	/**
+	 * The reader stage : read the cursor, submit the chunks of rows to the workers and hand them over to the linker.
+	 * <br>
+	 * Any exception is handed over to the linker, as a failed chunk.
+	 * @param results   the results of the query. Only used from the reader thread.
+	 * @param clazz     the target class
+	 * @param context   the root context
+	 * @param buffer    the chunks buffer, to the linker
+	 * @param cancelled set by the linker when it is not reading the buffer anymore
+	 */
+	private static void read(
+		Results results,
+		Class<?> clazz,
+		String context,
+		BlockingQueue<Future<Chunk>> buffer,
+		AtomicBoolean cancelled) {
+
+		try {
+			Config config = results.getQuery().getConfig();
+			String separator = config.sqlSeparator();
+			int chunkSize = config.mappingChunkSize();
+
+			IResultCursor cursor = results.getCursor();
+			SnapshotCursor snapshot = new SnapshotCursor(cursor);
+			Class<?>[] types = columnTypes(results, clazz, context, snapshot);
+			SnapshotCursor.ColumnReader reader = (position, column) -> types[position] == null
+				? cursor.getObject(column)
+				: results.read(column, types[position]);
+
+			List<Object[]> rows = new ArrayList<>(chunkSize);
+			while (!cancelled.get() && cursor.next()) {
+				rows.add(snapshot.read(reader));
+				if (rows.size() >= chunkSize) {
+					offer(buffer, hydrate(results.on(snapshot.view(rows)), clazz, context, separator), cancelled);
+					rows = new ArrayList<>(chunkSize);
+				}
+			}
+			if (!rows.isEmpty()) {
+				offer(buffer, hydrate(results.on(snapshot.view(rows)), clazz, context, separator), cancelled);
+			}
+			offer(buffer, END, cancelled);
+		} catch (RuntimeException | Error e) {
+			CompletableFuture<Chunk> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			offer(buffer, failed, cancelled);
+		}
+	}
+
+	/**
+	 * Find the type to read each column of the results as. See {@link Mapper#columnTypes(Results, Class, String, String, Map)}.
+	 * @param results  the results of the query
+	 * @param clazz    the target class
+	 * @param context  the root context
+	 * @param snapshot the snapshot cursor of the results
+	 * @return the type to read each column of the snapshot as. null : the column is not a field column, read it raw.
+	 */
+	private static Class<?>[] columnTypes(Results results, Class<?> clazz, String context, SnapshotCursor snapshot) {
+		Map<String, Class<?>> byColumn = new HashMap<>();
+		Mapper.columnTypes(results, clazz, context, results.getQuery().getConfig().sqlSeparator(), byColumn);
+
+		Class<?>[] types = new Class<?>[snapshot.getColumnCount()];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = byColumn.get(snapshot.getColumnName(i + 1));
+		}
+		return types;
+	}
+
+	/**
+	 * Hand a chunk over to the linker. Wait for room in the buffer, unless the mapping was cancelled.
+	 * @param buffer    the chunks buffer
+	 * @param chunk     the chunk to hand over
+	 * @param cancelled set by the linker when it is not reading the buffer anymore
+	 */
+	private static void offer(BlockingQueue<Future<Chunk>> buffer, Future<Chunk> chunk, AtomicBoolean cancelled) {
+		try {
+			while (!cancelled.get()) {
+				if (buffer.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		chunk.cancel(false);
+	}
+
+	/**
+	 * Hydrate a chunk of rows, asynchronously, on the worker threads.
+	 * @param results   the results, on a view of the rows snapshot (see {@link SnapshotCursor#view(List)})
+	 * @param clazz     the target class
+	 * @param context   the root context
+	 * @param separator the context separator
+	 * @return the hydrated chunk
+	 */
+	private static Future<Chunk> hydrate(
+		Results results,
+		Class<?> clazz,
+		String context,
+		String separator) {
+
+		IResultCursor cursor = results.getCursor();
+		return CompletableFuture.supplyAsync(() -> {
+			List<Map<String, Object>> hydrated = new ArrayList<>();
+			while (cursor.next()) {
+				Map<String, Object> elements = new HashMap<>();
+				Mapper.hydrate(results, clazz, context, separator, elements);
+				hydrated.add(elements);
+			}
+			return new Chunk(results, hydrated);
+		}, WORKERS);
+	}
+
+	/**
+	 * Wait for a chunk to be hydrated and link its rows, in order.
+	 * @param chunk     the hydrated chunk
+	 * @param clazz     the target class
+	 * @param context   the root context
+	 * @param separator the context separator
+	 * @param out       the elements that were already mapped, by ID
+	 * @param cache     First level cache to use
+	 * @param <T> the target type
+	 * @throws RuntimeException the exception that occurred on the reader or a worker thread, if any
+	 * @throws InterruptedException interrupted waiting for the chunk
+	 */
+	private static <T> void link(
+		Future<Chunk> chunk,
+		Class<T> clazz,
+		String context,
+		String separator,
+		Map<Comparable, T> out,
+		FirstLevelCache cache) throws InterruptedException {
+
+		Chunk rows;
+		try {
+			rows = chunk.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new YopRuntimeException("Error mapping the results of [" + clazz.getName() + "]", e.getCause());
+		}
+
+		for (Map<String, Object> row : rows.rows) {
+			Mapper.link(new HydratedRow(rows.results, row), clazz, context, separator, out, cache);
+		}
+	}
+
+	/**
+	 * Wait for the reader to stop. It checks the cancellation flag at least every {@link #OFFER_TIMEOUT_MS}.
+	 * @param reader the reader task
+	 */
+	private static void awaitReader(Future<?> reader) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				reader.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException | CancellationException e) {
+				logger.warn("Mapping reader error", e);
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Create the mapping workers : a fixed pool of {@link #WORKERS_PROPERTY} daemon threads.
+	 * <br>
+	 * The queue is unbounded : the chunks of a mapping are already bounded by its buffer.
+	 * @return the mapping workers executor
+	 */
+	private static ExecutorService workers() {
+		logger.debug("Creating mapping workers : [{}] threads", WORKER_THREADS);
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(
+			WORKER_THREADS,
+			WORKER_THREADS,
+			60,
+			TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(),
+			daemon("yop-mapping-worker-")
+		);
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * A daemon thread factory.
+	 * @param prefix the thread name prefix, to which a counter is appended
+	 * @return a new thread factory
+	 */
+	private static ThreadFactory daemon(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * A hydrated chunk : for each row, context → new instance. And the results view the rows were hydrated from.
+	 */
+	private static class Chunk {
+		private final Results results;
+		private final List<Map<String, Object>> rows;
+
+		private Chunk(Results results, List<Map<String, Object>> rows) {
+			this.results = results;
+			this.rows = rows;
+		}
+	}
+
+	/**
+	 * A row whose elements were already hydrated : the element for a context is the cached one, or the hydrated one.
+	 * <br>
+	 * If there is a current instance for the context and no cached one,
+	 * the selected columns of the hydrated element are copied onto it, as {@link Mapper} does on the cursor.
+	 */
+	private static class HydratedRow implements Mapper.Row {
+		private final Results results;
+		private final Map<String, Object> elements;
+
+		private HydratedRow(Results results, Map<String, Object> elements) {
+			this.results = results;
+			this.elements = elements;
+		}
+
+		@Override
+		public boolean noContext(String context, Class<?> targetClass) {
+			return !this.elements.containsKey(context);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T element(Class<T> clazz, T current, String context, FirstLevelCache cache) {
+			T hydrated = (T) this.elements.get(context);
+			Comparable id = ORMUtil.readId(hydrated);
+			if (cache.has(clazz, id)) {
+				return cache.get(clazz, id);
+			}
+			if (current == null) {
+				return cache.put(hydrated);
+			}
+
+			RowAccessor<T> columns = this.results.rowAccessor(context, (Class<T>) hydrated.getClass());
+			columns.write(current, columns.read(hydrated));
+			return cache.put(current);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package org.yop.orm.map;
+
+import org.yop.reflection.ReflectionException;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read/write a fixed list of fields of a class at once, i.e. a row of values.
+ * <br>
+ * If a {@link YopableAccessor} was generated for the class,
+ * its parameter binder ({@link YopableAccessor#bind(Object)})
+ * and row mapper ({@link YopableAccessor#map(Object, Object[])}) are used.
+ * The fields the generated accessor does not handle use their {@link Accessors.Handle}.
+ * <br><br>
+ * Everything is resolved when the row accessor is built : build it once (per class, per query context...).
+ * See {@link Accessors#row(Class, java.util.Collection)} and {@link Accessors#columns(Class)}.
+ * @param <T> the target type
+ */
+public final class RowAccessor<T> {
+
+	/** The row fields */
+	private final Field[] fields;
+
+	/** The target instantiator */
+	private final Supplier<T> instantiator;
+
+	/** The generated accessor. Null if none. */
+	private final YopableAccessor<T> accessor;
+
+	/** The generated accessor index of each row field. -1 if not handled by the generated accessor. */
+	private final int[] indexes;
+
+	/** The resolved handle of each row field */
+	private final Accessors.Handle[] handles;
+
+	/** True if every row field is handled by the generated accessor */
+	private final boolean generated;
+
+	RowAccessor(
+		Supplier<T> instantiator,
+		YopableAccessor<T> accessor,
+		Field[] fields,
+		int[] indexes,
+		Accessors.Handle[] handles) {
+		this.instantiator = instantiator;
+		this.accessor = accessor;
+		this.fields = fields;
+		this.indexes = indexes;
+		this.handles = handles;
+		this.generated = accessor != null && Arrays.stream(indexes).noneMatch(index -> index < 0);
+	}
+
+	/**
+	 * @return the row fields, in the row order
+	 */
+	public List<Field> getFields() {
+		return Collections.unmodifiableList(Arrays.asList(this.fields));
+	}
+
+	/**
+	 * Create a new instance of the target class.
+	 * @return a new T instance
+	 * @throws ReflectionException no generated accessor and could not instantiate using reflection
+	 */
+	public T newInstance() {
+		return this.instantiator.get();
+	}
+
+	/**
+	 * Read the row fields on an element.
+	 * @param element the element to read
+	 * @return the field values, in the row order
+	 * @throws ReflectionException a field could not be read
+	 */
+	public Object[] read(T element) {
+		Object[] values = new Object[this.fields.length];
+		if (this.accessor == null) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = this.handles[i].read(element);
+			}
+			return values;
+		}
+
+		Object[] all;
+		try {
+			all = this.accessor.bind(element);
+		} catch (RuntimeException e) {
+			throw new ReflectionException("Could not read the fields of [" + element + "]", e);
+		}
+		for (int i = 0; i < values.length; i++) {
+			values[i] = this.indexes[i] < 0 ? this.handles[i].read(element) : all[this.indexes[i]];
+		}
+		return values;
+	}
+
+	/**
+	 * Write the row fields on an element.
+	 * <br>
+	 * A {@link YopableAccessor#SKIP} value leaves its field unchanged.
+	 * @param element the element to write onto
+	 * @param values  the field values, in the row order
+	 * @throws ReflectionException a field could not be set
+	 */
+	public void write(T element, Object[] values) {
+		if (! this.generated) {
+			this.writeEach(element, values);
+			return;
+		}
+
+		Object[] row = new Object[this.accessor.getFields().length];
+		Arrays.fill(row, YopableAccessor.SKIP);
+		for (int i = 0; i < values.length; i++) {
+			row[this.indexes[i]] = values[i];
+		}
+		try {
+			this.accessor.map(element, row);
+		} catch (RuntimeException e) {
+			// Write every field using its handle : the faulty field is reported with some context.
+			this.writeEach(element, values);
+			throw new ReflectionException("Could not write the fields of [" + element + "]", e);
+		}
+	}
+
+	/**
+	 * Write the row fields one by one, using the field handles.
+	 * @param element the element to write onto
+	 * @param values  the field values, in the row order. {@link YopableAccessor#SKIP} values are skipped.
+	 */
+	private void writeEach(T element, Object[] values) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != YopableAccessor.SKIP) {
+				this.handles[i].write(element, values[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package org.yop.orm.map;
+
+/**
+ * Plain java access to the column fields of a Yopable type.
+ * <br>
+ * Implementations are generated at build time by the yop-apt annotation processor
+ * (one for each {@link org.yop.orm.annotations.Table} class)
+ * and registered as {@link java.util.ServiceLoader} services.
+ * <br>
+ * The ORM looks them up using {@link Accessors} and prefers them over reflection.
+ * If there is no accessor for a class or for a field, {@link org.yop.reflection.Reflection} is used.
+ * <br><br>
+ * The fields are identified by their index in {@link #getFields()}.
+ * <br>
+ * {@link #bind(Object)} and {@link #map(Object, Object[])} read/write every field at once :
+ * they are the generated parameter binder and row mapper. The default implementations use read/write.
+ * @param <T> the Yopable type
+ */
+public interface YopableAccessor<T> {
+
+	/** A {@link #map(Object, Object[])} row value that means 'do not write this field'. */
+	Object SKIP = new Object() {
+		@Override
+		public String toString() {
+			return "SKIP";
+		}
+	};
+
+	/**
+	 * @return the Yopable type this accessor is generated for
+	 */
+	Class<T> getTarget();
+
+	/**
+	 * The names of the fields this accessor can read and write.
+	 * <br>
+	 * The index of a field name in this array is the field index for {@link #read(Object, int)}.
+	 * @return the field names.
+	 */
+	String[] getFields();
+
+	/**
+	 * Create a new instance of the target type.
+	 * @return a new T instance
+	 */
+	T newInstance();
+
+	/**
+	 * Read a field value.
+	 * @param element the element to read
+	 * @param field   the field index in {@link #getFields()}
+	 * @return the field value
+	 * @throws IndexOutOfBoundsException unknown field index
+	 */
+	Object read(T element, int field);
+
+	/**
+	 * Write a field value.
+	 * @param element the element to write onto
+	 * @param field   the field index in {@link #getFields()}
+	 * @param value   the value to set
+	 * @throws IndexOutOfBoundsException unknown field index
+	 * @throws ClassCastException        the value type does not match the field type
+	 */
+	void write(T element, int field, Object value);
+
+	/**
+	 * Read every field value : the parameter binder for INSERT/UPDATE queries.
+	 * @param element the element to read
+	 * @return the field values, indexed as {@link #getFields()}
+	 */
+	default Object[] bind(T element) {
+		Object[] values = new Object[this.getFields().length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = this.read(element, i);
+		}
+		return values;
+	}
+
+	/**
+	 * Write every field value : the row mapper.
+	 * <br>
+	 * A {@link #SKIP} value leaves the field unchanged (e.g. a column that is not selected).
+	 * @param element the element to write onto
+	 * @param row     the field values, indexed as {@link #getFields()}
+	 * @throws ClassCastException a value type does not match its field type
+	 */
+	default void map(T element, Object[] row) {
+		for (int i = 0; i < row.length; i++) {
+			if (row[i] != SKIP) {
+				this.write(element, i, row[i]);
+			}
+		}
+	}
+}
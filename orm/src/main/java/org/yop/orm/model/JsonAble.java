@@ -4,6 +4,7 @@ import com.google.common.primitives.Primitives;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import org.yop.orm.map.Accessors;
 import org.yop.orm.query.Context;
 import org.yop.orm.sql.Config;
 import org.yop.orm.util.ORMUtil;
@@ -46,7 +47,7 @@ public interface JsonAble {
 			}
 			Object fieldValue = fieldValue(context, field, object.get(key), config);
 			if (fieldValue != null) {
-				Reflection.set(field, this, fieldValue);
+				Accessors.write(field, this, fieldValue);
 			}
 		}
 	}
@@ -75,7 +76,7 @@ public interface JsonAble {
 			if (java.lang.reflect.Modifier.isStatic(field.getModifiers())) {
 				continue;
 			}
-			Object fieldValue = Reflection.readField(field, this);
+			Object fieldValue = Accessors.read(field, this);
 
 			if (fieldValue == null ){
 				continue;
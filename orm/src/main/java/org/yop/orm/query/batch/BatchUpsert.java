@@ -4,6 +4,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.orm.exception.YopMappingException;
 import org.yop.orm.exception.YopRuntimeException;
+import org.yop.orm.map.Accessors;
+import org.yop.orm.map.RowAccessor;
 import org.yop.orm.query.join.IJoin;
 import org.yop.orm.query.relation.Relation;
 import org.yop.orm.query.sql.Upsert;
@@ -18,6 +20,7 @@ import org.yop.reflection.Reflection;
 import java.lang.reflect.Field;
 import java.sql.Statement;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.yop.orm.sql.Parameters.Parameter;
 
@@ -219,23 +222,29 @@ public class BatchUpsert<T> extends Upsert<T> {
 
 		BatchQuery<T> query = null;
 		SimpleQuery reference = null;
+		RowAccessor<T> binder = null;
 		Class<T> target = this.context.getTarget();
 		int batch = 0;
 		for (T element : elements) {
 			batch++;
 			if (reference == null) {
 				reference = this.toSQL(element, type, config);
+				binder = Accessors.row(
+					target,
+					reference.getParameters().stream().map(Parameter::getField).collect(Collectors.toList())
+				);
 
 				query = new BatchQuery<>(reference.getSql(), type, config, elements, target);
 				query.addParametersBatch(reference.getParameters());
 				continue;
 			}
 			Parameters parameters = new Parameters();
-			for (Parameter parameter : reference.getParameters()) {
+			Object[] values = binder.read(element);
+			for (int i = 0; i < values.length; i++) {
+				Parameter parameter = reference.getParameters().get(i);
 				Field field = parameter.getField();
 				String name = parameter.getName();
-				Object fieldValue = Reflection.readField(field, element);
-				parameters.addParameter(name + "#" + batch, fieldValue, field, parameter.isSequence(), config);
+				parameters.addParameter(name + "#" + batch, values[i], field, parameter.isSequence(), config);
 			}
 			query.addParametersBatch(parameters);
 		}
@@ -1,6 +1,7 @@
 package org.yop.orm.query.join;
 
 import com.google.gson.JsonObject;
+import org.yop.orm.map.Accessors;
 import org.yop.orm.query.Context;
 import org.yop.orm.query.sql.SQLJoin;
 import org.yop.orm.sql.Config;
@@ -35,7 +36,7 @@ class FieldJoin<From, To> extends SQLJoin<From, To> {
 	FieldJoin(Field field) {
 		this();
 		this.field = field;
-		this.getter = from -> Reflection.readField(this.field, from);
+		this.getter = from -> Accessors.read(this.field, from);
 	}
 
 	@Override
@@ -66,7 +67,7 @@ class FieldJoin<From, To> extends SQLJoin<From, To> {
 	@SuppressWarnings("unchecked")
 	public Collection<To> getTarget(From from) {
 		// Here we are asked to return a collection of objects, whatever the cardinality.
-		Object target = Reflection.readField(this.field, from);
+		Object target = Accessors.read(this.field, from);
 
 		// target is null → empty list
 		// target is collection → target
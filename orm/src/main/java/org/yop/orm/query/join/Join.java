@@ -1,5 +1,6 @@
 package org.yop.orm.query.join;
 
+import org.yop.orm.map.Accessors;
 import org.yop.orm.query.Context;
 import org.yop.reflection.Reflection;
 
@@ -40,7 +41,7 @@ public class Join<From, To> implements IJoin<From, To> {
 	protected Join(Join<From, To> original) {
 		this();
 		this.field = original.field;
-		this.getter = original.getter == null ? from -> Reflection.readField(this.field, from) : original.getter;
+		this.getter = original.getter == null ? from -> Accessors.read(this.field, from) : original.getter;
 		this.joins.addAll(original.joins);
 	}
 
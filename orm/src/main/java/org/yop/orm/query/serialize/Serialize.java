@@ -2,6 +2,10 @@ package org.yop.orm.query.serialize;
 
 import org.yop.orm.query.join.IJoin;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
 import java.util.Collection;
 
 /**
@@ -59,6 +63,15 @@ public interface Serialize<Request extends Serialize, T> {
 	@SuppressWarnings({"unused"})
 	Request joinProfiles(String... profiles);
 
+	/**
+	 * Sparse fieldset : only serialize the given fields of the target elements (+ ID and joined relations).
+	 * <br>
+	 * The joined objects are not restricted : they are serialized as usual.
+	 * @param fields the fields of the target class to serialize. No field → serialize every field.
+	 * @return the current directive, for chaining purpose
+	 */
+	Request fields(Collection<Field> fields);
+
 	/**
 	 * Get the current joins of this serialize request.
 	 * @return the current joins. Might be a copy of these joins.
@@ -70,4 +83,28 @@ public interface Serialize<Request extends Serialize, T> {
 	 * @return the target object(s), serialized into string
 	 */
 	String execute();
+
+	/**
+	 * Open a streamed serialization : the elements are written to the output as they are given.
+	 * <br>
+	 * Once closed, the output is the same as the output of {@link #execute()} onto the same elements.
+	 * The elements set using {@link #onto(Object)} are ignored.
+	 * @param out the output to write to. It is not closed when the returned output is closed.
+	 * @return a streamed serialization output, to close when every element was written
+	 * @throws IOException could not write to the output
+	 */
+	Output<T> open(Writer out) throws IOException;
+
+	/**
+	 * A streamed serialization output. See {@link #open(Writer)}.
+	 * @param <T> the target type
+	 */
+	interface Output<T> extends Closeable {
+		/**
+		 * Serialize and write some elements, then flush the underlying writer.
+		 * @param elements the elements to serialize
+		 * @throws IOException could not write to the output
+		 */
+		void write(Collection<T> elements) throws IOException;
+	}
 }
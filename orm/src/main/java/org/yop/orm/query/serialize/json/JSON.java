@@ -1,12 +1,18 @@
 package org.yop.orm.query.serialize.json;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.yop.orm.annotations.JoinTable;
 import org.yop.orm.query.AbstractRequest;
 import org.yop.orm.query.Context;
 import org.yop.orm.query.join.IJoin;
 import org.yop.orm.query.serialize.Serialize;
+import org.yop.orm.util.ORMUtil;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
@@ -49,6 +55,9 @@ public class JSON<T> extends AbstractRequest<JSON<T>, T> implements Serialize<JS
 
 	final Map<IJoin, Field> fieldCache = new HashMap<>();
 
+	/** The fields of the target elements to serialize (+ ID). Empty → every field. See {@link #fields(Collection)}. */
+	final Set<Field> fields = new HashSet<>();
+
 	/**
 	 * Private constructor. Set the target and default serializers for {@link java.time} types.
 	 * @param target the target class to json-ify
@@ -116,6 +125,60 @@ public class JSON<T> extends AbstractRequest<JSON<T>, T> implements Serialize<JS
 		}
 	}
 
+	/**
+	 * Deserialize a stream of serialized Yopables, 1 element at a time.
+	 * <br>
+	 * The input can be a JSON array, a single JSON object,
+	 * or a sequence of JSON values (e.g. newline delimited JSON : 1 object per line).
+	 * <br>
+	 * Nothing is read until the iterator is consumed : only the current element is held in memory.
+	 * The reader is set lenient, so a sequence of top level values can be read.
+	 * <br>
+	 * <b>⚠⚠⚠ The reader is not closed here ! ⚠⚠⚠</b>
+	 * @param target the target type of the Yopables
+	 * @param reader the JSON reader on the serialized Yopables
+	 * @param <T> the target type
+	 * @return an iterator on the deserialized elements
+	 * @throws JsonParseException (from the iterator) the input is not valid JSON or the reader could not be read
+	 */
+	public static <T> Iterator<T> deserialize(Class<T> target, JsonReader reader) {
+		Gson gson = new GsonInstance()
+			.defaultDeserializers()
+			.customBuilder(new GsonBuilder().excludeFieldsWithModifiers(Modifier.STATIC))
+			.instance();
+		reader.setLenient(true);
+
+		return new AbstractIterator<T>() {
+			/** Are we reading the elements of a JSON array ? */
+			private boolean array = false;
+
+			@Override
+			protected T computeNext() {
+				try {
+					while (true) {
+						if (this.array && ! reader.hasNext()) {
+							reader.endArray();
+							this.array = false;
+							continue;
+						}
+						JsonToken next = reader.peek();
+						if (next == JsonToken.END_DOCUMENT) {
+							return this.endOfData();
+						}
+						if (! this.array && next == JsonToken.BEGIN_ARRAY) {
+							reader.beginArray();
+							this.array = true;
+							continue;
+						}
+						return gson.fromJson(reader, target);
+					}
+				} catch (IOException e) {
+					throw new JsonIOException(e);
+				}
+			}
+		};
+	}
+
 	/**
 	 * Provide the JSON directive with your own GSON builder.
 	 * <br>
@@ -140,6 +203,12 @@ public class JSON<T> extends AbstractRequest<JSON<T>, T> implements Serialize<JS
 		return this;
 	}
 
+	@Override
+	public JSON<T> fields(Collection<Field> fields) {
+		this.fields.addAll(fields);
+		return this;
+	}
+
 	/**
 	 * Register a new serializer for a given type.
 	 * See {@link GsonBuilder#registerTypeAdapter(Type, Object)}.
@@ -196,6 +265,37 @@ public class JSON<T> extends AbstractRequest<JSON<T>, T> implements Serialize<JS
 		return this.toJSON();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * The output is a JSON array, whose elements are written 1 at a time.
+	 */
+	@Override
+	public Output<T> open(Writer out) throws IOException {
+		out.write('[');
+		return new Output<T>() {
+			private boolean first = true;
+
+			@Override
+			public void write(Collection<T> elements) throws IOException {
+				for (T element : elements) {
+					if (! this.first) {
+						out.write(',');
+					}
+					JSON.this.gson.instance().toJson(JSON.this.toJSONTree(element), out);
+					this.first = false;
+				}
+				out.flush();
+			}
+
+			@Override
+			public void close() throws IOException {
+				out.write(']');
+				out.flush();
+			}
+		};
+	}
+
 	/**
 	 * A custom serializer that can follow the {@link #joins} directives.
 	 * <br>
@@ -210,6 +310,7 @@ public class JSON<T> extends AbstractRequest<JSON<T>, T> implements Serialize<JS
 		 * <br>
 		 * Serialize the current object {@link YopableForJSON#subject} using {@link Gson} and {@link YopableStrategy}.
 		 * No {@link JoinTable} field gets serialized.
+		 * If there is a sparse fieldset ({@link YopableForJSON#getFields()}), the other properties are removed.
 		 * <br>
 		 * For each join directive in {@link #joins} :
 		 * <ul>
@@ -224,6 +325,13 @@ public class JSON<T> extends AbstractRequest<JSON<T>, T> implements Serialize<JS
 			// Serialize the given element to JSON. The YopableStrategy excludes @JoinTable properties
 			JsonElement element = JSON.this.gson.instance().toJsonTree(src.getSubject());
 
+			// Sparse fieldset : only keep the requested properties (and the ID). Joins are added afterwards.
+			if (! src.getFields().isEmpty() && element.isJsonObject()) {
+				Set<String> keep = src.getFields().stream().map(Field::getName).collect(Collectors.toSet());
+				keep.add(ORMUtil.getIdField(src.getSubject().getClass()).getName());
+				element.getAsJsonObject().keySet().retainAll(keep);
+			}
+
 			// For each join IJoin relation, serialize using the context.
 			// This should recursively call the current method
 			for (IJoin join : src.getJoins()) {
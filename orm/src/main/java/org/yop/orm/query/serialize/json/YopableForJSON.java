@@ -23,20 +23,26 @@ class YopableForJSON {
 	/** join → Field cache (Finding a field from a method reference can be expensive) */
 	private final Map<IJoin, Field> fieldCache;
 
+	/** Sparse fieldset : the fields of the subject to serialize (+ ID). Empty → every field. Only for the root. */
+	private final Set<Field> fields;
+
 	/**
 	 * Private complete constructor. Please use {@link #create(Object, JSON)}.
 	 * @param subject    the object that will be serialized
 	 * @param joins      which fields (and sub-fields) should be serialized
 	 * @param fieldCache join → Field cache (Finding a field from a method reference can be expensive)
+	 * @param fields     the fields of the subject to serialize. Empty → every field.
 	 */
 	private YopableForJSON(
 		Object subject,
 		Collection<IJoin> joins,
-		Map<IJoin, Field> fieldCache) {
+		Map<IJoin, Field> fieldCache,
+		Set<Field> fields) {
 
 		this.subject = subject;
 		this.joins = joins == null ? Collections.EMPTY_LIST : joins;
 		this.fieldCache = fieldCache == null ? new HashMap<>() : fieldCache;
+		this.fields = fields == null ? Collections.emptySet() : fields;
 	}
 
 	/**
@@ -55,15 +61,23 @@ class YopableForJSON {
 		return this.joins;
 	}
 
+	/**
+	 * Get the sparse fieldset (i.e. the fields of the subject to serialize, if not every field)
+	 * @return {@link #fields}
+	 */
+	Set<Field> getFields() {
+		return this.fields;
+	}
+
 	/**
 	 * Create a new {@link YopableForJSON} wrapping a {@link Object}.
 	 * @param on    the object to wrap
-	 * @param using where to find the join/joinID paths and a field cache
+	 * @param using where to find the join/joinID paths, the sparse fieldset and a field cache
 	 * @return a new wrapper for the object to serialize
 	 */
 	@SuppressWarnings("unchecked")
 	static YopableForJSON create(Object on, JSON using) {
-		return new YopableForJSON(on, new ArrayList<IJoin>(using.getJoins()), using.fieldCache);
+		return new YopableForJSON(on, new ArrayList<IJoin>(using.getJoins()), using.fieldCache, using.fields);
 	}
 
 	/**
@@ -85,13 +99,13 @@ class YopableForJSON {
 		if (ORMUtil.isCollection(field)) {
 			return next
 				.stream()
-				.map(y -> new YopableForJSON(y, join.getJoins(), this.fieldCache))
+				.map(y -> new YopableForJSON(y, join.getJoins(), this.fieldCache, null))
 				.collect(Collectors.toList());
 		}
 		if (next.isEmpty()) {
 			return null;
 		}
-		return new YopableForJSON(next.iterator().next(), join.getJoins(), this.fieldCache);
+		return new YopableForJSON(next.iterator().next(), join.getJoins(), this.fieldCache, null);
 	}
 
 	/**
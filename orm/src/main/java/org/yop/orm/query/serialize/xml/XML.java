@@ -17,12 +17,10 @@ import org.yop.reflection.Reflection;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.io.*;
+import java.lang.reflect.Field;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.regex.Pattern;
 
 /**
@@ -63,6 +61,9 @@ public class XML<T> extends AbstractRequest<XML<T>, T> implements Serialize<XML,
 	/** The Xstream serializer instance */
 	private final XStream xstream = new XStream();
 
+	/** The fields of the target elements to serialize (+ ID). Empty → every field. See {@link #fields(Collection)}. */
+	private final Set<Field> fields = new HashSet<>();
+
 	/**
 	 * Default constructor. Initializes {@link #xstream}. Please use {@link #from(Class)}.
 	 * @param target the serialization target class
@@ -106,7 +107,7 @@ public class XML<T> extends AbstractRequest<XML<T>, T> implements Serialize<XML,
 			xstream.allowTypesByRegExp(new String[]{".*"});
 		}
 
-		xstream.registerConverter(new YopXMLConverter(xstream.getMapper(), target, new ArrayList<>()));
+		xstream.registerConverter(new YopXMLConverter(xstream.getMapper(), target, new ArrayList<>(), new HashSet<>()));
 		return (Collection<T>) xstream.fromXML(yopablesXML, target);
 	}
 
@@ -150,7 +151,7 @@ public class XML<T> extends AbstractRequest<XML<T>, T> implements Serialize<XML,
 			xstream.allowTypesByRegExp(new String[]{".*"});
 		}
 
-		xstream.registerConverter(new YopXMLConverter(xstream.getMapper(), target, new ArrayList<>()));
+		xstream.registerConverter(new YopXMLConverter(xstream.getMapper(), target, new ArrayList<>(), new HashSet<>()));
 		return (T) xstream.unmarshal(new DomReader(object), Reflection.newInstanceNoArgs(target));
 	}
 
@@ -197,12 +198,54 @@ public class XML<T> extends AbstractRequest<XML<T>, T> implements Serialize<XML,
 		return this;
 	}
 
+	@Override
+	public XML<T> fields(Collection<Field> fields) {
+		this.fields.addAll(fields);
+		return this;
+	}
+
 	@Override
 	public String execute() {
-		this.xstream.registerConverter(new YopXMLConverter<>(this.xstream.getMapper(), this.getTarget(), this.joins));
+		this.xstream.registerConverter(new YopXMLConverter<>(this.xstream.getMapper(), this.getTarget(), this.joins, this.fields));
 		return this.xstream.toXML(this.elements);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * The output is written using an XStream object output stream, whose root node is the {@link #rootAlias(String)}.
+	 */
+	@Override
+	public Output<T> open(Writer out) throws IOException {
+		this.xstream.registerConverter(new YopXMLConverter<>(this.xstream.getMapper(), this.getTarget(), this.joins, this.fields));
+
+		// XStream closes the underlying writer when the object stream is closed : only flush it.
+		Writer notClosing = new FilterWriter(out) {
+			@Override
+			public void close() throws IOException {
+				this.flush();
+			}
+		};
+		ObjectOutputStream stream = this.xstream.createObjectOutputStream(
+			notClosing,
+			this.xstream.getMapper().serializedClass(Yopables.class)
+		);
+		return new Output<T>() {
+			@Override
+			public void write(Collection<T> elements) throws IOException {
+				for (T element : elements) {
+					stream.writeObject(element);
+				}
+				stream.flush();
+			}
+
+			@Override
+			public void close() throws IOException {
+				stream.close();
+			}
+		};
+	}
+
 	/**
 	 * Set the root node alias for the output. Default is 'list'.
 	 * @param alias the root node alias
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * An XStream converter for Yopable objects.
@@ -27,12 +28,18 @@ import java.util.Set;
  * @param <Root> the object graph root type.
  */
 class YopXMLConverter<Root> extends ReflectionConverter {
+	/** The root path */
+	private static final Path ROOT = Paths.get("/");
+
 	/** The current serialization path in the join graph */
-	private Path path = Paths.get("/");
+	private Path path = ROOT;
 
 	/** The joins that must be serialized */
 	private Set<Path> joins = new HashSet<>();
 
+	/** Sparse fieldset : the root fields to serialize (+ ID). Empty → every field. */
+	private final Set<Field> fields;
+
 	/**
 	 * Create a converter for the given root and the join graph.
 	 * <br>
@@ -42,9 +49,12 @@ class YopXMLConverter<Root> extends ReflectionConverter {
 	 * @param mapper the XStream mapper ({@link XStream#getMapper()}
 	 * @param root   the serialization root class
 	 * @param joins  the serialization join graph
+	 * @param fields the root fields to serialize (+ ID). Empty → every field.
 	 */
-	YopXMLConverter(Mapper mapper, Class<Root> root, Collection<IJoin<Root, ?>> joins) {
+	YopXMLConverter(Mapper mapper, Class<Root> root, Collection<IJoin<Root, ?>> joins, Set<Field> fields) {
 		super(mapper, new YopReflectionProvider());
+		this.fields = fields;
+		((YopReflectionProvider) this.reflectionProvider).excluded = this::isExcluded;
 		for (IJoin<Root, ?> join : joins) {
 			toPaths(join, root, this.path, this.joins);
 		}
@@ -78,6 +88,21 @@ class YopXMLConverter<Root> extends ReflectionConverter {
 		}
 	}
 
+	/**
+	 * Is a field excluded by the sparse fieldset ({@link #fields}) ?
+	 * <br>
+	 * Only the non Yopable fields of the root objects can be excluded. The ID field is never excluded.
+	 * @param field the field to check
+	 * @return true if the field must not be serialized
+	 */
+	private boolean isExcluded(Field field) {
+		return ROOT.equals(this.path)
+			&& ! this.fields.isEmpty()
+			&& ! this.fields.contains(field)
+			&& ! ORMUtil.isYopable(Reflection.getTarget(field))
+			&& ! field.equals(ORMUtil.getIdField(field.getDeclaringClass()));
+	}
+
 	/**
 	 * A field is to be serialized if not static and not {@link YopXMLTransient}.
 	 * 'transient' fields WILL be serialized.
@@ -126,12 +151,26 @@ class YopXMLConverter<Root> extends ReflectionConverter {
 
 	/**
 	 * A custom XStream reflection provider that uses a {@link YopFieldDictionary} and {@link #shouldSerialize(Field)}.
+	 * <br>
+	 * The fields that are {@link #excluded} are not visited : no XML node at all is written for them.
 	 */
 	static class YopReflectionProvider extends PureJavaReflectionProvider {
+		/** The fields that must not be serialized. See {@link #isExcluded(Field)}. */
+		private Predicate<Field> excluded = field -> false;
+
 		private YopReflectionProvider() {
 			super(new YopFieldDictionary());
 		}
 
+		@Override
+		public void visitSerializableFields(Object object, Visitor visitor) {
+			super.visitSerializableFields(object, (name, type, definedIn, value) -> {
+				if (! this.excluded.test(this.fieldDictionary.field(definedIn, name, null))) {
+					visitor.visit(name, type, definedIn, value);
+				}
+			});
+		}
+
 		@Override
 		protected boolean fieldModifiersSupported(Field field) {
 			return shouldSerialize(field);
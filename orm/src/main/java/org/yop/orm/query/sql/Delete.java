@@ -14,6 +14,7 @@ import org.yop.orm.sql.adapter.IConnection;
 import org.yop.reflection.Reflection;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -170,6 +171,18 @@ public class Delete<T> extends WhereRequest<Delete<T>, T> implements JsonAble {
 		}
 	}
 
+	/**
+	 * Execute the DELETE queries asynchronously, 1 query per table. See {@link #executeQueries(IConnection)}.
+	 * <br>
+	 * See {@link AsyncExecutor#submit(IConnection, java.util.function.Function)} :
+	 * asynchronous actions on the same connection are executed in submission order.
+	 * @param connection the connection to use
+	 * @return a future that completes when the delete is over
+	 */
+	public CompletableFuture<Void> executeAsync(IConnection connection) {
+		return AsyncExecutor.submit(connection, c -> {this.executeQueries(c); return null;});
+	}
+
 	/**
 	 * Generate the SQL DELETE query
 	 * @param config     the SQL config (sql separator, use batch inserts...)
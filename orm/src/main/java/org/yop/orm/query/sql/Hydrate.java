@@ -1,16 +1,26 @@
 package org.yop.orm.query.sql;
 
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Primitives;
+import org.yop.orm.annotations.JoinColumn;
+import org.yop.orm.annotations.JoinTable;
+import org.yop.orm.evaluation.IdIn;
 import org.yop.orm.map.FirstLevelCache;
 import org.yop.orm.query.Context;
 import org.yop.orm.query.join.IJoin;
+import org.yop.orm.sql.*;
 import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.sql.dialect.IDialect;
 import org.yop.orm.util.ORMUtil;
+import org.yop.orm.util.TransformUtil;
 import org.yop.reflection.Reflection;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -73,6 +83,13 @@ import java.util.stream.Collectors;
  * </pre>
  * will fetch Jane's reporters and her manager.
  * Then it will recursively do the same onto her reporters and manager.
+ * <br><br>
+ * <b>About the {@link #recurseWithCTE()} method : </b>
+ * <br>
+ * The {@link #recurse()} option executes 1 query per level of the data graph.
+ * When every join is a direct self relation (e.g. Employee → reportsTo → Employee),
+ * the reachable IDs can be collected with a single 'WITH RECURSIVE' query.
+ * The reachable objects are then fetched in 1 batched pass (chunked by {@link Config#maxParams()}).
  * @param <T> the target type
  */
 public class Hydrate<T> extends SQLRequest<Hydrate<T>, T>{
@@ -85,6 +102,12 @@ public class Hydrate<T> extends SQLRequest<Hydrate<T>, T>{
 	/** Recurse onto any T element fetched by this hydration. */
 	private boolean recurse;
 
+	/** Collect the reachable IDs using a recursive common table expression, if possible. */
+	private boolean cte;
+
+	/** The ID column alias in the recursive query output */
+	private static final String REACHABLE_ID = "yop_id";
+
 	/**
 	 * Private constructor. Please use {@link #from(Class)} which does the same job.
 	 * @param target the target class
@@ -146,6 +169,28 @@ public class Hydrate<T> extends SQLRequest<Hydrate<T>, T>{
 		return this;
 	}
 
+	/**
+	 * Activate the recurse option, using a recursive common table expression to collect the reachable IDs.
+	 * <br>
+	 * 1 'WITH RECURSIVE' query collects the IDs of every T object reachable from the {@link #elements}.
+	 * Then the reachable objects are fetched with the join clauses in 1 batched pass.
+	 * <br>
+	 * This is only possible if :
+	 * <ul>
+	 *     <li>the dialect supports it : {@link IDialect#recursiveCTE()}</li>
+	 *     <li>every join is a direct T → T relation (@JoinTable or @JoinColumn), with no sub-join or where clause</li>
+	 * </ul>
+	 * Else, this falls back to the {@link #recurse()} behavior.
+	 * <br>
+	 * <b>Please read the disclaimer in {@link Hydrate} about the recurse option !</b>
+	 * @return the current Hydrate request, for chaining purposes
+	 */
+	public Hydrate<T> recurseWithCTE() {
+		this.recurse = true;
+		this.cte = true;
+		return this;
+	}
+
 	/**
 	 * Add joins to this request.
 	 * @param joins the joins to use in this request
@@ -181,9 +226,29 @@ public class Hydrate<T> extends SQLRequest<Hydrate<T>, T>{
 			logger.warn("Hydrate on no relation. Are you sure you did not forget using #join() ?");
 			return;
 		}
+		if (this.cte) {
+			List<String> edges = this.edges(connection.config());
+			if (edges != null) {
+				this.recurseWithCTE(connection, edges, strategy);
+				return;
+			}
+			logger.info("Recursive CTE is not applicable for [{}]. Falling back to recurse.", this.getTarget());
+		}
 		this.recurse(connection, new FirstLevelCache(), new ArrayList<>(), strategy);
 	}
 
+	/**
+	 * Hydrate, asynchronously ! See {@link #execute(IConnection)}.
+	 * <br>
+	 * See {@link AsyncExecutor#submit(IConnection, java.util.function.Function)} :
+	 * asynchronous actions on the same connection are executed in submission order.
+	 * @param connection the connection to use for the hydration query
+	 * @return a future that completes when the hydration is over
+	 */
+	public CompletableFuture<Void> executeAsync(IConnection connection) {
+		return AsyncExecutor.submit(connection, c -> {this.execute(c); return null;});
+	}
+
 	/**
 	 * Recursively fetch the given cyclic relation on the target {@link #elements}.
 	 * <br>
@@ -243,6 +308,148 @@ public class Hydrate<T> extends SQLRequest<Hydrate<T>, T>{
 		}
 	}
 
+	/**
+	 * Collect the reachable IDs with a recursive query and hydrate every reachable object in 1 batched pass.
+	 * <br>
+	 * The fetched objects share a first level cache : the relations are set onto the {@link #elements}.
+	 * @param connection the connection to use
+	 * @param edges      the edge queries, see {@link #edges(Config)}
+	 * @param strategy   the select strategy for the hydration pass
+	 */
+	private void recurseWithCTE(IConnection connection, List<String> edges, Select.Strategy strategy) {
+		Config config = connection.config();
+		FirstLevelCache cache = new FirstLevelCache();
+		this.elements.forEach(cache::put);
+		Map<Comparable, T> byID = new HashMap<>();
+		this.elements.forEach(element -> byID.put(ORMUtil.readId(element), element));
+
+		Set<Comparable> reachable = new LinkedHashSet<>();
+		List<Comparable> seeds = new ArrayList<>(byID.keySet());
+		while (! seeds.isEmpty()) {
+			List<Comparable> frontier = new ArrayList<>();
+			for (List<Comparable> seed : Lists.partition(seeds, config.maxParams())) {
+				this.reachable(connection, seed, edges, reachable, frontier);
+			}
+			seeds = frontier;
+		}
+		logger.debug("[{}] reachable [{}] from [{}] elements", reachable.size(), this.getTarget(), byID.size());
+
+		Set<T> fetched = new HashSet<>();
+		for (List<Comparable> chunk : Lists.partition(new ArrayList<>(reachable), config.maxParams())) {
+			Select<T> select = Select.from(this.getTarget()).setCache(cache).where(Where.id(chunk));
+			this.joins.forEach(select::join);
+			fetched.addAll(select.execute(connection, strategy));
+		}
+
+		for (IJoin<T, ?> join : this.joins) {
+			Field field = join.getField(this.getTarget());
+			for (T from : fetched) {
+				T into = byID.get(ORMUtil.readId(from));
+				if (into != null && into != from) {
+					Reflection.setFrom(field, from, into);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Execute the recursive query : the IDs reachable from some seed IDs, following the edges.
+	 * <br>
+	 * If the recursion depth is bounded ({@link IDialect#recursiveCTEDepth()}),
+	 * the new IDs at the max depth were not followed : they are added to the frontier, for the next recursive query.
+	 * @param connection the connection to use
+	 * @param seed       the seed IDs. Their number should be lower than {@link Config#maxParams()}.
+	 * @param edges      the edge queries, see {@link #edges(Config)}
+	 * @param reachable  the reachable IDs, including the seed IDs, converted to the ID field type. Fed.
+	 * @param frontier   the new reachable IDs that must be followed by the next recursive query. Fed.
+	 */
+	private void reachable(
+		IConnection connection,
+		List<Comparable> seed,
+		List<String> edges,
+		Set<Comparable> reachable,
+		Collection<Comparable> frontier) {
+
+		Config config = connection.config();
+		int depth = config.getDialect().recursiveCTEDepth();
+		Class<?> idType = Primitives.wrap(ORMUtil.getIdField(this.getTarget()).getType());
+		SQLExpression seedQuery = config.getDialect().select(
+			false,
+			SQLColumn.id(this.context, config).qualifiedName(),
+			this.context.getTableName(),
+			this.context.getPath(config),
+			"",
+			new IdIn(seed).toSQL(this.context, config),
+			""
+		);
+
+		Executor.executeQuery(
+			connection,
+			new SimpleQuery(
+				config.getDialect().reachable(REACHABLE_ID, seedQuery, edges),
+				Query.Type.SELECT,
+				config
+			),
+			results -> {
+				while (results.getCursor().next()) {
+					Comparable id = (Comparable) TransformUtil.transform(
+						results.getCursor().getObject(REACHABLE_ID),
+						idType
+					);
+					if (reachable.add(id) && depth > 0 && results.getCursor().getLong(2) >= depth) {
+						frontier.add(id);
+					}
+				}
+				return null;
+			}
+		);
+	}
+
+	/**
+	 * Build the edge queries of the recursive query, 1 per join.
+	 * <br>
+	 * An edge is a (source ID, target ID) pair, read from the join table or from the join column.
+	 * @param config the SQL config
+	 * @return the edge queries, or null if the recursive query is not applicable (see {@link #recurseWithCTE()})
+	 */
+	private List<String> edges(Config config) {
+		IDialect dialect = config.getDialect();
+		if (! dialect.recursiveCTE()) {
+			return null;
+		}
+
+		String table = ORMUtil.getTableQualifiedName(this.getTarget());
+		String id = ORMUtil.getIdColumn(this.getTarget());
+		List<String> edges = new ArrayList<>();
+		for (IJoin<T, ?> join : this.joins) {
+			Field field = join.getField(this.getTarget());
+			if (join.getTarget(field) != this.getTarget()
+				|| ! join.getJoins().isEmpty()
+				|| (join instanceof SQLJoin && ! ((SQLJoin) join).where().isEmpty())) {
+				return null;
+			}
+
+			if (field.isAnnotationPresent(JoinTable.class)) {
+				JoinTable joinTable = field.getAnnotation(JoinTable.class);
+				edges.add(dialect.edge(
+					ORMUtil.getJoinTableQualifiedName(joinTable),
+					joinTable.sourceColumn(),
+					joinTable.targetColumn()
+				));
+			} else if (field.isAnnotationPresent(JoinColumn.class)) {
+				JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+				if (StringUtils.isNotBlank(joinColumn.local())) {
+					edges.add(dialect.edge(table, id, joinColumn.local()));
+				} else {
+					edges.add(dialect.edge(table, joinColumn.remote(), id));
+				}
+			} else {
+				return null;
+			}
+		}
+		return edges;
+	}
+
 	/**
 	 * Walk through the sources, using the join object and find any 'target' typed object.
 	 * @param join       the join path
@@ -0,0 +1,213 @@
+package org.yop.orm.query.sql;
+
+import com.google.common.primitives.Primitives;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.map.FirstLevelCache;
+import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.util.ORMUtil;
+import org.yop.orm.util.TransformUtil;
+
+import java.util.*;
+
+/**
+ * A request scoped loader : batch the 'by ID' lookups.
+ * <br>
+ * Instead of executing one 'by ID' {@link Select} per object (N+1 queries) :
+ * <ul>
+ *     <li>{@link #load(Class, Comparable)} returns a {@link Deferred} handle and registers the ID</li>
+ *     <li>
+ *         at the next dispatch point ({@link #dispatch()} or the first {@link Deferred#get()} of a pending handle),
+ *         every pending ID is resolved, using one 'by ID' query per target class
+ *         (see {@link Select#byIds(Collection, FirstLevelCache, IConnection)})
+ *     </li>
+ *     <li>the loaded objects are shared through a {@link FirstLevelCache} : an ID is never loaded twice</li>
+ * </ul>
+ * Example :
+ * <pre>
+ * {@code
+ * try (Loader loader = Loader.open(connection)) {
+ *   List<Loader.Deferred<Pojo>> pojos = ids.stream().map(id -> loader.load(Pojo.class, id)).collect(toList());
+ *   loader.dispatch();
+ *   pojos.forEach(pojo -> doSomething(pojo.get()));
+ * }
+ * }
+ * </pre>
+ * The loader opened on the current thread is available through {@link #current()} until it is closed.
+ * <br>
+ * Only the target objects are loaded : no join.
+ * <br><br>
+ * <b>
+ *     ⚠⚠⚠
+ *     A loader is request scoped : it is not thread safe and its cache is not invalidated by writes !
+ *     Use {@link #clear()} after writing on the connection.
+ *     ⚠⚠⚠
+ * </b>
+ */
+public class Loader implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(Loader.class);
+
+	/** The loader opened on the current thread */
+	private static final ThreadLocal<Loader> CURRENT = new ThreadLocal<>();
+
+	/** The connection to use */
+	private final IConnection connection;
+
+	/** The loader that was opened on the current thread before this one. Restored when this one is closed. */
+	private final Loader previous;
+
+	/** The loaded objects. Replaced on {@link #clear()}. */
+	private FirstLevelCache cache = new FirstLevelCache();
+
+	/** The IDs to load at the next dispatch point, by target class */
+	private final Map<Class<?>, Set<Comparable>> pending = new LinkedHashMap<>();
+
+	/** The IDs that were looked for but not found, by target class */
+	private final Map<Class<?>, Set<Comparable>> missing = new HashMap<>();
+
+	/**
+	 * Private constructor. Please use {@link #open(IConnection)}.
+	 * @param connection the connection to use
+	 * @param previous   the loader that was opened on the current thread. Can be null.
+	 */
+	private Loader(IConnection connection, Loader previous) {
+		this.connection = connection;
+		this.previous = previous;
+	}
+
+	/**
+	 * Open a new loader for the current thread. Do not forget to {@link #close()} it !
+	 * @param connection the connection to use
+	 * @return a new loader, available through {@link #current()} until closed
+	 */
+	public static Loader open(IConnection connection) {
+		Loader loader = new Loader(connection, CURRENT.get());
+		CURRENT.set(loader);
+		return loader;
+	}
+
+	/**
+	 * Get the loader opened on the current thread, if any.
+	 * @return the current thread loader, or an empty optional
+	 */
+	public static Optional<Loader> current() {
+		return Optional.ofNullable(CURRENT.get());
+	}
+
+	/**
+	 * Register an ID to load. Nothing is executed here.
+	 * @param clazz the target class
+	 * @param id    the target ID. It is converted to the ID field type if required (e.g. Integer → Long).
+	 * @param <T> the target type
+	 * @return a handle on the target object, that is resolved at the next dispatch point
+	 */
+	public <T> Deferred<T> load(Class<T> clazz, Comparable id) {
+		Comparable key = (Comparable) TransformUtil.transform(
+			id,
+			Primitives.wrap(ORMUtil.getIdField(clazz).getType())
+		);
+		if (!this.isKnown(clazz, key)) {
+			this.pending.computeIfAbsent(clazz, c -> new LinkedHashSet<>()).add(key);
+		}
+		return new Deferred<>(this, clazz, key);
+	}
+
+	/**
+	 * Resolve every pending ID : one 'by ID' query (chunked) per target class.
+	 * <br>
+	 * This is a no-op if there is no pending ID.
+	 * @throws org.yop.orm.exception.YopSQLException an SQL error occurred
+	 */
+	public void dispatch() {
+		for (Map.Entry<Class<?>, Set<Comparable>> entry : this.pending.entrySet()) {
+			this.dispatch(entry.getKey(), entry.getValue());
+		}
+		this.pending.clear();
+	}
+
+	/**
+	 * Forget the loaded objects and the IDs that were not found : they will be loaded again.
+	 * <br>
+	 * The pending IDs are kept. A {@link Deferred} that was already resolved is loaded again on its next get.
+	 */
+	public void clear() {
+		this.cache = new FirstLevelCache();
+		this.missing.clear();
+	}
+
+	/**
+	 * Close this loader : the loader that was opened before on the current thread is restored.
+	 */
+	@Override
+	public void close() {
+		if (CURRENT.get() == this) {
+			if (this.previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(this.previous);
+			}
+		}
+	}
+
+	/**
+	 * Load the given IDs of a target class.
+	 * @param clazz the target class
+	 * @param ids   the IDs to load
+	 * @param <T> the target type
+	 */
+	private <T> void dispatch(Class<T> clazz, Set<Comparable> ids) {
+		logger.debug("Loading [{}] IDs for [{}]", ids.size(), clazz.getName());
+		Select.from(clazz).byIds(ids, this.cache, this.connection);
+
+		Set<Comparable> missing = this.missing.computeIfAbsent(clazz, c -> new HashSet<>());
+		ids.stream().filter(id -> !this.cache.has(clazz, id)).forEach(missing::add);
+	}
+
+	/**
+	 * Has the target object been looked for already ?
+	 * @param clazz the target class
+	 * @param id    the target ID
+	 * @return true if the object was loaded or was not found
+	 */
+	private boolean isKnown(Class<?> clazz, Comparable id) {
+		return this.cache.has(clazz, id) || this.missing.getOrDefault(clazz, Collections.emptySet()).contains(id);
+	}
+
+	/**
+	 * A handle on an object to load.
+	 * @param <T> the target type
+	 */
+	public static final class Deferred<T> {
+		private final Loader loader;
+		private final Class<T> clazz;
+		private final Comparable id;
+
+		private Deferred(Loader loader, Class<T> clazz, Comparable id) {
+			this.loader = loader;
+			this.clazz = clazz;
+			this.id = id;
+		}
+
+		/**
+		 * Is the target object loaded (or known to be missing) ?
+		 * @return true if {@link #get()} will not execute any query
+		 */
+		public boolean isResolved() {
+			return this.loader.isKnown(this.clazz, this.id);
+		}
+
+		/**
+		 * Get the target object. If not resolved yet, every pending ID of the loader is dispatched.
+		 * @return the target object, null if there is no object for the ID
+		 * @throws org.yop.orm.exception.YopSQLException an SQL error occurred
+		 */
+		public T get() {
+			if (!this.isResolved()) {
+				this.loader.load(this.clazz, this.id);
+				this.loader.dispatch();
+			}
+			return this.loader.cache.has(this.clazz, this.id) ? this.loader.cache.get(this.clazz, this.id) : null;
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package org.yop.orm.query.sql;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.annotations.Column;
+import org.yop.orm.evaluation.IdRange;
+import org.yop.orm.exception.YopRuntimeException;
+import org.yop.orm.map.Accessors;
+import org.yop.orm.sql.Config;
+import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.util.ORMUtil;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * A natural key Bloom filter for a target class : skip the natural key lookups of elements that do not exist yet.
+ * <br>
+ * A Bloom filter can answer 'definitely absent' or 'might exist'.
+ * When {@link Upsert#checkNaturalID(NaturalKeyFilter)} is used, the elements whose natural key is definitely absent
+ * are not looked for : this is a huge win for insert-mostly ingestion.
+ * <br><br>
+ * The filter is fed :
+ * <ul>
+ *     <li>with a scan of the target table : {@link #load(IConnection)} (ID range chunks, natural key columns only)</li>
+ *     <li>incrementally, with every element saved by an {@link Upsert} that uses this filter</li>
+ * </ul>
+ * Its size is set from a memory budget ({@link Config#naturalKeyFilterBytes()})
+ * and a target false positive probability ({@link Config#naturalKeyFilterFpp()}).
+ * The observed false positive rate is available : {@link #falsePositiveRate()}.
+ * <br><br>
+ * A filter is bound to a database : keep one filter per target class and per database.
+ * Only natural keys made of @Column fields are supported.
+ * <br>
+ * <b>
+ *     ⚠⚠⚠
+ *     The rows that are inserted by anything else than an Upsert with this filter (e.g. another process)
+ *     are unknown to the filter : their natural keys will be considered absent !
+ *     ⚠⚠⚠
+ * </b>
+ * @param <T> the target type
+ */
+public class NaturalKeyFilter<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(NaturalKeyFilter.class);
+
+	/** Default ID range width for {@link #load(IConnection)} */
+	public static final int DEFAULT_SCAN_RANGE = 10_000;
+
+	/** The target class */
+	private final Class<T> target;
+
+	/** The natural key fields of the target class */
+	private final List<Field> naturalKey;
+
+	/** The Bloom filter. Guava's implementation is thread safe. */
+	private final BloomFilter<T> filter;
+
+	/** Number of elements that were checked against the filter */
+	private final LongAdder checked = new LongAdder();
+
+	/** Number of elements whose natural key was definitely absent : the lookup was skipped */
+	private final LongAdder skipped = new LongAdder();
+
+	/** Number of elements whose natural key might exist, but was not found */
+	private final LongAdder falsePositives = new LongAdder();
+
+	/**
+	 * Private constructor. Please use {@link #create(Class, Config)}.
+	 * @param target     the target class
+	 * @param naturalKey the natural key fields of the target class
+	 * @param filter     the Bloom filter
+	 */
+	private NaturalKeyFilter(Class<T> target, List<Field> naturalKey, BloomFilter<T> filter) {
+		this.target = target;
+		this.naturalKey = naturalKey;
+		this.filter = filter;
+	}
+
+	/**
+	 * Create an empty natural key filter for a target class.
+	 * <br>
+	 * The expected number of natural keys is computed from the memory budget and the false positive probability.
+	 * @param target the target class
+	 * @param config the SQL config : {@link Config#naturalKeyFilterBytes()} and {@link Config#naturalKeyFilterFpp()}
+	 * @param <T> the target type
+	 * @return a new, empty, natural key filter. Feed it using {@link #load(IConnection)} !
+	 * @throws YopRuntimeException the target has no natural key or a natural key field that is not a @Column
+	 */
+	public static <T> NaturalKeyFilter<T> create(Class<T> target, Config config) {
+		List<Field> naturalKey = ORMUtil.getNaturalKeyFields(target);
+		if (naturalKey.isEmpty() || naturalKey.stream().anyMatch(field -> !field.isAnnotationPresent(Column.class))) {
+			throw new YopRuntimeException(
+				"Natural key filter on [" + target.getName() + "] requires a natural key of @Column fields only."
+			);
+		}
+
+		double fpp = config.naturalKeyFilterFpp();
+		long bits = 8 * config.naturalKeyFilterBytes();
+		long expected = Math.max(1, (long) (bits * Math.log(2) * Math.log(2) / -Math.log(fpp)));
+		logger.info("Natural key filter for [{}] : [{}] expected keys, fpp [{}]", target.getName(), expected, fpp);
+
+		return new NaturalKeyFilter<>(target, naturalKey, BloomFilter.create(funnel(naturalKey), expected, fpp));
+	}
+
+	/**
+	 * Feed the filter with the natural keys of the target table, using ID range chunks of {@link #DEFAULT_SCAN_RANGE}.
+	 * <br>
+	 * See {@link #load(IConnection, int)}.
+	 * @param connection the connection to use
+	 * @return the current filter, for chaining purposes
+	 */
+	public NaturalKeyFilter<T> load(IConnection connection) {
+		return this.load(connection, DEFAULT_SCAN_RANGE);
+	}
+
+	/**
+	 * Feed the filter with the natural keys of the target table.
+	 * <br>
+	 * Only the ID and natural key columns are read (no join, see {@link Select#columns(Collection)}).
+	 * For integral IDs (see {@link ORMUtil#isIntegralId(Class)}), the table is read by ID range chunks :
+	 * only 1 chunk of objects is in memory at once.
+	 * Other IDs, or IDs out of the long range, are read with a single query.
+	 * @param connection the connection to use
+	 * @param range      the ID range width of a chunk
+	 * @return the current filter, for chaining purposes
+	 */
+	public NaturalKeyFilter<T> load(IConnection connection, int range) {
+		Long[] bounds = null;
+		if (ORMUtil.isIntegralId(this.target)) {
+			try {
+				bounds = Select.from(this.target).idBounds(connection);
+				if (bounds == null) {
+					return this;
+				}
+			} catch (ArithmeticException e) {
+				logger.warn("Natural key filter for [{}] : ID range overflow. Single query.", this.target.getName(), e);
+			}
+		}
+
+		if (bounds == null) {
+			this.scan().execute(connection, Select.Strategy.IN).forEach(this::put);
+			return this;
+		}
+
+		long from = bounds[0];
+		while (true) {
+			long to = from + range - 1;
+			if (to < from || to > bounds[1]) {
+				to = bounds[1];
+			}
+			this.scan().where(new IdRange(from, to)).execute(connection, Select.Strategy.IN).forEach(this::put);
+			if (to == bounds[1]) {
+				break;
+			}
+			from = to + 1;
+		}
+		logger.debug("Natural key filter for [{}] loaded : ~[{}] keys", this.target.getName(), this.approximateCount());
+		return this;
+	}
+
+	/**
+	 * A scan query of the target table : ID and natural key columns only.
+	 * @return a new Select query, with a natural key projection
+	 */
+	private Select<T> scan() {
+		return Select.from(this.target).columns(this.naturalKey);
+	}
+
+	/**
+	 * Add the natural key of an element to the filter.
+	 * @param element the element
+	 */
+	public void put(T element) {
+		this.filter.put(element);
+	}
+
+	/**
+	 * Might the natural key of an element exist ?
+	 * @param element the element
+	 * @return false if the natural key is definitely absent, true if it might exist
+	 */
+	public boolean mightExist(T element) {
+		return this.filter.mightContain(element);
+	}
+
+	/**
+	 * The observed false positive rate : natural keys that might have existed but were not found,
+	 * over all the natural keys that did not exist (not found + skipped).
+	 * @return the observed false positive rate, 0 if nothing was checked yet
+	 */
+	public double falsePositiveRate() {
+		long falsePositives = this.falsePositives.sum();
+		long negatives = falsePositives + this.skipped.sum();
+		return negatives == 0 ? 0 : (double) falsePositives / negatives;
+	}
+
+	/**
+	 * The false positive probability that is expected for the current filter content.
+	 * @return {@link BloomFilter#expectedFpp()}
+	 */
+	public double expectedFpp() {
+		return this.filter.expectedFpp();
+	}
+
+	/**
+	 * The approximate number of natural keys in the filter.
+	 * @return {@link BloomFilter#approximateElementCount()}
+	 */
+	public long approximateCount() {
+		return this.filter.approximateElementCount();
+	}
+
+	/**
+	 * The number of elements that were checked against the filter.
+	 * @return the number of checks
+	 */
+	public long checked() {
+		return this.checked.sum();
+	}
+
+	/**
+	 * The number of elements whose natural key lookup was skipped.
+	 * @return the number of skipped lookups
+	 */
+	public long skipped() {
+		return this.skipped.sum();
+	}
+
+	/**
+	 * Keep the elements whose natural key might exist. Update the metrics.
+	 * @param elements the elements whose natural key should be looked for
+	 * @return the elements that must actually be looked for
+	 */
+	List<T> candidates(Collection<T> elements) {
+		List<T> candidates = elements.stream().filter(this::mightExist).collect(Collectors.toList());
+		this.checked.add(elements.size());
+		this.skipped.add(elements.size() - candidates.size());
+		return candidates;
+	}
+
+	/**
+	 * Record the outcome of the lookup of some {@link #candidates(Collection)}.
+	 * @param candidates the number of elements that were looked for
+	 * @param found      the number of elements that were found
+	 */
+	void found(long candidates, long found) {
+		this.falsePositives.add(candidates - found);
+	}
+
+	/**
+	 * Create the Bloom filter funnel : the natural key field values, in a canonical form.
+	 * @param naturalKey the natural key fields
+	 * @param <T> the target type
+	 * @return a funnel for the natural key of T
+	 */
+	private static <T> Funnel<T> funnel(List<Field> naturalKey) {
+		return (element, into) -> {
+			for (Field field : naturalKey) {
+				into.putString(String.valueOf(canonical(Accessors.read(field, element))), StandardCharsets.UTF_8);
+				into.putByte((byte) 0);
+			}
+		};
+	}
+
+	/**
+	 * The canonical form of a natural key value : the same value, read from the DB or set by the user, must match.
+	 * <br>
+	 * e.g. a java.util.Date from the user and a java.sql.Timestamp from the DB, or BigDecimal scales.
+	 * @param value the natural key value
+	 * @return the canonical natural key value
+	 */
+	private static Object canonical(Object value) {
+		if (value instanceof Date) {
+			return ((Date) value).getTime();
+		}
+		if (value instanceof Calendar) {
+			return ((Calendar) value).getTimeInMillis();
+		}
+		if (value instanceof BigDecimal) {
+			return ((BigDecimal) value).stripTrailingZeros().toPlainString();
+		}
+		return value;
+	}
+}
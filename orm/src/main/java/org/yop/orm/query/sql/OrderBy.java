@@ -7,6 +7,7 @@ import org.yop.reflection.Reflection;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 
@@ -70,6 +71,34 @@ public class OrderBy<T> {
 		return this;
 	}
 
+	/**
+	 * Is there any order in this clause ?
+	 * @return true if there is no field ordering
+	 */
+	boolean isEmpty() {
+		return this.orders.isEmpty();
+	}
+
+	/**
+	 * Get a comparator on the target type, for this ORDER BY clause. Null values come first (ASC).
+	 * <br>
+	 * This can be used to merge several sorted results.
+	 * <b>⚠⚠⚠ Java comparison might not exactly match the DBMS collation (e.g. case sensitivity) ⚠⚠⚠</b>
+	 * @return a comparator for this clause getters and directions
+	 */
+	@SuppressWarnings("unchecked")
+	Comparator<T> comparator() {
+		Comparator<T> comparator = (a, b) -> 0;
+		for (Order<T, ?> order : this.orders) {
+			Comparator<T> byGetter = Comparator.comparing(
+				element -> (Comparable) order.getter.apply(element),
+				Comparator.nullsFirst(Comparator.naturalOrder())
+			);
+			comparator = comparator.thenComparing(order.asc ? byGetter : byGetter.reversed());
+		}
+		return comparator;
+	}
+
 	/**
 	 * Generate the 'ORDER BY' SQL portion for the {@link #orders}
 	 * @param target the target type (holding the fields whose getters are into {@link #orders}).
@@ -55,7 +55,7 @@ public class SQLJoin<From, To> extends Join<From, To> {
 	}
 
 	/** The where clause on the target class */
-	protected final Where<To> where = new Where<>();
+	protected Where<To> where = new Where<>();
 
 	/**
 	 * Get the join clause where clause
@@ -182,6 +182,30 @@ public class SQLJoin<From, To> extends Join<From, To> {
 		return to;
 	}
 
+	/**
+	 * Copy a join clause and its sub-joins, so the copy can be used concurrently with the original.
+	 * <br>
+	 * The fields are resolved now, the where clauses are copied (see {@link Where#copy()}).
+	 * The getters and the evaluations are shared.
+	 * @param join the join clause to copy
+	 * @param from the join source class
+	 * @param <From> the source type
+	 * @param <To>   the target type
+	 * @return a new join clause, with copied sub-joins
+	 */
+	@SuppressWarnings("unchecked")
+	static <From, To> SQLJoin<From, To> copy(IJoin<From, To> join, Class<From> from) {
+		SQLJoin<From, To> original = toSQLJoin(join);
+		SQLJoin<From, To> copy = new SQLJoin<>();
+		copy.field = original.getField(from);
+		copy.getter = original.getter;
+		copy.where = original.where.copy();
+
+		Class<To> to = original.getTarget(copy.field);
+		original.getJoins().forEach(next -> copy.joins.add(copy((IJoin) next, to)));
+		return copy;
+	}
+
 	@SuppressWarnings("unchecked")
 	static <From, To> SQLJoin<From, To> toSQLJoin(IJoin<From, To> join) {
 		if (join == null) {
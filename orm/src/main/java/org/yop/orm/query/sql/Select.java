@@ -1,10 +1,15 @@
 package org.yop.orm.query.sql;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Primitives;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yop.orm.evaluation.IdIn;
+import org.yop.orm.evaluation.IdRange;
 import org.yop.orm.exception.YopSQLException;
 import org.yop.orm.exception.YopSerializableQueryException;
 import org.yop.orm.map.FirstLevelCache;
@@ -15,12 +20,17 @@ import org.yop.orm.query.join.IJoin;
 import org.yop.orm.sql.*;
 import org.yop.orm.sql.adapter.IConnection;
 import org.yop.orm.util.ORMUtil;
+import org.yop.orm.util.TransformUtil;
 import org.yop.reflection.Reflection;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -54,6 +64,14 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 
 	public enum Strategy {IN, EXISTS}
 
+	/** Version stamp query : COUNT and MAX columns aliases */
+	private static final String VERSION_COUNT = "yop_count";
+	private static final String VERSION_MAX   = "yop_max";
+
+	/** ID bounds query : MIN and MAX columns aliases */
+	private static final String ID_MIN = "yop_id_min";
+	private static final String ID_MAX = "yop_id_max";
+
 	/** Order by clause. Defaults to no order.  */
 	private OrderBy<T> orderBy = new OrderBy<>();
 
@@ -66,6 +84,9 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 	/** Lock the Select results (i.e. SELECT... FOR UPDATE) */
 	private boolean lock = false;
 
+	/** Column projection : the target class @Column fields to select (+ ID). Empty → select every @Column field. */
+	private final Set<Field> projection = new HashSet<>();
+
 	/**
 	 * Private constructor. Please use {@link #from(Class)}
 	 * @param from the target class (select from class)
@@ -176,6 +197,38 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		return this;
 	}
 
+	/**
+	 * Column projection.
+	 * <br>
+	 * Restrict the selected columns of the target class to the given fields (via their getters) and the ID.
+	 * The other @Column fields of the target class are not read : they keep their default value.
+	 * <br>
+	 * The columns of the joined classes are not restricted : they are selected as usual.
+	 * <br>
+	 * <b>⚠⚠⚠ Do not update the partial objects of a projection : the missing fields would be overwritten ! ⚠⚠⚠</b>
+	 * @param getters the getters of the @Column fields to select
+	 * @return the current SELECT query, for chaining purposes.
+	 */
+	@SafeVarargs
+	public final Select<T> columns(Function<T, ?>... getters) {
+		for (Function<T, ?> getter : getters) {
+			this.projection.add(Reflection.findField(this.getTarget(), getter));
+		}
+		return this;
+	}
+
+	/**
+	 * Column projection.
+	 * <br>
+	 * See {@link #columns(Function[])}. Only the @Column fields of the target class are relevant.
+	 * @param fields the @Column fields of the target class to select
+	 * @return the current SELECT query, for chaining purposes.
+	 */
+	public Select<T> columns(Collection<Field> fields) {
+		this.projection.addAll(fields);
+		return this;
+	}
+
 	/**
 	 * Set a cache to use.
 	 * <br>
@@ -219,12 +272,7 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		SQLExpression request = this.toSQLAnswerRequest(connection.config());
 		Query query = new SimpleQuery(request, Query.Type.SELECT, connection.config());
 
-		Set<T> elements = Executor.executeSelectQuery(
-			connection,
-			query,
-			this.context.getTarget(),
-			this.cache == null ? new FirstLevelCache() : this.cache
-		);
+		Set<T> elements = this.select(connection, query);
 		ids = elements.stream().map(ORMUtil::readId).distinct().collect(Collectors.toList());
 
 		if (this.paging.isPaging()) {
@@ -236,13 +284,7 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		}
 
 		request = this.toSQLDataRequest(new HashSet<>(ids), connection.config());
-		query = new SimpleQuery(request, Query.Type.SELECT, connection.config());
-		return Executor.executeSelectQuery(
-			connection,
-			query,
-			this.context.getTarget(),
-			this.cache == null ? new FirstLevelCache() : this.cache
-		);
+		return this.select(connection, new SimpleQuery(request, Query.Type.SELECT, connection.config()));
 	}
 
 	/**
@@ -275,12 +317,7 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 			? this.toSQLDataRequestWithIN(connection.config())
 			: this.toSQLDataRequestWithEXISTS(connection.config());
 
-		return Executor.executeSelectQuery(
-			connection,
-			new SimpleQuery(request, Query.Type.SELECT, connection.config()),
-			this.context.getTarget(),
-			this.cache == null ? new FirstLevelCache() : this.cache
-		);
+		return this.select(connection, new SimpleQuery(request, Query.Type.SELECT, connection.config()));
 	}
 
 	/**
@@ -294,6 +331,18 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		return this.execute(connection, Strategy.EXISTS);
 	}
 
+	/**
+	 * Execute the SELECT request asynchronously, using the {@link Strategy#EXISTS} strategy.
+	 * <br>
+	 * See {@link AsyncExecutor#submit(IConnection, java.util.function.Function)} :
+	 * asynchronous actions on the same connection are executed in submission order.
+	 * @param connection the connection to use for the request
+	 * @return the future SELECT result, as a set of T
+	 */
+	public CompletableFuture<Set<T>> executeAsync(IConnection connection) {
+		return AsyncExecutor.submit(connection, this::execute);
+	}
+
 	/**
 	 * Convenience method that returns the first element of the results or null.
 	 * <br>
@@ -308,6 +357,90 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		return results.isEmpty() ? null : results.iterator().next();
 	}
 
+	/**
+	 * Primary key lookup : find the target object for an ID.
+	 * <br>
+	 * See {@link #byIds(Collection, FirstLevelCache, IConnection)}.
+	 * @param id         the target ID
+	 * @param connection the connection to use for the request
+	 * @return the target object or null if there is no match
+	 * @throws YopSQLException An SQL error occurred
+	 * @throws org.yop.orm.exception.YopMapperException A ResultSet → Yopables mapping error occurred
+	 */
+	public T byId(Comparable id, IConnection connection) {
+		List<T> results = this.byIds(Collections.singletonList(id), null, connection);
+		return results.isEmpty() ? null : results.get(0);
+	}
+
+	/**
+	 * Primary key lookup : find the target objects for some IDs.
+	 * <br>
+	 * See {@link #byIds(Collection, FirstLevelCache, IConnection)}.
+	 * @param ids        the target IDs
+	 * @param connection the connection to use for the request
+	 * @return the target objects, in the IDs order. IDs with no match are skipped.
+	 * @throws YopSQLException An SQL error occurred
+	 * @throws org.yop.orm.exception.YopMapperException A ResultSet → Yopables mapping error occurred
+	 */
+	public List<T> byIds(Collection<? extends Comparable> ids, IConnection connection) {
+		return this.byIds(ids, null, connection);
+	}
+
+	/**
+	 * Primary key lookup : find the target objects for some IDs, with a first level cache.
+	 * <br>
+	 * This is a fast path for 'by ID' queries :
+	 * <ul>
+	 *     <li>the IDs that are already in the cache are not queried</li>
+	 *     <li>
+	 *         the missing IDs are queried using a plain 'WHERE id IN (?,?...)' statement ({@link Strategy#IN} semantic),
+	 *         chunked using {@link Config#maxParams()}
+	 *     </li>
+	 *     <li>the queried objects are added to the cache</li>
+	 * </ul>
+	 * The joins and the where clause of this request are applied. The paging and the order are ignored.
+	 * <br><br>
+	 * <b>
+	 *     ⚠⚠⚠ The cached objects are returned as is : they might not have been fetched with the same joins ! ⚠⚠⚠
+	 * </b>
+	 * @param ids        the target IDs. Converted to the ID field type if required (e.g. Integer → Long).
+	 * @param cache      the cache to consult first and to fill. Can be null.
+	 * @param connection the connection to use for the request
+	 * @return the target objects, in the IDs order. IDs with no match are skipped.
+	 * @throws YopSQLException An SQL error occurred
+	 * @throws org.yop.orm.exception.YopMapperException A ResultSet → Yopables mapping error occurred
+	 */
+	public List<T> byIds(Collection<? extends Comparable> ids, FirstLevelCache cache, IConnection connection) {
+		Class<T> target = this.context.getTarget();
+		Class<?> idType = Primitives.wrap(ORMUtil.getIdField(target).getType());
+		Set<Comparable> keys = ids
+			.stream()
+			.map(id -> (Comparable) TransformUtil.transform(id, idType))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+
+		Map<Comparable, T> found = new HashMap<>();
+		List<Comparable> missing = new ArrayList<>();
+		for (Comparable key : keys) {
+			if (cache != null && cache.has(target, key)) {
+				found.put(key, cache.get(target, key));
+			} else {
+				missing.add(key);
+			}
+		}
+		logger.debug("By ID on [{}] : [{}] IDs, [{}] to query", target.getName(), keys.size(), missing.size());
+
+		Config config = connection.config();
+		for (List<Comparable> chunk : Lists.partition(missing, config.maxParams())) {
+			Query query = new SimpleQuery(this.toSQLByIdRequest(chunk, config), Query.Type.SELECT, config);
+			Set<T> elements = cache == null
+				? this.select(connection, query)
+				: Executor.executeSelectQuery(connection, query, target, cache);
+			elements.forEach(element -> found.put(ORMUtil.readId(element), element));
+		}
+
+		return keys.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
 	/**
 	 * Count the elements that match the query.
 	 * <br>
@@ -344,6 +477,141 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		);
 	}
 
+	/**
+	 * Execute the SELECT request on several connections concurrently, splitting the target IDs into partitions.
+	 * <br>
+	 * <ol>
+	 *     <li>Read the MIN/MAX target ID for this query (one cheap query)</li>
+	 *     <li>Split [MIN, MAX] into ranges</li>
+	 *     <li>Run this query with an {@link IdRange} restriction, one range per connection, concurrently</li>
+	 *     <li>Merge the results : using the {@link OrderBy} clause if any, else in ID range order</li>
+	 * </ol>
+	 * ⚠⚠⚠ <b>
+	 *     Only integral IDs (see {@link ORMUtil#isIntegralId(Class)}) in the long range can be partitioned.
+	 *     Paging cannot be partitioned.
+	 *     For these cases, {@link #execute(IConnection)} is used on a single connection.
+	 * </b> ⚠⚠⚠
+	 * <br>
+	 * Each partition is a copy of this query (where clause and join clauses)
+	 * and has its own {@link FirstLevelCache} :
+	 * a joined object that is shared by several partitions is not the same instance in the merged results.
+	 * <br>
+	 * The partitions run on the shared {@link AsyncExecutor#executor()}. The connections are closed after use.
+	 * <br>
+	 * ⚠⚠⚠ Do not call this method from an {@link AsyncExecutor} action : it blocks until the partitions are over ⚠⚠⚠
+	 * @param connections the connection supplier. Called once for the MIN/MAX query, then once per partition.
+	 * @param partitions  the max number of partitions (and connections used concurrently)
+	 * @return the SELECT result, as a set of T
+	 * @throws YopSQLException An SQL error occurred
+	 * @throws org.yop.orm.exception.YopMapperException A ResultSet → Yopables mapping error occurred
+	 */
+	public Set<T> executeParallel(Supplier<IConnection> connections, int partitions) {
+		Class<T> target = this.context.getTarget();
+		if (this.paging.isPaging() || partitions < 2 || ! ORMUtil.isIntegralId(target)) {
+			logger.warn(
+				"Select on [{}] cannot be partitioned (paging : [{}], partitions : [{}], ID type : [{}])",
+				target.getName(),
+				this.paging.isPaging(),
+				partitions,
+				ORMUtil.getIdField(target).getType().getName()
+			);
+			return Executor.withConnection(connections, this::execute);
+		}
+
+		Long[] bounds;
+		long span;
+		try {
+			bounds = Executor.withConnection(connections, this::idBounds);
+			if (bounds == null) {
+				return new LinkedHashSet<>();
+			}
+			span = Math.addExact(Math.subtractExact(bounds[1], bounds[0]), 1);
+		} catch (ArithmeticException e) {
+			logger.warn("Select on [{}] cannot be partitioned : ID range overflow", target.getName(), e);
+			return Executor.withConnection(connections, this::execute);
+		}
+
+		long step = span / partitions + (span % partitions == 0 ? 0 : 1);
+		List<CompletableFuture<Set<T>>> futures = new ArrayList<>();
+		long from = bounds[0];
+		while (true) {
+			long to = bounds[1] - from < step ? bounds[1] : from + step - 1;
+			Select<T> partition = this.partition(from, to);
+			futures.add(AsyncExecutor.submit(connections, partition::execute));
+			if (to == bounds[1]) {
+				break;
+			}
+			from = to + 1;
+		}
+
+		List<Set<T>> results = new ArrayList<>(futures.size());
+		for (CompletableFuture<Set<T>> future : futures) {
+			results.add(join(future));
+		}
+		return this.merge(results);
+	}
+
+	/**
+	 * Execute the SELECT query by chunks of root objects : keyset pagination on the ID.
+	 * <br>
+	 * Every chunk is a page of at most 'size' root objects, whose IDs are greater than the IDs of the previous chunk.
+	 * The chunks are given to the consumer as soon as they are read : only 1 chunk is held in memory at once.
+	 * <br>
+	 * ⚠⚠⚠ <b>
+	 *     Only integral IDs (see {@link ORMUtil#isIntegralId(Class)}) in the long range can be chunked.
+	 *     A query with paging or an {@link OrderBy} clause cannot be chunked.
+	 *     For these cases, {@link #execute(IConnection)} is used and the consumer gets a single chunk.
+	 * </b> ⚠⚠⚠
+	 * <br>
+	 * Each chunk has its own {@link FirstLevelCache} :
+	 * a joined object that is shared by several chunks is not the same instance in these chunks.
+	 * @param connection the connection to use
+	 * @param size       the max number of root objects in a chunk
+	 * @param chunks     what to do with each chunk, in ID order
+	 * @throws YopSQLException An SQL error occurred
+	 * @throws org.yop.orm.exception.YopMapperException A ResultSet → Yopables mapping error occurred
+	 */
+	public void executeByChunks(IConnection connection, long size, Consumer<Set<T>> chunks) {
+		Class<T> target = this.context.getTarget();
+		if (this.paging.isPaging() || ! this.orderBy.isEmpty() || ! ORMUtil.isIntegralId(target)) {
+			logger.debug("Select on [{}] cannot be chunked. Executing at once.", target.getName());
+			chunks.accept(this.execute(connection));
+			return;
+		}
+
+		Long[] bounds;
+		try {
+			bounds = this.idBounds(connection);
+		} catch (ArithmeticException e) {
+			logger.warn("Select on [{}] cannot be chunked : ID range overflow. Executing at once.", target.getName(), e);
+			chunks.accept(this.execute(connection));
+			return;
+		}
+		if (bounds == null) {
+			return;
+		}
+
+		long from = bounds[0];
+		while (from <= bounds[1]) {
+			Select<T> chunk = this.partition(from, bounds[1]);
+			chunk.paging = new Paging(null, size);
+			Set<T> elements = chunk.execute(connection);
+			if (elements.isEmpty()) {
+				return;
+			}
+			chunks.accept(elements);
+			long last = elements
+				.stream()
+				.mapToLong(element -> ((Number) ORMUtil.readId(element)).longValue())
+				.max()
+				.orElse(bounds[1]);
+			if (last >= bounds[1]) {
+				return;
+			}
+			from = last + 1;
+		}
+	}
+
 	/**
 	 * Get the target type table name from the @Table annotation
 	 * @return the target class (T) table name.
@@ -352,6 +620,193 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		return this.context.getTableName();
 	}
 
+	/**
+	 * Execute a SELECT query and map the results onto the target.
+	 * <br>
+	 * With no custom {@link #cache} and no {@link #lock}, identical queries might be coalesced :
+	 * see {@link Executor#executeSelectQuery(IConnection, Query, Class)}.
+	 * @param connection the connection to use for the request
+	 * @param query      the query
+	 * @return the query result, as a set of T
+	 */
+	private Set<T> select(IConnection connection, Query query) {
+		if (this.cache == null && !this.lock) {
+			return Executor.executeSelectQuery(connection, query, this.context.getTarget());
+		}
+		return Executor.executeSelectQuery(
+			connection,
+			query,
+			this.context.getTarget(),
+			this.cache == null ? new FirstLevelCache() : this.cache
+		);
+	}
+
+	/**
+	 * Read the MIN and MAX target IDs for this query. Only for integral IDs.
+	 * @param connection the connection to use for the request
+	 * @return [MIN, MAX] or null if no result
+	 * @throws ArithmeticException a bound is not in the long range
+	 */
+	Long[] idBounds(IConnection connection) {
+		Config config = connection.config();
+		JoinClause.JoinClauses joinClauses = this.toSQLJoin(true, config);
+		SQLExpression request = config.getDialect().select(
+			false,
+			config.getDialect().toSQLMinMax(SQLColumn.id(this.context, config).qualifiedName(), ID_MIN, ID_MAX),
+			this.getTableName(),
+			this.context.getPath(config),
+			joinClauses.toSQL(config),
+			Where.toSQL(config, this.toSQLWhere(config), joinClauses.toSQLWhere()),
+			""
+		);
+
+		return Executor.executeQuery(
+			connection,
+			new SimpleQuery(request, Query.Type.SELECT, connection.config()),
+			results -> {
+				results.getCursor().next();
+				Object min = results.getCursor().getObject(ID_MIN);
+				Object max = results.getCursor().getObject(ID_MAX);
+				return min == null || max == null ? null : new Long[] {exactLong(min), exactLong(max)};
+			}
+		);
+	}
+
+	/**
+	 * Convert an integral ID value, as read from the database, to a long.
+	 * @param id the raw ID value (Long, Integer, BigInteger, BigDecimal...)
+	 * @return the ID value as a long
+	 * @throws ArithmeticException the ID value is not in the long range or is not integral
+	 */
+	private static long exactLong(Object id) {
+		return new BigDecimal(id.toString()).longValueExact();
+	}
+
+	/**
+	 * Read the version stamp of this query : the number of target IDs and the MAX value of a version field.
+	 * <br>
+	 * If the version field value of a row is increased on every write (e.g. a version number or a last update date),
+	 * the stamp changes as soon as a target row is inserted, updated or deleted :
+	 * it can tell if the query results changed with a single aggregate query, without reading them.
+	 * <br>
+	 * The joins and the where clause of this request are applied. The paging and the order are ignored.
+	 * <br>
+	 * <b>⚠⚠⚠ A change on a joined object is not detected, unless it also updates the target version field ! ⚠⚠⚠</b>
+	 * @param connection the connection to use for the request
+	 * @param version    the version field of the target class. It must be a @Column field.
+	 * @return [COUNT, MAX]. MAX is read as the version field type and is null if there is no result.
+	 * @throws YopSQLException An SQL error occurred
+	 */
+	public Object[] versionStamp(IConnection connection, Field version) {
+		Config config = connection.config();
+		JoinClause.JoinClauses joinClauses = this.toSQLJoin(true, config);
+		SQLExpression request = config.getDialect().select(
+			false,
+			config.getDialect().toSQLCountMax(
+				SQLColumn.id(this.context, config).qualifiedName(),
+				VERSION_COUNT,
+				SQLColumn.column(version, this.context, config).qualifiedName(),
+				VERSION_MAX
+			),
+			this.getTableName(),
+			this.context.getPath(config),
+			joinClauses.toSQL(config),
+			Where.toSQL(config, this.toSQLWhere(config), joinClauses.toSQLWhere()),
+			""
+		);
+
+		return Executor.executeQuery(
+			connection,
+			new SimpleQuery(request, Query.Type.SELECT, connection.config()),
+			results -> {
+				results.getCursor().next();
+				Long count = results.getCursor().getLong(VERSION_COUNT);
+				return new Object[] {count, results.read(VERSION_MAX, version.getType())};
+			}
+		);
+	}
+
+	/**
+	 * Copy this query, restricted to an ID range.
+	 * @param from the lower ID bound (included)
+	 * @param to   the upper ID bound (included)
+	 * @return a new Select query, with a copy of {@link #where} and {@link #joins}, the same order, lock and projection
+	 */
+	@SuppressWarnings("unchecked")
+	private Select<T> partition(long from, long to) {
+		Class<T> target = this.context.getTarget();
+		Collection<IJoin<T, ?>> joins = new ArrayList<>(this.joins.size());
+		this.joins.forEach(join -> joins.add(SQLJoin.copy((IJoin) join, target)));
+
+		Select<T> partition = new Select<>(this.context, this.where.copy(), joins);
+		partition.where.matches(new IdRange(from, to));
+		partition.orderBy = this.orderBy;
+		partition.lock = this.lock;
+		partition.projection.addAll(this.projection);
+		return partition;
+	}
+
+	/**
+	 * Merge the partitions results.
+	 * @param partitions the results of each partition, in ID range order
+	 * @return the merged results : sorted using {@link #orderBy} if any, else in partition order
+	 */
+	private Set<T> merge(List<Set<T>> partitions) {
+		Set<T> merged = new LinkedHashSet<>();
+		if (this.orderBy.isEmpty()) {
+			partitions.forEach(merged::addAll);
+		} else {
+			Iterators.addAll(
+				merged,
+				Iterators.mergeSorted(
+					partitions.stream().map(Set::iterator).collect(Collectors.toList()),
+					this.orderBy.comparator()
+				)
+			);
+		}
+		return merged;
+	}
+
+	/**
+	 * Wait for a partition result.
+	 * @param future the partition result
+	 * @param <R> the result type
+	 * @return the result
+	 * @throws RuntimeException the exception that occurred on the partition thread, if any
+	 */
+	private static <R> R join(CompletableFuture<R> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Find all the columns to select. If there is a {@link #projection}, the other target class columns are removed.
+	 * <br>
+	 * The ID columns are always selected : they are required to map the objects and link the joined objects.
+	 * @param addJoinClauseColumns true to add the columns from the join clauses
+	 * @param config               the SQL config (sql separator, use batch inserts...)
+	 * @return the columns to select
+	 */
+	@Override
+	protected Set<SQLColumn> columns(boolean addJoinClauseColumns, Config config) {
+		Set<SQLColumn> columns = super.columns(addJoinClauseColumns, config);
+		if (! this.projection.isEmpty()) {
+			ORMUtil.getColumnFields(this.getTarget())
+				.stream()
+				.filter(field -> ! this.projection.contains(field))
+				.map(field -> SQLColumn.column(field, this.context, config))
+				.filter(column -> ! column.isId())
+				.forEach(columns::remove);
+		}
+		return columns;
+	}
+
 	/**
 	 * Create the SQL columns clause
 	 * @param addJoinClauseColumns true to fetch the columns from the join clauses
@@ -499,6 +954,34 @@ public class Select<T> extends WhereRequest<Select<T>, T> implements JsonAble {
 		);
 	}
 
+	/**
+	 * Primary key lookup : create the SQL 'data' request for some IDs : 'WHERE [ID column] IN (?,?...)'.
+	 * <br>
+	 * There is no subquery and no context copy : the ID restriction is directly applied to the root context.
+	 * <br>
+	 * See {@link #byIds(Collection, FirstLevelCache, IConnection)}.
+	 * @param ids    the target IDs
+	 * @param config the SQL config (sql separator, use batch inserts...)
+	 * @return the SQL 'data' request.
+	 */
+	private SQLExpression toSQLByIdRequest(Collection<Comparable> ids, Config config) {
+		JoinClause.JoinClauses joinClauses = this.toSQLJoin(true, config);
+		return config.getDialect().select(
+			this.lock,
+			this.toSQLColumnsClause(true, config),
+			this.getTableName(),
+			this.context.getPath(config),
+			joinClauses.toSQL(config),
+			Where.toSQL(
+				config,
+				new IdIn(ids).toSQL(this.context, config),
+				this.toSQLWhere(config),
+				joinClauses.toSQLWhere()
+			),
+			""
+		);
+	}
+
 	/**
 	 * Single query strategy with IN : create the SQL 'data' request.
 	 * <br>
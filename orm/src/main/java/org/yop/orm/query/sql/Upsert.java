@@ -1,5 +1,6 @@
 package org.yop.orm.query.sql;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -7,7 +8,9 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.orm.annotations.Table;
-import org.yop.orm.evaluation.NaturalKey;
+import org.yop.orm.evaluation.NaturalKeyIn;
+import org.yop.orm.map.Accessors;
+import org.yop.orm.map.RowAccessor;
 import org.yop.orm.exception.YopMappingException;
 import org.yop.orm.exception.YopSerializableQueryException;
 import org.yop.orm.model.JsonAble;
@@ -16,6 +19,7 @@ import org.yop.orm.model.Yopables;
 import org.yop.orm.query.Context;
 import org.yop.orm.query.join.IJoin;
 import org.yop.orm.query.relation.Relation;
+import org.yop.orm.sql.AsyncExecutor;
 import org.yop.orm.sql.Config;
 import org.yop.orm.sql.Executor;
 import org.yop.orm.sql.Query;
@@ -26,6 +30,7 @@ import org.yop.reflection.Reflection;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -60,6 +65,9 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 	/** If set to true, {@link #checkNaturalID} will be propagated when using {@link #subUpsert(IJoin, Object)} */
 	protected boolean propagateCheckNaturalID = false;
 
+	/** An optional natural key filter, to skip the natural ID lookups of elements that do not exist yet */
+	private NaturalKeyFilter<T> naturalKeyFilter;
+
 	/**
 	 * Protected constructor, please use {@link #from(Class)}
 	 * @param target the target class
@@ -185,6 +193,21 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 		return this;
 	}
 
+	/**
+	 * Check for natural ID before insert, only if the natural key might exist. Merge and update existing rows.
+	 * <br>
+	 * The natural ID lookup is skipped for the elements whose natural key is definitely absent from the filter.
+	 * The natural keys of the saved elements are added to the filter.
+	 * <br>
+	 * See {@link NaturalKeyFilter}. The filter is not propagated to any {@link #subUpsert(IJoin, Object)}.
+	 * @param filter the natural key filter of the target class
+	 * @return the current UPSERT request, for chaining purpose
+	 */
+	public Upsert<T> checkNaturalID(NaturalKeyFilter<T> filter) {
+		this.naturalKeyFilter = filter;
+		return this.checkNaturalID(false);
+	}
+
 	/**
 	 * Check for natural ID before insert. Merge and update existing rows. Explicit value and propagate value.
 	 * <br>
@@ -278,6 +301,9 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 			Executor.executeQuery(connection, query);
 			updated.add(query.getElement());
 		}
+		if (this.naturalKeyFilter != null) {
+			updated.forEach(this.naturalKeyFilter::put);
+		}
 
 		// Upsert the relation tables of the specified joins (DELETE then INSERT, actually)
 		for (IJoin<T, ?> join : this.joins) {
@@ -285,11 +311,26 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 		}
 	}
 
+	/**
+	 * Execute the upsert request asynchronously.
+	 * <br>
+	 * See {@link AsyncExecutor#submit(IConnection, java.util.function.Function)} :
+	 * asynchronous actions on the same connection are executed in submission order.
+	 * @param connection the connection to use.
+	 * @return a future that completes when the upsert is over
+	 */
+	public CompletableFuture<Void> executeAsync(IConnection connection) {
+		return AsyncExecutor.submit(connection, c -> {this.execute(c); return null;});
+	}
+
 	/**
 	 * For each element in {@link #elements} try to find its ID from database,
 	 * using its {@link org.yop.orm.annotations.NaturalId}.
 	 * <br>
-	 * A {@link Select} query is executed with {@link NaturalKey} restrictions.
+	 * {@link Select} queries are executed with {@link NaturalKeyIn} restrictions,
+	 * chunked using {@link Config#maxParams()}.
+	 * <br>
+	 * If a {@link NaturalKeyFilter} is set, the elements whose natural key is definitely absent are not looked for.
 	 * <br><br>
 	 * <b>
 	 * ⚠⚠⚠
@@ -306,18 +347,29 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 	protected void findNaturalIDs(IConnection connection) {
 		Map<YopableEquals, T> existing = new HashMap<>();
 
-		if (! ORMUtil.getNaturalKeyFields(this.getTarget()).isEmpty()) {
-			// Find existing elements
-			Select<T> naturalIDQuery = Select.from(this.getTarget());
-			for (T element : this.elements.stream().filter(e -> ! ORMUtil.isIdSet(e)).collect(Collectors.toList())) {
-				naturalIDQuery.where().or(new NaturalKey<>(element));
+		int naturalKeySize = ORMUtil.getNaturalKeyFields(this.getTarget()).size();
+		if (naturalKeySize > 0) {
+			// Find existing elements, using chunks that fit the max number of parameters
+			List<T> references = this.elements.stream().filter(e -> ! ORMUtil.isIdSet(e)).collect(Collectors.toList());
+			if (this.naturalKeyFilter != null) {
+				references = this.naturalKeyFilter.candidates(references);
 			}
 
-			// Map with YopableEquals as key (YopableEquals has built-in natural ID equals/hashcode methods).
-			existing.putAll(Maps.uniqueIndex(
-				naturalIDQuery.execute(connection, Select.Strategy.EXISTS),
-				YopableEquals::new
-			));
+			int chunkSize = Math.max(1, connection.config().maxParams() / naturalKeySize);
+			for (List<T> chunk : Lists.partition(references, chunkSize)) {
+				Select<T> naturalIDQuery = Select.from(this.getTarget()).where(new NaturalKeyIn<>(chunk));
+
+				// Map with YopableEquals as key (YopableEquals has built-in natural ID equals/hashcode methods).
+				existing.putAll(Maps.uniqueIndex(
+					naturalIDQuery.execute(connection, Select.Strategy.EXISTS),
+					YopableEquals::new
+				));
+			}
+
+			if (this.naturalKeyFilter != null) {
+				long found = references.stream().filter(e -> existing.containsKey(new YopableEquals(e))).count();
+				this.naturalKeyFilter.found(references.size(), found);
+			}
 		}
 
 		// For each element to upsert :
@@ -448,16 +500,19 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 	 * @return the columns to select and their SQL part parameter.
 	 */
 	private Map<String, SQLExpression> valuePerColumn(T element, Config config, boolean insert) {
-		Set<Field> fields = ORMUtil.getColumnFields(this.getTarget());
+		RowAccessor<T> binder = Accessors.columns(this.getTarget());
+		List<Field> fields = binder.getFields();
+		Object[] values = binder.read(element);
 		Map<String, SQLExpression> out = new HashMap<>();
 
-		for (Field field : fields) {
+		for (int i = 0; i < values.length; i++) {
+			Field field = fields.get(i);
 			if (! insert && ! this.targetFields.isEmpty() && ! this.targetFields.contains(field)) {
 				logger.debug("Partial update : field [{}] is excluded.", Reflection.fieldToString(field));
 				continue;
 			}
 			String columnName = ORMUtil.getColumnName(field);
-			SQLExpression columnValue = this.columnValue(field, element, config, insert);
+			SQLExpression columnValue = this.columnValue(field, values[i], config, insert);
 			if (columnValue != null) {
 				out.put(columnName, columnValue);
 			}
@@ -477,12 +532,12 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 	 *     </ul>
 	 * </b>
 	 * @param field   the considered field
-	 * @param element the considered element (the value will be read on this object using the field)
+	 * @param value   the field value on the considered element
 	 * @param config  the SQL config (sql separator, use batch inserts...)
 	 * @param insert  true if values are for an insert query.
 	 * @return an SQLExpression for the column value. Null if the column must not be inserted in the query.
 	 */
-	private SQLExpression columnValue(Field field, Object element, Config config, boolean insert) {
+	private SQLExpression columnValue(Field field, Object value, Config config, boolean insert) {
 		boolean isID = ORMUtil.getIdField(this.getTarget()) == field;
 
 		if (isID && ORMUtil.isAutogenId(this.getTarget()) && ! config.useSequences()) {
@@ -497,7 +552,7 @@ public class Upsert<T> extends SQLRequest<Upsert<T>, T> implements JsonAble {
 		}
 
 		String columnName = ORMUtil.getColumnName(field);
-		SQLExpression column = SQLExpression.parameter(columnName, Reflection.readField(field, element), field, config);
+		SQLExpression column = SQLExpression.parameter(columnName, value, field, config);
 
 		// Update : columnName → [columnName = ?]
 		// Insert : columnName → [?]
@@ -53,6 +53,24 @@ public class Where<T> implements JsonAble {
 	 */
 	Where() {}
 
+	/**
+	 * Copy this where clause : the evaluations are not copied, but the new clause can be modified safely.
+	 * @return a new Where clause with the evaluations of this one
+	 */
+	Where<T> copy() {
+		Where<T> copy = new Where<>();
+		copy.evaluations.addAll(this.evaluations);
+		return copy;
+	}
+
+	/**
+	 * Is this where clause empty ?
+	 * @return true if there is no evaluation in this where clause
+	 */
+	boolean isEmpty() {
+		return this.evaluations.isEmpty();
+	}
+
 	/**
 	 * Add an evaluation to the where clause, using the AND operator
 	 * @param evaluation the evaluation to add
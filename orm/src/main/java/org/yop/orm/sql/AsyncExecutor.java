@@ -0,0 +1,172 @@
+package org.yop.orm.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.sql.adapter.IConnection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous SQL execution.
+ * <br>
+ * Actions run on a bounded executor : see {@link #executor()} and {@link #setExecutor(java.util.concurrent.Executor)}.
+ * <br><br>
+ * A connection is confined to one action at a time :
+ * actions submitted on the same connection ({@link #submit(IConnection, Function)}) are chained, in submission order.
+ * <br>
+ * Independent actions can be fanned out on connections from a supplier (e.g. a pool) :
+ * {@link #submit(Supplier, Function)} and {@link #all(Supplier, List)}.
+ * <br><br>
+ * <b>⚠⚠⚠ Do not modify a query (or its target objects) until its asynchronous execution is over ! ⚠⚠⚠</b>
+ */
+public class AsyncExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncExecutor.class);
+
+	/** System property : number of threads of the default executor. Default : 2 × available processors. */
+	public static final String THREADS_PROPERTY = "yop.async.threads";
+
+	/** System property : task queue capacity of the default executor. Default : 1024. */
+	public static final String QUEUE_PROPERTY = "yop.async.queue";
+
+	/** The executor. Lazily initialized, see {@link #executor()}. */
+	private static volatile java.util.concurrent.Executor executor;
+
+	/** Connection → completed when the last action submitted on this connection is over. */
+	private static final Map<IConnection, CompletableFuture<Void>> TAILS = new ConcurrentHashMap<>();
+
+	private AsyncExecutor() {}
+
+	/**
+	 * Get the executor the actions are run on.
+	 * <br>
+	 * The default executor is a fixed pool of daemon threads ({@link #THREADS_PROPERTY})
+	 * with a bounded queue ({@link #QUEUE_PROPERTY}).
+	 * When the queue is full, the submitting thread runs the action itself (back pressure).
+	 * @return the executor to use
+	 */
+	public static java.util.concurrent.Executor executor() {
+		if (executor == null) {
+			synchronized (AsyncExecutor.class) {
+				if (executor == null) {
+					executor = defaultExecutor();
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Set the executor the actions are run on. The previous executor is not shut down.
+	 * @param executor the executor to use. If null, the default executor will be created on next use.
+	 */
+	public static void setExecutor(java.util.concurrent.Executor executor) {
+		AsyncExecutor.executor = executor;
+	}
+
+	/**
+	 * Run an action on a connection, asynchronously.
+	 * <br>
+	 * The action starts when the previous actions submitted on this connection are over, whatever their outcome.
+	 * @param connection the connection to use
+	 * @param action     what to do with the connection
+	 * @param <R> the action return type
+	 * @return the action future result
+	 */
+	public static <R> CompletableFuture<R> submit(IConnection connection, Function<IConnection, R> action) {
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		CompletableFuture<Void> previous = TAILS.put(connection, done);
+		CompletableFuture<Void> start = previous == null ? CompletableFuture.completedFuture(null) : previous;
+
+		CompletableFuture<R> result = start.thenApplyAsync(v -> action.apply(connection), executor());
+		result.whenComplete((value, error) -> {
+			TAILS.remove(connection, done);
+			done.complete(null);
+		});
+		return result;
+	}
+
+	/**
+	 * Run an action on a new connection from the supplier, asynchronously. The connection is closed after use.
+	 * @param connections the connection supplier (e.g. a connection pool)
+	 * @param action      what to do with the connection
+	 * @param <R> the action return type
+	 * @return the action future result
+	 */
+	public static <R> CompletableFuture<R> submit(Supplier<IConnection> connections, Function<IConnection, R> action) {
+		return CompletableFuture.supplyAsync(() -> Executor.withConnection(connections, action), executor());
+	}
+
+	/**
+	 * Fan out independent actions, each one on its own connection from the supplier, and combine the results.
+	 * <br>
+	 * For heterogeneous results, use {@link #submit(Supplier, Function)} and combine the futures yourself.
+	 * @param connections the connection supplier (e.g. a connection pool)
+	 * @param actions     the actions to run
+	 * @param <R> the actions return type
+	 * @return the actions future results, in the actions order. Completes exceptionally if any action fails.
+	 */
+	public static <R> CompletableFuture<List<R>> all(
+		Supplier<IConnection> connections,
+		List<? extends Function<IConnection, ? extends R>> actions) {
+
+		List<CompletableFuture<? extends R>> futures = new ArrayList<>(actions.size());
+		for (Function<IConnection, ? extends R> action : actions) {
+			futures.add(submit(connections, action));
+		}
+		return CompletableFuture
+			.allOf(futures.toArray(new CompletableFuture[0]))
+			.thenApply(v -> futures.stream().<R>map(CompletableFuture::join).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Fan out independent actions, each one on its own connection from the supplier, and combine the results.
+	 * <br>
+	 * See {@link #all(Supplier, List)}.
+	 * @param connections the connection supplier (e.g. a connection pool)
+	 * @param actions     the actions to run
+	 * @param <R> the actions return type
+	 * @return the actions future results, in the actions order. Completes exceptionally if any action fails.
+	 */
+	@SafeVarargs
+	public static <R> CompletableFuture<List<R>> all(
+		Supplier<IConnection> connections,
+		Function<IConnection, ? extends R>... actions) {
+		return all(connections, Arrays.asList(actions));
+	}
+
+	/**
+	 * Create the default executor. See {@link #executor()}.
+	 * @return a new bounded thread pool executor
+	 */
+	private static java.util.concurrent.Executor defaultExecutor() {
+		int threads = Integer.getInteger(THREADS_PROPERTY, 2 * Runtime.getRuntime().availableProcessors());
+		int queue = Integer.getInteger(QUEUE_PROPERTY, 1024);
+		logger.info("Creating default async executor : [{}] threads, queue capacity [{}]", threads, queue);
+
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(
+			threads,
+			threads,
+			60,
+			TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(queue),
+			runnable -> {
+				Thread thread = new Thread(runnable, "yop-async-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			},
+			new ThreadPoolExecutor.CallerRunsPolicy()
+		);
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+}
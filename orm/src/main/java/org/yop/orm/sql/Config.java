@@ -44,6 +44,20 @@ public class Config {
 	public static final String SQL_PAGING_METHOD            = "yop.sql.paging_method";
 	public static final String SQL_NULL_IN_NK               = "yop.sql.null_in_nk";
 	public static final String SQL_DEFAULT_COL_LENGTH       = "yop.sql.default_col_length";
+	public static final String SQL_MAPPING_PIPELINE         = "yop.sql.mapping.pipeline";
+	public static final String SQL_MAPPING_CHUNK_SIZE       = "yop.sql.mapping.chunk_size";
+	public static final String SQL_COALESCE_SELECTS         = "yop.sql.select.coalesce";
+	public static final String SQL_NK_FILTER_BYTES          = "yop.sql.natural_key.filter.bytes";
+	public static final String SQL_NK_FILTER_FPP            = "yop.sql.natural_key.filter.fpp";
+
+	/** Default value for {@link #mappingChunkSize()} */
+	public static final int SQL_MAPPING_CHUNK_SIZE_DEFAULT = 64;
+
+	/** Default value for {@link #naturalKeyFilterBytes()} : 1 MiB */
+	public static final long SQL_NK_FILTER_BYTES_DEFAULT = 1024 * 1024;
+
+	/** Default value for {@link #naturalKeyFilterFpp()} */
+	public static final double SQL_NK_FILTER_FPP_DEFAULT = 0.01;
 
 	private final Map<String, String> config = new HashMap<>();
 	private IDialect dialect = IDialect.defaultDialect();
@@ -190,6 +204,70 @@ public class Config {
 			: this.dialect.pagingMethod();
 	}
 
+	/**
+	 * Map the results using a pipeline : rows are read on a reader thread, converted on worker threads
+	 * and linked back together on the query thread, in row order.
+	 * <br>
+	 * This can help when mapping is CPU bound (wide rows, costly transformers). Default is false.
+	 * <br>
+	 * The worker threads are shared. Their number is set using the 'yop.mapping.workers' system property.
+	 * <br>
+	 * See {@link org.yop.orm.map.Mapper#map(Results, Class, org.yop.orm.map.FirstLevelCache)}.
+	 * @return true if pipelined mapping should be used
+	 */
+	public boolean pipelinedMapping() {
+		return "true".equals(this.config.get(SQL_MAPPING_PIPELINE));
+	}
+
+	/**
+	 * The number of rows handed to a mapping worker at once, when {@link #pipelinedMapping()} is set.
+	 * @return value from {@link #config} for {@link #SQL_MAPPING_CHUNK_SIZE} or {@link #SQL_MAPPING_CHUNK_SIZE_DEFAULT}
+	 */
+	public int mappingChunkSize() {
+		return this.config.containsKey(SQL_MAPPING_CHUNK_SIZE)
+			? Math.max(1, Integer.valueOf(this.config.get(SQL_MAPPING_CHUNK_SIZE)))
+			: SQL_MAPPING_CHUNK_SIZE_DEFAULT;
+	}
+
+	/**
+	 * Coalesce identical SELECT queries that run at the same time : execute once, give everyone a deep copy.
+	 * <br>
+	 * Only applies to SELECT queries with no custom cache and no lock, on connections in auto-commit mode.
+	 * Default is false.
+	 * <br>
+	 * <b>⚠⚠⚠ The connections that use this config are expected to target the same database ! ⚠⚠⚠</b>
+	 * <br>
+	 * See {@link SingleFlight}.
+	 * @return true if identical in flight SELECT queries should be coalesced
+	 */
+	public boolean coalesceSelects() {
+		return "true".equals(this.config.get(SQL_COALESCE_SELECTS));
+	}
+
+	/**
+	 * The memory budget of a natural key Bloom filter, in bytes.
+	 * <br>
+	 * See {@link org.yop.orm.query.sql.NaturalKeyFilter}.
+	 * @return value from {@link #config} for {@link #SQL_NK_FILTER_BYTES} or {@link #SQL_NK_FILTER_BYTES_DEFAULT}
+	 */
+	public long naturalKeyFilterBytes() {
+		return this.config.containsKey(SQL_NK_FILTER_BYTES)
+			? Math.max(1, Long.valueOf(this.config.get(SQL_NK_FILTER_BYTES)))
+			: SQL_NK_FILTER_BYTES_DEFAULT;
+	}
+
+	/**
+	 * The target false positive probability of a natural key Bloom filter, in ]0, 1[.
+	 * <br>
+	 * See {@link org.yop.orm.query.sql.NaturalKeyFilter}.
+	 * @return value from {@link #config} for {@link #SQL_NK_FILTER_FPP} or {@link #SQL_NK_FILTER_FPP_DEFAULT}
+	 */
+	public double naturalKeyFilterFpp() {
+		return this.config.containsKey(SQL_NK_FILTER_FPP)
+			? Double.valueOf(this.config.get(SQL_NK_FILTER_FPP))
+			: SQL_NK_FILTER_FPP_DEFAULT;
+	}
+
 	/**
 	 * Read config value from system properties. Use default values if no property set.
 	 * @param key          the system property to read
@@ -10,6 +10,8 @@ import org.yop.orm.sql.adapter.IRequest;
 
 import java.sql.SQLException;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * SQL query executor.
@@ -28,6 +30,9 @@ public class Executor {
 	 * If the <b>yop.show_sql</b> system property is set, the SQL request is logged.
 	 * <br>
 	 * This method handles the too long aliases that might be present in the SQL query. At least I hope so :)
+	 * <br>
+	 * If {@link Config#coalesceSelects()} is set and the connection is in auto-commit mode,
+	 * an identical query that is already running is not executed again : see {@link SingleFlight}.
 	 * @param connection the SQL connection to use
 	 * @param query      the SQL query
 	 * @param target     the target class on which the results of the query will be mapped
@@ -36,6 +41,14 @@ public class Executor {
 	 * @throws YopSQLException an SQL error occurred.
 	 */
 	public static <T> Set<T> executeSelectQuery(IConnection connection, Query query, Class<T> target) {
+		if (connection.config().coalesceSelects() && autoCommit(connection)) {
+			return SingleFlight.execute(
+				connection,
+				query,
+				target,
+				() -> executeSelectQuery(connection, query, target, new FirstLevelCache())
+			);
+		}
 		return executeSelectQuery(connection, query, target, new FirstLevelCache());
 	}
 
@@ -115,6 +128,36 @@ public class Executor {
 		}
 	}
 
+	/**
+	 * Is the connection in auto-commit mode ?
+	 * @param connection the connection
+	 * @return the connection auto-commit mode. False if it could not be read.
+	 */
+	private static boolean autoCommit(IConnection connection) {
+		try {
+			return connection.getAutoCommit();
+		} catch (SQLException e) {
+			logger.warn("Could not read auto-commit mode of connection [{}]", connection, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Get a connection from a supplier, do something and close the connection.
+	 * @param connections the connection supplier
+	 * @param action      what to do with the connection
+	 * @param <R> the action return type
+	 * @return the action return value
+	 * @throws YopSQLException the connection could not be closed
+	 */
+	public static <R> R withConnection(Supplier<IConnection> connections, Function<IConnection, R> action) {
+		try (IConnection connection = connections.get()) {
+			return action.apply(connection);
+		} catch (SQLException e) {
+			throw new YopSQLException("Could not close connection", null, e);
+		}
+	}
+
 	/**
 	 * What to do on query {@link Results} ?
 	 */
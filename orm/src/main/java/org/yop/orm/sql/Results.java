@@ -1,13 +1,20 @@
 package org.yop.orm.sql;
 
+import com.google.common.primitives.Primitives;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.exception.YopSQLException;
+import org.yop.orm.map.Accessors;
+import org.yop.orm.map.RowAccessor;
 import org.yop.orm.sql.adapter.IResultCursor;
+import org.yop.orm.sql.codec.Codec;
+import org.yop.orm.sql.codec.Codecs;
+import org.yop.orm.util.EntityMetadata;
 import org.yop.orm.util.ORMUtil;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.lang.reflect.Field;
+import java.util.*;
 
 /**
  * The query results. Aggregates :
@@ -18,6 +25,8 @@ import java.util.Set;
  */
 public class Results {
 
+	private static final Logger logger = LoggerFactory.getLogger(Results.class);
+
 	/** The query cursor (JDBC result set). The result set closing is not handled in this class at all ! */
 	private final IResultCursor cursor;
 
@@ -45,6 +54,49 @@ public class Results {
 	 */
 	private Map<String, String> contextsIDColumns = new HashMap<>();
 
+	/**
+	 * key : column name (the shortened alias)
+	 * <br>
+	 * value : the codec that was successfully used to read the column
+	 * <br>
+	 * This is a cache map for {@link #read(String, Class)}.
+	 */
+	private final Map<String, Codec<?>> codecs = new HashMap<>();
+
+	/**
+	 * The column names of the cursor (the shortened aliases).
+	 * <br>
+	 * This is a cache set for {@link #hasColumn(String)}.
+	 */
+	private Set<String> columns;
+
+	/**
+	 * key : context (RootClass[→relation→NextClass]*)
+	 * <br>
+	 * value : the shortened column alias of the @Column fields, for the context
+	 * <br>
+	 * This is a cache map for {@link #alias(String, Field)}.
+	 */
+	private final Map<String, Map<Field, String>> aliases = new HashMap<>();
+
+	/**
+	 * key : context (RootClass[→relation→NextClass]*)
+	 * <br>
+	 * value : the @Column fields whose column is in the results, with their shortened column alias
+	 * <br>
+	 * This is a cache map for {@link #selectedColumns(String, Class)}.
+	 */
+	private final Map<String, Map<Field, String>> selectedColumns = new HashMap<>();
+
+	/**
+	 * key : context (RootClass[→relation→NextClass]*)
+	 * <br>
+	 * value : the row accessor of the selected @Column fields of the context
+	 * <br>
+	 * This is a cache map for {@link #rowAccessor(String, Class)}.
+	 */
+	private final Map<String, RowAccessor<?>> rowAccessors = new HashMap<>();
+
 	/**
 	 * Default constructor : resultset and original query
 	 * @param cursor the resultset from the query execution
@@ -55,6 +107,17 @@ public class Results {
 		this.query = query;
 	}
 
+	/**
+	 * Get new results for the same query, on another cursor (e.g. a snapshot of some rows of this results cursor).
+	 * <br>
+	 * The caches (contexts, codecs) are not shared : the new results can be used on another thread.
+	 * @param cursor the cursor to use
+	 * @return a new Results instance, for the query of this results and the given cursor
+	 */
+	public Results on(IResultCursor cursor) {
+		return new Results(cursor, this.query);
+	}
+
 	/**
 	 * @return the resultset from the query execution
 	 */
@@ -78,6 +141,26 @@ public class Results {
 	 * @return true if there is no data for this context on the current row
 	 */
 	public boolean noContext(String context, Class<?> targetClass) {
+		if (!this.hasContext(context)) {
+			return true;
+		}
+
+		if (!this.contextsIDColumns.containsKey(context)) {
+			String idColumn = this.getQuery().getShortened(
+				context + this.query.getConfig().sqlSeparator() + ORMUtil.getIdColumn(targetClass)
+			);
+			this.contextsIDColumns.put(context, idColumn);
+		}
+
+		return this.cursor.getObject(this.contextsIDColumns.get(context)) == null;
+	}
+
+	/**
+	 * Is there any column for the given context in the results ? The current row is not read.
+	 * @param context the context to check (RootClass[→relation→NextClass]*)
+	 * @return true if some columns of the results are for this context
+	 */
+	public boolean hasContext(String context) {
 		if (this.contexts.isEmpty()) {
 			int columns = this.getCursor().getColumnCount();
 			for (int x = 1; x <= columns; x++) {
@@ -87,18 +170,111 @@ public class Results {
 				));
 			}
 		}
+		return this.contexts.contains(context);
+	}
 
-		if (!this.contexts.contains(context)) {
-			return true;
+	/**
+	 * Is there a column with the given name in the results ? (e.g. not every column is selected with a projection)
+	 * @param columnName the column name (shortened alias)
+	 * @return true if the cursor has the column
+	 */
+	public boolean hasColumn(String columnName) {
+		if (this.columns == null) {
+			this.columns = new HashSet<>();
+			int count = this.getCursor().getColumnCount();
+			for (int x = 1; x <= count; x++) {
+				this.columns.add(this.getCursor().getColumnName(x));
+			}
 		}
+		return this.columns.contains(columnName);
+	}
 
-		if (!this.contextsIDColumns.containsKey(context)) {
-			String idColumn = this.getQuery().getShortened(
-				context + this.query.getConfig().sqlSeparator() + ORMUtil.getIdColumn(targetClass)
-			);
-			this.contextsIDColumns.put(context, idColumn);
+	/**
+	 * Get the column alias of a @Column field, for a given context : the (shortened) name of the column in the results.
+	 * <br>
+	 * The alias is computed once per context and field.
+	 * @param context the context (RootClass[→relation→NextClass]*)
+	 * @param field   the @Column field
+	 * @return the shortened column alias. See {@link Query#getShortened(String)}.
+	 */
+	public String alias(String context, Field field) {
+		return this.aliases.computeIfAbsent(context, key -> new HashMap<>()).computeIfAbsent(
+			field,
+			key -> this.query.getShortened(
+				context + this.query.getConfig().sqlSeparator() + EntityMetadata.column(key).getName()
+			)
+		);
+	}
+
+	/**
+	 * Get the @Column fields of a context whose column is in the results (e.g. not every column is selected with a projection).
+	 * <br>
+	 * The fields are computed once per context : use this when mapping every row.
+	 * @param context the context (RootClass[→relation→NextClass]*)
+	 * @param clazz   the target class of the context
+	 * @return the selected @Column fields, with their shortened column alias. See {@link #alias(String, Field)}.
+	 */
+	public Map<Field, String> selectedColumns(String context, Class<?> clazz) {
+		return this.selectedColumns.computeIfAbsent(context, key -> {
+			Map<Field, String> selected = new LinkedHashMap<>();
+			for (Field field : ORMUtil.getColumnFields(clazz)) {
+				String alias = this.alias(context, field);
+				if (this.hasColumn(alias)) {
+					selected.put(field, alias);
+				}
+			}
+			return selected;
+		});
+	}
+
+	/**
+	 * Get the row accessor (instantiation, row mapper) for the selected @Column fields of a context.
+	 * <br>
+	 * The row accessor is built once per context : use this when mapping every row.
+	 * @param context the context (RootClass[→relation→NextClass]*)
+	 * @param clazz   the target class of the context
+	 * @param <T> the target type
+	 * @return the row accessor, whose fields are the {@link #selectedColumns(String, Class)} keys, in the same order
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> RowAccessor<T> rowAccessor(String context, Class<T> clazz) {
+		return (RowAccessor<T>) this.rowAccessors.computeIfAbsent(
+			context,
+			key -> Accessors.row(clazz, this.selectedColumns(context, clazz).keySet())
+		);
+	}
+
+	/**
+	 * Read a column value at the current row, as a given type.
+	 * <br>
+	 * The codec for the type is used (see {@link Codecs#forType(Class)}).
+	 * If it fails, the fallback codec is used (see {@link Codecs#fallback(Class)}).
+	 * <br>
+	 * The codec that successfully read the column is kept for the next rows :
+	 * the failing codec is not tried again on every row.
+	 * @param columnName the column name (shortened alias)
+	 * @param type       the expected type
+	 * @return the column value. Might not be of the expected type if the fallback codec could not convert it.
+	 * @throws org.yop.orm.exception.YopSQLException the fallback codec could not read the column
+	 */
+	public Object read(String columnName, Class<?> type) {
+		Codec<?> codec = this.codecs.get(columnName);
+		if (codec == null || codec.getType() != Primitives.wrap(type)) {
+			codec = Codecs.forType(type);
 		}
 
-		return this.cursor.getObject(this.contextsIDColumns.get(context)) == null;
+		try {
+			Object value = codec.read(this.cursor, columnName);
+			this.codecs.put(columnName, codec);
+			return value;
+		} catch (YopSQLException | AbstractMethodError e) {
+			Codec<?> fallback = Codecs.fallback(type);
+			if (codec == fallback) {
+				throw e;
+			}
+			logger.debug("Error reading [{}] as [{}]. Using fallback codec for this column.", columnName, type, e);
+			this.codecs.put(columnName, fallback);
+			return fallback.read(this.cursor, columnName);
+		}
 	}
 }
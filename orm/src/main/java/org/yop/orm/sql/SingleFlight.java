@@ -0,0 +1,145 @@
+package org.yop.orm.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.map.DeepCopy;
+import org.yop.orm.sql.adapter.IConnection;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single flight SELECT execution : identical SELECT queries that run at the same time are executed once.
+ * <br>
+ * The first execution of a query (the leader) executes it.
+ * Identical queries (the followers) that arrive while the leader is running wait for its result.
+ * Every follower gets its own deep copy of the result (see {@link DeepCopy}).
+ * If there was any follower, the leader gets a deep copy too : the shared result is never handed out.
+ * <br><br>
+ * A query is identified by a structural key :
+ * database (see {@link IConnection#database()}), target class, dialect, SQL and parameter values.
+ * <br>
+ * The SQL is the raw SQL : the safe SQL shortens the too long aliases using random strings.
+ * <br>
+ * ⚠⚠⚠ Queries on different databases, schemas or tenants must not share their results ⚠⚠⚠
+ * <br>
+ * If the connection database cannot be read, the query can only share its results with the same connection.
+ * <br>
+ * There is no cache here : once the leader is done, the next identical query is executed again.
+ * <br>
+ * See {@link Config#coalesceSelects()}.
+ */
+class SingleFlight {
+
+	private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+	/** The in flight queries, by key */
+	private static final Map<List<Object>, Flight> IN_FLIGHT = new ConcurrentHashMap<>();
+
+	private SingleFlight() {}
+
+	/**
+	 * Execute a SELECT query, or wait for the identical query that is in flight.
+	 * @param connection the connection the query is executed on
+	 * @param query  the SELECT query
+	 * @param target the target class
+	 * @param select the query execution
+	 * @param <T> the target type
+	 * @return the query result, that is not shared with any other execution
+	 * @throws RuntimeException the exception of the leader execution
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Set<T> execute(IConnection connection, Query query, Class<T> target, Supplier<Set<T>> select) {
+		List<Object> key = key(connection, query, target);
+		Flight mine = new Flight();
+		Flight flight = IN_FLIGHT.compute(key, (k, existing) -> existing == null ? mine : existing.follow());
+
+		if (flight != mine) {
+			logger.debug("Identical SELECT in flight for [{}]. Waiting for its result.", target.getName());
+			return DeepCopy.copy((Set<T>) join(flight.result));
+		}
+
+		try {
+			Set<T> result = select.get();
+			mine.result.complete(result);
+			return mine.land(key) == 0 ? result : DeepCopy.copy(result);
+		} catch (RuntimeException e) {
+			mine.result.completeExceptionally(e);
+			mine.land(key);
+			throw e;
+		}
+	}
+
+	/**
+	 * The structural key of a query : database, target class, dialect, SQL and parameter values.
+	 * @param connection the connection the query is executed on
+	 * @param query      the SELECT query
+	 * @param target     the target class
+	 * @return the query key
+	 */
+	private static List<Object> key(IConnection connection, Query query, Class<?> target) {
+		List<Object> key = new ArrayList<>();
+		try {
+			key.add(connection.database());
+		} catch (SQLException e) {
+			logger.warn("Could not read the database of connection [{}]. Not shared with other connections.", connection, e);
+			key.add(connection);
+		}
+		key.add(target);
+		key.add(query.getConfig().getDialect().getClass());
+		key.add(query.getSql());
+		query.getParameters().forEach(parameter -> key.add(parameter.getValue()));
+		return key;
+	}
+
+	/**
+	 * Wait for the leader result.
+	 * @param result the leader result
+	 * @return the leader result
+	 * @throws RuntimeException the leader exception
+	 */
+	private static Object join(CompletableFuture<?> result) {
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * An in flight query : its future result and the number of followers.
+	 * <br>
+	 * The followers are counted and the flight is removed in {@link ConcurrentHashMap} atomic computations :
+	 * when the flight has landed, the follower count is final.
+	 */
+	private static class Flight {
+		private final CompletableFuture<Set<?>> result = new CompletableFuture<>();
+		private int followers = 0;
+
+		/**
+		 * Add a follower.
+		 * @return the current flight, for chaining purposes
+		 */
+		private Flight follow() {
+			this.followers++;
+			return this;
+		}
+
+		/**
+		 * Remove the flight from the in flight queries.
+		 * @param key the flight key
+		 * @return the final number of followers
+		 */
+		private int land(List<Object> key) {
+			IN_FLIGHT.computeIfPresent(key, (k, flight) -> flight == this ? null : flight);
+			return this.followers;
+		}
+	}
+}
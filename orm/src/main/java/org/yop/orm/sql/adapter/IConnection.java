@@ -37,6 +37,22 @@ public interface IConnection extends AutoCloseable {
 		return Config.DEFAULT;
 	}
 
+	/**
+	 * Get the identity of the database this connection works on.
+	 * <br>
+	 * Two connections with equal identities read the same data :
+	 * identical queries on these connections can share their results (see {@link Config#coalesceSelects()}).
+	 * <br>
+	 * Override me if your connections can be told apart (e.g. URL, user, schema...).
+	 * <br>
+	 * See {@link org.yop.orm.sql.adapter.jdbc.JDBCConnection#database()}
+	 * @return this connection : by default, no 2 connections are known to work on the same database
+	 * @throws SQLException an error occurred reading the connection information
+	 */
+	default Object database() throws SQLException {
+		return this;
+	}
+
 	/**
 	 * Prepare the request (e.g. SQL prepared statement) to be executed using the query.
 	 * <br>
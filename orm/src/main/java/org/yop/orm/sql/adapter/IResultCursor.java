@@ -53,6 +53,41 @@ public interface IResultCursor extends AutoCloseable {
 	 */
 	Long getLong(int columnIndex);
 
+	/**
+	 * Read a column as an int.
+	 * <br>
+	 * No control should be performed over the column type. Check {@link #wasNull()} for SQL NULL.
+	 * @param columnName the column name
+	 * @return the int value in the given column, 0 if SQL NULL
+	 */
+	int getInt(String columnName);
+
+	/**
+	 * Read a column as a double.
+	 * <br>
+	 * No control should be performed over the column type. Check {@link #wasNull()} for SQL NULL.
+	 * @param columnName the column name
+	 * @return the double value in the given column, 0 if SQL NULL
+	 */
+	double getDouble(String columnName);
+
+	/**
+	 * Read a column as a String.
+	 * <br>
+	 * No control should be performed over the column type.
+	 * @param columnName the column name
+	 * @return the String value in the given column, null if SQL NULL
+	 */
+	String getString(String columnName);
+
+	/**
+	 * Was the last column read SQL NULL ?
+	 * <br>
+	 * Use this after reading a primitive value ({@link #getLong(String)}, {@link #getInt(String)}...).
+	 * @return true if the last column read had a value of SQL NULL
+	 */
+	boolean wasNull();
+
 	/**
 	 * Read a column.
 	 * @param columnName the column to read
@@ -0,0 +1,231 @@
+package org.yop.orm.sql.adapter;
+
+import org.yop.orm.exception.YopSQLException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cursor over row values that were copied from another cursor.
+ * <br>
+ * The rows are read from the source cursor ({@link #read(ColumnReader)}) on the thread that owns it.
+ * The values can then be read on any thread, using a view of the snapshot over some of the rows
+ * ({@link #view(List)}), walked using {@link #next()}.
+ * <br>
+ * <b>
+ *     Read the values as their target type (e.g. using the column codec) :
+ *     the source values might not be usable once the source cursor moved (CLOB, driver specific types...).
+ * </b>
+ * <br><br>
+ * Typed reads are done from the copied values :
+ * <ul>
+ *     <li>{@link #getLong(String)}, {@link #getInt(String)}, {@link #getDouble(String)} : from a Number</li>
+ *     <li>{@link #getString(String)} : {@link Object#toString()}</li>
+ *     <li>{@link #getObject(String, Class)} : the raw value if it is an instance of the type</li>
+ * </ul>
+ * Anything else is a {@link YopSQLException} : the caller should use a fallback conversion.
+ */
+public class SnapshotCursor implements IResultCursor {
+
+	/** The column names, from the source cursor. Column index n is at position n-1. */
+	private final String[] columns;
+
+	/** Column name → position in {@link #columns}. Shared among the views. Case insensitive lookups are cached. */
+	private final Map<String, Integer> positions;
+
+	/** The rows of this view. Empty for the snapshot itself. */
+	private final Iterator<Object[]> rows;
+
+	/** The current row raw values. null before the first {@link #next()}. */
+	private Object[] row;
+
+	/** Was the last read value null ? */
+	private boolean wasNull;
+
+	/**
+	 * Create a snapshot cursor for the columns of the source cursor.
+	 * @param source the source cursor
+	 */
+	public SnapshotCursor(IResultCursor source) {
+		this.columns = new String[source.getColumnCount()];
+		this.positions = new ConcurrentHashMap<>();
+		for (int i = 0; i < this.columns.length; i++) {
+			this.columns[i] = source.getColumnName(i + 1);
+			this.positions.putIfAbsent(this.columns[i], i);
+		}
+		this.rows = Collections.emptyIterator();
+	}
+
+	/**
+	 * Create a view of a snapshot cursor over some rows : columns are shared, the rows and current row are not.
+	 * @param snapshot the snapshot cursor
+	 * @param rows     the rows of the view
+	 */
+	private SnapshotCursor(SnapshotCursor snapshot, List<Object[]> rows) {
+		this.columns = snapshot.columns;
+		this.positions = snapshot.positions;
+		this.rows = rows.iterator();
+	}
+
+	/**
+	 * Copy the values of the current row of the source cursor.
+	 * @param reader the column reader, on the source cursor. Must have the same columns as this snapshot.
+	 * @return the values of the current source row
+	 * @throws YopSQLException an error occurred reading the source cursor
+	 */
+	public Object[] read(ColumnReader reader) {
+		Object[] values = new Object[this.columns.length];
+		for (int i = 0; i < this.columns.length; i++) {
+			values[i] = reader.read(i, this.columns[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Get a new view of this snapshot over some rows : same columns, positioned before the first row.
+	 * Use one view per thread.
+	 * @param rows the rows raw values (see {@link #read(ColumnReader)})
+	 * @return a new cursor, sharing the columns of this one
+	 */
+	public SnapshotCursor view(List<Object[]> rows) {
+		return new SnapshotCursor(this, rows);
+	}
+
+	@Override
+	public boolean hasColumn(String columnName) {
+		return this.position(columnName) >= 0;
+	}
+
+	@Override
+	public String getColumnName(int columnIndex) {
+		return this.columns[columnIndex - 1];
+	}
+
+	@Override
+	public int getColumnCount() {
+		return this.columns.length;
+	}
+
+	@Override
+	public Long getLong(String columnName) {
+		Number value = this.number(columnName);
+		return value == null ? 0L : value.longValue();
+	}
+
+	@Override
+	public Long getLong(int columnIndex) {
+		return this.getLong(this.getColumnName(columnIndex));
+	}
+
+	@Override
+	public int getInt(String columnName) {
+		Number value = this.number(columnName);
+		return value == null ? 0 : value.intValue();
+	}
+
+	@Override
+	public double getDouble(String columnName) {
+		Number value = this.number(columnName);
+		return value == null ? 0 : value.doubleValue();
+	}
+
+	@Override
+	public String getString(String columnName) {
+		Object value = this.getObject(columnName);
+		return value == null ? null : value.toString();
+	}
+
+	@Override
+	public boolean wasNull() {
+		return this.wasNull;
+	}
+
+	@Override
+	public Object getObject(String columnName) {
+		int position = this.position(columnName);
+		if (position < 0) {
+			throw new YopSQLException("No column [" + columnName + "] in snapshot", null, null);
+		}
+		if (this.row == null) {
+			throw new YopSQLException("No current row in snapshot. Call next() first.", null, null);
+		}
+		Object value = this.row[position];
+		this.wasNull = value == null;
+		return value;
+	}
+
+	@Override
+	public Object getObject(String columnName, Class<?> type) {
+		Object value = this.getObject(columnName);
+		if (value == null || type.isInstance(value)) {
+			return value;
+		}
+		throw new YopSQLException(
+			"Snapshot value [" + value + "] for column [" + columnName + "] is not a [" + type.getName() + "]",
+			null,
+			null
+		);
+	}
+
+	@Override
+	public boolean next() {
+		this.row = this.rows.hasNext() ? this.rows.next() : null;
+		return this.row != null;
+	}
+
+	@Override
+	public void close() {}
+
+	/**
+	 * Read a column value as a number.
+	 * @param columnName the column name
+	 * @return the column value, or null if SQL NULL
+	 * @throws YopSQLException the column value is not null and not a number
+	 */
+	private Number number(String columnName) {
+		Object value = this.getObject(columnName);
+		if (value == null || value instanceof Number) {
+			return (Number) value;
+		}
+		throw new YopSQLException(
+			"Snapshot value [" + value + "] for column [" + columnName + "] is not a number",
+			null,
+			null
+		);
+	}
+
+	/**
+	 * Find the position of a column. Exact match first, then case insensitive (as JDBC does).
+	 * @param columnName the column name
+	 * @return the column position in {@link #columns}, -1 if not found
+	 */
+	private int position(String columnName) {
+		Integer position = this.positions.get(columnName);
+		if (position != null) {
+			return position;
+		}
+		for (int i = 0; i < this.columns.length; i++) {
+			if (this.columns[i].equalsIgnoreCase(columnName)) {
+				this.positions.put(columnName, i);
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Read a column value of the current row of the source cursor.
+	 */
+	@FunctionalInterface
+	public interface ColumnReader {
+		/**
+		 * @param position   the column position in the snapshot (column index - 1)
+		 * @param columnName the column name
+		 * @return the column value to copy
+		 */
+		Object read(int position, String columnName);
+	}
+}
@@ -10,9 +10,11 @@ import org.yop.orm.sql.adapter.IConnection;
 import org.yop.orm.sql.adapter.IRequest;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 
 /**
  * A JDBC connection.
@@ -54,6 +56,25 @@ public class JDBCConnection implements IConnection {
 		return this.config;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * <u>JDBC Implementation</u> :
+	 * <br>
+	 * The JDBC URL and user name (see {@link DatabaseMetaData}) and the current catalog and schema.
+	 * @return a list of the database identity elements
+	 */
+	@Override
+	public Object database() throws SQLException {
+		DatabaseMetaData metaData = this.connection.getMetaData();
+		return Arrays.asList(
+			metaData.getURL(),
+			metaData.getUserName(),
+			this.connection.getCatalog(),
+			this.connection.getSchema()
+		);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <br>
@@ -99,6 +99,48 @@ public class JDBCCursor implements IResultCursor {
 		}
 	}
 
+	@Override
+	public int getInt(String columnName) {
+		try {
+			return this.results.getInt(columnName);
+		} catch (SQLException e) {
+			throw new YopSQLException(
+				"Error reading for int in column [" + columnName + "] after query [" + this.query + "]", this.query, e
+			);
+		}
+	}
+
+	@Override
+	public double getDouble(String columnName) {
+		try {
+			return this.results.getDouble(columnName);
+		} catch (SQLException e) {
+			throw new YopSQLException(
+				"Error reading for double in column [" + columnName + "] after query [" + this.query + "]", this.query, e
+			);
+		}
+	}
+
+	@Override
+	public String getString(String columnName) {
+		try {
+			return this.results.getString(columnName);
+		} catch (SQLException e) {
+			throw new YopSQLException(
+				"Error reading for String in column [" + columnName + "] after query [" + this.query + "]", this.query, e
+			);
+		}
+	}
+
+	@Override
+	public boolean wasNull() {
+		try {
+			return this.results.wasNull();
+		} catch (SQLException e) {
+			throw new YopSQLException("Error checking for SQL NULL after query [" + this.query + "]", this.query, e);
+		}
+	}
+
 	@Override
 	public Object getObject(String columnName) {
 		try {
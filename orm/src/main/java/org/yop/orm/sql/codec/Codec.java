@@ -0,0 +1,38 @@
+package org.yop.orm.sql.codec;
+
+import org.yop.orm.sql.adapter.IResultCursor;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Read a column value from a cursor and bind a parameter value on a statement, for a given java type.
+ * <br>
+ * Use {@link Codecs#forType(Class)} to get the codec for a type.
+ * @param <T> the java type
+ */
+public interface Codec<T> {
+
+	/**
+	 * @return the java type this codec reads and binds
+	 */
+	Class<T> getType();
+
+	/**
+	 * Read a column value at the current row of a cursor.
+	 * @param cursor     the cursor
+	 * @param columnName the column name
+	 * @return the column value as T, null if SQL NULL
+	 * @throws org.yop.orm.exception.YopSQLException the column could not be read as T
+	 */
+	T read(IResultCursor cursor, String columnName);
+
+	/**
+	 * Bind a parameter value on a statement.
+	 * @param statement the SQL statement
+	 * @param index     the parameter index <b>1-based</b> (first is 1, second is 2...)
+	 * @param value     the parameter value. Not null.
+	 * @throws SQLException see {@link PreparedStatement} setXXX methods
+	 */
+	void bind(PreparedStatement statement, int index, T value) throws SQLException;
+}
@@ -0,0 +1,193 @@
+package org.yop.orm.sql.codec;
+
+import com.google.common.primitives.Primitives;
+import org.yop.orm.sql.adapter.IResultCursor;
+import org.yop.orm.transform.ITransformer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link Codec} registry.
+ * <br>
+ * Specialized codecs (no {@link java.sql.ResultSet#getObject(String, Class)} nor setObject) :
+ * <ul>
+ *     <li>long/Long     → getLong/setLong</li>
+ *     <li>int/Integer   → getInt/setInt</li>
+ *     <li>double/Double → getDouble/setDouble</li>
+ *     <li>String        → getString/setString</li>
+ * </ul>
+ * Any other type → getObject(column, type)/setObject.
+ * <br><br>
+ * If a codec fails reading a column, use {@link #fallback(Class)} :
+ * getObject(column) then {@link org.yop.orm.transform.FallbackTransformer}.
+ */
+public final class Codecs {
+
+	/** long/Long codec */
+	private static final Codec<Long> LONG = new TypedCodec<>(
+		Long.class,
+		(cursor, column) -> {Long value = cursor.getLong(column); return cursor.wasNull() ? null : value;},
+		PreparedStatement::setLong
+	);
+
+	/** int/Integer codec */
+	private static final Codec<Integer> INT = new TypedCodec<>(
+		Integer.class,
+		(cursor, column) -> {int value = cursor.getInt(column); return cursor.wasNull() ? null : value;},
+		PreparedStatement::setInt
+	);
+
+	/** double/Double codec */
+	private static final Codec<Double> DOUBLE = new TypedCodec<>(
+		Double.class,
+		(cursor, column) -> {double value = cursor.getDouble(column); return cursor.wasNull() ? null : value;},
+		PreparedStatement::setDouble
+	);
+
+	/** String codec */
+	private static final Codec<String> STRING = new TypedCodec<>(
+		String.class,
+		IResultCursor::getString,
+		PreparedStatement::setString
+	);
+
+	/** The specialized codecs, by (wrapped) type. Read only. */
+	private static final Map<Class<?>, Codec<?>> SPECIALIZED = new HashMap<Class<?>, Codec<?>>() {{
+		this.put(Long.class,    LONG);
+		this.put(Integer.class, INT);
+		this.put(Double.class,  DOUBLE);
+		this.put(String.class,  STRING);
+	}};
+
+	/** The codec for a given type : specialized or getObject/setObject */
+	private static final ClassValue<Codec<?>> CODECS = new ClassValue<Codec<?>>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Codec<?> computeValue(Class<?> type) {
+			Class<Object> wrapped = (Class<Object>) Primitives.wrap(type);
+			Codec<?> codec = SPECIALIZED.get(wrapped);
+			return codec != null ? codec : new TypedCodec<>(
+				wrapped,
+				(cursor, column) -> cursor.getObject(column, wrapped),
+				PreparedStatement::setObject
+			);
+		}
+	};
+
+	/** The fallback codec for a given type */
+	private static final ClassValue<Codec<?>> FALLBACKS = new ClassValue<Codec<?>>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Codec<?> computeValue(Class<?> type) {
+			Class<Object> wrapped = (Class<Object>) Primitives.wrap(type);
+			return new TypedCodec<>(
+				wrapped,
+				(cursor, column) -> {
+					Object raw = cursor.getObject(column);
+					return raw == null ? null : ITransformer.fallbackTransformer().fromSQL(raw, wrapped);
+				},
+				PreparedStatement::setObject
+			);
+		}
+	};
+
+	private Codecs() {}
+
+	/**
+	 * Get the codec for a given type.
+	 * @param type the java type. Primitive types are wrapped.
+	 * @param <T> the java type
+	 * @return the specialized codec for the type or a getObject/setObject codec
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Codec<T> forType(Class<T> type) {
+		return (Codec<T>) CODECS.get(type);
+	}
+
+	/**
+	 * Get the fallback codec for a given type.
+	 * <br>
+	 * Read the raw value using getObject and convert it using {@link org.yop.orm.transform.FallbackTransformer}.
+	 * The read value might not be of the target type, if the fallback transformer could not convert it.
+	 * @param type the java type. Primitive types are wrapped.
+	 * @param <T> the java type
+	 * @return the fallback codec for the type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Codec<T> fallback(Class<T> type) {
+		return (Codec<T>) FALLBACKS.get(type);
+	}
+
+	/**
+	 * Bind a parameter value on a statement, using the codec for the value type.
+	 * @param statement the SQL statement
+	 * @param index     the parameter index <b>1-based</b> (first is 1, second is 2...)
+	 * @param value     the parameter value. If null, {@link PreparedStatement#setObject(int, Object)} is used.
+	 * @throws SQLException see {@link PreparedStatement} setXXX methods
+	 */
+	@SuppressWarnings("unchecked")
+	public static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+		if (value == null) {
+			statement.setObject(index, null);
+			return;
+		}
+		((Codec<Object>) forType(value.getClass())).bind(statement, index, value);
+	}
+
+	/**
+	 * Read a column value from a cursor.
+	 * @param <T> the read type
+	 */
+	@FunctionalInterface
+	private interface Reader<T> {
+		T read(IResultCursor cursor, String columnName);
+	}
+
+	/**
+	 * Bind a parameter value on a statement.
+	 * @param <T> the bound type
+	 */
+	@FunctionalInterface
+	private interface Binder<T> {
+		void bind(PreparedStatement statement, int index, T value) throws SQLException;
+	}
+
+	/**
+	 * A codec from a type, a reader and a binder.
+	 * @param <T> the java type
+	 */
+	private static class TypedCodec<T> implements Codec<T> {
+		private final Class<T> type;
+		private final Reader<T> reader;
+		private final Binder<T> binder;
+
+		private TypedCodec(Class<T> type, Reader<T> reader, Binder<T> binder) {
+			this.type = type;
+			this.reader = reader;
+			this.binder = binder;
+		}
+
+		@Override
+		public Class<T> getType() {
+			return this.type;
+		}
+
+		@Override
+		public T read(IResultCursor cursor, String columnName) {
+			return this.reader.read(cursor, columnName);
+		}
+
+		@Override
+		public void bind(PreparedStatement statement, int index, T value) throws SQLException {
+			this.binder.bind(statement, index, value);
+		}
+
+		@Override
+		public String toString() {
+			return "Codec{" + this.type.getName() + "}";
+		}
+	}
+}
@@ -0,0 +1,16 @@
+/**
+ * Type specialized JDBC codecs : read a column / bind a parameter using the typed JDBC methods.
+ * <br>
+ * How does it work ?
+ * <ul>
+ * <li>{@link org.yop.orm.sql.codec.Codecs} is the codec registry, by java type</li>
+ * <li>long, int, double and String values are read/bound using getLong/setLong, getInt/setInt...</li>
+ * <li>other values are read using {@link java.sql.ResultSet#getObject(String, Class)} and bound using setObject</li>
+ * <li>
+ *     if a codec fails reading a column, a fallback codec is used
+ *     ({@link org.yop.orm.transform.FallbackTransformer} on the raw value)
+ * </li>
+ * <li>the codec used for a column is kept for the next rows : see {@link org.yop.orm.sql.Results#read}</li>
+ * </ul>
+ */
+package org.yop.orm.sql.codec;
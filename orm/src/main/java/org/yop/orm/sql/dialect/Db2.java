@@ -135,6 +135,21 @@ public class Db2 extends Dialect {
 		return false;
 	}
 
+	@Override
+	public boolean rowValueIn() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * Db2 only accepts 'UNION ALL' in a recursive common table expression : bounded depth.
+	 */
+	@Override
+	public int recursiveCTEDepth() {
+		return SQL.RECURSIVE_CTE_DEPTH;
+	}
+
 	/**
 	 * Db2 implementation : if {@link #enableLocking} is false, an exception is thrown.
 	 * <p>
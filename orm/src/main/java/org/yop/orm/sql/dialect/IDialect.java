@@ -8,6 +8,7 @@ import org.yop.orm.query.sql.Paging;
 import org.yop.orm.sql.Parameters;
 import org.yop.orm.sql.SQLExpression;
 import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.sql.codec.Codecs;
 import org.yop.orm.util.MessageUtil;
 
 import java.sql.JDBCType;
@@ -102,6 +103,48 @@ public interface IDialect {
 		return true;
 	}
 
+	/**
+	 * Some DBMS does not support row value expressions in an IN clause : '(a, b) IN ((?, ?), (?, ?))'.
+	 * <br>
+	 * See {@link #in(List, List)}.
+	 * @return default value : true
+	 */
+	default boolean rowValueIn() {
+		return true;
+	}
+
+	/**
+	 * Some DBMS only support a subquery on the right side of a row value IN clause :
+	 * '(a, b) IN (VALUES (?, ?), (?, ?))'.
+	 * <br>
+	 * See {@link #in(List, List)}.
+	 * @return default value : false
+	 */
+	default boolean rowValueInSubquery() {
+		return false;
+	}
+
+	/**
+	 * Does this DBMS support recursive common table expressions ?
+	 * <br>
+	 * See {@link #reachable(String, CharSequence, List)}.
+	 * @return default value : true
+	 */
+	default boolean recursiveCTE() {
+		return true;
+	}
+
+	/**
+	 * Some DBMS does not support a 'UNION' (with duplicate elimination) in a recursive common table expression.
+	 * They require 'UNION ALL', which does not stop on cycles : the recursion depth must then be bounded.
+	 * <br>
+	 * See {@link #reachable(String, CharSequence, List)}.
+	 * @return the max recursion depth of a recursive query. Default value : 0, i.e. not bounded, 'UNION'.
+	 */
+	default int recursiveCTEDepth() {
+		return 0;
+	}
+
 	/**
 	 * The maximum amount of JDBC parameters this dialect supports.
 	 * <br>
@@ -131,6 +174,9 @@ public interface IDialect {
 	/**
 	 * Set the value of a parameter in a statement.
 	 * <br>
+	 * The value type codec is used : typed setXXX methods (setLong, setString...) or setObject.
+	 * See {@link Codecs#bind(PreparedStatement, int, Object)}.
+	 * <br>
 	 * Override this if your JDBC driver does not fully support {@link PreparedStatement#setObject(int, Object)}.
 	 * @param statement the SQL statement
 	 * @param index     the parameter index <b>1-based</b> (first is 1, second is 2...)
@@ -142,7 +188,7 @@ public interface IDialect {
 		int index,
 		Parameters.Parameter parameter)
 		throws SQLException {
-		statement.setObject(index, parameter.getValue());
+		Codecs.bind(statement, index, parameter.getValue());
 	}
 
 	/**
@@ -323,6 +369,31 @@ public interface IDialect {
 		return SQLExpression.forPattern(DEFAULT_COUNT_DISTINCT_PATTERN, columnAlias).toString();
 	}
 
+	/**
+	 * Generate 'COUNT(DISTINCT [id column alias]) AS [count alias], MAX([column alias]) AS [max alias]'.
+	 * @param idColumnAlias the ID column alias
+	 * @param countAlias    the alias of the COUNT column
+	 * @param columnAlias   the column alias
+	 * @param maxAlias      the alias of the MAX column
+	 * @return COUNT(DISTINCT id alias) AS count alias, MAX(alias) AS max alias
+	 */
+	default String toSQLCountMax(String idColumnAlias, String countAlias, String columnAlias, String maxAlias) {
+		return SQLExpression
+			.forPattern(DEFAULT_COUNT_MAX_PATTERN, idColumnAlias, countAlias, columnAlias, maxAlias)
+			.toString();
+	}
+
+	/**
+	 * Generate 'MIN([column alias]) AS [min alias], MAX([column alias]) AS [max alias]'.
+	 * @param columnAlias the column alias
+	 * @param minAlias    the alias of the MIN column
+	 * @param maxAlias    the alias of the MAX column
+	 * @return MIN(alias) AS min alias, MAX(alias) AS max alias
+	 */
+	default String toSQLMinMax(String columnAlias, String minAlias, String maxAlias) {
+		return SQLExpression.forPattern(DEFAULT_MIN_MAX_PATTERN, columnAlias, minAlias, columnAlias, maxAlias).toString();
+	}
+
 	/**
 	 * Build the Select query from component clauses
 	 * @param lock        true to lock the SELECT results.
@@ -473,6 +544,82 @@ public interface IDialect {
 		return SQLExpression.forPattern(DEFAULT_IN_PATTERN, column, SQLExpression.join(" , ", values));
 	}
 
+	/**
+	 * Build a row value IN clause using {@link SQL#DEFAULT_IN_PATTERN} :
+	 * '([column 1],[column 2]...) IN (([value 1],[value 2]...) , ([value 1],[value 2]...)...)'.
+	 * <br>
+	 * The row values are a 'VALUES' subquery if {@link #rowValueInSubquery()}.
+	 * <br>
+	 * ⚠⚠⚠ Check {@link #rowValueIn()} first ! ⚠⚠⚠
+	 * @param columns the columns of the row value
+	 * @param rows    the row values. Each row must have as many values as there are columns.
+	 * @return the row value IN clause
+	 */
+	default SQLExpression in(List<String> columns, List<? extends List<? extends CharSequence>> rows) {
+		List<SQLExpression> values = rows
+			.stream()
+			.map(row -> new SQLExpression("(").append(SQLExpression.join(",", row)).append(")"))
+			.collect(Collectors.toList());
+		SQLExpression rowValues = SQLExpression.join(" , ", values);
+		return SQLExpression.forPattern(
+			DEFAULT_IN_PATTERN,
+			"(" + String.join(",", columns) + ")",
+			this.rowValueInSubquery() ? new SQLExpression(VALUES + " ").append(rowValues) : rowValues
+		);
+	}
+
+	/**
+	 * Build an edge query for {@link #reachable(String, CharSequence, List)}, using {@link SQL#DEFAULT_EDGE_PATTERN} :
+	 * select the non null (source, target) pairs of a table.
+	 * @param table  the table that holds the edges (a join table or the target table itself)
+	 * @param source the source ID column
+	 * @param target the target ID column
+	 * @return the edge query
+	 */
+	default String edge(String table, String source, String target) {
+		return SQLExpression.forPattern(DEFAULT_EDGE_PATTERN, source, target, table, source, target).toString();
+	}
+
+	/**
+	 * Build a recursive query that returns the IDs that can be reached from some seed IDs, following some edges.
+	 * <br>
+	 * It uses {@link SQL#DEFAULT_REACHABLE_PATTERN} : a 'WITH RECURSIVE' common table expression.
+	 * The 'UNION' clause eliminates duplicates : this is what stops the recursion on cycles.
+	 * <br>
+	 * If {@link #recursiveCTEDepth()} is set, it uses {@link SQL#BOUNDED_REACHABLE_PATTERN} :
+	 * 'UNION ALL' and a depth guard, that stops the recursion on cycles.
+	 * There is then a 2nd column : the min depth of each ID.
+	 * The IDs at the max depth were not followed : they are the seed of the next recursive query.
+	 * <br>
+	 * ⚠⚠⚠ Check {@link #recursiveCTE()} first ! ⚠⚠⚠
+	 * @param idAlias the alias of the ID column in the output
+	 * @param seed    the seed query. 1 column : the seed IDs.
+	 * @param edges   the edge queries. See {@link #edge(String, String, String)}.
+	 * @return the recursive query. The reachable IDs (including the seed IDs), aliased 'idAlias' [, their depth].
+	 */
+	default SQLExpression reachable(String idAlias, CharSequence seed, List<? extends CharSequence> edges) {
+		if (this.recursiveCTEDepth() > 0) {
+			return SQLExpression.forPattern(
+				BOUNDED_REACHABLE_PATTERN,
+				idAlias,
+				seed,
+				SQLExpression.join(" " + UNION_ALL + " ", edges),
+				idAlias,
+				String.valueOf(this.recursiveCTEDepth()),
+				idAlias,
+				idAlias
+			);
+		}
+		return SQLExpression.forPattern(
+			DEFAULT_REACHABLE_PATTERN,
+			idAlias,
+			seed,
+			SQLExpression.join(" " + UNION_ALL + " ", edges),
+			idAlias,
+			idAlias
+		);
+	}
+
 	/**
 	 * Simply join the where clauses using " AND ". Clauses can be null or empty.
 	 * @param whereClauses the where clauses to join
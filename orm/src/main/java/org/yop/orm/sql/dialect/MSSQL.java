@@ -99,6 +99,21 @@ public class MSSQL extends Dialect {
 		return false;
 	}
 
+	@Override
+	public boolean rowValueIn() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * SQL Server has no 'WITH RECURSIVE' and only accepts 'UNION ALL' in a recursive CTE : bounded depth.
+	 */
+	@Override
+	public int recursiveCTEDepth() {
+		return SQL.RECURSIVE_CTE_DEPTH;
+	}
+
 	@Override
 	public String selectAndLockPattern(boolean distinct) {
 		String defaultPattern = super.selectPattern(distinct);
@@ -77,4 +77,14 @@ public class Oracle extends Dialect {
 		}
 		return sequencesSQL;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br><br>
+	 * Oracle only accepts 'UNION ALL' in a recursive subquery factoring clause : bounded depth.
+	 */
+	@Override
+	public int recursiveCTEDepth() {
+		return SQL.RECURSIVE_CTE_DEPTH;
+	}
 }
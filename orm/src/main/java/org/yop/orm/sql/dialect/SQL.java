@@ -27,6 +27,11 @@ abstract class SQL {
 	static final String PARAM_ID_COL_EQ    = "{:idcolumn_equals}";
 	static final String PARAM_SUB_SEL      = "{:sub_select}";
 	static final String PARAM_ANY          = "{:any}";
+	static final String PARAM_SOURCE       = "{:source}";
+	static final String PARAM_TARGET       = "{:target}";
+	static final String PARAM_SEED         = "{:seed}";
+	static final String PARAM_EDGES        = "{:edges}";
+	static final String PARAM_DEPTH        = "{:depth}";
 
 	static final String SELECT     = "SELECT";
 	static final String INSERT     = "INSERT";
@@ -40,12 +45,37 @@ abstract class SQL {
 	static final String WHERE      = "WHERE";
 	static final String FOR_UPDATE = "FOR UPDATE";
 	static final String COUNT      = "COUNT";
+	static final String MIN        = "MIN";
+	static final String MAX        = "MAX";
 	static final String IN         = "IN";
 	static final String ON         = "ON";
 	static final String AND        = "AND";
 	static final String SET        = "SET";
 	static final String VALUES     = "VALUES";
 	static final String EQ         = "=";
+	static final String AS         = "AS";
+	static final String IS_NOT_NULL = "IS NOT NULL";
+	static final String WITH       = "WITH";
+	static final String WITH_RECURSIVE = "WITH RECURSIVE";
+	static final String UNION      = "UNION";
+	static final String UNION_ALL  = "UNION ALL";
+	static final String INNER_JOIN = "INNER JOIN";
+	static final String GROUP_BY   = "GROUP BY";
+
+	/** Recursive query : common table expression name */
+	static final String REACHABLE  = "yop_reachable";
+
+	/** Recursive query : max depth of a 'UNION ALL' recursive query, for the DBMS that require it */
+	static final int RECURSIVE_CTE_DEPTH = 10;
+
+	/** Recursive query : seed alias and depth column, when the depth is bounded */
+	static final String SEED            = "yop_seed";
+	static final String REACHABLE_DEPTH = "yop_depth";
+
+	/** Recursive query : edges alias, edge source and edge target columns */
+	static final String EDGES       = "yop_edges";
+	static final String EDGE_SOURCE = "yop_source";
+	static final String EDGE_TARGET = "yop_target";
 
 	/** Select [what] FROM [table] [table_alias] [join clause] WHERE [where clause] [order by clause] [extra] */
 	static final String DEFAULT_SELECT_PATTERN = join(
@@ -119,6 +149,35 @@ abstract class SQL {
 		")"
 	);
 
+	/** COUNT(DISTINCT :idColumn) AS :count_alias, MAX(:column) AS :max_alias columns selection */
+	static final String DEFAULT_COUNT_MAX_PATTERN = join(
+		COUNT + "(",
+		DISTINCT,
+		PARAM_COLUMN,
+		")",
+		AS,
+		PARAM_VALUE + ",",
+		MAX + "(",
+		PARAM_COLUMN,
+		")",
+		AS,
+		PARAM_VALUE
+	);
+
+	/** MIN(:column) AS :min_alias, MAX(:column) AS :max_alias columns selection */
+	static final String DEFAULT_MIN_MAX_PATTERN = join(
+		MIN + "(",
+		PARAM_COLUMN,
+		")",
+		AS,
+		PARAM_VALUE + ",",
+		MAX + "(",
+		PARAM_COLUMN,
+		")",
+		AS,
+		PARAM_VALUE
+	);
+
 	/** DELETE [columns] FROM [table] [join clauses] WHERE [where clause] */
 	static final String DEFAULT_DELETE_PATTERN = join(
 		DELETE,
@@ -188,6 +247,113 @@ abstract class SQL {
 		")"
 	);
 
+	/** SELECT [source] AS yop_source, [target] AS yop_target FROM [table] WHERE [source] IS NOT NULL AND ... */
+	static final String DEFAULT_EDGE_PATTERN = join(
+		SELECT,
+		PARAM_SOURCE,
+		AS,
+		EDGE_SOURCE + ",",
+		PARAM_TARGET,
+		AS,
+		EDGE_TARGET,
+		FROM,
+		PARAM_TABLE,
+		WHERE,
+		PARAM_SOURCE,
+		IS_NOT_NULL,
+		AND,
+		PARAM_TARGET,
+		IS_NOT_NULL
+	);
+
+	/**
+	 * WITH RECURSIVE yop_reachable([id]) AS (
+	 *   [seed]
+	 *   UNION
+	 *   SELECT yop_edges.yop_target FROM yop_reachable INNER JOIN ([edges]) yop_edges ON yop_edges.yop_source = [id]
+	 * )
+	 * SELECT [id] FROM yop_reachable
+	 */
+	static final String DEFAULT_REACHABLE_PATTERN = join(
+		WITH_RECURSIVE,
+		REACHABLE + "(" + PARAM_COLUMN + ")",
+		AS,
+		"(",
+		PARAM_SEED,
+		UNION,
+		SELECT,
+		EDGES + "." + EDGE_TARGET,
+		FROM,
+		REACHABLE,
+		INNER_JOIN,
+		"(",
+		PARAM_EDGES,
+		")",
+		EDGES,
+		ON,
+		EDGES + "." + EDGE_SOURCE,
+		EQ,
+		REACHABLE + "." + PARAM_COLUMN,
+		")",
+		SELECT,
+		PARAM_COLUMN,
+		FROM,
+		REACHABLE
+	);
+
+	/**
+	 * WITH yop_reachable([id], yop_depth) AS (
+	 *   SELECT yop_seed.*, 0 FROM ([seed]) yop_seed
+	 *   UNION ALL
+	 *   SELECT yop_edges.yop_target, yop_reachable.yop_depth + 1
+	 *   FROM yop_reachable INNER JOIN ([edges]) yop_edges ON yop_edges.yop_source = [id]
+	 *   WHERE yop_reachable.yop_depth {@literal <} [depth]
+	 * )
+	 * SELECT [id], MIN(yop_depth) AS yop_depth FROM yop_reachable GROUP BY [id]
+	 */
+	static final String BOUNDED_REACHABLE_PATTERN = join(
+		WITH,
+		REACHABLE + "(" + PARAM_COLUMN + "," + REACHABLE_DEPTH + ")",
+		AS,
+		"(",
+		SELECT,
+		SEED + ".*, 0",
+		FROM,
+		"(",
+		PARAM_SEED,
+		")",
+		SEED,
+		UNION_ALL,
+		SELECT,
+		EDGES + "." + EDGE_TARGET + ",",
+		REACHABLE + "." + REACHABLE_DEPTH + " + 1",
+		FROM,
+		REACHABLE,
+		INNER_JOIN,
+		"(",
+		PARAM_EDGES,
+		")",
+		EDGES,
+		ON,
+		EDGES + "." + EDGE_SOURCE,
+		EQ,
+		REACHABLE + "." + PARAM_COLUMN,
+		WHERE,
+		REACHABLE + "." + REACHABLE_DEPTH,
+		"<",
+		PARAM_DEPTH,
+		")",
+		SELECT,
+		PARAM_COLUMN + ",",
+		MIN + "(" + REACHABLE_DEPTH + ")",
+		AS,
+		REACHABLE_DEPTH,
+		FROM,
+		REACHABLE,
+		GROUP_BY,
+		PARAM_COLUMN
+	);
+
 	/** EXISTS ([sub-select]) */
 	static final String DEFAULT_EXISTS_PATTERN = join(
 		EXISTS,
@@ -60,4 +60,14 @@ public class SQLite extends Dialect {
 	public String selectAndLockPattern(boolean distinct) {
 		throw new UnsupportedOperationException("SQLite does not support locking.");
 	}
+
+	/**
+	 * SQLite only supports a subquery on the right side of a row value IN clause.
+	 * <br><br>
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean rowValueInSubquery() {
+		return true;
+	}
 }
@@ -5,8 +5,8 @@ import org.yop.orm.exception.YopRuntimeException;
 import org.yop.orm.sql.Config;
 import org.yop.reflection.Reflection;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A transformer is set on a field using the {@link org.yop.orm.annotations.Column} annotation.
@@ -23,7 +23,7 @@ public interface ITransformer<What> {
 	/**
 	 * Transformers instances (singletons)
 	 */
-	Map<Class, ITransformer> INSTANCES = new HashMap<>();
+	Map<Class, ITransformer> INSTANCES = new ConcurrentHashMap<>();
 
 	/**
 	 * Transform the field value into anything else for SQL querying
@@ -49,14 +49,13 @@ public interface ITransformer<What> {
 	 * @return the transformer instance.
 	 */
 	static ITransformer getTransformer(Class<? extends ITransformer> clazz) {
-		if (! INSTANCES.containsKey(clazz)) {
+		return INSTANCES.computeIfAbsent(clazz, c -> {
 			try {
-				INSTANCES.put(clazz, Reflection.newInstanceNoArgs(clazz));
+				return (ITransformer) Reflection.newInstanceNoArgs(c);
 			} catch (RuntimeException e) {
-				throw new YopRuntimeException("Could not instantiate transformer [" + clazz.getName() + "]", e);
+				throw new YopRuntimeException("Could not instantiate transformer [" + c.getName() + "]", e);
 			}
-		}
-		return INSTANCES.get(clazz);
+		});
 	}
 
 	/**
@@ -0,0 +1,476 @@
+package org.yop.orm.util;
+
+import com.google.common.primitives.Primitives;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.annotations.*;
+import org.yop.orm.exception.YopMappingException;
+import org.yop.orm.transform.ITransformer;
+import org.yop.reflection.Reflection;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The ORM metadata of a class : table, ID field, column fields, natural key, relation fields...
+ * <br>
+ * The ORM annotations are read once, when the metadata of a class is first requested : see {@link #of(Class)}.
+ * Then the metadata is immutable and can be shared across threads.
+ * <br><br>
+ * {@link ORMUtil} and {@link JoinUtil} methods read the metadata. You should not need to use this class directly.
+ * <br>
+ * <b>⚠⚠⚠ A class without a valid ID field still has some metadata. {@link #getIdField()} will throw an exception. ⚠⚠⚠</b>
+ */
+public final class EntityMetadata {
+
+	private static final Logger logger = LoggerFactory.getLogger(EntityMetadata.class);
+
+	/** The metadata registry : one metadata instance per class, built on first access */
+	private static final ClassValue<EntityMetadata> REGISTRY = new ClassValue<EntityMetadata>() {
+		@Override
+		protected EntityMetadata computeValue(Class<?> type) {
+			return new EntityMetadata(type);
+		}
+	};
+
+	/** The target class */
+	private final Class<?> target;
+
+	/** Table name : {@link Table#name()} or the upper case class name */
+	private final String tableName;
+
+	/** Schema name : {@link Table#schema()} or empty */
+	private final String schemaName;
+
+	/** Schema + table name, '.' separated, or empty if no {@link Table} */
+	private final String tableQualifiedName;
+
+	/** The context name of the class : "yop_" + simple name */
+	private final String targetName;
+
+	/** The ID field. Null if not found or several ones → see {@link #idError} */
+	private final Field idField;
+
+	/** Why there is no ID field. Null if there is an ID field. */
+	private final String idError;
+
+	/** The ID column name : {@link Column#name()} on the ID field or "ID" */
+	private final String idColumn;
+
+	/** Is the ID autogenerated (no @Id, autoincrement or sequence) ? */
+	private final boolean autogenId;
+
+	/** All the non synthetic fields, superclasses included */
+	private final List<Field> fields;
+
+	/** All the non synthetic, non transient fields, superclasses included */
+	private final List<Field> nonTransientFields;
+
+	/** The column fields (non transient @Column fields + ID field) */
+	private final Set<Field> columnFields;
+
+	/** The column descriptors, by field */
+	private final Map<Field, ColumnDescriptor> columns;
+
+	/** The non transient @NaturalId fields */
+	private final List<Field> naturalKeyFields;
+
+	/** The @JoinTable and @JoinColumn fields, transient or not */
+	private final List<Field> joinedFields;
+
+	/** The join descriptors, in the {@link #joinedFields} order */
+	private final List<JoinDescriptor> joins;
+
+	/** The field type (collection, Yopable, other) of each field */
+	private final Map<Field, ORMUtil.FieldType> fieldTypes;
+
+	/**
+	 * Read the ORM annotations of a class and build its metadata.
+	 * @param target the target class
+	 */
+	private EntityMetadata(Class<?> target) {
+		this.target = target;
+
+		Table table = Reflection.getAnnotation(target, Table.class);
+		this.tableName          = table == null ? target.getSimpleName().toUpperCase() : table.name();
+		this.schemaName         = table == null ? "" : table.schema();
+		this.tableQualifiedName = table == null ? "" : MessageUtil.join(".", table.schema(), table.name());
+		this.targetName         = "yop_" + target.getSimpleName();
+
+		this.fields = Collections.unmodifiableList(Reflection.getFields(target));
+		this.nonTransientFields = Collections.unmodifiableList(
+			this.fields.stream().filter(ORMUtil::isNotTransient).collect(Collectors.toList())
+		);
+
+		Map<Field, ORMUtil.FieldType> types = new HashMap<>();
+		this.fields.forEach(field -> types.put(field, ORMUtil.FieldType.fromField(field)));
+		this.fieldTypes = Collections.unmodifiableMap(types);
+
+		Field id = null;
+		String error = null;
+		List<Field> idFields = this.nonTransient(Id.class);
+		if (idFields.size() == 0) {
+			Field field = Reflection.get(target, "id");
+			if(field != null && Comparable.class.isAssignableFrom(Primitives.wrap(field.getType()))) {
+				id = field;
+			} else {
+				error = "No Comparable ID field in [" + target.getName() + "] !";
+			}
+		} else if (idFields.size() > 1) {
+			error = "Several @Id fields ! Only one Comparable Field can be @Id !";
+		} else {
+			id = idFields.get(0);
+		}
+		this.idField = id;
+		this.idError = error;
+		this.idColumn = id != null && id.isAnnotationPresent(Column.class) ? id.getAnnotation(Column.class).name() : "ID";
+		Id idAnnotation = id == null ? null : id.getAnnotation(Id.class);
+		this.autogenId = id != null
+			&& (idAnnotation == null || idAnnotation.autoincrement() || StringUtils.isNotBlank(idAnnotation.sequence()));
+
+		// Keep the HashSet construction : the column order in generated queries must not change.
+		Set<Field> columnFields = new HashSet<>(this.nonTransient(Column.class));
+		if (id != null) {
+			columnFields.add(id);
+		}
+		this.columnFields = Collections.unmodifiableSet(columnFields);
+
+		Map<Field, ColumnDescriptor> columns = new HashMap<>();
+		this.columnFields.forEach(field -> columns.put(field, new ColumnDescriptor(field, field == this.idField)));
+		this.columns = Collections.unmodifiableMap(columns);
+
+		this.naturalKeyFields = Collections.unmodifiableList(this.nonTransient(NaturalId.class));
+
+		List<Field> joinedFields = new ArrayList<>();
+		this.fields.stream().filter(f -> f.isAnnotationPresent(JoinTable.class)).forEach(joinedFields::add);
+		this.fields.stream().filter(f -> f.isAnnotationPresent(JoinColumn.class)).forEach(joinedFields::add);
+		this.joinedFields = Collections.unmodifiableList(joinedFields);
+		this.joins = Collections.unmodifiableList(
+			joinedFields.stream().map(JoinDescriptor::new).collect(Collectors.toList())
+		);
+
+		logger.debug("Metadata built for [{}]", target.getName());
+	}
+
+	/**
+	 * Get the metadata of a class. It is built on the first call.
+	 * @param clazz the class
+	 * @return the class metadata. Never null.
+	 */
+	public static EntityMetadata of(Class<?> clazz) {
+		return REGISTRY.get(clazz);
+	}
+
+	/**
+	 * Get the column descriptor of a field.
+	 * <br>
+	 * The descriptor is read from the metadata of the field declaring class.
+	 * If the field is not a column of its declaring class, a new descriptor is built.
+	 * @param field the column field
+	 * @return the column descriptor
+	 */
+	public static ColumnDescriptor column(Field field) {
+		ColumnDescriptor column = of(field.getDeclaringClass()).columns.get(field);
+		return column == null ? new ColumnDescriptor(field, of(field.getDeclaringClass()).idField == field) : column;
+	}
+
+	/**
+	 * Get the join descriptor of a field.
+	 * <br>
+	 * The descriptor is read from the metadata of the field declaring class.
+	 * If the field is not a joined field of its declaring class, a new descriptor is built.
+	 * @param field the relation field
+	 * @return the join descriptor
+	 */
+	public static JoinDescriptor join(Field field) {
+		for (JoinDescriptor join : of(field.getDeclaringClass()).joins) {
+			if (join.field.equals(field)) {
+				return join;
+			}
+		}
+		return new JoinDescriptor(field);
+	}
+
+	/**
+	 * Get the field type (collection, Yopable, other) of a field.
+	 * @param field the field
+	 * @return the field type, read from the declaring class metadata if possible.
+	 */
+	static ORMUtil.FieldType fieldType(Field field) {
+		ORMUtil.FieldType type = of(field.getDeclaringClass()).fieldTypes.get(field);
+		return type == null ? ORMUtil.FieldType.fromField(field) : type;
+	}
+
+	public Class<?> getTarget() {
+		return this.target;
+	}
+
+	public String getTableName() {
+		return this.tableName;
+	}
+
+	public String getSchemaName() {
+		return this.schemaName;
+	}
+
+	public String getTableQualifiedName() {
+		return this.tableQualifiedName;
+	}
+
+	public String getTargetName() {
+		return this.targetName;
+	}
+
+	/**
+	 * @return the ID field, set accessible.
+	 * @throws YopMappingException no Yop compatible ID field found or several ones.
+	 */
+	public Field getIdField() {
+		if (this.idField == null) {
+			throw new YopMappingException(this.idError);
+		}
+		return this.idField;
+	}
+
+	/**
+	 * @return the ID column name : {@link Column#name()} on the ID field or "ID".
+	 * @throws YopMappingException no Yop compatible ID field found or several ones.
+	 */
+	public String getIdColumn() {
+		this.getIdField();
+		return this.idColumn;
+	}
+
+	/**
+	 * @return true if no @Id field (ID is considered autogen) or @Id with autoincrement or non empty sequence.
+	 * @throws YopMappingException no Yop compatible ID field found or several ones.
+	 */
+	public boolean isAutogenId() {
+		this.getIdField();
+		return this.autogenId;
+	}
+
+	/**
+	 * @return all the non synthetic fields, superclasses included. Unmodifiable.
+	 */
+	public List<Field> getFields() {
+		return this.fields;
+	}
+
+	/**
+	 * @return all the non synthetic and non transient fields, superclasses included. Unmodifiable.
+	 */
+	public List<Field> getNonTransientFields() {
+		return this.nonTransientFields;
+	}
+
+	/**
+	 * @return the non transient @Column fields and the ID field. Unmodifiable.
+	 * @throws YopMappingException no Yop compatible ID field found or several ones.
+	 */
+	public Set<Field> getColumnFields() {
+		this.getIdField();
+		return this.columnFields;
+	}
+
+	/**
+	 * @return the column descriptors (non transient @Column fields and the ID field). Unmodifiable.
+	 * @throws YopMappingException no Yop compatible ID field found or several ones.
+	 */
+	public Collection<ColumnDescriptor> getColumns() {
+		this.getIdField();
+		return this.columns.values();
+	}
+
+	/**
+	 * @return the non transient @NaturalId fields. Unmodifiable.
+	 */
+	public List<Field> getNaturalKeyFields() {
+		return this.naturalKeyFields;
+	}
+
+	/**
+	 * @return the @JoinTable and then @JoinColumn fields, transient or not. Unmodifiable.
+	 */
+	public List<Field> getJoinedFields() {
+		return this.joinedFields;
+	}
+
+	/**
+	 * @return the join descriptors of the @JoinTable and then @JoinColumn fields. Unmodifiable.
+	 */
+	public List<JoinDescriptor> getJoins() {
+		return this.joins;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityMetadata{" + this.target.getName() + "}";
+	}
+
+	/**
+	 * Get the non transient fields with a given annotation.
+	 * @param annotation the annotation
+	 * @return a new list of the non transient fields with the annotation
+	 */
+	private List<Field> nonTransient(Class<? extends java.lang.annotation.Annotation> annotation) {
+		return this.nonTransientFields
+			.stream()
+			.filter(field -> field.isAnnotationPresent(annotation))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * A column field, with its column name, type, transformer...
+	 */
+	public static final class ColumnDescriptor {
+		private final Field field;
+		private final Column annotation;
+		private final String name;
+		private final Class<?> type;
+		private final ITransformer transformer;
+		private final boolean notNull;
+
+		private ColumnDescriptor(Field field, boolean isId) {
+			this.field = field;
+			this.annotation = field.getAnnotation(Column.class);
+			this.name = this.annotation == null || StringUtils.isEmpty(this.annotation.name())
+				? field.getName().toUpperCase()
+				: this.annotation.name();
+			this.type = columnType(field, this.annotation);
+			this.transformer = transformer(field, this.annotation);
+			this.notNull = isId || (this.annotation != null && this.annotation.not_null());
+		}
+
+		public Field getField() {
+			return this.field;
+		}
+
+		/**
+		 * @return the @Column annotation. Might be null (e.g. ID field with no @Column).
+		 */
+		public Column getAnnotation() {
+			return this.annotation;
+		}
+
+		/**
+		 * @return {@link Column#name()} or the upper case field name if no @Column or no name specified.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @return the field type, unless an enum type (read {@link Column#enum_strategy()} → Integer/String)
+		 */
+		public Class<?> getType() {
+			return this.type;
+		}
+
+		/**
+		 * @return the column transformer singleton. Never null.
+		 */
+		public ITransformer getTransformer() {
+			return this.transformer;
+		}
+
+		/**
+		 * @return true for the ID column or if {@link Column#not_null()} is true
+		 */
+		public boolean isNotNull() {
+			return this.notNull;
+		}
+
+		@Override
+		public String toString() {
+			return "ColumnDescriptor{" + Reflection.fieldToString(this.field) + " → " + this.name + "}";
+		}
+
+		/**
+		 * Get the column data type for a given field.
+		 * @param field      the column field
+		 * @param annotation the @Column annotation of the field. Can be null.
+		 * @return the field type, unless an enum type (read {@link Column#enum_strategy()} → Integer/String)
+		 */
+		private static Class<?> columnType(Field field, Column annotation) {
+			if (field.getType().isEnum() && annotation != null) {
+				switch (annotation.enum_strategy()) {
+					case ORDINAL: return Integer.class;
+					case NAME:
+					default: return String.class;
+				}
+			}
+			return field.getType();
+		}
+
+		/**
+		 * Get the transformer for a given field.
+		 * <ul>
+		 *     <li>No transformer specified → {@link org.yop.orm.transform.VoidTransformer} singleton instance</li>
+		 *     <li>Transformer specified → transformer singleton instance</li>
+		 *     <li>Transformer specified but not instantiable → {@link org.yop.orm.transform.VoidTransformer}</li>
+		 * </ul>
+		 * @param field      the column field
+		 * @param annotation the @Column annotation of the field. Can be null.
+		 * @return the transformer for the field. Never null.
+		 */
+		private static ITransformer transformer(Field field, Column annotation) {
+			if(annotation != null) {
+				Class<? extends ITransformer> transformer = annotation.transformer();
+				try {
+					return ITransformer.getTransformer(transformer);
+				} catch (RuntimeException e) {
+					logger.warn(
+						"Could not instantiate transformer [{}] for [{}#{}]. Returning VoidTransformer.",
+						transformer.getName(),
+						field.getDeclaringClass(),
+						field.getName()
+					);
+				}
+			}
+			return ITransformer.voidTransformer();
+		}
+	}
+
+	/**
+	 * A relation field (@JoinTable or @JoinColumn), with its join profiles.
+	 */
+	public static final class JoinDescriptor {
+		private final Field field;
+		private final List<String> profiles;
+		private final boolean nonTransient;
+
+		private JoinDescriptor(Field field) {
+			this.field = field;
+			this.profiles = field.isAnnotationPresent(JoinProfile.class)
+				? Collections.unmodifiableList(Arrays.asList(field.getAnnotation(JoinProfile.class).profiles()))
+				: Collections.emptyList();
+			this.nonTransient = ORMUtil.isNotTransient(field);
+		}
+
+		public Field getField() {
+			return this.field;
+		}
+
+		/**
+		 * @return the {@link JoinProfile#profiles()} of the field. Unmodifiable, empty if no @JoinProfile.
+		 */
+		public List<String> getProfiles() {
+			return this.profiles;
+		}
+
+		/**
+		 * @return false if the relation field is transient or @YopTransient
+		 */
+		public boolean isNonTransient() {
+			return this.nonTransient;
+		}
+
+		@Override
+		public String toString() {
+			return "JoinDescriptor{" + Reflection.fieldToString(this.field) + " → " + this.profiles + "}";
+		}
+	}
+}
@@ -26,11 +26,13 @@ public class JoinUtil {
 
 	/**
 	 * Get all the fields with either a {@link JoinTable} or {@link JoinColumn} annotation - be they transient or not.
+	 * <br>
+	 * The joined fields are read from the class {@link EntityMetadata} : the returned list is unmodifiable.
 	 * @param clazz the clazz to inspect for @JoinTable/@JoinColumn fields
 	 * @return the matching fields
 	 */
 	public static List<Field> joinedFields(Class clazz) {
-		return ListUtils.union(joinTableFields(clazz), joinColumnFields(clazz));
+		return EntityMetadata.of(clazz).getJoinedFields();
 	}
 
 	/**
@@ -96,10 +98,10 @@ public class JoinUtil {
 	 * @return the join profiles annotated for the field
 	 */
 	public static List<String> joinProfiles(Field field) {
-		if (field != null && field.isAnnotationPresent(JoinProfile.class)) {
-			return Arrays.asList(field.getAnnotation(JoinProfile.class).profiles());
+		if (field == null) {
+			return new ArrayList<>(0);
 		}
-		return new ArrayList<>(0);
+		return EntityMetadata.join(field).getProfiles();
 	}
 
 	/**
@@ -141,14 +143,13 @@ public class JoinUtil {
 		Set<Field> cycleBreaker,
 		String... profiles) {
 
-		List<Field> fields = joinedFields(source);
-
-		for (Field field : fields) {
+		for (EntityMetadata.JoinDescriptor descriptor : EntityMetadata.of(source).getJoins()) {
+			Field field = descriptor.getField();
 			if (profiles.length == 0) {
-				if (! ORMUtil.isNotTransient(field)) {
+				if (! descriptor.isNonTransient()) {
 					continue;
 				}
-			} else if (! CollectionUtils.containsAny(joinProfiles(field), profiles)) {
+			} else if (! CollectionUtils.containsAny(descriptor.getProfiles(), profiles)) {
 				logger.debug("Field [{}] is not marked for any profile of {}", field, profiles);
 				continue;
 			}
@@ -7,21 +7,24 @@ import org.apache.commons.lang.RandomStringUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.orm.annotations.*;
 import org.yop.orm.exception.YopMappingException;
+import org.yop.orm.map.Accessors;
 import org.yop.orm.query.Context;
 import org.yop.orm.sql.Config;
 import org.yop.orm.transform.ITransformer;
+import org.yop.reflection.ClassIndex;
 import org.yop.reflection.Reflection;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -32,11 +35,13 @@ public class ORMUtil {
 
 	private static final Logger logger = LoggerFactory.getLogger(ORMUtil.class);
 
-	/** [Yopable class → target name] cache map : {@link Class#getSimpleName()} can be a bit slow */
-	private static final Map<Class, String> TARGET_NAMES = new HashMap<>();
-
 	/** [Field → parametrized type] cache map : {@link Field#getGenericType()} can be a bit slow */
-	private static final Map<Field, Class> FIELD_PARAMETRIZED_TYPES = new HashMap<>();
+	private static final Map<Field, Class> FIELD_PARAMETRIZED_TYPES = new ConcurrentHashMap<>();
+
+	/** The integral ID types, that can be split into ID ranges */
+	private static final Set<Class<?>> INTEGRAL_TYPES = new HashSet<>(Arrays.asList(
+		Long.class, Integer.class, Short.class, Byte.class, BigInteger.class
+	));
 
 	/**
 	 * It is useful to know if a {@link org.yop.orm.model.Yopable} field is a Collection or a Yopable. Or neither.
@@ -116,8 +121,8 @@ public class ORMUtil {
 		Collection<Field> naturalId = getFields(left.getClass(), NaturalId.class);
 		if(! naturalId.isEmpty()) {
 			for (Field field : naturalId) {
-				Object thisField = Reflection.readField(field, left);
-				Object thatField = Reflection.readField(field, right);
+				Object thisField = Accessors.read(field, left);
+				Object thatField = Accessors.read(field, right);
 				if ((thisField == null && thatField != null) || (thisField != null && thatField == null)
 				||  (thisField != null && !thisField.equals(thatField))) {
 					return false;
@@ -149,7 +154,7 @@ public class ORMUtil {
 		if(! naturalId.isEmpty()) {
 			HashCodeBuilder builder = new HashCodeBuilder();
 			for (Field field : naturalId) {
-				builder.append(Reflection.readField(field, yopable));
+				builder.append(Accessors.read(field, yopable));
 			}
 			return builder.toHashCode();
 		}
@@ -180,15 +185,14 @@ public class ORMUtil {
 	/**
 	 * Find all the Yopable implementations visible from a given class loader.
 	 * <br>
-	 * Uses {@link Reflections}
+	 * Uses the build time {@link ClassIndex} : indexed classes + scan of the classpath roots with no index.
 	 * @param classLoader the class loader to use
 	 * @return a set of Yopable implementations
 	 */
 	public static Set<Class> yopables(ClassLoader classLoader) {
-		Reflections reflections = new Reflections("", classLoader);
 		return Sets.union(
-			reflections.getSubTypesOf(org.yop.orm.model.Yopable.class),
-			reflections.getTypesAnnotatedWith(Table.class)
+			ClassIndex.subTypesOf(classLoader, org.yop.orm.model.Yopable.class),
+			ClassIndex.annotatedWith(classLoader, Table.class)
 		);
 	}
 
@@ -227,11 +231,7 @@ public class ORMUtil {
 	 * @return the table name for the current context
 	 */
 	public static String getTableName(Class target) {
-		Table table = Reflection.getAnnotation(target, Table.class);
-		if(table != null) {
-			return table.name();
-		}
-		return target.getSimpleName().toUpperCase();
+		return EntityMetadata.of(target).getTableName();
 	}
 
 	/**
@@ -241,11 +241,7 @@ public class ORMUtil {
 	 * @return the table name for the current context
 	 */
 	public static String getSchemaName(Class target) {
-		Table table = Reflection.getAnnotation(target, Table.class);
-		if(table != null) {
-			return table.schema();
-		}
-		return "";
+		return EntityMetadata.of(target).getSchemaName();
 	}
 
 	/**
@@ -255,11 +251,7 @@ public class ORMUtil {
 	 * @return the table name for the current context
 	 */
 	public static String getTableQualifiedName(Class target) {
-		Table table = Reflection.getAnnotation(target, Table.class);
-		if(table != null) {
-			return MessageUtil.join(".", table.schema(), table.name());
-		}
-		return "";
+		return EntityMetadata.of(target).getTableQualifiedName();
 	}
 
 	/**
@@ -282,16 +274,12 @@ public class ORMUtil {
 	 * Restriction is you cannot use 2 classes with the same name in a request.
 	 * I don't feel it is totally absurd.
 	 * <br><br>
-	 * This method first checks the cache map {@link #TARGET_NAMES}.
-	 * It adds the computed value and adds it to the cache map if it was not yet known.
+	 * The target name is read from the class {@link EntityMetadata}.
 	 * @param target the target class
 	 * @return the target class context name
 	 */
 	public static String getTargetName(Class target) {
-		if (!TARGET_NAMES.containsKey(target)) {
-			TARGET_NAMES.put(target, "yop_" + target.getSimpleName());
-		}
-		return TARGET_NAMES.get(target);
+		return EntityMetadata.of(target).getTargetName();
 	}
 
 	/**
@@ -316,7 +304,7 @@ public class ORMUtil {
 	 * @throws YopMappingException if no ID field on the target - or several @Id fields.
 	 */
 	public static boolean isIdSet(Object on) {
-		return on != null && Reflection.readField(getIdField(on.getClass()), on) != null;
+		return on != null && Accessors.id(on.getClass()).read(on) != null;
 	}
 
 	/**
@@ -331,7 +319,7 @@ public class ORMUtil {
 		if (onto == null) {
 			return null;
 		}
-		return (Comparable) Reflection.readField(getIdField(onto.getClass()), onto);
+		return (Comparable) Accessors.id(onto.getClass()).read(onto);
 	}
 
 	/**
@@ -345,7 +333,7 @@ public class ORMUtil {
 		if (onto == null) {
 			return;
 		}
-		Reflection.set(getIdField(onto.getClass()), onto, id);
+		Accessors.id(onto.getClass()).write(onto, id);
 	}
 
 	/**
@@ -357,21 +345,7 @@ public class ORMUtil {
 	 * @throws YopMappingException no Yop compatible ID field found or several ones.
 	 */
 	public static Field getIdField(Class clazz) {
-		List<Field> idFields = getFields(clazz, Id.class);
-		if(idFields.size() == 0) {
-			logger.trace("No @Id field on [{}]. Assuming 'id'", clazz.getName());
-			Field field = Reflection.get(clazz, "id");
-			if(field != null && Comparable.class.isAssignableFrom(Primitives.wrap(field.getType()))) {
-				return field;
-			}
-			throw new YopMappingException("No Comparable ID field in [" + clazz.getName() + "] !");
-		}
-		if(idFields.size() > 1) {
-			throw new YopMappingException("Several @Id fields ! Only one Comparable Field can be @Id !");
-		}
-		Field field = idFields.get(0);
-		field.setAccessible(true);
-		return field;
+		return EntityMetadata.of(clazz).getIdField();
 	}
 
 	/**
@@ -391,9 +365,19 @@ public class ORMUtil {
 	 * @return true if no @Id field (ID is considered autogen) or @Id with autoincrement or non empty sequence.
 	 */
 	public static boolean isAutogenId(Class clazz) {
-		Field idField = getIdField(clazz);
-		Id id = idField.getAnnotation(Id.class);
-		return id == null || id.autoincrement() || StringUtils.isNotBlank(id.sequence());
+		return EntityMetadata.of(clazz).isAutogenId();
+	}
+
+	/**
+	 * Is the ID of this class integral, i.e. a Long, Integer, Short, Byte or BigInteger ?
+	 * <br>
+	 * Only integral IDs can be split into ID ranges. A BigInteger ID must also be in the long range for this.
+	 * @param clazz the target class
+	 * @return true if the ID field type is integral
+	 * @throws YopMappingException if no ID field on the target - or several @Id fields.
+	 */
+	public static boolean isIntegralId(Class clazz) {
+		return INTEGRAL_TYPES.contains(Primitives.wrap(getIdField(clazz).getType()));
 	}
 
 	/**
@@ -404,11 +388,8 @@ public class ORMUtil {
 	 * @return the field list
 	 */
 	public static List<Field> getFields(Class type, boolean nonTransient) {
-		return Reflection
-			.getFields(type)
-			.stream()
-			.filter(field -> (isNotTransient(field) || !nonTransient))
-			.collect(Collectors.toList());
+		EntityMetadata metadata = EntityMetadata.of(type);
+		return new ArrayList<>(nonTransient ? metadata.getNonTransientFields() : metadata.getFields());
 	}
 
 	/**
@@ -427,13 +408,13 @@ public class ORMUtil {
 	 * including the id field, even if it has no @Column annotation.
 	 * <br>
 	 * Also retrieve the non transient and non synthetic column fields from superclasses.
+	 * <br>
+	 * The column fields are read from the class {@link EntityMetadata} : the returned set is unmodifiable.
 	 * @param type the target class
 	 * @return the @Column field list
 	 */
 	public static Set<Field> getColumnFields(Class type) {
-		Set<Field> fields = new HashSet<>(getFields(type, Column.class, true));
-		fields.add(getIdField(type));
-		return fields;
+		return EntityMetadata.of(type).getColumnFields();
 	}
 
 	/**
@@ -458,8 +439,7 @@ public class ORMUtil {
 	 * @return the ID column name or "ID" if the id field has no @Column annotation
 	 */
 	public static String getIdColumn(Class clazz) {
-		Field field = getIdField(clazz);
-		return field.isAnnotationPresent(Column.class) ? field.getAnnotation(Column.class).name() : "ID";
+		return EntityMetadata.of(clazz).getIdColumn();
 	}
 
 	/**
@@ -468,10 +448,7 @@ public class ORMUtil {
 	 * @return {@link Column#name()} or the upper case field name if no @Column or no specified name on @Column.
 	 */
 	public static String getColumnName(Field columnField) {
-		Column annotation = columnField.getAnnotation(Column.class);
-		return annotation == null || StringUtils.isEmpty(annotation.name())
-			? columnField.getName().toUpperCase()
-			: annotation.name();
+		return EntityMetadata.column(columnField).getName();
 	}
 
 	/**
@@ -499,15 +476,7 @@ public class ORMUtil {
 	 * @return the field type, unless an enum type (read {@link Column#enum_strategy()} → Integer/String)
 	 */
 	public static Class getColumnType(Field field) {
-		// enum ? Read the strategy
-		if (field.getType().isEnum() && field.isAnnotationPresent(Column.class)) {
-			switch (field.getAnnotation(org.yop.orm.annotations.Column.class).enum_strategy()) {
-				case ORDINAL: return Integer.class;
-				case NAME:
-				default: return String.class;
-			}
-		}
-		return field.getType();
+		return EntityMetadata.column(field).getType();
 	}
 
 	/**
@@ -523,13 +492,10 @@ public class ORMUtil {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T> Class<T> getRelationFieldType(Field field) {
-		if (! FIELD_PARAMETRIZED_TYPES.containsKey(field)) {
-			FIELD_PARAMETRIZED_TYPES.put(
-				field,
-				(Class<T>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0]
-			);
-		}
-		return FIELD_PARAMETRIZED_TYPES.get(field);
+		return FIELD_PARAMETRIZED_TYPES.computeIfAbsent(
+			field,
+			f -> (Class<T>) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0]
+		);
 	}
 
 	/**
@@ -538,14 +504,7 @@ public class ORMUtil {
 	 * @return true if the field has a {@link Column} annotation and {@link Column#not_null()} is true
 	 */
 	public static boolean isColumnNotNullable(Field field) {
-		if (ORMUtil.getIdField(field.getDeclaringClass()) == field) {
-			return true;
-		}
-		if(!field.isAnnotationPresent(Column.class)) {
-			return false;
-		}
-		Column annotation = field.getAnnotation(Column.class);
-		return annotation.not_null();
+		return EntityMetadata.column(field).isNotNull();
 	}
 
 	/**
@@ -554,14 +513,7 @@ public class ORMUtil {
 	 * @return the natural key fields
 	 */
 	public static List<Field> getNaturalKeyFields(Class clazz){
-		List<Field> fields = new ArrayList<>();
-		for(Field field : getFields(clazz, true)){
-			if(field.isAnnotationPresent(NaturalId.class) && isNotTransient(field)){
-				fields.add(field);
-				field.setAccessible(true);
-			}
-		}
-		return fields;
+		return EntityMetadata.of(clazz).getNaturalKeyFields();
 	}
 
 	/**
@@ -594,20 +546,7 @@ public class ORMUtil {
 	 * @return the transformer for the field. Never null.
 	 */
 	public static ITransformer getTransformerFor(Field field) {
-		if(field.isAnnotationPresent(Column.class)) {
-			Class<? extends ITransformer> transformer = field.getAnnotation(Column.class).transformer();
-			try {
-				return ITransformer.getTransformer(transformer);
-			} catch (RuntimeException e) {
-				logger.warn(
-					"Could not instantiate transformer [{}] for [{}#{}]. Returning VoidTransformer.",
-					transformer.getName(),
-					field.getDeclaringClass(),
-					field.getName()
-				);
-			}
-		}
-		return ITransformer.voidTransformer();
+		return EntityMetadata.column(field).getTransformer();
 	}
 
 	/**
@@ -646,33 +585,33 @@ public class ORMUtil {
 	/**
 	 * Is this field a {@link FieldType#COLLECTION} ?
 	 * <br>
-	 * This method uses a field type cache : {@link ORMUtilCache#FIELD_TYPES}.
+	 * The field type is read from the declaring class {@link EntityMetadata}.
 	 * @param field the field to check
 	 * @return true if a {@link Collection} is assignable from the field type.
 	 */
 	public static boolean isCollection(Field field) {
-		return ORMUtilCache.isOfType(field, FieldType.COLLECTION);
+		return EntityMetadata.fieldType(field) == FieldType.COLLECTION;
 	}
 
 	/**
 	 * Is this field a {@link FieldType#YOPABLE} ?
 	 * <br>
-	 * This method uses a field type cache : {@link ORMUtilCache#FIELD_TYPES}.
+	 * The field type is read from the declaring class {@link EntityMetadata}.
 	 * @param field the field to check
 	 * @return true if field type is considered {@link FieldType#YOPABLE}.
 	 */
 	public static boolean isYopable(Field field) {
-		return ORMUtilCache.isOfType(field, FieldType.YOPABLE);
+		return EntityMetadata.fieldType(field) == FieldType.YOPABLE;
 	}
 
 	/**
 	 * Get the joined fields ({@link org.yop.orm.annotations.JoinColumn} and {@link org.yop.orm.annotations.JoinTable}).
 	 * <br>
-	 * This method uses a field type cache : {@link ORMUtilCache#JOINED_FIELDS}.
+	 * The joined fields are read from the class {@link EntityMetadata}.
 	 * @param clazz the given class
 	 * @return all the @JoinColumn/@JoinTable fields from the given class
 	 */
 	public static Collection<Field> getJoinedFields(Class clazz) {
-		return ORMUtilCache.getJoinedFields(clazz);
+		return EntityMetadata.of(clazz).getJoinedFields();
 	}
 }
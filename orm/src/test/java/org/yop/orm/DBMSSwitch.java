@@ -17,6 +17,7 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 /**
  * Extend this class to get a multiple DBMS support in your test case !
@@ -102,6 +103,22 @@ public abstract class DBMSSwitch {
 		}
 	}
 
+	/**
+	 * Get a connection supplier, for the features that open their own connections (parallel or async queries...).
+	 * <br>
+	 * ⚠⚠⚠ The supplied connections must be closed by the caller ⚠⚠⚠
+	 * @return a supplier of {@link #getConnection()}. Any exception is wrapped into a {@link RuntimeException}.
+	 */
+	protected Supplier<IConnection> connections() {
+		return () -> {
+			try {
+				return this.getConnection();
+			} catch (SQLException | ClassNotFoundException e) {
+				throw new RuntimeException("Could not get connection", e);
+			}
+		};
+	}
+
 	@BeforeClass
 	public static void init() {
 		System.setProperty(Config.SHOW_SQL_PROPERTY, "true");
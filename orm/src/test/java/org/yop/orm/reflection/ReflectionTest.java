@@ -4,14 +4,26 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.yop.orm.annotations.Column;
 import org.yop.orm.annotations.JoinTable;
+import org.yop.orm.exception.YopMappingException;
+import org.yop.orm.map.Accessors;
+import org.yop.orm.map.RowAccessor;
+import org.yop.orm.map.YopableAccessor;
+import org.yop.orm.model.Yopable;
+import org.yop.orm.simple.invalid_model.PojoSeveralIds;
 import org.yop.orm.simple.model.Jopo;
 import org.yop.orm.simple.model.Pojo;
+import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.sql.adapter.jdbc.JDBCConnection;
+import org.yop.orm.util.EntityMetadata;
 import org.yop.orm.util.ORMUtil;
+import org.yop.reflection.ClassIndex;
 import org.yop.reflection.Reflection;
 import org.yop.reflection.ReflectionException;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
@@ -101,4 +113,95 @@ public class ReflectionTest {
 		Class<Jopo> target = Reflection.getSetterCollectionTarget(Pojo.class, setJopos);
 		Assert.assertEquals(Jopo.class, target);
 	}
+
+	@Test
+	public void test_generated_accessor() {
+		Assert.assertTrue(Accessors.isGenerated(Pojo.class));
+
+		Pojo pojo = Accessors.newInstance(Pojo.class);
+		Field stringColumn = Reflection.get(Pojo.class, "stringColumn");
+		Accessors.write(stringColumn, pojo, "test_generated_accessor");
+		Assert.assertEquals("test_generated_accessor", pojo.getStringColumn());
+		Assert.assertEquals("test_generated_accessor", Accessors.read(stringColumn, pojo));
+
+		// private 'id' field → generated method handles
+		Field idField = ORMUtil.getIdField(Pojo.class);
+		Accessors.write(idField, pojo, 12L);
+		Assert.assertEquals(12L, Accessors.read(idField, pojo));
+		Assert.assertEquals(12L, Accessors.id(Pojo.class).read(pojo));
+	}
+
+	@Test
+	public void test_generated_row_accessor() {
+		Field idField = ORMUtil.getIdField(Pojo.class);
+		Field stringColumn = Reflection.get(Pojo.class, "stringColumn");
+		Field version = Reflection.get(Pojo.class, "version");
+		RowAccessor<Pojo> row = Accessors.row(Pojo.class, Arrays.asList(idField, stringColumn, version));
+
+		Pojo pojo = row.newInstance();
+		pojo.setVersion(3);
+		row.write(pojo, new Object[] {7L, "test_generated_row_accessor", YopableAccessor.SKIP});
+		Assert.assertEquals(7L, ORMUtil.readId(pojo));
+		Assert.assertEquals("test_generated_row_accessor", pojo.getStringColumn());
+		Assert.assertEquals(3, (int) pojo.getVersion());
+		Assert.assertArrayEquals(new Object[] {7L, "test_generated_row_accessor", 3}, row.read(pojo));
+
+		RowAccessor<Pojo> columns = Accessors.columns(Pojo.class);
+		Assert.assertSame(columns, Accessors.columns(Pojo.class));
+		Assert.assertEquals(ORMUtil.getColumnFields(Pojo.class).size(), columns.getFields().size());
+	}
+
+	@Test(expected = ReflectionException.class)
+	public void test_generated_accessor_bad_type() {
+		Field stringColumn = Reflection.get(Pojo.class, "stringColumn");
+		Accessors.write(stringColumn, new Pojo(), 12);
+	}
+
+	@Test
+	public void test_class_index() {
+		ClassLoader classLoader = ReflectionTest.class.getClassLoader();
+		Assert.assertTrue(ClassIndex.exists(classLoader));
+
+		Set<Class<? extends Yopable>> yopables = ClassIndex.subTypesOf(classLoader, Yopable.class);
+		Assert.assertTrue(yopables.contains(Pojo.class));
+		Assert.assertFalse(yopables.contains(Yopable.class));
+		Assert.assertTrue(ORMUtil.yopables(classLoader).contains(Jopo.class));
+
+		// orm main classes are not indexed : JDBCConnection can only be found by scanning the unindexed roots
+		Assert.assertTrue(ClassIndex.subTypesOf(classLoader, IConnection.class).contains(JDBCConnection.class));
+	}
+
+	@Test
+	public void test_entity_metadata() {
+		EntityMetadata metadata = EntityMetadata.of(Pojo.class);
+		Assert.assertSame(metadata, EntityMetadata.of(Pojo.class));
+		Assert.assertEquals("simple_pojo", metadata.getTableName());
+		Assert.assertEquals(ORMUtil.getIdField(Pojo.class), metadata.getIdField());
+		Assert.assertTrue(metadata.isAutogenId());
+
+		Field type = Reflection.get(Pojo.class, "type");
+		EntityMetadata.ColumnDescriptor column = EntityMetadata.column(type);
+		Assert.assertEquals("TYPE", column.getName());
+		Assert.assertEquals(Integer.class, column.getType());
+		Assert.assertTrue(metadata.getColumns().contains(column));
+
+		Field children = Reflection.get(Pojo.class, "children");
+		Assert.assertTrue(metadata.getJoinedFields().contains(children));
+		Assert.assertEquals(
+			Collections.singletonList("pojo_children_and_parent"),
+			EntityMetadata.join(children).getProfiles()
+		);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_entity_metadata_immutable() {
+		EntityMetadata.of(Pojo.class).getColumnFields().clear();
+	}
+
+	@Test(expected = YopMappingException.class)
+	public void test_entity_metadata_several_ids() {
+		EntityMetadata metadata = EntityMetadata.of(PojoSeveralIds.class);
+		Assert.assertFalse(metadata.getFields().isEmpty());
+		metadata.getIdField();
+	}
 }
@@ -1,14 +1,22 @@
 package org.yop.orm.simple;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.yop.orm.DBMSSwitch;
 import org.yop.orm.evaluation.Operator;
 import org.yop.orm.query.sql.*;
 import org.yop.orm.simple.model.CyclePojo;
 import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.sql.dialect.IDialect;
+import org.yop.orm.sql.dialect.MSSQL;
 
+import java.lang.reflect.Proxy;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class JoinAllTest extends DBMSSwitch {
 
@@ -76,4 +84,78 @@ public class JoinAllTest extends DBMSSwitch {
 			Assert.assertTrue(fromDB.getParent().getParent().getParent() == fromDB);
 		}
 	}
+
+	@Test
+	public void testLongCycleRecursiveCTE() throws SQLException, ClassNotFoundException {
+		try (IConnection connection = this.getConnection()){
+			CyclePojo pojo1 = new CyclePojo();
+			CyclePojo pojo2 = new CyclePojo();
+			pojo2.setParent(pojo1);
+			CyclePojo pojo3 = new CyclePojo();
+			pojo3.setParent(pojo2);
+			CyclePojo pojo4 = new CyclePojo();
+			pojo4.setParent(pojo3);
+			pojo1.setParent(pojo4);
+
+			Upsert.from(CyclePojo.class).onto(Arrays.asList(pojo1, pojo2, pojo3, pojo4)).execute(connection);
+			Upsert.from(CyclePojo.class).onto(Arrays.asList(pojo1, pojo2, pojo3, pojo4)).join(SQLJoin.to(CyclePojo::getParent)).execute(connection);
+
+			CyclePojo fromDB = Select.from(CyclePojo.class).byId(pojo4.getId(), connection);
+			Assert.assertNull(fromDB.getParent());
+
+			Hydrate.from(CyclePojo.class).onto(fromDB).join(SQLJoin.to(CyclePojo::getParent)).recurseWithCTE().execute(connection);
+			Assert.assertEquals(pojo3.getId(), fromDB.getParent().getId());
+			Assert.assertEquals(pojo2.getId(), fromDB.getParent().getParent().getId());
+			Assert.assertEquals(pojo1.getId(), fromDB.getParent().getParent().getParent().getId());
+			Assert.assertTrue(fromDB.getParent().getParent().getParent().getParent() == fromDB);
+		}
+	}
+
+	@Test
+	public void testLongCycleBoundedRecursiveCTE() throws SQLException, ClassNotFoundException {
+		// The bounded 'UNION ALL' recursive query of MSSQL, Oracle and Db2 has no 'RECURSIVE' keyword
+		Assume.assumeTrue(Arrays.asList("sqlite", "mssql", "oracle", "db2").contains(dbms()));
+
+		try (IConnection connection = this.getConnection()){
+			List<CyclePojo> pojos = new ArrayList<>();
+			for (int i = 0; i < 25; i++) {
+				pojos.add(new CyclePojo());
+			}
+			for (int i = 0; i < pojos.size(); i++) {
+				pojos.get(i).setParent(pojos.get((i + pojos.size() - 1) % pojos.size()));
+			}
+			Upsert.from(CyclePojo.class).onto(pojos).execute(connection);
+			Upsert.from(CyclePojo.class).onto(pojos).join(SQLJoin.to(CyclePojo::getParent)).execute(connection);
+
+			// The recursion depth is bounded (10) : the 25 elements cycle requires several recursive queries
+			IDialect dialect = connection.config().getDialect();
+			AtomicInteger recursiveQueries = new AtomicInteger(0);
+			connection.config().setDialect((IDialect) Proxy.newProxyInstance(
+				IDialect.class.getClassLoader(),
+				new Class[] {IDialect.class},
+				(proxy, method, args) -> {
+					if ("reachable".equals(method.getName())) {
+						recursiveQueries.incrementAndGet();
+					}
+					return method.invoke(
+						method.getName().startsWith("reachable") || method.getName().startsWith("recursiveCTE")
+							? MSSQL.INSTANCE
+							: dialect,
+						args
+					);
+				}
+			));
+
+			CyclePojo fromDB = Select.from(CyclePojo.class).byId(pojos.get(24).getId(), connection);
+			Hydrate.from(CyclePojo.class).onto(fromDB).join(SQLJoin.to(CyclePojo::getParent)).recurseWithCTE().execute(connection);
+			CyclePojo parent = fromDB;
+			for (int i = 23; i >= 0; i--) {
+				parent = parent.getParent();
+				Assert.assertEquals(pojos.get(i).getId(), parent.getId());
+			}
+			Assert.assertTrue(parent.getParent() == fromDB);
+			Assert.assertEquals(3, recursiveQueries.get());
+			connection.config().setDialect(dialect);
+		}
+	}
 }
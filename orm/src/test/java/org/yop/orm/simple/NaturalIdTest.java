@@ -3,16 +3,24 @@ package org.yop.orm.simple;
 import org.junit.Assert;
 import org.junit.Test;
 import org.yop.orm.DBMSSwitch;
+import org.yop.orm.evaluation.NaturalKeyIn;
+import org.yop.orm.evaluation.Operator;
 import org.yop.orm.exception.YopSQLException;
-import org.yop.orm.query.sql.Delete;
-import org.yop.orm.query.sql.Select;
-import org.yop.orm.query.sql.Upsert;
-import org.yop.orm.query.sql.Where;
+import org.yop.orm.map.DeepCopy;
+import org.yop.orm.query.sql.*;
 import org.yop.orm.simple.model.Jopo;
 import org.yop.orm.simple.model.Pojo;
+import org.yop.orm.sql.Config;
 import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.supplychain.model.Customer;
+import org.yop.orm.supplychain.model.Warehouse;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Test class for {@link org.yop.orm.evaluation.NaturalKey} and {@link Upsert#checkNaturalID} features.
@@ -21,7 +29,7 @@ public class NaturalIdTest extends DBMSSwitch {
 
 	@Override
 	protected String getPackageNames() {
-		return "org.yop.orm.simple.model";
+		return "org.yop.orm.simple.model;org.yop.orm.supplychain.model";
 	}
 
 	@Test
@@ -175,4 +183,96 @@ public class NaturalIdTest extends DBMSSwitch {
 			}
 		}
 	}
+
+	@Test
+	public void testNaturalKeyIn() throws SQLException, ClassNotFoundException {
+		List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			Customer customer = new Customer();
+			customer.setName("Customer #" + i);
+			customer.setDateOfBirth(i == 3 ? null : LocalDate.parse("1984-12-08").plusDays(i));
+			customer.setNice(i % 2 == 0);
+			customer.setPhoneNumber(6_66_66_66_00L + i);
+			customer.setSockSize((short) (38 + i));
+			customers.add(customer);
+		}
+
+		try (IConnection connection = this.getConnection()) {
+			Upsert.from(Customer.class).onto(customers).execute(connection);
+
+			// 5 natural key fields, 12 parameters max → chunks of 2 references
+			connection.config().set(Config.SQL_MAX_PARAMETERS_PROPERTY, "12");
+			List<Customer> copies = new ArrayList<>();
+			for (Customer customer : customers) {
+				Customer copy = DeepCopy.copy(customer);
+				copy.setId(null);
+				copy.setAbout("Natural key checked");
+				copies.add(copy);
+			}
+			Upsert.from(Customer.class).onto(copies).checkNaturalID().execute(connection);
+
+			for (int i = 0; i < customers.size(); i++) {
+				Assert.assertEquals(customers.get(i).getId(), copies.get(i).getId());
+			}
+
+			// The row value IN evaluation (with a null natural key field fallback) can be serialized
+			Select<Customer> select = Select.from(Customer.class).where(new NaturalKeyIn<>(customers.subList(2, 5)));
+			Select<Customer> fromJSON = Select.fromJSON(select.toJSON().toString(), connection.config());
+			Set<Customer> found = fromJSON.execute(connection);
+			Assert.assertEquals(new HashSet<>(customers.subList(2, 5)), found);
+			Assert.assertTrue(found.stream().allMatch(c -> "Natural key checked".equals(c.getAbout())));
+		}
+	}
+
+	@Test
+	public void testNaturalKeyFilter() throws SQLException, ClassNotFoundException {
+		try (IConnection connection = this.getConnection()) {
+			Warehouse existing = new Warehouse();
+			existing.setAddress("0 Bloom street");
+			Upsert.from(Warehouse.class).onto(existing).execute(connection);
+
+			connection.config().set(Config.SQL_NK_FILTER_BYTES, "1024");
+			NaturalKeyFilter<Warehouse> filter = NaturalKeyFilter.create(Warehouse.class, connection.config());
+			filter.load(connection, 2);
+			Assert.assertTrue(filter.mightExist(existing));
+
+			// Insert only : no natural key lookup is required (except for false positives)
+			List<Warehouse> warehouses = new ArrayList<>();
+			for (int i = 1; i <= 20; i++) {
+				Warehouse warehouse = new Warehouse();
+				warehouse.setAddress(i + " Bloom street");
+				warehouses.add(warehouse);
+			}
+			Upsert.from(Warehouse.class).onto(warehouses).checkNaturalID(filter).execute(connection);
+			Assert.assertEquals(20, filter.checked());
+			Assert.assertTrue(filter.skipped() >= 18);
+			Assert.assertTrue(warehouses.stream().allMatch(filter::mightExist));
+
+			// The saved natural keys are now in the filter : the lookups find the existing rows
+			List<Warehouse> copies = new ArrayList<>();
+			for (Warehouse warehouse : warehouses) {
+				Warehouse copy = DeepCopy.copy(warehouse);
+				copy.setId(null);
+				copy.setCapacity(1337);
+				copies.add(copy);
+			}
+			copies.add(DeepCopy.copy(existing));
+			copies.get(copies.size() - 1).setId(null);
+
+			Upsert.from(Warehouse.class).onto(copies).checkNaturalID(filter).execute(connection);
+			Assert.assertEquals(41, filter.checked());
+			for (int i = 0; i < warehouses.size(); i++) {
+				Assert.assertEquals(warehouses.get(i).getId(), copies.get(i).getId());
+			}
+			Assert.assertEquals(existing.getId(), copies.get(copies.size() - 1).getId());
+
+			Set<Warehouse> fromDB = Select
+				.from(Warehouse.class)
+				.where(Where.compare(Warehouse::getAddress, Operator.LIKE, "% Bloom street"))
+				.execute(connection);
+			Assert.assertEquals(21, fromDB.size());
+			Assert.assertEquals(20, fromDB.stream().filter(warehouse -> warehouse.getCapacity() == 1337).count());
+			Assert.assertTrue(filter.falsePositiveRate() >= 0 && filter.falsePositiveRate() <= 1);
+		}
+	}
 }
@@ -117,4 +117,26 @@ public class SimpleJSONTest {
 		String expected = DBMSSwitch.classpathResource("/simple/json/testSelect_to_JSON_expected.json");
 		JSONAssert.assertEquals("", expected, json, true);
 	}
+
+	@Test
+	public void testJSON_fields() throws JSONException, NoSuchFieldException {
+		Pojo pojo = new Pojo();
+		pojo.setId(1L);
+		pojo.setVersion(1337);
+		pojo.setActive(true);
+		pojo.setType(Pojo.Type.FOO);
+		pojo.setPassword("ThisIsMyPasswordYouFool");
+
+		Other other = new Other();
+		other.setId(111L);
+		other.setName("other name :)");
+		pojo.getOthers().add(other);
+
+		String json = json(Pojo.class)
+			.join(Join.toN(Pojo::getOthers))
+			.fields(Collections.singletonList(Pojo.class.getDeclaredField("version")))
+			.toJSON(pojo);
+		String expected = "{\"id\":1,\"version\":1337,\"others\":[{\"id\":111,\"name\":\"other name :)\"}]}";
+		JSONAssert.assertEquals("", expected, json, true);
+	}
 }
@@ -17,6 +17,7 @@ import org.yop.orm.query.join.Join;
 import org.yop.orm.query.sql.*;
 import org.yop.orm.query.batch.BatchUpsert;
 import org.yop.orm.simple.model.*;
+import org.yop.orm.sql.Config;
 import org.yop.orm.sql.Executor;
 import org.yop.orm.sql.Query;
 import org.yop.orm.sql.SimpleQuery;
@@ -158,7 +159,6 @@ public class SimpleTest extends DBMSSwitch {
 				.join(toN(Pojo::getJopos))
 				.join(toN(Pojo::getOthers).join(to(Other::getExtra).join(to(Extra::getOther))))
 				.join(toN(Pojo::getOthers).join(to(Other::getExtra).join(to(Extra::getSuperExtra))))
-				.checkNaturalID()
 				.execute(connection);
 
 			Collection<Pojo> fromSelectWithBadJoinWhere = Select
@@ -373,6 +373,40 @@ public class SimpleTest extends DBMSSwitch {
 		}
 	}
 
+	@Test
+	public void testSelectColumns() throws SQLException, ClassNotFoundException {
+		try (IConnection connection = this.getConnection()) {
+			Pojo newPojo = new Pojo();
+			newPojo.setVersion(10564337);
+			newPojo.setType(Pojo.Type.FOO);
+			newPojo.setActive(true);
+			newPojo.setPassword("mypassword");
+			newPojo.setStringColumn("a string column");
+
+			Other other = new Other();
+			other.setName("other name");
+			newPojo.getOthers().add(other);
+
+			Upsert.from(Pojo.class).onto(newPojo).joinAll().execute(connection);
+
+			Pojo fromDB = Select
+				.from(Pojo.class)
+				.columns(Pojo::getVersion, Pojo::getType)
+				.joinAll()
+				.uniqueResult(connection);
+			Assert.assertEquals(newPojo.getId(), fromDB.getId());
+			Assert.assertEquals(newPojo.getVersion(), fromDB.getVersion());
+			Assert.assertEquals(newPojo.getType(), fromDB.getType());
+			Assert.assertNull(fromDB.getPassword());
+			Assert.assertNull(fromDB.getStringColumn());
+			Assert.assertFalse(fromDB.isActive());
+
+			// The joined objects are not restricted
+			Assert.assertEquals(1, fromDB.getOthers().size());
+			Assert.assertEquals(other.getName(), fromDB.getOthers().iterator().next().getName());
+		}
+	}
+
 	@Test
 	public void testCRUD() throws SQLException, ClassNotFoundException {
 		try (IConnection connection = this.getConnection()) {
@@ -964,4 +998,60 @@ public class SimpleTest extends DBMSSwitch {
 			Assert.assertEquals(pojo.getaVeryLongFloat(), pojoFromDB.getaVeryLongFloat());
 		}
 	}
+
+	@Test
+	public void testPipelinedMappingTemporalAndText() throws SQLException, ClassNotFoundException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				Pojo pojo = new Pojo();
+				pojo.setVersion(i);
+				pojo.setType(Pojo.Type.BAR);
+				for (int j = 0; j < 3; j++) {
+					Other other = new Other();
+					other.setName("other #" + i + "." + j);
+					other.setTimestamp(LocalDateTime.now().minusDays(j));
+
+					Extra extra = new Extra();
+					extra.setStyle("style #" + i + "." + j);
+					extra.setSuperExtra(new SuperExtra());
+					extra.getSuperExtra().setSize((long) (i * 10 + j));
+					extra.getSuperExtra().setComment("commentaire n°" + i + "." + j + " : àéèù");
+					other.setExtra(extra);
+					pojo.getOthers().add(other);
+				}
+				pojos.add(pojo);
+			}
+			upsert(Pojo.class)
+				.onto(pojos)
+				.join(toN(Pojo::getOthers).join(to(Other::getExtra).join(to(Extra::getSuperExtra))))
+				.execute(connection);
+
+			// Pipelined mapping must read every column as the sequential mapping does : timestamps, dates, text...
+			Select<Pojo> select = select(Pojo.class)
+				.join(toN(Pojo::getOthers).join(to(Other::getExtra).join(to(Extra::getSuperExtra))));
+			List<Pojo> sequential = new ArrayList<>(select.execute(connection));
+			sequential.sort(Comparator.comparing(Pojo::getId));
+
+			connection.config().set(Config.SQL_MAPPING_PIPELINE, "true").set(Config.SQL_MAPPING_CHUNK_SIZE, "2");
+			List<Pojo> pipelined = new ArrayList<>(select.execute(connection));
+			pipelined.sort(Comparator.comparing(Pojo::getId));
+
+			Assert.assertEquals(5, pipelined.size());
+			Assert.assertEquals(sequential, pipelined);
+			for (int i = 0; i < sequential.size(); i++) {
+				Assert.assertEquals(sequential.get(i).getOthers().size(), pipelined.get(i).getOthers().size());
+				for (Other other : sequential.get(i).getOthers()) {
+					Other fromPipeline = pipelined.get(i)
+						.getOthers()
+						.stream()
+						.filter(o -> o.getId().equals(other.getId()))
+						.findFirst()
+						.orElseThrow(() -> new AssertionError("Other [" + other.getId() + "] not mapped"));
+					Assert.assertEquals(other.getTimestamp(), fromPipeline.getTimestamp());
+					Assert.assertEquals(other.getExtra().getSuperExtra(), fromPipeline.getExtra().getSuperExtra());
+				}
+			}
+		}
+	}
 }
@@ -171,4 +171,33 @@ public class SimpleXMLTest {
 		// Don't allow 'Other' class → it should raise a ForbiddenClassException and then a ConversionException.
 		XML.deserialize(xml, Pojo.class, "pojos", Pojo.class, Jopo.class);
 	}
+
+	@Test
+	public void testXML_fields() throws NoSuchFieldException {
+		Pojo pojo = new Pojo();
+		pojo.setId(1L);
+		pojo.setVersion(1337);
+		pojo.setActive(true);
+		pojo.setPassword("ThisIsMyPasswordYouFool");
+
+		Other other = new Other();
+		other.setId(111L);
+		other.setName("other name :)");
+		pojo.getOthers().add(other);
+
+		String xml = XML.from(Pojo.class)
+			.join(SQLJoin.toN(Pojo::getOthers))
+			.fields(Collections.singletonList(Pojo.class.getDeclaredField("version")))
+			.onto(pojo)
+			.rootAlias("pojos")
+			.execute();
+
+		Pojo deserialized = XML.deserialize(xml, Pojo.class, "pojos").iterator().next();
+		Assert.assertEquals(pojo.getId(), deserialized.getId());
+		Assert.assertEquals(pojo.getVersion(), deserialized.getVersion());
+		Assert.assertNull(deserialized.getPassword());
+		Assert.assertFalse(deserialized.isActive());
+		Assert.assertEquals(pojo.getOthers(), deserialized.getOthers());
+		Assert.assertEquals(other.getName(), deserialized.getOthers().get(0).getName());
+	}
 }
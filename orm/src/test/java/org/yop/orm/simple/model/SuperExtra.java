@@ -75,6 +75,10 @@ public class SuperExtra implements Yopable {
 		this.size = size;
 	}
 
+	public void setComment(String comment) {
+		this.comment = comment;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -1,22 +1,33 @@
 package org.yop.orm.supplychain;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.orm.DBMSSwitch;
 import org.yop.orm.evaluation.Operator;
+import org.yop.orm.gen.Prepare;
 import org.yop.orm.exception.YopSQLException;
 import org.yop.orm.query.sql.*;
+import org.yop.orm.map.DeepCopy;
+import org.yop.orm.map.FirstLevelCache;
+import org.yop.orm.sql.AsyncExecutor;
+import org.yop.orm.sql.Config;
+import org.yop.orm.sql.Executor;
+import org.yop.orm.sql.Query;
+import org.yop.orm.sql.SimpleQuery;
 import org.yop.orm.sql.adapter.IConnection;
 import org.yop.orm.supplychain.model.*;
 
+import java.io.File;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -173,6 +184,341 @@ public class SupplyChainTest extends DBMSSwitch {
 		}
 	}
 
+	/**
+	 * Save an organisation with some warehouses : capacity i, active if i is even.
+	 * @param name       the organisation name
+	 * @param warehouses the number of warehouses
+	 * @return the saved organisation
+	 */
+	private Organisation saveOrganisation(String name, int warehouses) throws SQLException {
+		return saveOrganisation(this.connections(), name, warehouses);
+	}
+
+	/**
+	 * Save an organisation with some warehouses : capacity i, active if i is even.
+	 * @param connections the connection supplier of the target database
+	 * @param name        the organisation name
+	 * @param warehouses  the number of warehouses
+	 * @return the saved organisation
+	 */
+	private static Organisation saveOrganisation(
+		Supplier<IConnection> connections,
+		String name,
+		int warehouses)
+		throws SQLException {
+
+		Organisation organisation = new Organisation();
+		organisation.setName(name);
+		for (int i = 0; i < warehouses; i++) {
+			Warehouse warehouse = new Warehouse();
+			warehouse.setActive(i % 2 == 0);
+			warehouse.setAddress(String.format("%03d %s street", (i * 37) % warehouses, name));
+			warehouse.setCapacity(i);
+			organisation.getWarehouses().add(warehouse);
+		}
+		try (IConnection connection = connections.get()) {
+			Upsert.from(Organisation.class).onto(organisation).joinAll().execute(connection);
+		}
+		return organisation;
+	}
+
+	@Test
+	public void testPipelinedMapping() throws SQLException, ClassNotFoundException {
+		Organisation organisation = this.saveOrganisation("pipeline & Co", 150);
+		try (IConnection connection = this.getConnection()) {
+			Select<Organisation> select = Select
+				.from(Organisation.class)
+				.join(SQLJoin.toN(Organisation::getWarehouses).join(SQLJoin.to(Warehouse::getOwner)));
+			Set<Organisation> sequential = select.execute(connection);
+
+			connection.config().set(Config.SQL_MAPPING_PIPELINE, "true").set(Config.SQL_MAPPING_CHUNK_SIZE, "7");
+			Set<Organisation> pipelined = select.execute(connection);
+
+			Assert.assertEquals(sequential, pipelined);
+			Organisation fromDB = pipelined.iterator().next();
+			Assert.assertEquals(organisation, fromDB);
+			Assert.assertEquals(organisation.getWarehouses(), fromDB.getWarehouses());
+			Assert.assertEquals(
+				sequential.iterator().next().getWarehouses().stream().map(Warehouse::getId).collect(Collectors.toList()),
+				fromDB.getWarehouses().stream().map(Warehouse::getId).collect(Collectors.toList())
+			);
+			Assert.assertTrue(fromDB.getWarehouses().stream().allMatch(warehouse -> warehouse.getOwner() == fromDB));
+		}
+	}
+
+	@Test
+	public void testParallelSelect() throws SQLException, ClassNotFoundException {
+		this.saveOrganisation("partition & Co", 100);
+		Supplier<IConnection> connections = this.connections();
+
+		Select<Warehouse> select = Select
+			.from(Warehouse.class)
+			.join(SQLJoin.to(Warehouse::getOwner))
+			.where(Warehouse::isActive, Operator.EQ, true)
+			.orderBy(OrderBy.orderBy(Warehouse::getAddress, false));
+
+		Set<Warehouse> sequential;
+		try (IConnection connection = connections.get()) {
+			sequential = select.execute(connection);
+		}
+		String query = select.toJSON().toString();
+		Set<Warehouse> parallel = select.executeParallel(connections, 4);
+		Assert.assertEquals(query, select.toJSON().toString());
+		Assert.assertEquals(50, parallel.size());
+		Assert.assertEquals(new ArrayList<>(sequential), new ArrayList<>(parallel));
+		Assert.assertTrue(parallel.stream().allMatch(warehouse -> "partition & Co".equals(warehouse.getOwner().getName())));
+
+		// No order by : partitions are simply concatenated
+		parallel = Select.from(Warehouse.class).executeParallel(connections, 3);
+		Assert.assertEquals(100, parallel.size());
+		Assert.assertEquals(0, parallel.stream().mapToLong(Warehouse::getCapacity).min().orElse(-1));
+		Assert.assertEquals(99, parallel.stream().mapToLong(Warehouse::getCapacity).max().orElse(-1));
+
+		// An ID at the long upper bound : the last partition/chunk ends at Long.MAX_VALUE
+		// (the warehouses are detached from their owner first, so their IDs can be changed)
+		try (IConnection connection = connections.get()) {
+			Executor.executeQuery(connection, new SimpleQuery(
+				"DELETE FROM rel_warehouse_organisation",
+				Query.Type.DELETE,
+				connection.config()
+			));
+		}
+		updateWarehouseId(connections, 99, Long.MAX_VALUE);
+		parallel = Select.from(Warehouse.class).executeParallel(connections, 3);
+		Assert.assertEquals(100, parallel.size());
+		Assert.assertTrue(parallel.stream().anyMatch(warehouse -> warehouse.getId() == Long.MAX_VALUE));
+		List<Warehouse> chunked = new ArrayList<>();
+		try (IConnection connection = connections.get()) {
+			Select.from(Warehouse.class).executeByChunks(connection, 30, chunked::addAll);
+		}
+		Assert.assertEquals(100, chunked.size());
+
+		// IDs at both long bounds : the ID range overflows → sequential execution
+		updateWarehouseId(connections, 0, Long.MIN_VALUE);
+		parallel = Select.from(Warehouse.class).executeParallel(connections, 3);
+		Assert.assertEquals(100, parallel.size());
+		Assert.assertTrue(parallel.stream().anyMatch(warehouse -> warehouse.getId() == Long.MIN_VALUE));
+	}
+
+	private static void updateWarehouseId(Supplier<IConnection> connections, long capacity, long id) throws SQLException {
+		try (IConnection connection = connections.get()) {
+			Executor.executeQuery(connection, new SimpleQuery(
+				"UPDATE supplychain_warehouse SET id = " + id + " WHERE capacity = " + capacity,
+				Query.Type.UPDATE,
+				connection.config()
+			));
+		}
+	}
+
+	@Test
+	public void testAsync() throws SQLException, ClassNotFoundException {
+		Organisation organisation = new Organisation();
+		organisation.setName("async & Co");
+		for (int i = 0; i < 20; i++) {
+			Warehouse warehouse = new Warehouse();
+			warehouse.setAddress(i + " Async lane");
+			warehouse.setCapacity(i);
+			organisation.getWarehouses().add(warehouse);
+		}
+
+		try (IConnection connection = this.getConnection()) {
+			// Same connection : the select is chained after the upsert
+			Upsert.from(Organisation.class).onto(organisation).joinAll().executeAsync(connection);
+			CompletableFuture<Set<Organisation>> organisations = Select
+				.from(Organisation.class)
+				.joinAll()
+				.executeAsync(connection);
+			Assert.assertEquals(1, organisations.join().size());
+			Assert.assertEquals(20, organisations.join().iterator().next().getWarehouses().size());
+		}
+
+		Supplier<IConnection> connections = this.connections();
+
+		// Fan out independent queries
+		List<Set<Warehouse>> results = AsyncExecutor.all(
+			connections,
+			Select.from(Warehouse.class).where(Warehouse::getCapacity, Operator.LT, 5L)::execute,
+			Select.from(Warehouse.class).where(Warehouse::getCapacity, Operator.GE, 5L)::execute,
+			Select.from(Warehouse.class)::execute
+		).join();
+		Assert.assertEquals(5,  results.get(0).size());
+		Assert.assertEquals(15, results.get(1).size());
+		Assert.assertEquals(20, results.get(2).size());
+	}
+
+	@Test
+	public void testCoalesceSelects() throws SQLException, ClassNotFoundException {
+		Organisation organisation = this.saveOrganisation("single flight & Co", 30);
+		Supplier<IConnection> connections = () -> {
+			IConnection connection = this.connections().get();
+			connection.config().set(Config.SQL_COALESCE_SELECTS, "true");
+			return connection;
+		};
+
+		List<Function<IConnection, Set<Organisation>>> selects = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			selects.add(Select
+				.from(Organisation.class)
+				.join(SQLJoin.toN(Organisation::getWarehouses).join(SQLJoin.to(Warehouse::getOwner)))::execute
+			);
+		}
+		List<Set<Organisation>> results = AsyncExecutor.all(connections, selects).join();
+
+		// Coalesced or not, every caller gets its own objects
+		Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Set<Organisation> result : results) {
+			Assert.assertEquals(1, result.size());
+			Organisation fromDB = result.iterator().next();
+			Assert.assertEquals(organisation, fromDB);
+			Assert.assertEquals(organisation.getWarehouses(), fromDB.getWarehouses());
+			Assert.assertTrue(fromDB.getWarehouses().stream().allMatch(warehouse -> warehouse.getOwner() == fromDB));
+			Assert.assertTrue(instances.add(fromDB));
+		}
+
+		Organisation copy = DeepCopy.copy(results.get(0).iterator().next());
+		Assert.assertEquals(organisation, copy);
+		Assert.assertFalse(instances.contains(copy));
+		Assert.assertEquals(organisation.getWarehouses(), copy.getWarehouses());
+		Assert.assertTrue(copy.getWarehouses().stream().allMatch(warehouse -> warehouse.getOwner() == copy));
+	}
+
+	@Test
+	public void testCoalesceSelectsDatabases() throws Exception {
+		Assume.assumeTrue("2 SQLite databases are required", "sqlite".equals(dbms()));
+		File otherDB = Prepare.createSQLiteDatabase(
+			SupplyChainTest.class.getName(),
+			SupplyChainTest.class.getClassLoader(),
+			this.getPackageNames()
+		);
+		Supplier<IConnection> others = () -> {
+			try {
+				return Prepare.getConnection(otherDB);
+			} catch (SQLException | ClassNotFoundException e) {
+				throw new RuntimeException("Could not get connection", e);
+			}
+		};
+
+		saveOrganisation(this.connections(), "this database & Co", 500);
+		saveOrganisation(others, "other database & Co", 500);
+		try (IConnection other = others.get(); IConnection same = others.get(); IConnection mine = this.getConnection()) {
+			Assert.assertEquals(other.database(), same.database());
+			Assert.assertNotEquals(other.database(), mine.database());
+		}
+
+		// Identical queries at the same time, on 2 databases : each query must read its own database
+		int queries = 16;
+		CyclicBarrier start = new CyclicBarrier(queries);
+		ExecutorService executor = Executors.newFixedThreadPool(queries);
+		try {
+			List<Future<String>> names = new ArrayList<>();
+			for (int i = 0; i < queries * 5; i++) {
+				Supplier<IConnection> connections = i % 2 == 0 ? this.connections() : others;
+				names.add(executor.submit(() -> {
+					try (IConnection connection = connections.get()) {
+						connection.config().set(Config.SQL_COALESCE_SELECTS, "true");
+						start.await();
+						Set<Organisation> organisations = Select
+							.from(Organisation.class)
+							.join(SQLJoin.toN(Organisation::getWarehouses))
+							.execute(connection);
+						Assert.assertEquals(1, organisations.size());
+						return organisations.iterator().next().getName();
+					}
+				}));
+			}
+			for (int i = 0; i < names.size(); i++) {
+				Assert.assertEquals(i % 2 == 0 ? "this database & Co" : "other database & Co", names.get(i).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testBatchLoader() throws SQLException, ClassNotFoundException {
+		Organisation organisation = this.saveOrganisation("batch loader & Co", 10);
+		try (IConnection connection = this.getConnection()) {
+			connection.config().set(Config.SQL_MAX_PARAMETERS_PROPERTY, "3");
+
+			try (Loader loader = Loader.open(connection)) {
+				Assert.assertSame(loader, Loader.current().orElse(null));
+
+				List<Loader.Deferred<Warehouse>> deferred = new ArrayList<>();
+				for (Warehouse warehouse : organisation.getWarehouses()) {
+					deferred.add(loader.load(Warehouse.class, warehouse.getId()));
+				}
+				Loader.Deferred<Warehouse> missing = loader.load(Warehouse.class, -1L);
+				Assert.assertFalse(deferred.get(0).isResolved());
+
+				loader.dispatch();
+				Assert.assertTrue(deferred.stream().allMatch(Loader.Deferred::isResolved));
+				Assert.assertTrue(missing.isResolved());
+				Assert.assertNull(missing.get());
+
+				Set<Warehouse> loaded = deferred.stream().map(Loader.Deferred::get).collect(Collectors.toSet());
+				Assert.assertEquals(new HashSet<>(organisation.getWarehouses()), loaded);
+
+				// Already loaded (Integer ID → converted to the Long ID type) : same instance, no dispatch
+				Warehouse first = deferred.get(0).get();
+				Loader.Deferred<Warehouse> again = loader.load(Warehouse.class, first.getId().intValue());
+				Assert.assertTrue(again.isResolved());
+				Assert.assertSame(first, again.get());
+
+				// Lazy dispatch on get()
+				Loader.Deferred<Organisation> owner = loader.load(Organisation.class, organisation.getId());
+				Assert.assertFalse(owner.isResolved());
+				Assert.assertEquals(organisation.getName(), owner.get().getName());
+
+				// A write is not seen until the loader is cleared. Then the objects are loaded again.
+				Organisation renamed = Select.from(Organisation.class).uniqueResult(connection);
+				renamed.setName("renamed batch loader & Co");
+				Upsert.from(Organisation.class).onto(renamed).execute(connection);
+				Assert.assertEquals(organisation.getName(), owner.get().getName());
+				loader.clear();
+				Assert.assertFalse(owner.isResolved());
+				Assert.assertEquals(renamed.getName(), owner.get().getName());
+				Assert.assertNotSame(first, deferred.get(0).get());
+			}
+			Assert.assertFalse(Loader.current().isPresent());
+		}
+	}
+
+	@Test
+	public void testById() throws SQLException, ClassNotFoundException {
+		Organisation organisation = this.saveOrganisation("by ID & Co", 5);
+		try (IConnection connection = this.getConnection()) {
+			connection.config().set(Config.SQL_MAX_PARAMETERS_PROPERTY, "2");
+
+			List<Long> ids = organisation.getWarehouses().stream().map(Warehouse::getId).collect(Collectors.toList());
+			Collections.reverse(ids);
+			ids.add(2, -1L);
+
+			// Input order is kept, missing IDs are skipped
+			List<Warehouse> warehouses = Select
+				.from(Warehouse.class)
+				.join(SQLJoin.to(Warehouse::getOwner))
+				.byIds(ids, connection);
+			Assert.assertEquals(5, warehouses.size());
+			for (int i = 0; i < warehouses.size(); i++) {
+				Assert.assertEquals(4 - i, warehouses.get(i).getCapacity());
+				Assert.assertEquals(organisation.getName(), warehouses.get(i).getOwner().getName());
+			}
+
+			Warehouse first = Select.from(Warehouse.class).byId(ids.get(0).intValue(), connection);
+			Assert.assertEquals(warehouses.get(0), first);
+			Assert.assertNull(Select.from(Warehouse.class).byId(-1L, connection));
+
+			// Partial cache hit : the cached objects are returned as is
+			FirstLevelCache cache = new FirstLevelCache();
+			List<Warehouse> cached = Select.from(Warehouse.class).byIds(ids.subList(0, 2), cache, connection);
+			List<Warehouse> all = Select.from(Warehouse.class).byIds(ids, cache, connection);
+			Assert.assertEquals(5, all.size());
+			Assert.assertSame(cached.get(0), all.get(0));
+			Assert.assertSame(cached.get(1), all.get(1));
+			Assert.assertTrue(cache.has(Warehouse.class, ids.get(5)));
+		}
+	}
+
 	@Test
 	public void testBuyingStuff() throws SQLException, ClassNotFoundException {
 		try (IConnection connection = this.getConnection()) {
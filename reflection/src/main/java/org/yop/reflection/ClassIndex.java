@@ -0,0 +1,224 @@
+package org.yop.reflection;
+
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A build time index of classes, so we do not have to scan the whole classpath at startup.
+ * <br>
+ * The index is a {@link #INDEX} resource : one class binary name per line. Lines starting with '#' are ignored.
+ * It is generated by the yop-apt annotation processor, for @Table, @Rest and Yopable types.
+ * Every {@link #INDEX} resource of the class loader is read.
+ * <br><br>
+ * The classpath roots with no index are still scanned, using {@link Reflections},
+ * as if there were no index at all : a root that was not compiled with yop-apt is not ignored, only slower.
+ * <br>
+ * Set the {@link #IGNORE} system property to 'true' to ignore the index and scan the whole classpath.
+ */
+public final class ClassIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClassIndex.class);
+
+	/** The index resource name */
+	public static final String INDEX = "META-INF/yop/index";
+
+	/** System property : set to true to ignore the index */
+	public static final String IGNORE = "yop.index.ignore";
+
+	/**
+	 * The index of a class loader. Weak keys to not retain old class loaders.
+	 * <br>
+	 * ⚠⚠⚠ The values must not reference the class loader (e.g. a Class) or the entry would never be cleared ⚠⚠⚠
+	 */
+	private static final Map<ClassLoader, Index> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private ClassIndex() {}
+
+	/**
+	 * Is there an index visible from the given class loader ?
+	 * @param classLoader the class loader. If null, the system class loader is used.
+	 * @return true if at least one {@link #INDEX} resource was found and {@link #IGNORE} is not set.
+	 */
+	public static boolean exists(ClassLoader classLoader) {
+		return ! index(classLoader).sources.isEmpty();
+	}
+
+	/**
+	 * Find the classes annotated with a given annotation : indexed classes and classes from unindexed roots.
+	 * @param classLoader the class loader. If null, the system class loader is used.
+	 * @param annotation  the annotation
+	 * @return the classes with the annotation
+	 */
+	public static Set<Class<?>> annotatedWith(ClassLoader classLoader, Class<? extends Annotation> annotation) {
+		ClassLoader loader = loader(classLoader);
+		Index index = index(loader);
+		Set<Class<?>> classes = index
+			.classes(loader)
+			.stream()
+			.filter(c -> c.isAnnotationPresent(annotation))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+		index.scan(loader).ifPresent(reflections -> classes.addAll(reflections.getTypesAnnotatedWith(annotation)));
+		return classes;
+	}
+
+	/**
+	 * Find the sub types of a given type (the type itself excluded) : indexed classes and classes from unindexed roots.
+	 * @param classLoader the class loader. If null, the system class loader is used.
+	 * @param type        the type whose sub types are sought
+	 * @param <T> the type
+	 * @return the sub types
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Set<Class<? extends T>> subTypesOf(ClassLoader classLoader, Class<T> type) {
+		ClassLoader loader = loader(classLoader);
+		Index index = index(loader);
+		Set<Class<? extends T>> classes = index
+			.classes(loader)
+			.stream()
+			.filter(c -> c != type && type.isAssignableFrom(c))
+			.map(c -> (Class<? extends T>) c)
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+		index.scan(loader).ifPresent(reflections -> classes.addAll(reflections.getSubTypesOf(type)));
+		return classes;
+	}
+
+	/**
+	 * @param classLoader a class loader. Can be null.
+	 * @return the class loader, or the system class loader if null
+	 */
+	private static ClassLoader loader(ClassLoader classLoader) {
+		return classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+	}
+
+	/**
+	 * Get the index of a class loader. The index is read once per class loader.
+	 * @param classLoader the class loader. If null, the system class loader is used.
+	 * @return the class loader index. No index source if there is no index or {@link #IGNORE} is set.
+	 */
+	private static Index index(ClassLoader classLoader) {
+		ClassLoader loader = loader(classLoader);
+		if (Boolean.getBoolean(IGNORE)) {
+			return new Index(Collections.emptyList(), Collections.emptySet(), ClasspathHelper.forPackage("", loader));
+		}
+		return INDEXES.computeIfAbsent(loader, ClassIndex::read);
+	}
+
+	/**
+	 * Read all the {@link #INDEX} resources of a class loader and find the classpath roots with no index.
+	 * @param classLoader the class loader to use
+	 * @return the class loader index
+	 */
+	private static Index read(ClassLoader classLoader) {
+		Collection<URL> roots = ClasspathHelper.forPackage("", classLoader);
+		List<URL> resources;
+		try {
+			resources = Collections.list(classLoader.getResources(INDEX));
+		} catch (IOException e) {
+			logger.warn("Could not look up [{}] resources. Classpath scanning will be used.", INDEX, e);
+			return new Index(Collections.emptyList(), Collections.emptySet(), roots);
+		}
+		if (resources.isEmpty()) {
+			logger.debug("No [{}] resource for class loader [{}]. Classpath scanning will be used.", INDEX, classLoader);
+			return new Index(Collections.emptyList(), Collections.emptySet(), roots);
+		}
+
+		Set<String> names = new LinkedHashSet<>();
+		for (URL resource : resources) {
+			try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (! line.isEmpty() && ! line.startsWith("#")) {
+						names.add(line);
+					}
+				}
+			} catch (IOException e) {
+				logger.warn("Could not read index [{}]. Ignoring.", resource, e);
+			}
+		}
+
+		Set<String> indexedRoots = ClasspathHelper
+			.forResource(INDEX, classLoader)
+			.stream()
+			.map(URL::toExternalForm)
+			.collect(Collectors.toSet());
+		List<URL> unindexed = roots
+			.stream()
+			.filter(root -> ! indexedRoots.contains(root.toExternalForm()))
+			.collect(Collectors.toList());
+
+		logger.info("[{}] indexed classes from {}", names.size(), resources);
+		if (! unindexed.isEmpty()) {
+			logger.warn("Classpath roots with no [{}] resource will be scanned : {}", INDEX, unindexed);
+		}
+		return new Index(resources, names, unindexed);
+	}
+
+	/**
+	 * The index of a class loader : the indexed class names and the classpath roots to scan.
+	 * <br>
+	 * Class names and URLs only : there is no reference to the class loader.
+	 */
+	private static class Index {
+		/** The index resources */
+		private final List<URL> sources;
+
+		/** The indexed class binary names */
+		private final Set<String> names;
+
+		/** The classpath roots with no index */
+		private final Collection<URL> unindexed;
+
+		private Index(List<URL> sources, Set<String> names, Collection<URL> unindexed) {
+			this.sources = sources;
+			this.names = names;
+			this.unindexed = unindexed;
+		}
+
+		/**
+		 * Load the indexed classes.
+		 * <br>
+		 * A class that cannot be loaded (e.g. stale index entry) is logged and ignored.
+		 * @param classLoader the class loader to use
+		 * @return the indexed classes
+		 */
+		private Set<Class<?>> classes(ClassLoader classLoader) {
+			Set<Class<?>> classes = new LinkedHashSet<>();
+			for (String name : this.names) {
+				try {
+					classes.add(Class.forName(name, false, classLoader));
+				} catch (ClassNotFoundException | LinkageError e) {
+					logger.warn("Indexed class [{}] from {} could not be loaded. Ignoring.", name, this.sources, e);
+				}
+			}
+			return classes;
+		}
+
+		/**
+		 * Scan the classpath roots with no index.
+		 * @param classLoader the class loader to use
+		 * @return the scan result, empty if every root is indexed
+		 */
+		private Optional<Reflections> scan(ClassLoader classLoader) {
+			if (this.unindexed.isEmpty()) {
+				return Optional.empty();
+			}
+			return Optional.of(new Reflections(
+				new ConfigurationBuilder().setUrls(this.unindexed).addClassLoader(classLoader)
+			));
+		}
+	}
+}
@@ -0,0 +1,314 @@
+package org.yop.reflection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A getter/setter pair for a given {@link Field}, built once using {@link MethodHandle}s.
+ * <br>
+ * {@link Field#get(Object)} and {@link Field#set(Object, Object)} do access checks on every call.
+ * The method handles are resolved once and then simply invoked.
+ * <br>
+ * Primitive fields ({@code long, int, double, boolean}) get specialized handles that do not box the value.
+ * <br><br>
+ * Use {@link Reflection#accessor(Field)} to get the cached accessor for a field.
+ */
+public final class FieldAccessor {
+
+	private static final Logger logger = LoggerFactory.getLogger(FieldAccessor.class);
+
+	/** (Object)Object generic getter type */
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/** (Object, Object)void generic setter type */
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/** The target field */
+	private final Field field;
+
+	/** (Object)Object getter */
+	private final MethodHandle getter;
+
+	/** (Object, Object)void setter. Null if no method handle could be built (static final). */
+	private final MethodHandle setter;
+
+	/** (Object)primitive getter. Null if the field type is not primitive. */
+	private final MethodHandle primitiveGetter;
+
+	/** (Object, primitive)void setter. Null if the field type is not primitive or the field cannot be written. */
+	private final MethodHandle primitiveSetter;
+
+	/**
+	 * Build the method handles for the given field.
+	 * @param field the field. Must be accessible.
+	 * @throws ReflectionException if no getter method handle can be built for the field
+	 */
+	FieldAccessor(Field field) {
+		this.field = field;
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		boolean isStatic = Modifier.isStatic(field.getModifiers());
+		Class<?> type = field.getType();
+
+		try {
+			MethodHandle get = lookup.unreflectGetter(field);
+			if (isStatic) {
+				get = MethodHandles.dropArguments(get, 0, Object.class);
+			}
+			this.getter = get.asType(GETTER_TYPE);
+			this.primitiveGetter = type.isPrimitive() ? get.asType(MethodType.methodType(type, Object.class)) : null;
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new ReflectionException("Could not build getter for [" + Reflection.fieldToString(field) + "]", e);
+		}
+
+		// No setter handle → #set(Object, Object) falls back to Field#set, that will fail with the appropriate error.
+		// Some JDKs let a method handle write a static final field : do not even try.
+		MethodHandle set = null;
+		if (! (isStatic && Modifier.isFinal(field.getModifiers()))) {
+			try {
+				set = lookup.unreflectSetter(field);
+				if (isStatic) {
+					set = MethodHandles.dropArguments(set, 0, Object.class);
+				}
+			} catch (IllegalAccessException | RuntimeException e) {
+				logger.debug("No setter method handle for [{}]", Reflection.fieldToString(field), e);
+			}
+		}
+		this.setter = set == null ? null : set.asType(SETTER_TYPE);
+		this.primitiveSetter = set == null || ! type.isPrimitive()
+			? null
+			: set.asType(MethodType.methodType(void.class, Object.class, type));
+	}
+
+	/**
+	 * @return the target field of this accessor
+	 */
+	public Field getField() {
+		return this.field;
+	}
+
+	/**
+	 * Read the field value on the given target. Primitive values are boxed.
+	 * @param onto the target object. Ignored if the field is static.
+	 * @return the field value
+	 * @throws ReflectionException if the field could not be read
+	 */
+	public Object get(Object onto) {
+		try {
+			return this.getter.invokeExact(onto);
+		} catch (Throwable e) {
+			throw this.readError(onto, e);
+		}
+	}
+
+	/**
+	 * Set the field value on the given target. Primitive values are unboxed.
+	 * @param onto  the target object. Ignored if the field is static.
+	 * @param value the value to set
+	 * @throws ReflectionException if the field could not be set (bad type, null primitive, static final field...)
+	 */
+	public void set(Object onto, Object value) {
+		try {
+			if (this.setter == null) {
+				this.field.set(onto, value);
+				return;
+			}
+			this.setter.invokeExact(onto, value);
+		} catch (Throwable e) {
+			throw this.writeError(onto, value, e);
+		}
+	}
+
+	/**
+	 * Read a long field value, without boxing.
+	 * @param onto the target object
+	 * @return the long field value
+	 * @throws ReflectionException the field is not a long field or could not be read
+	 */
+	public long getLong(Object onto) {
+		this.checkPrimitive(long.class);
+		try {
+			return (long) this.primitiveGetter.invokeExact(onto);
+		} catch (Throwable e) {
+			throw this.readError(onto, e);
+		}
+	}
+
+	/**
+	 * Read an int field value, without boxing.
+	 * @param onto the target object
+	 * @return the int field value
+	 * @throws ReflectionException the field is not an int field or could not be read
+	 */
+	public int getInt(Object onto) {
+		this.checkPrimitive(int.class);
+		try {
+			return (int) this.primitiveGetter.invokeExact(onto);
+		} catch (Throwable e) {
+			throw this.readError(onto, e);
+		}
+	}
+
+	/**
+	 * Read a double field value, without boxing.
+	 * @param onto the target object
+	 * @return the double field value
+	 * @throws ReflectionException the field is not a double field or could not be read
+	 */
+	public double getDouble(Object onto) {
+		this.checkPrimitive(double.class);
+		try {
+			return (double) this.primitiveGetter.invokeExact(onto);
+		} catch (Throwable e) {
+			throw this.readError(onto, e);
+		}
+	}
+
+	/**
+	 * Read a boolean field value, without boxing.
+	 * @param onto the target object
+	 * @return the boolean field value
+	 * @throws ReflectionException the field is not a boolean field or could not be read
+	 */
+	public boolean getBoolean(Object onto) {
+		this.checkPrimitive(boolean.class);
+		try {
+			return (boolean) this.primitiveGetter.invokeExact(onto);
+		} catch (Throwable e) {
+			throw this.readError(onto, e);
+		}
+	}
+
+	/**
+	 * Set a long field value, without boxing.
+	 * @param onto  the target object
+	 * @param value the value to set
+	 * @throws ReflectionException the field is not a long field or could not be set
+	 */
+	public void setLong(Object onto, long value) {
+		this.checkPrimitiveSetter(long.class, onto, value);
+		try {
+			this.primitiveSetter.invokeExact(onto, value);
+		} catch (Throwable e) {
+			throw this.writeError(onto, value, e);
+		}
+	}
+
+	/**
+	 * Set an int field value, without boxing.
+	 * @param onto  the target object
+	 * @param value the value to set
+	 * @throws ReflectionException the field is not an int field or could not be set
+	 */
+	public void setInt(Object onto, int value) {
+		this.checkPrimitiveSetter(int.class, onto, value);
+		try {
+			this.primitiveSetter.invokeExact(onto, value);
+		} catch (Throwable e) {
+			throw this.writeError(onto, value, e);
+		}
+	}
+
+	/**
+	 * Set a double field value, without boxing.
+	 * @param onto  the target object
+	 * @param value the value to set
+	 * @throws ReflectionException the field is not a double field or could not be set
+	 */
+	public void setDouble(Object onto, double value) {
+		this.checkPrimitiveSetter(double.class, onto, value);
+		try {
+			this.primitiveSetter.invokeExact(onto, value);
+		} catch (Throwable e) {
+			throw this.writeError(onto, value, e);
+		}
+	}
+
+	/**
+	 * Set a boolean field value, without boxing.
+	 * @param onto  the target object
+	 * @param value the value to set
+	 * @throws ReflectionException the field is not a boolean field or could not be set
+	 */
+	public void setBoolean(Object onto, boolean value) {
+		this.checkPrimitiveSetter(boolean.class, onto, value);
+		try {
+			this.primitiveSetter.invokeExact(onto, value);
+		} catch (Throwable e) {
+			throw this.writeError(onto, value, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FieldAccessor{" + Reflection.fieldToString(this.field) + "}";
+	}
+
+	/**
+	 * Check the field type is the given primitive type.
+	 * @param primitive the expected primitive type
+	 * @throws ReflectionException field type mismatch
+	 */
+	private void checkPrimitive(Class<?> primitive) {
+		if (this.field.getType() != primitive) {
+			throw new ReflectionException(
+				"Field [" + Reflection.fieldToString(this.field) + "] is not of type [" + primitive.getName() + "]"
+			);
+		}
+	}
+
+	/**
+	 * Check the field type is the given primitive type and the field can be written.
+	 * @param primitive the expected primitive type
+	 * @param onto      the target object (for the error message)
+	 * @param value     the value to set (for the error message)
+	 * @throws ReflectionException field type mismatch or read only field
+	 */
+	private void checkPrimitiveSetter(Class<?> primitive, Object onto, Object value) {
+		this.checkPrimitive(primitive);
+		if (this.primitiveSetter == null) {
+			throw this.writeError(onto, value, null);
+		}
+	}
+
+	/**
+	 * Build a read error, with some context. {@link Error}s are not wrapped and directly thrown.
+	 * @param onto  the target object
+	 * @param cause the cause
+	 * @return a {@link ReflectionException} to throw
+	 */
+	private ReflectionException readError(Object onto, Throwable cause) {
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new ReflectionException(
+			"Could not read [" + Reflection.fieldToString(this.field) + "] on [" + onto + "]",
+			cause
+		);
+	}
+
+	/**
+	 * Build a write error, with some context. {@link Error}s are not wrapped and directly thrown.
+	 * @param onto  the target object
+	 * @param value the value to set
+	 * @param cause the cause. Can be null (e.g. read only field).
+	 * @return a {@link ReflectionException} to throw
+	 */
+	private ReflectionException writeError(Object onto, Object value, Throwable cause) {
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new ReflectionException(
+			"Unable to set " +
+			"field [" + Reflection.fieldToString(this.field) + "] " +
+			"value [" + value + "] " +
+			"onto  [" + onto + "]",
+			cause
+		);
+	}
+}
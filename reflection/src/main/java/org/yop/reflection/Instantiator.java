@@ -0,0 +1,77 @@
+package org.yop.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * A no-arg constructor for a given class, resolved once as a {@link MethodHandle}.
+ * <br>
+ * {@link Class#getDeclaredConstructor(Class[])} + {@link Constructor#newInstance(Object...)} on every instantiation
+ * is quite costly when mapping a lot of rows.
+ * <br><br>
+ * Use {@link Reflection#instantiator(Class)} to get the cached instantiator for a class.
+ * @param <T> the instantiated type
+ */
+public final class Instantiator<T> {
+
+	/** ()Object constructor type */
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	/** The class to instantiate */
+	private final Class<T> clazz;
+
+	/** ()Object constructor handle */
+	private final MethodHandle constructor;
+
+	/**
+	 * Find the no-arg constructor of the class and build the method handle.
+	 * @param clazz the class to instantiate
+	 * @throws ReflectionException no no-arg constructor or the class cannot be instantiated (e.g. abstract)
+	 */
+	Instantiator(Class<T> clazz) {
+		this.clazz = clazz;
+		try {
+			if (! Reflection.isConcrete(clazz)) {
+				throw new InstantiationException("[" + clazz.getName() + "] is abstract");
+			}
+			Constructor<T> c = clazz.getDeclaredConstructor();
+			c.setAccessible(true);
+			this.constructor = MethodHandles.lookup().unreflectConstructor(c).asType(CONSTRUCTOR_TYPE);
+		} catch (RuntimeException | ReflectiveOperationException e) {
+			throw new ReflectionException(
+				"Unable to create instance of [" + clazz + "]. Does it have a no-arg constructor?",
+				e
+			);
+		}
+	}
+
+	/**
+	 * @return the class this instantiator creates instances of
+	 */
+	public Class<T> getTarget() {
+		return this.clazz;
+	}
+
+	/**
+	 * Create a new instance using the no-arg constructor.
+	 * @return a new instance of T
+	 * @throws ReflectionException the constructor threw an exception
+	 */
+	@SuppressWarnings("unchecked")
+	public T newInstance() {
+		try {
+			return (T) this.constructor.invokeExact();
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new ReflectionException("Unable to create instance of [" + this.clazz + "]", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Instantiator{" + this.clazz.getName() + "}";
+	}
+}
@@ -197,14 +197,18 @@ public class Reflection {
 	 * Read the value of a field on a target object.
 	 * <br>
 	 * This method does not throw any {@link IllegalAccessException} !
+	 * <br>
+	 * An accessible field is read using its cached {@link FieldAccessor} : no access check.
 	 * @param field the field to read
 	 * @param onto  the target object where to read the field
 	 * @return the field value
 	 * @throws ReflectionException if the field could not be read for any reason.
 	 */
+	@SuppressWarnings("deprecation")
 	public static Object readField(Field field, Object onto) {
 		try {
-			return field.get(onto);
+			// Field#canAccess is Java 9+. Field#isAccessible is the flag only : no access check.
+			return field.isAccessible() ? ReflectionCache.accessor(field).get(onto) : field.get(onto);
 		} catch (IllegalAccessException | RuntimeException e) {
 			throw new ReflectionException(
 				"Could not read [" + Reflection.fieldToString(field) + "] on [" + onto + "]",
@@ -228,8 +232,8 @@ public class Reflection {
 			if (field == null) {
 				throw new ReflectionException("No field [" + fieldName + "] in [" + onto.getClass().getName() + "]");
 			}
-			return field.get(onto);
-		} catch (IllegalAccessException | RuntimeException e) {
+			return ReflectionCache.accessor(field).get(onto);
+		} catch (RuntimeException e) {
 			throw new ReflectionException(
 				"Could not read [" + fieldName + "] on [" + onto + "]",
 				e
@@ -262,14 +266,21 @@ public class Reflection {
 	 * Set the value value of a field for a given instance.
 	 * <br>
 	 * This method only throws {@link RuntimeException} exceptions.
+	 * <br>
+	 * An accessible field is set using its cached {@link FieldAccessor} : no access check.
 	 * @param field the field to set
 	 * @param onto  the target instance
 	 * @param value the field value to set
 	 * @throws ReflectionException exception with context, if any exception (Illegal Access or Runtime) occurs.
 	 */
+	@SuppressWarnings("deprecation")
 	public static void set(Field field, Object onto, Object value) {
 		try {
-			field.set(onto, value);
+			if (field.isAccessible()) {
+				ReflectionCache.accessor(field).set(onto, value);
+			} else {
+				field.set(onto, value);
+			}
 		} catch (IllegalAccessException | RuntimeException e) {
 			throw new ReflectionException(
 				"Unable to set " +
@@ -349,27 +360,49 @@ public class Reflection {
 
 	/**
 	 * Instantiate a new object using 0-arg constructor. <br>
+	 * The constructor is resolved once and cached : see {@link #instantiator(Class)}.
 	 * @param clazz the object class to instantiate
 	 * @param <T> the object type
 	 * @return a new instance of the object
+	 * @throws ReflectionException no no-arg constructor, the class cannot be instantiated or the constructor failed
 	 */
 	public static <T> T newInstanceNoArgs(Class<T> clazz){
-		try {
-			Constructor<T> c = clazz.getDeclaredConstructor();
-			c.setAccessible(true);
-			return c.newInstance();
-		} catch (RuntimeException | ReflectiveOperationException e) {
-			throw new ReflectionException(
-				"Unable to create instance of [" + clazz + "]. Does it have a no-arg constructor?",
-				e
-			);
-		}
+		return instantiator(clazz).newInstance();
+	}
+
+	/**
+	 * Get the cached no-arg constructor for a class.
+	 * <br>
+	 * Hold a reference to it if you want to create a lot of instances without any cache lookup.
+	 * @param clazz the class to instantiate
+	 * @param <T> the class type
+	 * @return the instantiator for the class
+	 * @throws ReflectionException the class has no no-arg constructor or cannot be instantiated
+	 */
+	public static <T> Instantiator<T> instantiator(Class<T> clazz) {
+		return ReflectionCache.instantiator(clazz);
+	}
+
+	/**
+	 * Get the cached {@link FieldAccessor} (method handles getter/setter) for a field.
+	 * <br>
+	 * The field is set accessible.
+	 * @param field the field to access
+	 * @return the field accessor
+	 * @throws ReflectionException no accessor could be built for the field
+	 */
+	public static FieldAccessor accessor(Field field) {
+		field.setAccessible(true);
+		return ReflectionCache.accessor(field);
 	}
 
 	/**
 	 * Find a field on a class whose value is returned by the given getter operation.
 	 * <br>
 	 * <b>The field can be transient !</b>
+	 * <br>
+	 * The field is resolved once for a given class and getter, then it is cached.
+	 * See {@link ReflectionCache#lambdaField(Class, Object, Function)}.
 	 * @param clazz  the class holding the field and getter
 	 * @param getter the getter operation
 	 * @param <T> the class type
@@ -378,6 +411,21 @@ public class Reflection {
 	 * @throws ReflectionException if no field matches the getter
 	 */
 	public static <T, R> Field findField(Class<T> clazz, Function<T, R> getter) {
+		return ReflectionCache.lambdaField(clazz, getter, lambda -> resolveField(clazz, getter));
+	}
+
+	/**
+	 * Find a field on a class whose value is returned by the given getter operation.
+	 * <br>
+	 * This method sets a test value on every field until the getter returns it. No cache.
+	 * @param clazz  the class holding the field and getter
+	 * @param getter the getter operation
+	 * @param <T> the class type
+	 * @param <R> the field type
+	 * @return the field found.
+	 * @throws ReflectionException if no field matches the getter
+	 */
+	private static <T, R> Field resolveField(Class<T> clazz, Function<T, R> getter) {
 		Class<?> fieldType = null;
 		try {
 			List<Field> fields = getFields(clazz);
@@ -440,6 +488,9 @@ public class Reflection {
 	 * Find a field on a class whose value is returned by the given getter operation.
 	 * <br>
 	 * <b>The field can be transient !</b>
+	 * <br>
+	 * The field is resolved once for a given class and setter, then it is cached.
+	 * See {@link ReflectionCache#lambdaField(Class, Object, Function)}.
 	 * @param clazz  the class holding the field and getter
 	 * @param setter the setter operation
 	 * @param <T> the class type
@@ -448,6 +499,21 @@ public class Reflection {
 	 * @throws ReflectionException if no field matches the getter
 	 */
 	public static <T, R> Field findField(Class<T> clazz, BiConsumer<T, R> setter) {
+		return ReflectionCache.lambdaField(clazz, setter, lambda -> resolveField(clazz, setter));
+	}
+
+	/**
+	 * Find a field on a class whose value is set by the given setter operation.
+	 * <br>
+	 * This method sets a test value using the setter and reads every field until it matches. No cache.
+	 * @param clazz  the class holding the field and setter
+	 * @param setter the setter operation
+	 * @param <T> the class type
+	 * @param <R> the field type
+	 * @return the field found.
+	 * @throws ReflectionException if no field matches the setter
+	 */
+	private static <T, R> Field resolveField(Class<T> clazz, BiConsumer<T, R> setter) {
 		try {
 			List<Field> fields = getFields(clazz);
 			T instance = newInstanceNoArgs(clazz);
@@ -1,11 +1,14 @@
 package org.yop.reflection;
 
-import org.apache.commons.collections4.MultiValuedMap;
-import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
 import org.reflections.Reflections;
 
+import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * A static cache for anything related to {@link Reflection}.
@@ -15,10 +18,53 @@ import java.util.*;
 class ReflectionCache {
 
 	/** Declared fields for a given class */
-	private static final MultiValuedMap<Class, Field> DECLARED_FIELDS = new ArrayListValuedHashMap<>();
+	private static final ClassValue<List<Field>> DECLARED_FIELDS = new ClassValue<List<Field>>() {
+		@Override
+		protected List<Field> computeValue(Class<?> type) {
+			return Collections.unmodifiableList(Arrays.asList(type.getDeclaredFields()));
+		}
+	};
+
+	/** Method handle based accessors : [declaring class → [field → accessor]]. No strong static key. */
+	private static final ClassValue<Map<Field, FieldAccessor>> ACCESSORS = new ClassValue<Map<Field, FieldAccessor>>() {
+		@Override
+		protected Map<Field, FieldAccessor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/** Method handle based no-arg constructor for a given class */
+	private static final ClassValue<Instantiator<?>> INSTANTIATORS = new ClassValue<Instantiator<?>>() {
+		@Override
+		protected Instantiator<?> computeValue(Class<?> type) {
+			return new Instantiator<>(type);
+		}
+	};
+
+	/** Fields resolved from getter/setter lambdas : [holding class → [lambda key → field]] */
+	private static final ClassValue<Map<String, Field>> LAMBDA_FIELDS = new ClassValue<Map<String, Field>>() {
+		@Override
+		protected Map<String, Field> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/** The cache key of a lambda class, or {@link #NOT_CACHEABLE}. Weak keys to not retain lambda classes. */
+	private static final Map<Class<?>, String> LAMBDA_KEYS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/** Lambda key marker : this lambda captures some state and the resolved field must not be cached */
+	private static final String NOT_CACHEABLE = "";
+
+	/** Implementation for a given class (see {@link #implementationOf(Class)}). Empty if no known implementation. */
+	private static final ClassValue<Optional<Class<?>>> IMPLEMENTATIONS = new ClassValue<Optional<Class<?>>>() {
+		@Override
+		protected Optional<Class<?>> computeValue(Class<?> type) {
+			return Optional.ofNullable(findImplementation(type));
+		}
+	};
 
 	/**
-	 * Reference implementations for common interfaces
+	 * Reference implementations for common interfaces. Read only.
 	 */
 	private static final Map<Class<?>, Class<?>> KNOWN_IMPLEMENTATIONS = new HashMap<Class<?>, Class<?>>() {{
 		this.put(Iterable.class,   ArrayList.class);
@@ -30,13 +76,121 @@ class ReflectionCache {
 		this.put(Calendar.class,   GregorianCalendar.class);
 	}};
 
-	static Collection<Field> getDeclaredFields(Class clazz) {
-		if (! DECLARED_FIELDS.containsKey(clazz)) {
-			DECLARED_FIELDS.putAll(clazz, Arrays.asList(clazz.getDeclaredFields()));
-		}
+	static Collection<Field> getDeclaredFields(Class<?> clazz) {
 		return DECLARED_FIELDS.get(clazz);
 	}
 
+	/**
+	 * Get the accessor for a given field. It is built and cached on the first call.
+	 * <br>
+	 * The field access is checked when the accessor is built : a private field must be accessible.
+	 * @param field the field
+	 * @return the field accessor
+	 * @throws ReflectionException no accessor could be built for the field
+	 */
+	static FieldAccessor accessor(Field field) {
+		return ACCESSORS.get(field.getDeclaringClass()).computeIfAbsent(field, FieldAccessor::new);
+	}
+
+	/**
+	 * Get the instantiator for a given class. It is built and cached on the first call.
+	 * <br>
+	 * If the class has no suitable constructor, nothing is cached and the exception is thrown on every call.
+	 * @param clazz the class to instantiate
+	 * @param <T> the class type
+	 * @return the class instantiator
+	 * @throws ReflectionException no instantiator could be built for the class
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Instantiator<T> instantiator(Class<T> clazz) {
+		return (Instantiator<T>) INSTANTIATORS.get(clazz);
+	}
+
+	/**
+	 * Get the field a getter/setter lambda reads/writes. It is resolved and cached on the first call.
+	 * <br>
+	 * The cache key is the lambda implementation method (using {@link SerializedLambda}) if the lambda is serializable.
+	 * Else this is the lambda class.
+	 * Lambdas that capture any value are not cached : the resolver is called every time.
+	 * <br>
+	 * If the resolver fails, nothing is cached.
+	 * @param clazz    the class holding the field
+	 * @param lambda   the getter/setter lambda
+	 * @param resolver the field resolver, if the field is not in cache
+	 * @return the field the lambda reads/writes
+	 * @throws ReflectionException the resolver could not find the field
+	 */
+	static Field lambdaField(Class<?> clazz, Object lambda, Function<Object, Field> resolver) {
+		String key = lambdaKey(lambda);
+		if (key == null) {
+			return resolver.apply(lambda);
+		}
+		Map<String, Field> fields = LAMBDA_FIELDS.get(clazz);
+		Field field = fields.get(key);
+		if (field == null) {
+			field = resolver.apply(lambda);
+			fields.put(key, field);
+		}
+		return field;
+	}
+
+	/**
+	 * Get the cache key of a lambda. The key is computed once per lambda class.
+	 * @param lambda the lambda
+	 * @return the lambda cache key, or null if the lambda must not be cached.
+	 */
+	private static String lambdaKey(Object lambda) {
+		Class<?> lambdaClass = lambda.getClass();
+		String key = LAMBDA_KEYS.get(lambdaClass);
+		if (key == null) {
+			key = computeLambdaKey(lambda);
+			LAMBDA_KEYS.put(lambdaClass, key);
+		}
+		return NOT_CACHEABLE.equals(key) ? null : key;
+	}
+
+	/**
+	 * Compute the cache key of a lambda.
+	 * <ul>
+	 *     <li>not a lambda (e.g. anonymous class) → {@link #NOT_CACHEABLE}</li>
+	 *     <li>serializable lambda → the implementation method, if no captured arg</li>
+	 *     <li>lambda → the lambda class name, if no captured arg (no instance field)</li>
+	 * </ul>
+	 * @param lambda the lambda
+	 * @return the lambda key or {@link #NOT_CACHEABLE}
+	 */
+	private static String computeLambdaKey(Object lambda) {
+		Class<?> lambdaClass = lambda.getClass();
+		if (! lambdaClass.isSynthetic()) {
+			return NOT_CACHEABLE;
+		}
+
+		try {
+			Method writeReplace = lambdaClass.getDeclaredMethod("writeReplace");
+			writeReplace.setAccessible(true);
+			Object replacement = writeReplace.invoke(lambda);
+			if (replacement instanceof SerializedLambda) {
+				SerializedLambda serialized = (SerializedLambda) replacement;
+				return serialized.getCapturedArgCount() > 0
+					? NOT_CACHEABLE
+					: serialized.getImplClass()
+						+ "#" + serialized.getImplMethodName()
+						+ serialized.getImplMethodSignature();
+			}
+		} catch (NoSuchMethodException e) {
+			// Not a serializable lambda. Let's check the lambda class.
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return NOT_CACHEABLE;
+		}
+
+		for (Field field : lambdaClass.getDeclaredFields()) {
+			if (! Modifier.isStatic(field.getModifiers())) {
+				return NOT_CACHEABLE;
+			}
+		}
+		return lambdaClass.getName();
+	}
+
 	/**
 	 * Returns the first known implementation of a class.
 	 * <br>
@@ -47,9 +201,10 @@ class ReflectionCache {
 	 *     <li>concrete → return the class itself</li>
 	 *     <li>{@link #KNOWN_IMPLEMENTATIONS} has a reference implementation → go for it</li>
 	 *     <li>
-	 *         else → use {@link Reflections} to find all the subtypes in the whole context.
+	 *         else → use the {@link ClassIndex} to find the indexed subtypes and the subtypes from unindexed roots.
+	 *         If no concrete subtype, use {@link Reflections} to find all the subtypes in the whole context.
 	 *         <br>
-	 *         Take the first concrete sub type, add it to the {@link #KNOWN_IMPLEMENTATIONS} and return !
+	 *         Take the first concrete sub type, add it to the {@link #IMPLEMENTATIONS} cache and return !
 	 *     </li>
 	 * </ul>
 	 * @param clazz the class whose implementation is sought
@@ -58,17 +213,35 @@ class ReflectionCache {
 	 */
 	@SuppressWarnings("unchecked")
 	static <T> Class<? extends T> implementationOf(Class<T> clazz) {
+		return (Class<? extends T>) IMPLEMENTATIONS.get(clazz).orElse(null);
+	}
+
+	/**
+	 * Find the first implementation of a class. See {@link #implementationOf(Class)}.
+	 * @param clazz the class whose implementation is sought
+	 * @return the first implementation found, self if concrete, null if no known implementation
+	 */
+	private static Class<?> findImplementation(Class<?> clazz) {
 		if(Reflection.isConcrete(clazz)) {
 			return clazz;
 		}
 
 		if(KNOWN_IMPLEMENTATIONS.containsKey(clazz)){
-			return (Class<? extends T>) KNOWN_IMPLEMENTATIONS.get(clazz);
+			return KNOWN_IMPLEMENTATIONS.get(clazz);
 		}
 
-		Set<Class<? extends T>> subTypes = new Reflections().getSubTypesOf(clazz);
-		Class<? extends T> impl = subTypes.stream().filter(Reflection::isConcrete).findFirst().orElse(null);
-		KNOWN_IMPLEMENTATIONS.put(clazz, impl);
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		Class<?> impl = ClassIndex
+			.subTypesOf(classLoader == null ? clazz.getClassLoader() : classLoader, clazz)
+			.stream()
+			.filter(Reflection::isConcrete)
+			.findFirst()
+			.orElse(null);
+
+		if (impl == null) {
+			Set<? extends Class<?>> subTypes = new Reflections().getSubTypesOf(clazz);
+			impl = subTypes.stream().filter(Reflection::isConcrete).findFirst().orElse(null);
+		}
 		return impl;
 	}
 }
@@ -4,11 +4,13 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.yop.reflection.model.Book;
 
+import java.io.Serializable;
 import java.lang.reflect.*;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -141,6 +143,33 @@ public class ReflectionTest {
 		Assert.assertNotNull(field);
 	}
 
+	@Test
+	public void test_findField_cached() {
+		Function<Book, String> getter = Book::getTitle;
+		Field field = Reflection.findField(Book.class, getter);
+		Assert.assertSame(field, Reflection.findField(Book.class, getter));
+		Assert.assertEquals("org.yop.reflection.model.Book#title", Reflection.fieldToString(field));
+	}
+
+	@Test
+	public void test_findField_serializable_lambda() {
+		Field first  = Reflection.findField(Book.class, (Function<Book, String> & Serializable) Book::getIsbn);
+		Field second = Reflection.findField(Book.class, (Function<Book, String> & Serializable) Book::getIsbn);
+		Assert.assertSame(first, second);
+		Assert.assertEquals("org.yop.reflection.model.Book#isbn", Reflection.fieldToString(first));
+	}
+
+	@Test
+	public void test_findField_capturing_lambda() {
+		for (String which : Arrays.asList("title", "description", "title")) {
+			Field field = Reflection.findField(
+				Book.class,
+				(Function<Book, String>) book -> "title".equals(which) ? book.getTitle() : book.getDescription()
+			);
+			Assert.assertEquals("org.yop.reflection.model.Book#" + which, Reflection.fieldToString(field));
+		}
+	}
+
 	@Test
 	public void test_readFieldFromFieldName() {
 		Local local = new Local();
@@ -264,6 +293,57 @@ public class ReflectionTest {
 		Assert.assertEquals(Book.Sheet.class, target);
 	}
 
+	@Test
+	public void test_accessor() {
+		Book book = Reflection.newInstanceNoArgs(Book.class);
+		FieldAccessor isbn = Reflection.accessor(Reflection.get(Book.class, "isbn"));
+		isbn.set(book, "1234567891011");
+		Assert.assertEquals("1234567891011", isbn.get(book));
+		Assert.assertEquals("1234567891011", book.getIsbn());
+		Assert.assertSame(isbn, Reflection.accessor(Reflection.get(Book.class, "isbn")));
+	}
+
+	@Test
+	public void test_accessor_primitive() {
+		Book book = new Book("1234567891011");
+		FieldAccessor id = Reflection.accessor(Reflection.get(Book.class, "id"));
+		id.setLong(book, 1337L);
+		Assert.assertEquals(1337L, id.getLong(book));
+		Assert.assertEquals(1337L, book.getId());
+
+		id.set(book, 42L);
+		Assert.assertEquals(42L, id.get(book));
+	}
+
+	@Test(expected = ReflectionException.class)
+	public void test_accessor_primitive_bad_type() {
+		FieldAccessor id = Reflection.accessor(Reflection.get(Book.class, "id"));
+		id.getInt(new Book("1234567891011"));
+	}
+
+	@Test(expected = ReflectionException.class)
+	public void test_accessor_primitive_null() {
+		FieldAccessor id = Reflection.accessor(Reflection.get(Book.class, "id"));
+		id.set(new Book("1234567891011"), null);
+	}
+
+	@Test
+	public void test_instantiator() {
+		Instantiator<Book> instantiator = Reflection.instantiator(Book.class);
+		Assert.assertSame(instantiator, Reflection.instantiator(Book.class));
+		Assert.assertNotSame(instantiator.newInstance(), instantiator.newInstance());
+	}
+
+	@Test(expected = ReflectionException.class)
+	public void test_instantiator_no_default_constructor() {
+		Reflection.newInstanceNoArgs(NoDefaultConstructor.class);
+	}
+
+	@Test(expected = ReflectionException.class)
+	public void test_instantiator_abstract() {
+		Reflection.newInstanceNoArgs(AbstractList.class);
+	}
+
 	private static class Local {
 		private Map<String, String> map;
 
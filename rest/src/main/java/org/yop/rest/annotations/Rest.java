@@ -17,5 +17,13 @@ public @interface Rest {
 	String[] methods() default "GET";
 	String description() default "";
 	String summary() default "";
+
+	/**
+	 * The name of a version field of the resource (on a type only) : a @Column whose value increases on every write.
+	 * <br>
+	 * e.g. a version number or a last update date.
+	 * If set, a conditional GET is answered using the version of the resource, before the query is executed.
+	 */
+	String version() default "";
 }
 
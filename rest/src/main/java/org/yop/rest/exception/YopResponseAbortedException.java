@@ -0,0 +1,15 @@
+package org.yop.rest.exception;
+
+import org.yop.orm.exception.YopRuntimeException;
+
+/**
+ * An error occurred once the response was committed (e.g. streaming) : the status and headers are already sent.
+ * <br>
+ * The REST servlet does not write any error body : this exception is thrown to the servlet container,
+ * which should close the connection so the client can tell the response is truncated.
+ */
+public class YopResponseAbortedException extends YopRuntimeException {
+	public YopResponseAbortedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,9 @@
+package org.yop.rest.exception;
+
+import org.yop.orm.exception.YopRuntimeException;
+
+public class YopServiceUnavailableException extends YopRuntimeException {
+	public YopServiceUnavailableException(String message) {
+		super(message);
+	}
+}
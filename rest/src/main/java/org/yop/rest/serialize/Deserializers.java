@@ -1,32 +1,73 @@
 package org.yop.rest.serialize;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import org.apache.http.entity.ContentType;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.yop.orm.exception.YopRuntimeException;
 import org.yop.orm.query.serialize.json.JSON;
 import org.yop.orm.query.serialize.xml.XML;
 
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.*;
 
 /**
  * A collection of {@link org.yop.orm.query.serialize.Serialize} deserialize methods for the supported content types.
  * <br>
- * For now, only JSON :-(
+ * JSON, newline delimited JSON and XML.
+ * <br><br>
+ * There are 2 flavors :
+ * <ul>
+ *     <li>{@link #getFor(String)} : deserialize a String content, in one go</li>
+ *     <li>
+ *         {@link #getStreamFor(String)} : deserialize a {@link Reader} content, 1 element at a time.
+ *         Only the current element is held in memory : use it for large request bodies.
+ *     </li>
+ * </ul>
  */
 public class Deserializers {
 
-	private static final String JSON_MIME_TYPE = "application/json";
-	private static final String XML_MIME_TYPE  = "application/xml";
+	private static final String JSON_MIME_TYPE   = "application/json";
+	private static final String XML_MIME_TYPE    = "application/xml";
+	private static final String NDJSON_MIME_TYPE = "application/x-ndjson";
 
+	/** The documented request content types (see {@link org.yop.rest.openapi.OpenAPIUtil}) */
 	public static final List<String> SUPPORTED = Arrays.asList(JSON_MIME_TYPE, XML_MIME_TYPE);
 
+	/** The request content types that can be read : {@link #SUPPORTED} and newline delimited JSON */
+	public static final List<String> READABLE = Arrays.asList(JSON_MIME_TYPE, XML_MIME_TYPE, NDJSON_MIME_TYPE);
+
 	private static final Deserializer<?> UNSUPPORTED_CONTENT_TYPE = (t, c) -> {
 		throw new UnsupportedOperationException("Content type [" + c + "] is unsupported.");
 	};
 
+	private static final StreamDeserializer<?> UNSUPPORTED_STREAM_CONTENT_TYPE = (t, c) -> {
+		throw new UnsupportedOperationException("Content type for [" + t.getName() + "] is unsupported.");
+	};
+
 	@SuppressWarnings("unchecked")
 	private static final Map<String, Deserializer> DESERIALIZERS = new HashMap<String, Deserializer>() {{
 		this.put(ContentType.APPLICATION_JSON.getMimeType(), (t, c) -> JSON.deserialize(t, new JsonParser().parse(c)));
 		this.put(ContentType.APPLICATION_XML.getMimeType(),  (t, c) -> XML.deserialize(c, t));
+		this.put(NDJSON_MIME_TYPE, (t, c) -> Lists.newArrayList(json(t, new StringReader(c))));
+	}};
+
+	@SuppressWarnings("unchecked")
+	private static final Map<String, StreamDeserializer> STREAM_DESERIALIZERS = new HashMap<String, StreamDeserializer>() {{
+		this.put(ContentType.APPLICATION_JSON.getMimeType(), Deserializers::json);
+		this.put(ContentType.APPLICATION_XML.getMimeType(),  Deserializers::xml);
+		this.put(NDJSON_MIME_TYPE, Deserializers::json);
 	}};
 
 	/**
@@ -39,6 +80,102 @@ public class Deserializers {
 		return DESERIALIZERS.getOrDefault(contentType, UNSUPPORTED_CONTENT_TYPE);
 	}
 
+	/**
+	 * Get the streaming deserializer for the given content-type
+	 * @param contentType the target content type
+	 * @return the appropriate streaming deserializer. {@link #UNSUPPORTED_STREAM_CONTENT_TYPE} if no match.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> StreamDeserializer<T> getStreamFor(String contentType) {
+		return STREAM_DESERIALIZERS.getOrDefault(contentType, UNSUPPORTED_STREAM_CONTENT_TYPE);
+	}
+
+	/**
+	 * Streaming JSON deserialization, using a Gson {@link JsonReader}.
+	 * <br>
+	 * The content can be a JSON array, a JSON object or newline delimited JSON objects.
+	 * See {@link JSON#deserialize(Class, JsonReader)}.
+	 * @param target  the target class
+	 * @param content the serialized objects
+	 * @param <T> the target type
+	 * @return an iterator on the deserialized objects
+	 */
+	private static <T> Iterator<T> json(Class<T> target, Reader content) {
+		return JSON.deserialize(target, new JsonReader(content));
+	}
+
+	/**
+	 * Streaming XML deserialization, using StAX.
+	 * <br>
+	 * Every first level element of the root node is read as a DOM element
+	 * and deserialized using {@link XML#deserialize(Element, Class, Class[])}.
+	 * <br>
+	 * DTDs and external entities are not supported.
+	 * @param target  the target class
+	 * @param content the serialized objects
+	 * @param <T> the target type
+	 * @return an iterator on the deserialized objects
+	 * @throws YopRuntimeException (from the iterator) the XML content could not be read
+	 */
+	private static <T> Iterator<T> xml(Class<T> target, Reader content) {
+		try {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			XMLStreamReader reader = factory.createXMLStreamReader(content);
+			DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+
+			// Move to the root node
+			reader.nextTag();
+
+			return new AbstractIterator<T>() {
+				@Override
+				protected T computeNext() {
+					try {
+						if (reader.nextTag() != XMLStreamConstants.START_ELEMENT) {
+							return this.endOfData();
+						}
+						return XML.deserialize(element(reader, builder.newDocument()), target);
+					} catch (XMLStreamException e) {
+						throw new YopRuntimeException("XML streaming error for [" + target.getName() + "]", e);
+					}
+				}
+			};
+		} catch (XMLStreamException | ParserConfigurationException e) {
+			throw new YopRuntimeException("XML streaming error for [" + target.getName() + "]", e);
+		}
+	}
+
+	/**
+	 * Read the current XML element as a DOM element.
+	 * @param reader   the StAX reader, on a START_ELEMENT event. It will be on the matching END_ELEMENT event.
+	 * @param document the DOM document to use to create the element
+	 * @return the DOM element
+	 * @throws XMLStreamException error reading the XML content
+	 */
+	private static Element element(XMLStreamReader reader, Document document) throws XMLStreamException {
+		Element element = document.createElement(reader.getLocalName());
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+		}
+
+		for (int event = reader.next(); event != XMLStreamConstants.END_ELEMENT; event = reader.next()) {
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					element.appendChild(element(reader, document));
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					element.appendChild(document.createTextNode(reader.getText()));
+					break;
+				default:
+					break;
+			}
+		}
+		return element;
+	}
+
 	@FunctionalInterface
 	public interface Deserializer<T> {
 		/**
@@ -49,4 +186,17 @@ public class Deserializers {
 		 */
 		Collection<T> deserialize(Class<T> target, String content);
 	}
+
+	@FunctionalInterface
+	public interface StreamDeserializer<T> {
+		/**
+		 * Deserialize the given content as the target class, 1 object at a time.
+		 * <br>
+		 * The content is read as the iterator is consumed. The reader is not closed here.
+		 * @param target  the target class
+		 * @param content the serialized objects
+		 * @return an iterator on the deserialized objects
+		 */
+		Iterator<T> deserialize(Class<T> target, Reader content);
+	}
 }
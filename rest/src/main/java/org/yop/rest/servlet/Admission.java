@@ -0,0 +1,302 @@
+package org.yop.rest.servlet;
+
+import org.apache.commons.lang.BooleanUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.exception.YopRuntimeException;
+import org.yop.rest.exception.YopServiceUnavailableException;
+
+import javax.servlet.ServletConfig;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control : per resource bulkheads, so an overloaded resource does not slow down everyone.
+ * <br>
+ * Every REST request enters a {@link Bulkhead} before it gets a connection :
+ * <ul>
+ *     <li>
+ *         there is a bulkhead per resource, per HTTP method and per {@link Lane} :
+ *         by ID reads, other reads (e.g. 'joinAll' exports) and writes do not share their concurrency limit.
+ *     </li>
+ *     <li>
+ *         a bulkhead executes at most its limit of requests at once. Default limits are per lane.
+ *         A bulkhead limit can be set using a {@link #LIMIT_INIT_PARAM_PREFIX} init param,
+ *         e.g. 'admission_limit.Pojo.GET=2' or 'admission_limit.Pojo.GET.id=50' for the by ID reads.
+ *     </li>
+ *     <li>
+ *         a full bulkhead queues at most {@link #QUEUE_SIZE_INIT_PARAM} requests,
+ *         for at most {@link #QUEUE_TIMEOUT_INIT_PARAM} milliseconds.
+ *         Then the request is rejected : {@link YopServiceUnavailableException} → 503, with a 'Retry-After' header.
+ *     </li>
+ *     <li>
+ *         if {@link #LATENCY_TARGET_INIT_PARAM} is set, the limit is adaptive (AIMD) :
+ *         a request slower than the target decreases the limit ({@link #BACKOFF}),
+ *         a faster one slowly increases it, up to the configured limit.
+ *     </li>
+ * </ul>
+ * The request execution time is the connection time : the response serialization and writing are not limited.
+ */
+class Admission {
+
+	private static final Logger logger = LoggerFactory.getLogger(Admission.class);
+
+	static final String ENABLED_INIT_PARAM        = "admission";
+	static final String LOOKUP_LIMIT_INIT_PARAM   = "admission_lookup_limit";
+	static final String QUERY_LIMIT_INIT_PARAM    = "admission_query_limit";
+	static final String WRITE_LIMIT_INIT_PARAM    = "admission_write_limit";
+	static final String QUEUE_SIZE_INIT_PARAM     = "admission_queue_size";
+	static final String QUEUE_TIMEOUT_INIT_PARAM  = "admission_queue_timeout";
+	static final String LATENCY_TARGET_INIT_PARAM = "admission_latency_target";
+	static final String LIMIT_INIT_PARAM_PREFIX   = "admission_limit.";
+
+	/** Default max number of requests waiting for a bulkhead. */
+	static final int DEFAULT_QUEUE_SIZE = 20;
+
+	/** Default max time a request waits for a bulkhead, in milliseconds. */
+	static final long DEFAULT_QUEUE_TIMEOUT = 200;
+
+	/** The 'Retry-After' header value of a rejected request, in seconds. */
+	static final String RETRY_AFTER = "1";
+
+	/** The adaptive limit multiplicative decrease factor, when a request is slower than the latency target. */
+	static final double BACKOFF = 0.9;
+
+	/**
+	 * The request kinds. Each kind has its own bulkheads.
+	 */
+	enum Lane {
+		/** GET/HEAD by ID : cheap and frequent */
+		LOOKUP(50),
+
+		/** other GET/HEAD : collections, 'joinAll' exports... */
+		QUERY(5),
+
+		/** any other method */
+		WRITE(10);
+
+		/** The default concurrency limit of a bulkhead of this lane */
+		private final int defaultLimit;
+
+		Lane(int defaultLimit) {
+			this.defaultLimit = defaultLimit;
+		}
+
+		/**
+		 * Find the lane of a request, from its HTTP method (see {@link RestRequest#isRead()}) and ID.
+		 * <br>
+		 * Conditional headers do not matter : a PUT with an 'If-Match' header is a {@link #WRITE}.
+		 * @param restRequest the incoming request
+		 * @return the request lane
+		 */
+		static Lane of(RestRequest<?> restRequest) {
+			if (! restRequest.isRead()) {
+				return WRITE;
+			}
+			return restRequest.getId() == null ? QUERY : LOOKUP;
+		}
+	}
+
+	/** The default concurrency limits, by lane */
+	private final Map<Lane, Integer> limits = new EnumMap<>(Lane.class);
+
+	/** The concurrency limits, by bulkhead name */
+	private final Map<String, Integer> overrides = new HashMap<>();
+
+	/** The bulkheads, by name. Created when first entered. */
+	private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+	/** Max number of requests waiting for a bulkhead */
+	private final int queueSize;
+
+	/** Max time a request waits for a bulkhead, in milliseconds */
+	private final long queueTimeout;
+
+	/** The latency target for the adaptive limit, in nanoseconds. 0 : the limit is not adaptive. */
+	private final long latencyTarget;
+
+	/**
+	 * Private constructor. Please use {@link #configure(ServletConfig)}.
+	 * @param queueSize     the bulkhead queue size
+	 * @param queueTimeout  the bulkhead queue timeout, in milliseconds
+	 * @param latencyTarget the adaptive limit latency target, in milliseconds. 0 : not adaptive.
+	 */
+	private Admission(int queueSize, long queueTimeout, long latencyTarget) {
+		this.queueSize = queueSize;
+		this.queueTimeout = queueTimeout;
+		this.latencyTarget = TimeUnit.MILLISECONDS.toNanos(latencyTarget);
+	}
+
+	/**
+	 * Read the admission control settings from the servlet init params.
+	 * @param config the servlet config
+	 * @return the admission control, null if {@link #ENABLED_INIT_PARAM} is not set to true
+	 * @throws YopRuntimeException a bulkhead limit is not a positive integer
+	 */
+	static Admission configure(ServletConfig config) {
+		if (! BooleanUtils.toBoolean(config.getInitParameter(ENABLED_INIT_PARAM))) {
+			return null;
+		}
+		Admission admission = new Admission(
+			NumberUtils.toInt(config.getInitParameter(QUEUE_SIZE_INIT_PARAM), DEFAULT_QUEUE_SIZE),
+			NumberUtils.toLong(config.getInitParameter(QUEUE_TIMEOUT_INIT_PARAM), DEFAULT_QUEUE_TIMEOUT),
+			NumberUtils.toLong(config.getInitParameter(LATENCY_TARGET_INIT_PARAM), 0)
+		);
+		admission.limits.put(Lane.LOOKUP, limit(config, LOOKUP_LIMIT_INIT_PARAM, Lane.LOOKUP.defaultLimit));
+		admission.limits.put(Lane.QUERY,  limit(config, QUERY_LIMIT_INIT_PARAM,  Lane.QUERY.defaultLimit));
+		admission.limits.put(Lane.WRITE,  limit(config, WRITE_LIMIT_INIT_PARAM,  Lane.WRITE.defaultLimit));
+
+		for (String name : Collections.list(config.getInitParameterNames())) {
+			if (name.startsWith(LIMIT_INIT_PARAM_PREFIX)) {
+				admission.overrides.put(StringUtils.removeStart(name, LIMIT_INIT_PARAM_PREFIX), limit(config, name, 0));
+			}
+		}
+
+		logger.info(
+			"REST admission control : limits {}, overrides {}, [{}] queued requests, [{}]ms queue timeout",
+			admission.limits,
+			admission.overrides,
+			admission.queueSize,
+			admission.queueTimeout
+		);
+		return admission;
+	}
+
+	/**
+	 * Enter the bulkhead of a request. Wait for it if it is full.
+	 * @param restRequest the incoming request
+	 * @return the permit to close once the request is executed
+	 * @throws YopServiceUnavailableException the bulkhead queue is full or the request waited too long
+	 */
+	Permit enter(RestRequest<?> restRequest) {
+		Lane lane = Lane.of(restRequest);
+		String name = restRequest.getRestResource().getSimpleName() + "." + restRequest.getMethod();
+		return this.enter(lane == Lane.LOOKUP ? name + ".id" : name, lane);
+	}
+
+	/**
+	 * Enter a bulkhead. Wait for it if it is full.
+	 * @param name the bulkhead name : '{resource}.{method}', with an '.id' suffix for the {@link Lane#LOOKUP} lane
+	 * @param lane the request lane
+	 * @return the permit to close once the request is executed
+	 * @throws YopServiceUnavailableException the bulkhead queue is full or the request waited too long
+	 */
+	Permit enter(String name, Lane lane) {
+		Bulkhead bulkhead = this.bulkheads.computeIfAbsent(
+			name,
+			key -> new Bulkhead(key, this.overrides.getOrDefault(key, this.limits.get(lane)))
+		);
+		try {
+			if (! bulkhead.acquire(this.queueSize, this.queueTimeout)) {
+				logger.warn("REST bulkhead [{}] is full. Request rejected.", name);
+				throw new YopServiceUnavailableException("Too many requests for [" + name + "]. Please retry later.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new YopServiceUnavailableException("Interrupted waiting for [" + name + "]. Please retry later.");
+		}
+		long start = System.nanoTime();
+		return () -> bulkhead.release(System.nanoTime() - start, this.latencyTarget);
+	}
+
+	/**
+	 * Read a concurrency limit init param.
+	 * @param config       the servlet config
+	 * @param name         the init param name
+	 * @param defaultLimit the default limit, if the init param is not set
+	 * @return the concurrency limit
+	 * @throws YopRuntimeException the init param is not a positive integer
+	 */
+	private static int limit(ServletConfig config, String name, int defaultLimit) {
+		String value = config.getInitParameter(name);
+		int limit = NumberUtils.toInt(value, defaultLimit);
+		if (limit < 0 || (value != null && ! NumberUtils.isDigits(value.trim()))) {
+			throw new YopRuntimeException("Invalid admission limit [" + name + "=" + value + "]");
+		}
+		return limit;
+	}
+
+	/**
+	 * A bulkhead permit : close it once the request is executed.
+	 */
+	@FunctionalInterface
+	interface Permit extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	/**
+	 * A concurrency limit, with a bounded waiting queue.
+	 * <br>
+	 * The current limit is adaptive (AIMD), between 1 and {@link #max}, if a latency target is set.
+	 * A 0 max limit rejects every request.
+	 */
+	private static class Bulkhead {
+		private final String name;
+		private final int max;
+
+		private double limit;
+		private int inFlight = 0;
+		private int waiting = 0;
+
+		private Bulkhead(String name, int max) {
+			this.name = name;
+			this.max = max;
+			this.limit = max;
+		}
+
+		/**
+		 * Acquire a slot in the bulkhead. Wait, if there is room in the queue, for at most the given timeout.
+		 * @param queueSize the max number of waiting requests
+		 * @param timeout   the max waiting time, in milliseconds
+		 * @return true if a slot was acquired, false if the queue is full or the waiting timed out
+		 * @throws InterruptedException interrupted while waiting
+		 */
+		private synchronized boolean acquire(int queueSize, long timeout) throws InterruptedException {
+			if (this.inFlight < (int) this.limit) {
+				this.inFlight++;
+				return true;
+			}
+			if (this.waiting >= queueSize) {
+				return false;
+			}
+
+			this.waiting++;
+			try {
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+				while (this.inFlight >= (int) this.limit) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						return false;
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+				this.inFlight++;
+				return true;
+			} finally {
+				this.waiting--;
+			}
+		}
+
+		/**
+		 * Release a slot and adapt the limit, if a latency target is set.
+		 * @param latency the request execution time, in nanoseconds
+		 * @param target  the latency target, in nanoseconds. 0 : the limit is not adaptive.
+		 */
+		private synchronized void release(long latency, long target) {
+			this.inFlight--;
+			if (target > 0 && this.max > 0) {
+				if (latency > target) {
+					this.limit = Math.max(1, this.limit * BACKOFF);
+					logger.debug("REST bulkhead [{}] : slow request. Limit decreased to [{}]", this.name, this.limit);
+				} else {
+					this.limit = Math.min(this.max, this.limit + 1 / this.limit);
+				}
+			}
+			this.notifyAll();
+		}
+	}
+}
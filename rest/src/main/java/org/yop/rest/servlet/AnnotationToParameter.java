@@ -41,12 +41,21 @@ public interface AnnotationToParameter {
 	 * @return the value for the parameter, given the actual REST request. null if nothing matched {@link #ACTIONS}.
 	 */
 	static Object get(RestRequest request, Parameter parameter) {
+		return forParameter(parameter).computeValue(request, parameter);
+	}
+
+	/**
+	 * Find the lambda associated to the parameter annotation in {@link #ACTIONS}.
+	 * @param parameter the method parameter
+	 * @return the lambda for the first applicable annotation. If none, a lambda that returns null.
+	 */
+	static AnnotationToParameter forParameter(Parameter parameter) {
 		for (Annotation annotation : parameter.getAnnotations()) {
 			if (ACTIONS.containsKey(annotation.annotationType())) {
-				return ACTIONS.get(annotation.annotationType()).computeValue(request, parameter);
+				return ACTIONS.get(annotation.annotationType());
 			}
 		}
-		return null;
+		return (r, p) -> null;
 	}
 
 	/**
@@ -0,0 +1,550 @@
+package org.yop.rest.servlet;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.lang.BooleanUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.*;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Servlet 3.1 asynchronous request execution.
+ * <br>
+ * The container thread only starts the {@link AsyncContext} and returns :
+ * <ul>
+ *     <li>
+ *         the request is executed (database work and serialization) on a dedicated bounded executor.
+ *         Size it to the connection pool : {@link #POOL_SIZE_INIT_PARAM}.
+ *     </li>
+ *     <li>the output is buffered, then written with non-blocking I/O, using a {@link WriteListener}</li>
+ *     <li>
+ *         an output larger than {@link #MAX_BUFFER_SIZE} (e.g. a {@link StreamedResponse}) is not buffered :
+ *         it is written with blocking I/O, from the executor thread.
+ *     </li>
+ *     <li>the executor is full ({@link #QUEUE_SIZE_INIT_PARAM}) or the request times out → 503</li>
+ *     <li>
+ *         a timed out request is aborted : its execution is cancelled (interrupted)
+ *         and nothing it writes afterwards (status, headers, output) reaches the servlet response.
+ *     </li>
+ * </ul>
+ * The servlet must be declared as async-supported (e.g. 'async-supported' in web.xml).
+ * If it is not, the requests are executed synchronously.
+ */
+class AsyncExecution {
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncExecution.class);
+
+	static final String ENABLED_INIT_PARAM    = "async";
+	static final String POOL_SIZE_INIT_PARAM  = "async_pool_size";
+	static final String QUEUE_SIZE_INIT_PARAM = "async_queue_size";
+	static final String TIMEOUT_INIT_PARAM    = "async_timeout";
+
+	/** Default executor size : the number of requests that can be executed at once. */
+	static final int DEFAULT_POOL_SIZE = 10;
+
+	/** Default executor queue size : the number of requests that can wait for an executor thread. */
+	static final int DEFAULT_QUEUE_SIZE = 100;
+
+	/** Default async request timeout, in milliseconds. */
+	static final long DEFAULT_TIMEOUT = 30_000;
+
+	/** Max size of a buffered output. A larger output is written with blocking I/O. */
+	static final int MAX_BUFFER_SIZE = 256 * 1024;
+
+	/** The bounded executor */
+	private final ThreadPoolExecutor executor;
+
+	/** Async request timeout, in milliseconds */
+	private final long timeout;
+
+	/**
+	 * Private constructor. Please use {@link #configure(ServletConfig)}.
+	 * @param poolSize  the executor size
+	 * @param queueSize the executor queue size
+	 * @param timeout   the async request timeout
+	 */
+	private AsyncExecution(int poolSize, int queueSize, long timeout) {
+		this.timeout = timeout;
+		this.executor = new ThreadPoolExecutor(
+			poolSize,
+			poolSize,
+			0L,
+			TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueSize),
+			new ThreadFactoryBuilder().setNameFormat("yop-rest-%d").setDaemon(true).build()
+		);
+	}
+
+	/**
+	 * Read the async execution settings from the servlet init params.
+	 * @param config the servlet config
+	 * @return the async execution, null if {@link #ENABLED_INIT_PARAM} is not set to true
+	 */
+	static AsyncExecution configure(ServletConfig config) {
+		if (! BooleanUtils.toBoolean(config.getInitParameter(ENABLED_INIT_PARAM))) {
+			return null;
+		}
+		int poolSize = NumberUtils.toInt(config.getInitParameter(POOL_SIZE_INIT_PARAM), DEFAULT_POOL_SIZE);
+		int queueSize = NumberUtils.toInt(config.getInitParameter(QUEUE_SIZE_INIT_PARAM), DEFAULT_QUEUE_SIZE);
+		long timeout = NumberUtils.toLong(config.getInitParameter(TIMEOUT_INIT_PARAM), DEFAULT_TIMEOUT);
+		logger.info("Async REST execution : [{}] threads, [{}] queued requests, [{}]ms timeout", poolSize, queueSize, timeout);
+		return new AsyncExecution(poolSize, queueSize, timeout);
+	}
+
+	/**
+	 * Start the async context and submit the request execution to the executor.
+	 * @param req     the servlet request
+	 * @param resp    the servlet response
+	 * @param handler the request execution
+	 */
+	void dispatch(HttpServletRequest req, HttpServletResponse resp, Handler handler) {
+		// The request can be recycled once the async context is completed : read its URI now, for logging
+		String uri = req.getRequestURI();
+		AsyncContext context = req.startAsync(req, resp);
+		context.setTimeout(this.timeout);
+		BufferedResponse response = new BufferedResponse(resp, context);
+		AtomicReference<Future<?>> execution = new AtomicReference<>();
+		context.addListener(new AsyncListener() {
+			@Override
+			public void onTimeout(AsyncEvent event) {
+				logger.warn("Async REST request [{}] timed out !", uri);
+				this.cancel(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			}
+
+			@Override
+			public void onComplete(AsyncEvent event) {}
+
+			@Override
+			public void onError(AsyncEvent event) {
+				logger.warn("Async REST request [{}] error !", uri, event.getThrowable());
+				this.cancel(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+
+			/**
+			 * Abort the response and cancel the request execution (the executor thread is interrupted).
+			 * @param status the error status, if the response is not committed yet
+			 */
+			private void cancel(int status) {
+				response.abort(status);
+				Future<?> future = execution.get();
+				if (future != null) {
+					future.cancel(true);
+				}
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {}
+		});
+
+		try {
+			execution.set(this.executor.submit(() -> {
+				if (response.isDone()) {
+					logger.warn("Async REST request [{}] aborted before its execution.", uri);
+					return;
+				}
+				try {
+					handler.handle(req, response);
+					response.complete();
+				} catch (ServletException | IOException | RuntimeException e) {
+					if (response.isDone()) {
+						logger.warn("Async REST request [{}] aborted during its execution.", uri);
+						return;
+					}
+					logger.error("Async REST request [{}] execution error !", uri, e);
+					response.abort(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				}
+			}));
+		} catch (RejectedExecutionException e) {
+			logger.warn("Async REST executor is full. Request [{}] rejected.", uri);
+			response.abort(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		}
+	}
+
+	/**
+	 * Shutdown the executor : the submitted requests are executed, no new request is accepted.
+	 */
+	void shutdown() {
+		this.executor.shutdown();
+	}
+
+	/**
+	 * A request execution.
+	 */
+	@FunctionalInterface
+	interface Handler {
+		void handle(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException;
+	}
+
+	/**
+	 * A response whose output is buffered, then written with non-blocking I/O when {@link #complete()} is called.
+	 * <br>
+	 * If the output exceeds {@link #MAX_BUFFER_SIZE}, the buffer is written and the output goes directly,
+	 * with blocking I/O, to the servlet response.
+	 * <br>
+	 * Every status, header or output write goes through this response and is synchronized with {@link #abort(int)} :
+	 * once the response is completed or aborted, the servlet response (that can be recycled) is never written again.
+	 * The writes are ignored and the output writes fail.
+	 */
+	private static class BufferedResponse extends HttpServletResponseWrapper {
+		private final AsyncContext context;
+		private final AtomicBoolean completed = new AtomicBoolean(false);
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		private ServletOutputStream direct;
+		private ServletOutputStream output;
+		private PrintWriter writer;
+
+		private BufferedResponse(HttpServletResponse response, AsyncContext context) {
+			super(response);
+			this.context = context;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			if (this.writer != null) {
+				throw new IllegalStateException("getWriter() has already been called on this response");
+			}
+			return this.output();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				if (this.output != null) {
+					throw new IllegalStateException("getOutputStream() has already been called on this response");
+				}
+				this.writer = new PrintWriter(new OutputStreamWriter(this.output(), this.getCharacterEncoding()));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			synchronized (this) {
+				if (this.direct != null) {
+					this.checkWritable();
+					this.direct.flush();
+				}
+			}
+		}
+
+		@Override
+		public synchronized boolean isCommitted() {
+			return this.completed.get() || this.direct != null || super.isCommitted();
+		}
+
+		@Override
+		public void setStatus(int sc) {
+			this.write(response -> response.setStatus(sc));
+		}
+
+		@Override
+		@SuppressWarnings("deprecation")
+		public void setStatus(int sc, String sm) {
+			this.write(response -> response.setStatus(sc, sm));
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			this.sendError(sc, null);
+		}
+
+		@Override
+		public synchronized void sendError(int sc, String msg) throws IOException {
+			if (this.completed.get()) {
+				return;
+			}
+			if (msg == null) {
+				super.sendError(sc);
+			} else {
+				super.sendError(sc, msg);
+			}
+		}
+
+		@Override
+		public synchronized void sendRedirect(String location) throws IOException {
+			if (! this.completed.get()) {
+				super.sendRedirect(location);
+			}
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			this.write(response -> response.setHeader(name, value));
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			this.write(response -> response.addHeader(name, value));
+		}
+
+		@Override
+		public void setDateHeader(String name, long date) {
+			this.write(response -> response.setDateHeader(name, date));
+		}
+
+		@Override
+		public void addDateHeader(String name, long date) {
+			this.write(response -> response.addDateHeader(name, date));
+		}
+
+		@Override
+		public void setIntHeader(String name, int value) {
+			this.write(response -> response.setIntHeader(name, value));
+		}
+
+		@Override
+		public void addIntHeader(String name, int value) {
+			this.write(response -> response.addIntHeader(name, value));
+		}
+
+		@Override
+		public void addCookie(Cookie cookie) {
+			this.write(response -> response.addCookie(cookie));
+		}
+
+		@Override
+		public void setContentType(String type) {
+			this.write(response -> response.setContentType(type));
+		}
+
+		@Override
+		public void setCharacterEncoding(String charset) {
+			this.write(response -> response.setCharacterEncoding(charset));
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			this.write(response -> response.setContentLength(len));
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			this.write(response -> response.setContentLengthLong(len));
+		}
+
+		@Override
+		public void setLocale(Locale loc) {
+			this.write(response -> response.setLocale(loc));
+		}
+
+		@Override
+		public void setBufferSize(int size) {
+			this.write(response -> response.setBufferSize(size));
+		}
+
+		@Override
+		public void reset() {
+			this.write(response -> {
+				response.reset();
+				this.buffer.reset();
+			});
+		}
+
+		@Override
+		public void resetBuffer() {
+			this.write(response -> {
+				response.resetBuffer();
+				this.buffer.reset();
+			});
+		}
+
+		@Override
+		public synchronized String getHeader(String name) {
+			return this.completed.get() ? null : super.getHeader(name);
+		}
+
+		@Override
+		public synchronized Collection<String> getHeaders(String name) {
+			return this.completed.get() ? Collections.emptyList() : super.getHeaders(name);
+		}
+
+		@Override
+		public synchronized boolean containsHeader(String name) {
+			return ! this.completed.get() && super.containsHeader(name);
+		}
+
+		@Override
+		public synchronized String getCharacterEncoding() {
+			return this.completed.get() ? null : super.getCharacterEncoding();
+		}
+
+		@Override
+		public synchronized String getContentType() {
+			return this.completed.get() ? null : super.getContentType();
+		}
+
+		/**
+		 * Is the response completed or aborted ? Nothing can be written to the servlet response anymore.
+		 * @return true if {@link #complete()} or {@link #abort(int)} was called
+		 */
+		private boolean isDone() {
+			return this.completed.get();
+		}
+
+		/**
+		 * Write to the servlet response (status, headers...), if it is not completed or aborted. Else, do nothing.
+		 * @param write the write operation
+		 */
+		private synchronized void write(Consumer<HttpServletResponse> write) {
+			if (! this.completed.get()) {
+				write.accept((HttpServletResponse) this.getResponse());
+			}
+		}
+
+		/**
+		 * Check the output can still be written.
+		 * @throws IOException the response is completed or aborted
+		 */
+		private void checkWritable() throws IOException {
+			if (this.completed.get()) {
+				throw new IOException("The async REST response is completed or aborted. It cannot be written anymore.");
+			}
+		}
+
+		/**
+		 * Get the buffering output.
+		 * <br>
+		 * Closing it does nothing : the servlet response is written and completed in {@link #complete()}.
+		 * @return the buffering output
+		 */
+		private ServletOutputStream output() {
+			if (this.output != null) {
+				return this.output;
+			}
+			this.output = new ServletOutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					this.write(new byte[] {(byte) b}, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					BufferedResponse response = BufferedResponse.this;
+					synchronized (response) {
+						response.checkWritable();
+						if (response.direct == null && response.buffer.size() + len > MAX_BUFFER_SIZE) {
+							response.direct = response.getResponse().getOutputStream();
+							response.buffer.writeTo(response.direct);
+							response.buffer.reset();
+						}
+						if (response.direct != null) {
+							response.direct.write(b, off, len);
+						} else {
+							response.buffer.write(b, off, len);
+						}
+					}
+				}
+
+				@Override
+				public void flush() throws IOException {
+					BufferedResponse response = BufferedResponse.this;
+					synchronized (response) {
+						if (response.direct != null) {
+							response.checkWritable();
+							response.direct.flush();
+						}
+					}
+				}
+
+				@Override
+				public void close() {}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					throw new UnsupportedOperationException("The async REST output is already written asynchronously");
+				}
+			};
+			return this.output;
+		}
+
+		/**
+		 * Write the buffered output with a {@link WriteListener} and complete the async context when done.
+		 * <br>
+		 * If the output was written directly, simply complete the async context.
+		 * @throws IOException an error occurred getting the servlet response output
+		 */
+		private synchronized void complete() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (! this.completed.compareAndSet(false, true)) {
+				return;
+			}
+			if (this.direct != null || this.buffer.size() == 0) {
+				this.context.complete();
+				return;
+			}
+
+			byte[] bytes = this.buffer.toByteArray();
+			ServletOutputStream out = this.getResponse().getOutputStream();
+			out.setWriteListener(new WriteListener() {
+				private int offset = 0;
+
+				@Override
+				public void onWritePossible() throws IOException {
+					while (out.isReady()) {
+						if (this.offset >= bytes.length) {
+							BufferedResponse.this.context.complete();
+							return;
+						}
+						int length = Math.min(StreamedResponse.BUFFER_SIZE, bytes.length - this.offset);
+						out.write(bytes, this.offset, length);
+						this.offset += length;
+					}
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					logger.warn("Error writing async REST response !", t);
+					BufferedResponse.this.context.complete();
+				}
+			});
+		}
+
+		/**
+		 * Answer with an error status, if the response is not committed yet, and complete the async context.
+		 * <br>
+		 * Does nothing if the response is already completed.
+		 * @param status the error status
+		 */
+		private synchronized void abort(int status) {
+			if (! this.completed.compareAndSet(false, true)) {
+				return;
+			}
+			HttpServletResponse response = (HttpServletResponse) this.getResponse();
+			if (! response.isCommitted()) {
+				response.reset();
+				response.setStatus(status);
+				if (status == HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+					response.setHeader("Retry-After", "1");
+				}
+			}
+			this.context.complete();
+		}
+	}
+}
@@ -0,0 +1,545 @@
+package org.yop.rest.servlet;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.entity.ContentType;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yop.orm.exception.YopRuntimeException;
+import org.yop.orm.query.sql.Loader;
+import org.yop.orm.sql.adapter.IConnection;
+import org.yop.rest.exception.*;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A batch of REST operations, across resources, executed in a single connection and transaction.
+ * <br>
+ * The batch endpoint is 'POST [servlet path]/{@value #PATH}'. The request body is a JSON array of operations :
+ * <pre>
+ * [
+ *   {"method": "UPSERT", "path": "pojo", "headers": {"partial": "false"}, "body": [{...}, {...}]},
+ *   {"method": "DELETE", "path": "pojo/12"},
+ *   {"method": "GET",    "path": "pojo/13?joinAll"}
+ * ]
+ * </pre>
+ * Every operation is executed as if it were a single REST request, with the same {@link HttpMethod} implementation
+ * and the same {@link YopRestServlet.RequestChecker} checks. The batch request session and cookies are used.
+ * <br>
+ * Consecutive compatible operations are grouped :
+ * <ul>
+ *     <li>UPSERT on the same resource, with the same parameters : 1 upsert of all the bodies (see {@link Upsert})</li>
+ *     <li>DELETE by ID on the same resource, with the same parameters : 1 delete of all the IDs</li>
+ * </ul>
+ * The response is a JSON array of results, 1 per operation : {"status": 200, "headers": {...}, "body": ...}.
+ * <br>
+ * <b>
+ *     ⚠⚠⚠
+ *     If an operation fails, the transaction is rolled back and the next operations are not executed
+ *     ({@link #SC_FAILED_DEPENDENCY}). The batch status is then the failed operation status.
+ *     The results of the previous operations are kept in the response, but nothing was committed !
+ *     ⚠⚠⚠
+ * </b>
+ */
+class Batch {
+
+	private static final Logger logger = LoggerFactory.getLogger(Batch.class);
+
+	/** The batch endpoint path, relative to the REST servlet path */
+	static final String PATH = "_batch";
+
+	static final String METHOD  = "method";
+	static final String TARGET  = "path";
+	static final String HEADERS = "headers";
+	static final String BODY    = "body";
+	static final String STATUS  = "status";
+
+	/** The status of the operations that were not executed because a previous one failed */
+	static final int SC_FAILED_DEPENDENCY = 424;
+
+	/** The REST routing table */
+	private final Routes routes;
+
+	/** The extra checks to execute on every operation */
+	private final YopRestServlet.RequestChecker requestChecker;
+
+	/** The operations to execute */
+	private final List<JSONObject> operations = new ArrayList<>();
+
+	/** The operations results */
+	private final JSONArray results = new JSONArray();
+
+	/** The batch status : 200 or the status of the failed operation */
+	private int status = HttpServletResponse.SC_OK;
+
+	/**
+	 * Read the batch operations from the request body.
+	 * @param routes         the REST routing table
+	 * @param requestChecker the extra checks to execute on every operation
+	 * @param req            the batch request
+	 * @throws YopBadContentException the request body is not a JSON array of valid operations
+	 */
+	Batch(Routes routes, YopRestServlet.RequestChecker requestChecker, HttpServletRequest req) {
+		this.routes = routes;
+		this.requestChecker = requestChecker;
+		try {
+			JSONArray operations = new JSONArray(new JSONTokener(req.getReader()));
+			for (int i = 0; i < operations.length(); i++) {
+				JSONObject operation = operations.getJSONObject(i);
+				HttpMethod.instance(operation.getString(METHOD));
+				operation.getString(TARGET);
+				this.operations.add(operation);
+			}
+		} catch (IOException | JSONException | UnsupportedOperationException e) {
+			throw new YopBadContentException("Invalid REST batch : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Is the request a batch request ?
+	 * @param req the servlet request
+	 * @return true for a POST on {@link #PATH}
+	 */
+	static boolean isBatch(HttpServletRequest req) {
+		return "POST".equals(req.getMethod()) && ("/" + PATH).equals(req.getPathInfo());
+	}
+
+	/**
+	 * The batch status.
+	 * @return 200 if every operation succeeded, else the status of the failed operation
+	 */
+	int status() {
+		return this.status;
+	}
+
+	/**
+	 * The operations results.
+	 * @return a JSON array with 1 result per operation
+	 */
+	JSONArray results() {
+		return this.results;
+	}
+
+	/**
+	 * Execute the operations, grouping the consecutive compatible ones.
+	 * <br>
+	 * Stop at the first failed operation : the caller must then rollback (see {@link #status()}).
+	 * @param req        the batch request
+	 * @param resp       the batch response
+	 * @param connection the connection to use. The transaction is managed by the caller.
+	 */
+	void execute(HttpServletRequest req, HttpServletResponse resp, IConnection connection) {
+		List<Entry> entries = new ArrayList<>(this.operations.size());
+		for (JSONObject operation : this.operations) {
+			entries.add(new Entry(operation, req, resp, this.routes));
+		}
+
+		int from = 0;
+		while (from < entries.size()) {
+			int to = from + 1;
+			while (to < entries.size() && entries.get(from).isCompatible(entries.get(to))) {
+				to++;
+			}
+
+			List<Entry> group = entries.subList(from, to);
+			try {
+				this.execute(group, req, resp, connection);
+			} catch (RuntimeException e) {
+				logger.error("REST batch operation #[{}] error !", from, e);
+				this.status = status(e);
+				group.forEach(entry -> this.results.put(result(this.status, HttpMethod.errorJSON(e))));
+				JSONObject notExecuted = HttpMethod.errorJSON(new YopRuntimeException("A previous operation failed"));
+				entries.subList(to, entries.size()).forEach(
+					entry -> this.results.put(result(SC_FAILED_DEPENDENCY, notExecuted))
+				);
+				return;
+			}
+			from = to;
+		}
+	}
+
+	/**
+	 * Check and execute a group of compatible operations.
+	 * @param group      the operations
+	 * @param req        the batch request
+	 * @param resp       the batch response
+	 * @param connection the connection to use
+	 */
+	private void execute(List<Entry> group, HttpServletRequest req, HttpServletResponse resp, IConnection connection) {
+		for (Entry entry : group) {
+			if (entry.error != null) {
+				throw entry.error;
+			}
+			entry.method.checkResource(entry.request);
+			this.requestChecker.checkResource(entry.request, connection);
+		}
+
+		Entry first = group.get(0);
+		if (group.size() == 1) {
+			IRestResponse out = first.method.execute(first.request, connection);
+			this.results.put(result(out, first.request));
+		} else if (first.method == Upsert.INSTANCE) {
+			this.upsert(group, req, resp, connection);
+		} else {
+			this.delete(group, connection);
+		}
+
+		// The batch loader must not serve the objects the group might have written to the next operations
+		if (! first.request.isRead()) {
+			Loader.current().ifPresent(Loader::clear);
+		}
+	}
+
+	/**
+	 * Execute a group of UPSERT operations as a single UPSERT of all their bodies.
+	 * <br>
+	 * The saved elements are then split back into the operations results.
+	 * @param group      the UPSERT operations
+	 * @param req        the batch request
+	 * @param resp       the batch response
+	 * @param connection the connection to use
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> void upsert(List<Entry> group, HttpServletRequest req, HttpServletResponse resp, IConnection connection) {
+		JSONArray merged = new JSONArray();
+		List<Integer> counts = new ArrayList<>(group.size());
+		for (Entry entry : group) {
+			Object body = entry.operation.opt(BODY);
+			if (body instanceof JSONArray) {
+				((JSONArray) body).forEach(merged::put);
+				counts.add(((JSONArray) body).length());
+			} else if (body instanceof JSONObject) {
+				merged.put(body);
+				counts.add(1);
+			} else {
+				counts.add(0);
+			}
+		}
+
+		JSONObject operation = new JSONObject(group.get(0).operation.toString()).put(BODY, merged);
+		RestRequest<T> request = new RestRequest<>(new OperationRequest(req, operation), resp, this.routes);
+		Object saved = Upsert.INSTANCE.execute(request, connection).output();
+
+		// The saved elements (or only their IDs, see RestRequest#idsOnly) are in the request order
+		List<Object> elements = request.idsOnly()
+			? ((JSONArray) saved).toList()
+			: new ArrayList<>((Collection<Object>) saved);
+
+		int from = 0;
+		for (Integer count : counts) {
+			List<Object> slice = elements.subList(from, from + count);
+			IRestResponse out = request.idsOnly()
+				? RestResponse.wrap(request.getRestResource(), new JSONArray(slice)).header(HttpMethod.PARAM_COUNT, String.valueOf(count))
+				: RestResponse.wrap(request.getRestResource(), slice);
+			this.results.put(result(out, request));
+			from += count;
+		}
+	}
+
+	/**
+	 * Execute a group of DELETE by ID operations as a single DELETE of all their IDs.
+	 * @param group      the DELETE operations
+	 * @param connection the connection to use
+	 */
+	private void delete(List<Entry> group, IConnection connection) {
+		RestRequest<?> request = group.get(0).request;
+		List<Long> ids = group.stream().map(entry -> entry.request.getId()).collect(Collectors.toList());
+		Delete.execute(request, ids, connection);
+		group.forEach(entry -> this.results.put(result(RestResponse.empty(entry.request.getRestResource()), request)));
+	}
+
+	/**
+	 * Build the result of an executed operation.
+	 * @param out     the operation output
+	 * @param request the operation REST request
+	 * @return the operation result : status, output headers and serialized output
+	 */
+	private static JSONObject result(IRestResponse out, RestRequest<?> request) {
+		JSONObject result = new JSONObject().put(STATUS, out.statusCode());
+		if (! out.headers().isEmpty()) {
+			JSONObject headers = new JSONObject();
+			out.headers().forEach(header -> headers.put(header.getKey(), header.getValue()));
+			result.put(HEADERS, headers);
+		}
+
+		String serialized = out.serialize(request);
+		if (StringUtils.isNotBlank(serialized)) {
+			try {
+				result.put(BODY, new JSONTokener(serialized).nextValue());
+			} catch (JSONException e) {
+				result.put(BODY, serialized);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Build the result of a failed or not executed operation.
+	 * @param status the operation status
+	 * @param error  the JSON error
+	 * @return the operation result : status and error
+	 */
+	private static JSONObject result(int status, JSONObject error) {
+		return new JSONObject().put(STATUS, status).put(BODY, error);
+	}
+
+	/**
+	 * The HTTP status for an operation error. See {@link YopRestServlet#service(HttpServletRequest, HttpServletResponse)}.
+	 * @param e the operation error
+	 * @return the matching HTTP status
+	 */
+	private static int status(RuntimeException e) {
+		if (e instanceof YopBadContentException) {
+			return HttpServletResponse.SC_BAD_REQUEST;
+		}
+		if (e instanceof YopNoAuthException) {
+			return HttpServletResponse.SC_UNAUTHORIZED;
+		}
+		if (e instanceof YopForbiddenException) {
+			return HttpServletResponse.SC_FORBIDDEN;
+		}
+		if (e instanceof YopNoResultException || e instanceof YopNoResourceException) {
+			return HttpServletResponse.SC_NOT_FOUND;
+		}
+		return HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+	}
+
+	/**
+	 * A batch operation, with its HTTP method implementation and REST request.
+	 * <br>
+	 * If the REST request could not be built (e.g. no resource for the operation path), the error is kept :
+	 * it is thrown when the operation is executed.
+	 */
+	private static class Entry {
+		private final JSONObject operation;
+		private final HttpMethod method;
+		private RestRequest<?> request;
+		private RuntimeException error;
+
+		private Entry(JSONObject operation, HttpServletRequest req, HttpServletResponse resp, Routes routes) {
+			this.operation = operation;
+			this.method = HttpMethod.instance(operation.getString(METHOD));
+			try {
+				this.request = new RestRequest<>(new OperationRequest(req, operation), resp, routes);
+			} catch (RuntimeException e) {
+				this.error = e;
+			}
+		}
+
+		/**
+		 * Can this operation and the next one be executed as a single query ?
+		 * <br>
+		 * Same method (UPSERT or DELETE by ID), same resource, same parameters and headers, no custom method.
+		 * @param next the next operation
+		 * @return true if both operations can be grouped
+		 */
+		private boolean isCompatible(Entry next) {
+			if (this.error != null || next.error != null || this.method != next.method) {
+				return false;
+			}
+			if (this.method != Upsert.INSTANCE && this.method != Delete.INSTANCE) {
+				return false;
+			}
+			if (this.request.getRestResource() != next.request.getRestResource()
+				|| this.request.isCustomResource()
+				|| next.request.isCustomResource()
+				|| ! Objects.equals(this.request.getRequest().getQueryString(), next.request.getRequest().getQueryString())
+				|| ! Objects.equals(headers(this.operation), headers(next.operation))) {
+				return false;
+			}
+			if (this.method == Upsert.INSTANCE) {
+				return ! this.request.isPartial();
+			}
+			return this.request.getId() != null && next.request.getId() != null;
+		}
+
+		private static Map<String, Object> headers(JSONObject operation) {
+			JSONObject headers = operation.optJSONObject(HEADERS);
+			return headers == null ? Collections.emptyMap() : headers.toMap();
+		}
+	}
+
+	/**
+	 * The HTTP request of a batch operation : its own method, path, parameters, headers and JSON body.
+	 * <br>
+	 * Everything else (session, cookies, context...) is read from the batch request.
+	 * The {@link HttpMethod#PARAM_STREAM} header is ignored : the operations results are always in the batch response.
+	 */
+	private static class OperationRequest extends HttpServletRequestWrapper {
+		private final String method;
+		private final String path;
+		private final String queryString;
+		private final Map<String, String[]> parameters = new LinkedHashMap<>();
+		private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private final byte[] body;
+
+		private OperationRequest(HttpServletRequest batch, JSONObject operation) {
+			super(batch);
+			this.method = StringUtils.upperCase(operation.getString(METHOD));
+
+			String target = StringUtils.removeStart(operation.getString(TARGET), "/");
+			this.path = "/" + StringUtils.substringBefore(target, "?");
+			this.queryString = StringUtils.trimToNull(StringUtils.substringAfter(target, "?"));
+
+			Map<String, List<String>> parameters = new LinkedHashMap<>();
+			for (NameValuePair parameter : URLEncodedUtils.parse(this.queryString, StandardCharsets.UTF_8)) {
+				String value = StringUtils.defaultString(parameter.getValue());
+				parameters.computeIfAbsent(parameter.getName(), key -> new ArrayList<>()).add(value);
+			}
+			parameters.forEach((key, values) -> this.parameters.put(key, values.toArray(new String[0])));
+
+			JSONObject headers = operation.optJSONObject(HEADERS);
+			if (headers != null) {
+				headers.keySet().forEach(key -> this.headers.put(key, String.valueOf(headers.get(key))));
+			}
+			this.headers.remove(HttpMethod.PARAM_STREAM);
+			this.headers.put("Content-Type", ContentType.APPLICATION_JSON.getMimeType());
+			this.headers.put("Accept", ContentType.APPLICATION_JSON.getMimeType());
+
+			Object body = operation.opt(BODY);
+			this.body = body == null ? new byte[0] : body.toString().getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String getMethod() {
+			return this.method;
+		}
+
+		@Override
+		public String getRequestURI() {
+			return this.getContextPath() + this.getServletPath() + this.path;
+		}
+
+		@Override
+		public String getPathInfo() {
+			return this.path;
+		}
+
+		@Override
+		public String getQueryString() {
+			return this.queryString;
+		}
+
+		@Override
+		public String getParameter(String name) {
+			String[] values = this.parameters.get(name);
+			return values == null ? null : values[0];
+		}
+
+		@Override
+		public Map<String, String[]> getParameterMap() {
+			return Collections.unmodifiableMap(this.parameters);
+		}
+
+		@Override
+		public Enumeration<String> getParameterNames() {
+			return Collections.enumeration(this.parameters.keySet());
+		}
+
+		@Override
+		public String[] getParameterValues(String name) {
+			return this.parameters.get(name);
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return this.headers.get(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			String value = this.headers.get(name);
+			return Collections.enumeration(value == null ? Collections.emptyList() : Collections.singletonList(value));
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			return Collections.enumeration(this.headers.keySet());
+		}
+
+		@Override
+		public long getDateHeader(String name) {
+			String value = this.headers.get(name);
+			if (value == null) {
+				return -1;
+			}
+			try {
+				return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException("Invalid date header [" + name + "] : [" + value + "]", e);
+			}
+		}
+
+		@Override
+		public String getContentType() {
+			return ContentType.APPLICATION_JSON.getMimeType();
+		}
+
+		@Override
+		public String getCharacterEncoding() {
+			return StandardCharsets.UTF_8.name();
+		}
+
+		@Override
+		public int getContentLength() {
+			return this.body.length;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return this.body.length;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(this.body);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener readListener) {
+					throw new UnsupportedOperationException("Batch operation body is already in memory");
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			return new BufferedReader(new InputStreamReader(this.getInputStream(), StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,328 @@
+package org.yop.rest.servlet;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.yop.orm.exception.YopRuntimeException;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP response compression : gzip or deflate, negotiated from the 'Accept-Encoding' request header.
+ * <br>
+ * The response output is compressed as it is written : nothing is buffered to be compressed afterwards.
+ * <ul>
+ *     <li>
+ *         a response whose Content-Length is set and is under the {@link #threshold} is not compressed.
+ *         A response with no Content-Length (e.g. {@link StreamedResponse}, errors) is always compressed.
+ *     </li>
+ *     <li>a compressed response has no Content-Length : the compressed size is only known once it is written</li>
+ *     <li>a HEAD response is never compressed : its Content-Length is the one of the uncompressed GET</li>
+ * </ul>
+ * Servlet init params :
+ * <ul>
+ *     <li>{@link #THRESHOLD_INIT_PARAM} : the min content length to compress. Default is {@link #DEFAULT_THRESHOLD}.
+ *     A negative value disables compression.</li>
+ *     <li>{@link #LEVEL_INIT_PARAM} : the compression level, from 0 to 9. Default is {@link #DEFAULT_LEVEL}.</li>
+ * </ul>
+ */
+class Compression {
+
+	static final String THRESHOLD_INIT_PARAM = "compression_threshold";
+	static final String LEVEL_INIT_PARAM     = "compression_level";
+
+	static final String ACCEPT_ENCODING  = "Accept-Encoding";
+	static final String CONTENT_ENCODING = "Content-Encoding";
+	static final String VARY             = "Vary";
+
+	/** Default min content length to compress, in bytes. Smaller contents are not worth the compression cost. */
+	static final int DEFAULT_THRESHOLD = 1024;
+
+	/** Default compression level. This is a fair speed/ratio trade-off. */
+	static final int DEFAULT_LEVEL = 6;
+
+	/** The compressing stream buffer size */
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	/** The min content length to compress. Negative : compression is disabled. */
+	private final int threshold;
+
+	/** The compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION} */
+	private final int level;
+
+	/**
+	 * Private constructor. Please use {@link #configure(ServletConfig)}.
+	 * @param threshold the min content length to compress
+	 * @param level     the compression level
+	 */
+	private Compression(int threshold, int level) {
+		this.threshold = threshold;
+		this.level = level;
+	}
+
+	/**
+	 * Read the compression settings from the servlet init params.
+	 * @param config the servlet config
+	 * @return the compression settings
+	 * @throws YopRuntimeException the compression level is not in [0, 9]
+	 */
+	static Compression configure(ServletConfig config) {
+		int threshold = NumberUtils.toInt(config.getInitParameter(THRESHOLD_INIT_PARAM), DEFAULT_THRESHOLD);
+		int level = NumberUtils.toInt(config.getInitParameter(LEVEL_INIT_PARAM), DEFAULT_LEVEL);
+		if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+			throw new YopRuntimeException("Invalid compression level [" + level + "]. It must be in [0, 9].");
+		}
+		return new Compression(threshold, level);
+	}
+
+	/**
+	 * Wrap the servlet response into a compressing response, if compression is enabled and accepted by the client.
+	 * <br>
+	 * Call {@link #finish(HttpServletResponse)} on the returned response once the output is written !
+	 * @param req  the servlet request
+	 * @param resp the servlet response
+	 * @return a compressing response, or the servlet response itself if there is no compression
+	 */
+	HttpServletResponse wrap(HttpServletRequest req, HttpServletResponse resp) {
+		if (this.threshold < 0) {
+			return resp;
+		}
+
+		resp.addHeader(VARY, ACCEPT_ENCODING);
+		Encoding encoding = Encoding.negotiate(req.getHeader(ACCEPT_ENCODING));
+		if (encoding == null || "HEAD".equals(req.getMethod())) {
+			return resp;
+		}
+		return new CompressedResponse(resp, encoding, this.threshold, this.level);
+	}
+
+	/**
+	 * Write the end of the compressed output, if the response is a compressing one.
+	 * @param resp the response returned by {@link #wrap(HttpServletRequest, HttpServletResponse)}
+	 * @throws IOException an error occurred writing the end of the compressed output
+	 */
+	static void finish(HttpServletResponse resp) throws IOException {
+		if (resp instanceof CompressedResponse) {
+			((CompressedResponse) resp).finish();
+		}
+	}
+
+	/**
+	 * The supported content encodings, in preference order.
+	 */
+	enum Encoding {
+		GZIP("gzip") {
+			@Override
+			DeflaterOutputStream open(OutputStream out, int level) throws IOException {
+				return new GZIPOutputStream(out, BUFFER_SIZE, true) {{
+					this.def.setLevel(level);
+				}};
+			}
+		},
+		DEFLATE("deflate") {
+			@Override
+			DeflaterOutputStream open(OutputStream out, int level) {
+				return new DeflaterOutputStream(out, true) {{
+					this.def.setLevel(level);
+				}};
+			}
+		};
+
+		private final String token;
+
+		Encoding(String token) {
+			this.token = token;
+		}
+
+		/**
+		 * Open a compressing stream on an output stream.
+		 * <br>
+		 * The stream is sync-flushed : what is written so far is sent when it is flushed (e.g. streamed chunks).
+		 * @param out   the output stream
+		 * @param level the compression level
+		 * @return a compressing stream
+		 * @throws IOException an error occurred writing the compression header
+		 */
+		abstract DeflaterOutputStream open(OutputStream out, int level) throws IOException;
+
+		/**
+		 * Find the preferred encoding that is accepted by the client.
+		 * <br>
+		 * The quality values are read. For equal qualities, gzip is preferred. '*' accepts gzip.
+		 * @param acceptEncoding the 'Accept-Encoding' request header value. Can be null.
+		 * @return the preferred accepted encoding, null if none.
+		 */
+		static Encoding negotiate(String acceptEncoding) {
+			Encoding preferred = null;
+			double preferredQuality = 0;
+			for (String candidate : StringUtils.split(StringUtils.defaultString(acceptEncoding), ",")) {
+				String[] parts = StringUtils.split(candidate, ";");
+				if (parts.length == 0) {
+					continue;
+				}
+				String token = parts[0].trim();
+				double quality = 1;
+				for (int i = 1; i < parts.length; i++) {
+					String parameter = parts[i].trim();
+					if (parameter.startsWith("q=")) {
+						quality = NumberUtils.toDouble(parameter.substring(2), 0);
+					}
+				}
+
+				for (Encoding encoding : values()) {
+					boolean accepted = encoding.token.equalsIgnoreCase(token) || "*".equals(token);
+					boolean better = quality > preferredQuality
+						|| (quality == preferredQuality && preferred != null && encoding.ordinal() < preferred.ordinal());
+					if (accepted && better) {
+						preferred = encoding;
+						preferredQuality = quality;
+					}
+				}
+			}
+			return preferred;
+		}
+	}
+
+	/**
+	 * A response whose output is compressed as it is written.
+	 * <br>
+	 * Compressing or not is decided when the output is first requested : the Content-Length must be set before.
+	 */
+	private static class CompressedResponse extends HttpServletResponseWrapper {
+		private final Encoding encoding;
+		private final int threshold;
+		private final int level;
+
+		private long contentLength = -1;
+		private ServletOutputStream output;
+		private PrintWriter writer;
+		private DeflaterOutputStream compressed;
+
+		private CompressedResponse(HttpServletResponse response, Encoding encoding, int threshold, int level) {
+			super(response);
+			this.encoding = encoding;
+			this.threshold = threshold;
+			this.level = level;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			this.setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			this.contentLength = len;
+			if (this.output != null && this.compressed == null) {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (this.writer != null) {
+				throw new IllegalStateException("getWriter() has already been called on this response");
+			}
+			return this.output();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				if (this.output != null) {
+					throw new IllegalStateException("getOutputStream() has already been called on this response");
+				}
+				this.writer = new PrintWriter(new OutputStreamWriter(this.output(), this.getCharacterEncoding()));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (this.compressed != null) {
+				this.compressed.flush();
+			}
+			super.flushBuffer();
+		}
+
+		/**
+		 * Get the response output : compressing if the content length is unknown or above the threshold.
+		 * @return the response output
+		 * @throws IOException an error occurred getting the response output or writing the compression header
+		 */
+		private ServletOutputStream output() throws IOException {
+			if (this.output != null) {
+				return this.output;
+			}
+
+			ServletOutputStream out = super.getOutputStream();
+			if (this.contentLength >= 0 && this.contentLength < this.threshold) {
+				super.setContentLengthLong(this.contentLength);
+				this.output = out;
+				return this.output;
+			}
+
+			this.setHeader(CONTENT_ENCODING, this.encoding.token);
+			this.compressed = this.encoding.open(out, this.level);
+			this.output = new ServletOutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					CompressedResponse.this.compressed.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					CompressedResponse.this.compressed.write(b, off, len);
+				}
+
+				@Override
+				public void flush() throws IOException {
+					CompressedResponse.this.compressed.flush();
+				}
+
+				@Override
+				public void close() throws IOException {
+					CompressedResponse.this.compressed.close();
+				}
+
+				@Override
+				public boolean isReady() {
+					return out.isReady();
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					out.setWriteListener(writeListener);
+				}
+			};
+			return this.output;
+		}
+
+		/**
+		 * Flush the writer (if any) and write the end of the compressed output (if compressing).
+		 * @throws IOException an error occurred writing the end of the compressed output
+		 */
+		private void finish() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (this.compressed != null) {
+				this.compressed.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package org.yop.rest.servlet;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang.StringUtils;
+import org.yop.rest.annotations.Rest;
+import org.yop.rest.serialize.Serializers;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * HTTP conditional GET : entity tags, 'If-None-Match' and 'If-Modified-Since'.
+ * <br>
+ * A GET (or HEAD) on a REST resource is tagged :
+ * <ul>
+ *     <li>
+ *         if the resource declares a version field ({@link Rest#version()}) :
+ *         the ETag is a hash of the version stamp of the resource
+ *         (see {@link org.yop.orm.query.sql.Select#versionStamp}) and of the request representation.
+ *         It is checked before the query is executed : an unchanged resource is neither read nor serialized.
+ *         A date version field also sets the 'Last-Modified' header.
+ *     </li>
+ *     <li>
+ *         else : the ETag is a hash of the serialized output.
+ *         The query is executed and the output serialized, but an unchanged output is not sent.
+ *     </li>
+ * </ul>
+ * If the client already has the current representation, the response is a '304 Not Modified', with no body.
+ */
+final class Conditional {
+
+	static final String ETAG              = "ETag";
+	static final String LAST_MODIFIED     = "Last-Modified";
+	static final String IF_NONE_MATCH     = "If-None-Match";
+	static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+	private Conditional() {}
+
+	/**
+	 * Build a strong entity tag from some parts.
+	 * @param parts the parts that identify the representation
+	 * @return a quoted hash of the parts
+	 */
+	static String etag(Object... parts) {
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		for (Object part : parts) {
+			hasher.putString(Objects.toString(part), StandardCharsets.UTF_8).putByte((byte) 0);
+		}
+		return "\"" + hasher.hash().toString() + "\"";
+	}
+
+	/**
+	 * Build the entity tag of a versioned resource request.
+	 * <br>
+	 * The version stamp is not enough : paging, joins, profiles or the output content type change the representation.
+	 * @param restRequest  the incoming request
+	 * @param versionStamp the version stamp of the request target
+	 * @return the quoted entity tag
+	 */
+	static String etag(RestRequest<?> restRequest, Object[] versionStamp) {
+		return etag(
+			versionStamp[0],
+			versionStamp[1],
+			restRequest.getRequestPath(),
+			restRequest.getRequest().getQueryString(),
+			restRequest.accept(Serializers.SUPPORTED),
+			restRequest.offset(),
+			restRequest.limit()
+		);
+	}
+
+	/**
+	 * Read a version value as a last modification date, if applicable.
+	 * @param version the version value
+	 * @return the date, in milliseconds since epoch. Null if the version is not a date.
+	 */
+	static Long lastModified(Object version) {
+		if (version instanceof Date) {
+			return ((Date) version).getTime();
+		}
+		if (version instanceof Calendar) {
+			return ((Calendar) version).getTimeInMillis();
+		}
+		if (version instanceof Instant) {
+			return ((Instant) version).toEpochMilli();
+		}
+		if (version instanceof LocalDateTime) {
+			return ((LocalDateTime) version).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		}
+		if (version instanceof LocalDate) {
+			return ((LocalDate) version).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		}
+		if (version instanceof ZonedDateTime) {
+			return ((ZonedDateTime) version).toInstant().toEpochMilli();
+		}
+		return null;
+	}
+
+	/**
+	 * Does the client already have the current representation ?
+	 * <br>
+	 * 'If-None-Match' takes precedence : 'If-Modified-Since' is only checked if there is no 'If-None-Match' header.
+	 * @param restRequest  the incoming request
+	 * @param etag         the current entity tag
+	 * @param lastModified the current last modification date, in milliseconds. Can be null.
+	 * @return true if the client representation is still the current one : answer '304 Not Modified'.
+	 */
+	static boolean isNotModified(RestRequest<?> restRequest, String etag, Long lastModified) {
+		if (! isConditional(restRequest)) {
+			return false;
+		}
+
+		HttpServletRequest request = restRequest.getRequest();
+		String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			for (String candidate : StringUtils.split(ifNoneMatch, ",")) {
+				String tag = StringUtils.removeStart(candidate.trim(), "W/");
+				if ("*".equals(tag) || tag.equals(etag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		if (lastModified != null) {
+			try {
+				long ifModifiedSince = request.getDateHeader(IF_MODIFIED_SINCE);
+				return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Can the request be answered with a '304 Not Modified' ? Only GET and HEAD requests can.
+	 * @param restRequest the incoming request
+	 * @return true for a GET or a HEAD request
+	 */
+	static boolean isConditional(RestRequest<?> restRequest) {
+		return "GET".equals(restRequest.getMethod()) || "HEAD".equals(restRequest.getMethod());
+	}
+
+	/**
+	 * Set the ETag and (if applicable) the Last-Modified headers on a REST response.
+	 * @param response     the REST response
+	 * @param etag         the entity tag
+	 * @param lastModified the last modification date, in milliseconds. Can be null.
+	 * @return the REST response, for chaining purposes
+	 */
+	static IRestResponse tag(IRestResponse response, String etag, Long lastModified) {
+		response.header(ETAG, etag);
+		if (lastModified != null) {
+			response.header(LAST_MODIFIED, httpDate(lastModified));
+		}
+		return response;
+	}
+
+	/**
+	 * Is the REST response tagged already ?
+	 * @param response the REST response
+	 * @return true if there is an {@link #ETAG} header in the response
+	 */
+	static boolean isTagged(IRestResponse response) {
+		return response.headers().stream().anyMatch(header -> ETAG.equals(header.getKey()));
+	}
+
+	/**
+	 * Format a date as an HTTP date (RFC 1123).
+	 * @param millis the date, in milliseconds since epoch
+	 * @return the HTTP date
+	 */
+	private static String httpDate(long millis) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+	}
+}
@@ -11,6 +11,7 @@ import org.yop.rest.serialize.Serializers;
 
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 
 import static javax.servlet.http.HttpServletResponse.*;
@@ -36,18 +37,31 @@ public class Delete implements HttpMethod {
 	 */
 	@Override
 	public <T> IRestResponse executeDefault(RestRequest<T> restRequest, IConnection connection) {
+		Long id = restRequest.getId();
+		execute(restRequest, id == null ? Collections.emptyList() : Collections.singletonList(id), connection);
+		return RestResponse.empty(restRequest.getRestResource());
+	}
+
+	/**
+	 * Execute a {@link org.yop.orm.query.sql.Delete} query on some IDs of the request resource.
+	 * <br>
+	 * Read the joinAll and other parameters from the request.
+	 * @param restRequest the incoming request
+	 * @param ids         the IDs of the elements to delete. If empty, delete all entries !
+	 * @param connection  the JDBC (or other) underlying connection
+	 */
+	static <T> void execute(RestRequest<T> restRequest, Collection<Long> ids, IConnection connection) {
 		org.yop.orm.query.sql.Delete<T> delete = org.yop.orm.query.sql.Delete.from(restRequest.getRestResource());
 		if (restRequest.joinAll()) {
 			delete.joinAll();
 		}
 
-		if (restRequest.getId() != null) {
-			delete.where(new IdIn(Collections.singletonList(restRequest.getId())));
+		if (! ids.isEmpty()) {
+			delete.where(new IdIn(ids));
 		}
 
 		delete.joinProfiles(restRequest.profiles().toArray(new String[0]));
 		delete.executeQueries(connection);
-		return RestResponse.empty(restRequest.getRestResource());
 	}
 
 	@Override
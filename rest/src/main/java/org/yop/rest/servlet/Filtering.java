@@ -0,0 +1,202 @@
+package org.yop.rest.servlet;
+
+import com.google.common.primitives.Primitives;
+import org.apache.commons.lang.StringUtils;
+import org.yop.orm.evaluation.Comparison;
+import org.yop.orm.evaluation.Evaluation;
+import org.yop.orm.evaluation.In;
+import org.yop.orm.evaluation.Operator;
+import org.yop.orm.query.sql.OrderBy;
+import org.yop.orm.query.sql.Select;
+import org.yop.orm.util.ORMUtil;
+import org.yop.orm.util.TransformUtil;
+import org.yop.reflection.Reflection;
+import org.yop.rest.exception.YopBadContentException;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Server side filtering and sorting of a default REST GET, from the query parameters.
+ * <br>
+ * Grammar :
+ * <ul>
+ *     <li>
+ *         filter : '{field}={operator}:{value}', where {field} is a @Column field of the resource.
+ *         e.g. 'version=gt:10' or 'stringColumn=like:%foo%'
+ *     </li>
+ *     <li>no operator is 'eq' : 'type=FOO' is 'type=eq:FOO'</li>
+ *     <li>operators : {@link #OPERATORS} and 'in', whose values are comma separated. e.g. 'version=in:1,2,3'</li>
+ *     <li>'null' is the SQL NULL : 'eq:null' → IS NULL, 'ne:null' → IS NOT NULL</li>
+ *     <li>several filters, or several values of a filter, must all match</li>
+ *     <li>sort : '{@link HttpMethod#PARAM_SORT}={field},-{field}'. A '-' prefix sorts descending.</li>
+ * </ul>
+ * The values are converted to the field type and set as query parameters : nothing is written into the SQL.
+ * <br>
+ * The query parameters that are not a @Column field of the resource (e.g. 'joinAll') are not filters.
+ * An invalid filter or sort (bad operator, value or sort field) is a {@link YopBadContentException} (HTTP 400).
+ */
+final class Filtering {
+
+	/** The SQL NULL value */
+	private static final String NULL = "null";
+
+	/** The 'IN' operator, whose values are comma separated */
+	private static final String IN = "in";
+
+	/** The descending sort prefix */
+	private static final String DESC = "-";
+
+	/** The comparison operators, by name */
+	static final Map<String, Operator> OPERATORS = new LinkedHashMap<String, Operator>() {{
+		this.put("eq",   Operator.EQ);
+		this.put("ne",   Operator.NE);
+		this.put("gt",   Operator.GT);
+		this.put("ge",   Operator.GE);
+		this.put("lt",   Operator.LT);
+		this.put("le",   Operator.LE);
+		this.put("like", Operator.LIKE);
+	}};
+
+	/** The query parameters that are never filters */
+	private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+		HttpMethod.PARAM_JOIN_ALL,
+		HttpMethod.PARAM_CHECK_NK,
+		HttpMethod.PARAM_JOIN_PROFILE,
+		HttpMethod.PARAM_FIELDS,
+		HttpMethod.PARAM_SORT
+	));
+
+	private Filtering() {}
+
+	/**
+	 * Add the filters of a request to a Select query.
+	 * @param restRequest the incoming request
+	 * @param select      the query to restrict
+	 * @param <T> the resource type
+	 * @throws YopBadContentException a filter is invalid
+	 */
+	static <T> void filter(RestRequest<T> restRequest, Select<T> select) {
+		for (Field field : filterable(restRequest.getRestResource())) {
+			for (String expression : restRequest.getParameterValues(field.getName())) {
+				select.where(evaluation(field, StringUtils.defaultString(expression)));
+			}
+		}
+	}
+
+	/**
+	 * Set the order of a Select query from the {@link HttpMethod#PARAM_SORT} parameters of a request, if any.
+	 * @param restRequest the incoming request
+	 * @param select      the query to sort
+	 * @param <T> the resource type
+	 * @throws YopBadContentException a sort field is not a @Column field of the resource
+	 */
+	static <T> void sort(RestRequest<T> restRequest, Select<T> select) {
+		OrderBy<T> orderBy = null;
+		for (String value : restRequest.getParameterValues(HttpMethod.PARAM_SORT)) {
+			for (String token : StringUtils.split(StringUtils.defaultString(value), ",")) {
+				String name = token.trim();
+				boolean asc = ! name.startsWith(DESC);
+				Field field = column(restRequest.getRestResource(), StringUtils.removeStart(name, DESC));
+				if (field == null) {
+					throw new YopBadContentException("Invalid sort field [" + name + "]", null);
+				}
+				orderBy = orderBy == null
+					? OrderBy.orderBy(getter(field), asc)
+					: orderBy.thenBy(getter(field), asc);
+			}
+		}
+		if (orderBy != null) {
+			select.orderBy(orderBy);
+		}
+	}
+
+	/**
+	 * Get the fields of a resource that can be filtered : its @Column fields, unless their name is reserved.
+	 * @param resource the REST resource
+	 * @return the filterable fields
+	 */
+	static List<Field> filterable(Class<?> resource) {
+		List<Field> fields = new ArrayList<>(ORMUtil.getColumnFields(resource));
+		fields.removeIf(field -> RESERVED.contains(field.getName()));
+		return fields;
+	}
+
+	/**
+	 * Compile a filter expression ('{operator}:{value}' or '{value}') on a field.
+	 * @param field      the filtered field
+	 * @param expression the filter expression
+	 * @return the evaluation to add to the where clause
+	 * @throws YopBadContentException the value cannot be converted to the field type or 'like' on a non String field
+	 */
+	private static Evaluation evaluation(Field field, String expression) {
+		String operator = StringUtils.substringBefore(expression, ":");
+		String value = StringUtils.substringAfter(expression, ":");
+		if (! OPERATORS.containsKey(operator) && ! IN.equals(operator)) {
+			operator = "eq";
+			value = expression;
+		}
+
+		if (IN.equals(operator)) {
+			List<Object> values = new ArrayList<>();
+			for (String item : StringUtils.split(value, ",")) {
+				values.add(value(field, item.trim()));
+			}
+			return new In(getter(field), values);
+		}
+
+		Operator op = OPERATORS.get(operator);
+		if (NULL.equals(value) && (op == Operator.EQ || op == Operator.NE)) {
+			return new Comparison(getter(field), op == Operator.EQ ? Operator.IS_NULL : Operator.IS_NOT_NULL, null);
+		}
+		if (op == Operator.LIKE && ! String.class.equals(field.getType())) {
+			throw new YopBadContentException("Invalid filter on [" + field.getName() + "] : 'like' on a non String field", null);
+		}
+		return new Comparison(getter(field), op, value(field, value));
+	}
+
+	/**
+	 * Convert a filter value to the field type.
+	 * @param field the filtered field
+	 * @param value the filter value
+	 * @return the converted value
+	 * @throws YopBadContentException the value cannot be converted to the field type
+	 */
+	private static Comparable value(Field field, String value) {
+		Class<?> type = Primitives.wrap(field.getType());
+		try {
+			Object converted = TransformUtil.transform(value, type);
+			if (type.isInstance(converted) && converted instanceof Comparable) {
+				return (Comparable) converted;
+			}
+		} catch (RuntimeException e) {
+			throw new YopBadContentException("Invalid filter value [" + value + "] for [" + field.getName() + "]", e);
+		}
+		throw new YopBadContentException("Invalid filter value [" + value + "] for [" + field.getName() + "]", null);
+	}
+
+	/**
+	 * Find a @Column field of a resource by name.
+	 * @param resource the REST resource
+	 * @param name     the field name
+	 * @return the @Column field, null if no such field
+	 */
+	private static Field column(Class<?> resource, String name) {
+		return ORMUtil.getColumnFields(resource)
+			.stream()
+			.filter(field -> field.getName().equals(name))
+			.findFirst()
+			.orElse(null);
+	}
+
+	/**
+	 * A getter for a field, that can be used in the ORM evaluations and order clauses.
+	 * @param field the field
+	 * @param <T> the resource type
+	 * @return a function that reads the field
+	 */
+	private static <T> Function<T, Object> getter(Field field) {
+		return element -> Reflection.readField(field, element);
+	}
+}
@@ -2,14 +2,13 @@ package org.yop.rest.servlet;
 
 import io.swagger.oas.models.Operation;
 import io.swagger.oas.models.responses.ApiResponses;
-import org.yop.orm.evaluation.IdIn;
 import org.yop.orm.query.sql.Select;
+import org.yop.orm.query.sql.Where;
 import org.yop.orm.sql.adapter.IConnection;
 import org.yop.rest.exception.YopNoResultException;
 import org.yop.rest.openapi.OpenAPIUtil;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Set;
 
 import static javax.servlet.http.HttpServletResponse.*;
@@ -18,24 +17,36 @@ import static javax.servlet.http.HttpServletResponse.*;
  * HTTP GET method implementation.
  * <br>
  * It simply executes a {@link org.yop.orm.query.sql.Select} operation.
+ * <br>
+ * If the {@link #PARAM_STREAM} header is set, the results are streamed (see {@link StreamedResponse}).
+ * <br>
+ * If the {@link #PARAM_FIELDS} parameter is set, only these columns are read (see {@link Select#columns}).
+ * <br>
+ * If the resource declares a version field, the request is checked against it before execution (see {@link Conditional}).
+ * Not if the request has joins : a change on a joined object would not be detected.
  */
 class Get implements HttpMethod {
 
 	static final HttpMethod INSTANCE = new Get();
 
+	/** The max number of root objects to read at once, when streaming */
+	static final long STREAM_CHUNK_SIZE = 500;
+
 	Get(){}
 
 	/**
 	 * Execute the "get" operation using a {@link org.yop.orm.query.sql.Select} query.
 	 * <br>
 	 * Read the joinAll and other parameters.
+	 * <br>
+	 * The results can be filtered and sorted from the query parameters. See {@link Filtering}.
 	 * @param restRequest the incoming request
 	 * @param connection the JDBC (or other) underlying connection
-	 * @return a wrapped yopable object (or collection of).
+	 * @return a wrapped yopable object (or collection of), or a {@link StreamedResponse} for a streamed request.
 	 * @throws YopNoResultException if asked for a single element by ID and no result.
 	 */
 	@Override
-	public <T> RestResponse executeDefault(RestRequest<T> restRequest, IConnection connection) {
+	public <T> IRestResponse executeDefault(RestRequest<T> restRequest, IConnection connection) {
 		Select<T> select = Select.from(restRequest.getRestResource());
 		if (restRequest.joinAll()) {
 			select.joinAll();
@@ -46,28 +57,87 @@ class Get implements HttpMethod {
 		}
 
 		select.joinProfiles(restRequest.profiles().toArray(new String[0]));
+		select.columns(restRequest.fields());
+		Filtering.filter(restRequest, select);
+		Filtering.sort(restRequest, select);
+
+		String etag = null;
+		Long lastModified = null;
+		if (this.isVersionChecked(restRequest)) {
+			Object[] versionStamp = this.versionStamp(restRequest, connection);
+			etag = Conditional.etag(restRequest, versionStamp);
+			lastModified = Conditional.lastModified(versionStamp[1]);
+			boolean exists = restRequest.getId() == null || (Long) versionStamp[0] > 0;
+			if (exists && Conditional.isNotModified(restRequest, etag, lastModified)) {
+				IRestResponse notModified = RestResponse.empty(restRequest.getRestResource()).statusCode(SC_NOT_MODIFIED);
+				return Conditional.tag(notModified, etag, lastModified);
+			}
+		}
 
+		IRestResponse output;
 		if (restRequest.getId() != null) {
-			select.where(new IdIn(Collections.singletonList(restRequest.getId())));
-			T uniqueResult = select.uniqueResult(connection);
+			T uniqueResult = select.byId(restRequest.getId(), connection);
 			if (uniqueResult == null) {
 				throw new YopNoResultException(
 					"No element [" + restRequest.getRestResource().getName() + "] for ID [" + restRequest.getId() + "]"
 				);
 			}
-			RestResponse output = RestResponse.build(restRequest.getRestResource(), uniqueResult);
+			output = RestResponse.build(restRequest.getRestResource(), uniqueResult);
 			if (restRequest.count()) {
 				output.header(PARAM_COUNT, "1");
 			}
-			return output;
+		} else if (this.isStreamed(restRequest)) {
+			output = new StreamedResponse<>(select, STREAM_CHUNK_SIZE);
+			if (restRequest.count()) {
+				output.header(PARAM_COUNT, String.valueOf(select.count(connection)));
+			}
 		} else {
 			Set<T> results = select.execute(connection);
-			RestResponse output = RestResponse.build(restRequest.getRestResource(), results);
+			output = RestResponse.build(restRequest.getRestResource(), results);
 			if (restRequest.count()) {
 				output.header(PARAM_COUNT, String.valueOf(select.count(connection)));
 			}
-			return output;
 		}
+		return etag == null ? output : Conditional.tag(output, etag, lastModified);
+	}
+
+	/**
+	 * Read the version stamp of the request target, using its version field :
+	 * no join, only the ID restriction and the filters if any.
+	 * <br>
+	 * See {@link Select#versionStamp(IConnection, java.lang.reflect.Field)}.
+	 * @param restRequest the incoming request, whose resource declares a version field
+	 * @param connection  the JDBC (or other) underlying connection
+	 * @return the version stamp : [COUNT, MAX(version)]
+	 */
+	private <T> Object[] versionStamp(RestRequest<T> restRequest, IConnection connection) {
+		Select<T> version = Select.from(restRequest.getRestResource());
+		if (restRequest.getId() != null) {
+			version.where(Where.id(restRequest.getId()));
+		}
+		Filtering.filter(restRequest, version);
+		return version.versionStamp(connection, restRequest.getVersionField());
+	}
+
+	/**
+	 * Can the request be checked against the version stamp of the resource, before it is executed ?
+	 * <br>
+	 * The version stamp only reads the root resource version field : a change on a joined object is not detected.
+	 * If the request has joins (joinAll or join profiles), the ETag is the hash of the output.
+	 * @param restRequest the incoming request
+	 * @return true if the resource declares a version field and the request has no join
+	 */
+	private boolean isVersionChecked(RestRequest<?> restRequest) {
+		return restRequest.getVersionField() != null && ! restRequest.joinAll() && restRequest.profiles().isEmpty();
+	}
+
+	/**
+	 * Should the results of the request be streamed ?
+	 * @param restRequest the incoming request
+	 * @return true if the {@link #PARAM_STREAM} header is set and there is no paging
+	 */
+	boolean isStreamed(RestRequest<?> restRequest) {
+		return restRequest.isStreamed() && ! restRequest.isPaging();
 	}
 
 	@Override
@@ -82,6 +152,10 @@ class Get implements HttpMethod {
 		get.getParameters().add(HttpMethod.countParameter(resource));
 		get.getParameters().add(HttpMethod.pagingOffsetParameter(resource));
 		get.getParameters().add(HttpMethod.pagingLimitParameter(resource));
+		get.getParameters().add(HttpMethod.streamParameter(resource));
+		get.getParameters().add(HttpMethod.fieldsParameter(resource));
+		get.getParameters().add(HttpMethod.sortParameter(resource));
+		get.getParameters().addAll(HttpMethod.filterParameters(yopable));
 
 		get.getResponses().addApiResponse(String.valueOf(SC_OK),                    HttpMethod.http200(yopable));
 		get.getResponses().addApiResponse(String.valueOf(SC_BAD_REQUEST),           HttpMethod.http400());
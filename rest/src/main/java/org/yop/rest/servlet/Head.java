@@ -49,6 +49,16 @@ public class Head extends Get {
 		resp.setContentLength(content.getBytes(StandardCharsets.UTF_8).length);
 	}
 
+	/**
+	 * A HEAD request is never streamed : the content length of the equivalent GET must be computed.
+	 * @param restRequest the incoming request
+	 * @return false
+	 */
+	@Override
+	boolean isStreamed(RestRequest<?> restRequest) {
+		return false;
+	}
+
 	@Override
 	public Operation openAPIDefaultModel(Class yopable) {
 		String resource = OpenAPIUtil.getResourceName(yopable);
@@ -5,15 +5,12 @@ import io.swagger.oas.models.media.Schema;
 import io.swagger.oas.models.parameters.RequestBody;
 import io.swagger.oas.models.responses.ApiResponse;
 import org.apache.commons.lang.StringUtils;
-import org.apache.http.Header;
-import org.apache.http.NameValuePair;
 import org.apache.http.entity.ContentType;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.ioc.Singleton;
 import org.yop.orm.sql.adapter.IConnection;
-import org.yop.orm.util.TransformUtil;
 import org.yop.reflection.Reflection;
 import org.yop.rest.annotations.JoinProfiles;
 import org.yop.rest.exception.YopNoResourceException;
@@ -28,11 +25,12 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * A convenience interface for creating HTTP method implementations.
@@ -76,6 +74,18 @@ public interface HttpMethod {
 	/** JSON 'partial' parameter (only update provided fields) */
 	String PARAM_PARTIAL = "partial";
 
+	/** HTTP 'stream' parameter : stream the results, as they are read from the database. */
+	String PARAM_STREAM = "stream";
+
+	/** HTTP 'fields' parameter : only read and return these fields of the resource (comma separated). */
+	String PARAM_FIELDS = "fields";
+
+	/** HTTP 'sort' parameter : sort the results on these fields (comma separated, '-' prefix for descending). */
+	String PARAM_SORT = "sort";
+
+	/** HTTP 'idsOnly' parameter : only return the IDs of the saved resources (UPSERT). */
+	String PARAM_IDS_ONLY = "idsOnly";
+
 	/** JSON error message key */
 	String ERROR = "error";
 
@@ -219,6 +229,87 @@ public interface HttpMethod {
 			.description("Only update the provided fields of [" + forResource + "]. Only suitable for update operation.");
 	}
 
+	/**
+	 * Create a {@link #PARAM_IDS_ONLY}' OpenAPI parameter for a given resource.
+	 * @param forResource the resource name (for {@link io.swagger.oas.models.parameters.Parameter#description}.
+	 * @return the OpenAPI 'idsOnly' parameter
+	 */
+	static io.swagger.oas.models.parameters.Parameter idsOnlyParameter(String forResource) {
+		return new io.swagger.oas.models.parameters.Parameter()
+			.name(PARAM_IDS_ONLY)
+			.in("query")
+			.required(false)
+			.schema(new Schema().type("boolean"))
+			.description("Only return the IDs of the saved [" + forResource + "] elements.");
+	}
+
+	/**
+	 * Create a {@link #PARAM_STREAM}' OpenAPI parameter for a given resource.
+	 * @param forResource the resource name (for {@link io.swagger.oas.models.parameters.Parameter#description}.
+	 * @return the OpenAPI 'stream' parameter
+	 */
+	static io.swagger.oas.models.parameters.Parameter streamParameter(String forResource) {
+		return new io.swagger.oas.models.parameters.Parameter()
+			.name(PARAM_STREAM)
+			.in("header")
+			.required(false)
+			.schema(new Schema().type("boolean"))
+			.description("Stream the [" + forResource + "] results as they are read. No paging, no content-length.");
+	}
+
+	/**
+	 * Create a {@link #PARAM_FIELDS}' OpenAPI parameter for a given resource.
+	 * @param forResource the resource name (for {@link io.swagger.oas.models.parameters.Parameter#description}.
+	 * @return the OpenAPI 'fields' parameter
+	 */
+	static io.swagger.oas.models.parameters.Parameter fieldsParameter(String forResource) {
+		return new io.swagger.oas.models.parameters.Parameter()
+			.name(PARAM_FIELDS)
+			.in("query")
+			.required(false)
+			.schema(new Schema().type("string"))
+			.description("Only read and return these [" + forResource + "] fields, comma separated. ID is always returned.");
+	}
+
+	/**
+	 * Create a {@link #PARAM_SORT}' OpenAPI parameter for a given resource.
+	 * @param forResource the resource name (for {@link io.swagger.oas.models.parameters.Parameter#description}.
+	 * @return the OpenAPI 'sort' parameter
+	 */
+	static io.swagger.oas.models.parameters.Parameter sortParameter(String forResource) {
+		return new io.swagger.oas.models.parameters.Parameter()
+			.name(PARAM_SORT)
+			.in("query")
+			.required(false)
+			.schema(new Schema().type("string"))
+			.description("Sort on these [" + forResource + "] fields, comma separated. '-' prefix : descending.");
+	}
+
+	/**
+	 * Create the filter OpenAPI parameters for a given resource : one per filterable field.
+	 * <br>
+	 * See {@link Filtering} for the filter grammar.
+	 * @param yopable the resource class
+	 * @return the OpenAPI filter parameters
+	 */
+	static List<io.swagger.oas.models.parameters.Parameter> filterParameters(Class<?> yopable) {
+		String operators = String.join(", ", Filtering.OPERATORS.keySet()) + ", in";
+		return Filtering.filterable(yopable)
+			.stream()
+			.map(field -> new io.swagger.oas.models.parameters.Parameter()
+				.name(field.getName())
+				.in("query")
+				.required(false)
+				.schema(new Schema().type("string"))
+				.description(
+					"Filter on [" + yopable.getSimpleName() + "#" + field.getName() + "] : '[operator:]value'. "
+					+ "Operators : " + operators + " (comma separated values). Default : eq. "
+					+ "'null' value : IS [NOT] NULL."
+				)
+			)
+			.collect(Collectors.toList());
+	}
+
 	/**
 	 * Create a JSON with the error message as cause.
 	 * @param cause the error cause
@@ -348,7 +439,7 @@ public interface HttpMethod {
 	/**
 	 * Execute the custom resource (i.e.custom method on the Yopable.
 	 * <br>
-	 * Uses {@link RestRequest#matches(Method)} to find the custom method to execute.
+	 * Uses the route that matched the request ({@link RestRequest#getRoute()}) : its method and argument binders.
 	 * @param restRequest the incoming rest request.
 	 * @param connection the JDBC (or other) underlying connection
 	 * @return the execution result
@@ -356,7 +447,7 @@ public interface HttpMethod {
 	 * @throws YopResourceInvocationException an error occurred executing the custom method
 	 */
 	default <T> IRestResponse executeCustom(RestRequest<T> restRequest, IConnection connection) {
-		Optional<Method> candidate = restRequest.getCandidate();
+		Optional<Routes.Match> candidate = restRequest.getRoute();
 
 		if (! candidate.isPresent()) {
 			logger.warn("No sub-resource method for [{}]", restRequest);
@@ -364,24 +455,8 @@ public interface HttpMethod {
 		}
 
 		try {
-			Method method = candidate.get();
-			method.setAccessible(true);
-			Object[] parameters = new Object[method.getParameterCount()];
-			for (int i = 0; i < method.getParameterCount(); i++) {
-				Parameter parameter = method.getParameters()[i];
-				if (IConnection.class.isAssignableFrom(parameter.getType())) {
-					parameters[i] = connection;
-				} else if(Header[].class.isAssignableFrom(parameter.getType())) {
-					parameters[i] = restRequest.getHeaders();
-				} else if(NameValuePair[].class.isAssignableFrom(parameter.getType())) {
-					parameters[i] = restRequest.getParameters();
-				} else {
-					parameters[i] = TransformUtil.transform(
-						AnnotationToParameter.get(restRequest, parameter),
-						parameter.getType()
-					);
-				}
-			}
+			Method method = candidate.get().getMethod();
+			Object[] parameters = candidate.get().arguments(restRequest, connection);
 
 			Object out;
 			if (Modifier.isStatic(method.getModifiers())) {
@@ -392,7 +467,7 @@ public interface HttpMethod {
 			return RestResponse.wrap(restRequest.getRestResource(), out);
 		} catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
 			throw new YopResourceInvocationException(
-				"Error invoking YOP resource [" + candidate.get() + "]",
+				"Error invoking YOP resource [" + candidate.get().getMethod() + "]",
 				e
 			);
 		}
@@ -402,6 +477,7 @@ public interface HttpMethod {
 	 * Write the serialized execution result into the {@link RestRequest#getResponse()} writer.
 	 * <br>
 	 * Content length is set using the length of the String to write.
+	 * It must be set before writing : a compressing response (see {@link Compression}) uses it to decide.
 	 * <br>
 	 * Charset is forced to {@link StandardCharsets#UTF_8} for now.
 	 * @param what    the serialized execution result
@@ -58,6 +58,8 @@ public interface IRestResponse {
 	 * The serializer is retrieved using {@link #serializer(RestRequest)}.
 	 * <br>
 	 * If the input object is neither a Yopable or a collection, naively use {@link Objects#toString(Object)}.
+	 * <br>
+	 * The {@link HttpMethod#PARAM_FIELDS} sparse fieldset is a read directive : it is only applied for GET/HEAD.
 	 * @param restRequest the incoming rest request.
 	 * @return the execution result, serialized into a String
 	 */
@@ -77,6 +79,9 @@ public interface IRestResponse {
 				serializer.joinAll();
 			}
 			serializer.joinProfiles(restRequest.profiles().toArray(new String[0]));
+			if (Conditional.isConditional(restRequest)) {
+				serializer.fields(restRequest.fields());
+			}
 			return serializer.execute();
 		}
 
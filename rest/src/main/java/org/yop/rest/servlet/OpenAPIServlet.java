@@ -24,7 +24,9 @@ import java.util.ArrayList;
  * <ul>
  *     <li>{@link #PACKAGE_INIT_PARAM} is required to find the @Rest Yopable from the class path</li>
  *     <li>{@link #EXPOSITION_PATH_PARAM} is required to generate the correct server endpoints in the OpenAPI model</li>
+ *     <li>{@link #COMPRESSION_THRESHOLD_INIT_PARAM} and {@link #COMPRESSION_LEVEL_INIT_PARAM} are optional</li>
  * </ul>
+ * The YAML description is gzip/deflate compressed if the client accepts it (see {@link Compression}).
  */
 public class OpenAPIServlet extends HttpServlet {
 
@@ -32,9 +34,12 @@ public class OpenAPIServlet extends HttpServlet {
 
 	public static final String PACKAGE_INIT_PARAM    = "packages";
 	public static final String EXPOSITION_PATH_PARAM = "exposition_path";
+	public static final String COMPRESSION_THRESHOLD_INIT_PARAM = Compression.THRESHOLD_INIT_PARAM;
+	public static final String COMPRESSION_LEVEL_INIT_PARAM     = Compression.LEVEL_INIT_PARAM;
 
 	protected final Yopables yopablePaths = new Yopables();
 	protected String expositionPath;
+	private Compression compression;
 
 	/**
 	 * Set the REST resources exposition path. This will be used to generate the server info.
@@ -49,6 +54,7 @@ public class OpenAPIServlet extends HttpServlet {
 		super.init();
 		this.yopablePaths.register(this.getInitParameter(PACKAGE_INIT_PARAM));
 		this.expositionPath = this.getInitParameter(EXPOSITION_PATH_PARAM);
+		this.compression = Compression.configure(this.getServletConfig());
 	}
 
 	@Override
@@ -67,11 +73,14 @@ public class OpenAPIServlet extends HttpServlet {
 			);
 		}
 
+		// The OpenAPI description is large : compress it if the client accepts it (see Compression)
 		String openAPIYAML = this.getYAMLAPIDescription(api);
-		resp.getWriter().write(openAPIYAML);
-		resp.getWriter().close();
-		resp.setContentLength(openAPIYAML.getBytes().length);
-		resp.setStatus(HttpServletResponse.SC_OK);
+		HttpServletResponse response = this.compression.wrap(req, resp);
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentLength(openAPIYAML.getBytes(response.getCharacterEncoding()).length);
+		response.getWriter().write(openAPIYAML);
+		Compression.finish(response);
+		response.getWriter().close();
 	}
 
 	/**
@@ -13,32 +13,26 @@ import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicNameValuePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yop.orm.annotations.Column;
 import org.yop.reflection.Reflection;
 import org.yop.rest.annotations.Rest;
 import org.yop.rest.exception.YopBadContentException;
-import org.yop.rest.exception.YopNoResourceException;
 import org.yop.rest.serialize.Deserializers;
 import org.yop.rest.serialize.MIMEParse;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Method;
+import java.io.*;
+import java.lang.reflect.Field;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystems;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * A rest request to a Yopable with a reference to the HTTP request & response.
- * @param <T> the REST request target type ({@link #restResource}). Read using {@link #findResource(String, Yopables)}.
+ * @param <T> the REST request target type ({@link #restResource}). Read using {@link Routes#resource(String)}.
  */
 class RestRequest<T> {
 
@@ -50,13 +44,25 @@ class RestRequest<T> {
 	private String requestPath;
 
 	private Class<T> restResource;
+
+	/** The version field of the {@link #restResource}. Null if not declared (see {@link Rest#version()}). */
+	private Field versionField;
 	private Path subResource = Paths.get("");
 	private String method;
 	private String accept;
 
+	/** The custom @Rest method route that matched this request. Null if this is not a custom request. */
+	private Routes.Match route;
+
 	private String contentType;
 	private String content;
 
+	/** The beginning of the content that was read from the request, for error messages */
+	private final StringBuilder contentHead = new StringBuilder();
+
+	/** The content length to use in error messages */
+	private static final int CONTENT_HEAD = 50;
+
 	private MultiValuedMap<String, String> parameters = new ArrayListValuedHashMap<>();
 	private List<Header> headers = new ArrayList<>();
 
@@ -68,9 +74,10 @@ class RestRequest<T> {
 	 * Both references to HTTP request and response will be kept ({@link #request} and {@link #response}).
 	 * @param req          the HTTP request
 	 * @param resp         the HTTP response
-	 * @param yopablePaths a map of applicable @Rest Yopable whose keys are the {@link Rest#path()}.
+	 * @param routes the REST routing table, built from the applicable @Rest Yopable.
 	 */
-	RestRequest(HttpServletRequest req, HttpServletResponse resp, Yopables yopablePaths) {
+	@SuppressWarnings("unchecked")
+	RestRequest(HttpServletRequest req, HttpServletResponse resp, Routes routes) {
 		this.method = req.getMethod();
 		this.accept = req.getHeader("Accept");
 		this.request = req;
@@ -85,16 +92,10 @@ class RestRequest<T> {
 		resourcePath = StringUtils.removeEnd(resourcePath, "/");
 
 		this.contentType = StringUtils.defaultIfBlank(
-			MIMEParse.bestMatch(Deserializers.SUPPORTED, req.getHeader("Content-Type")),
+			MIMEParse.bestMatch(Deserializers.READABLE, req.getHeader("Content-Type")),
 			ContentType.APPLICATION_JSON.getMimeType()
 		);
 
-		try {
-			this.content = IOUtils.toString(req.getInputStream());
-		} catch (IOException e) {
-			logger.debug("I/O error reading request content. No content ?", e);
-		}
-
 		req.getParameterMap().forEach((key, value) -> this.parameters.putAll(key, Arrays.asList(value)));
 
 		for(Enumeration<String> headerNames = req.getHeaderNames(); headerNames.hasMoreElements();) {
@@ -102,9 +103,11 @@ class RestRequest<T> {
 			this.headers.add(new BasicHeader(header, req.getHeader(header)));
 		}
 
-		this.restResource = findResource(resourcePath, yopablePaths);
+		Routes.Resource resource = routes.resource(resourcePath);
+		this.restResource = (Class<T>) resource.getTarget();
+		this.versionField = resource.getVersion();
 		Path path = Paths.get(this.restResource.getAnnotation(Rest.class).path());
-		if (yopablePaths.containsKey(resourcePath)) {
+		if (resource.getPath().equals(resourcePath)) {
 			// Exact match → use yopable paths key instead of @Rest#path() : better context management
 			path = Paths.get(resourcePath);
 		}
@@ -113,6 +116,7 @@ class RestRequest<T> {
 		if (path.getNameCount() >= 1) {
 			this.subResource = path.isAbsolute() ? Paths.get("/").relativize(path) : path;
 		}
+		this.route = routes.route(this.restResource, this.method, this.subResource).orElse(null);
 	}
 
 	/**
@@ -145,30 +149,19 @@ class RestRequest<T> {
 	}
 
 	/**
-	 * Get the full request path.
-	 * @return {@link #requestPath} that was read from {@link HttpServletRequest#getRequestURI()}.
+	 * Is this a read request, i.e. a GET or a HEAD ?
+	 * @return true if {@link #method} is GET or HEAD
 	 */
-	String getRequestPath() {
-		return this.requestPath;
+	boolean isRead() {
+		return "GET".equals(this.method) || "HEAD".equals(this.method);
 	}
 
 	/**
-	 * Build the request path that matched.
-	 * (context path, servlet path, rest resource path, method path) → /yop/rest/book/{id}
-	 * @return the request path, i.e /yop/rest/book/{id}
+	 * Get the full request path.
+	 * @return {@link #requestPath} that was read from {@link HttpServletRequest#getRequestURI()}.
 	 */
-	private String buildRequestPath() {
-		String methodPath = "";
-		Optional<Method> candidate = this.getCandidate();
-		if (candidate.isPresent()) {
-			methodPath = candidate.get().getAnnotation(Rest.class).path();
-		}
-		return Paths.get(
-			this.request.getContextPath(),
-			this.request.getServletPath(),
-			this.getRestResource().getAnnotation(Rest.class).path(),
-			methodPath
-		).toString();
+	String getRequestPath() {
+		return this.requestPath;
 	}
 
 	/**
@@ -205,6 +198,15 @@ class RestRequest<T> {
 		return values.isEmpty() ? null : values.iterator().next();
 	}
 
+	/**
+	 * Get all the values of an HTTP parameter.
+	 * @param name the parameter name
+	 * @return the values from {@link #parameters}, read from {@link HttpServletRequest#getParameterMap()}. Never null.
+	 */
+	Collection<String> getParameterValues(String name) {
+		return this.parameters.get(name);
+	}
+
 	/**
 	 * Get the HTTP request headers.
 	 * @return {@link #headers}, as an array.
@@ -239,13 +241,21 @@ class RestRequest<T> {
 		return this.restResource;
 	}
 
+	/**
+	 * Get the version field of the {@link #restResource}, if declared.
+	 * @return {@link #versionField}. Null if the resource does not declare any (see {@link Rest#version()}).
+	 */
+	Field getVersionField() {
+		return this.versionField;
+	}
+
 	/**
 	 * Is this request a standard YOP REST request
 	 * or is there a custom method on the associated {@link #restResource} that matches the path ?
 	 * @return true if this request targets a custom resource.
 	 */
 	boolean isCustomResource() {
-		return Reflection.getMethods(this.restResource).stream().anyMatch(this::matches);
+		return this.route != null;
 	}
 
 	/**
@@ -257,6 +267,15 @@ class RestRequest<T> {
 			|| this.parameters.containsMapping(HttpMethod.PARAM_JOIN_ALL, null);
 	}
 
+	/**
+	 * Does this request has an 'idsOnly' directive ?
+	 * @return true if there is an 'idsOnly' parameter set to true or with no explicit value
+	 */
+	boolean idsOnly() {
+		return this.parameters.containsMapping(HttpMethod.PARAM_IDS_ONLY, "true")
+			|| this.parameters.containsMapping(HttpMethod.PARAM_IDS_ONLY, null);
+	}
+
 	/**
 	 * Does this request has a 'checkNaturalID' directive ?
 	 * @return true if there is a 'checkNaturalID' parameter set to true or with no explicit value
@@ -289,6 +308,28 @@ class RestRequest<T> {
 		return new HashSet<>(this.parameters.get(HttpMethod.PARAM_JOIN_PROFILE));
 	}
 
+	/**
+	 * Read the sparse fieldset : the {@link HttpMethod#PARAM_FIELDS} parameters (comma separated field names).
+	 * @return the @Column fields of the REST resource to read and serialize. Empty → every field.
+	 * @throws YopBadContentException a field name is not a @Column field of the REST resource
+	 */
+	Set<Field> fields() {
+		Set<Field> fields = new HashSet<>();
+		for (String value : this.parameters.get(HttpMethod.PARAM_FIELDS)) {
+			for (String name : StringUtils.split(StringUtils.defaultString(value), ",")) {
+				Field field = Reflection.get(this.restResource, name.trim());
+				if (field == null || ! field.isAnnotationPresent(Column.class)) {
+					throw new YopBadContentException(
+						"[" + name + "] is not a field of REST resource [" + this.restResource.getName() + "]",
+						null
+					);
+				}
+				fields.add(field);
+			}
+		}
+		return fields;
+	}
+
 	/**
 	 * Does this request has a 'paging' directive in its headers ?
 	 * @return true if there is either a {@link HttpMethod#PARAM_OFFSET} or a {@link HttpMethod#PARAM_LIMIT} header
@@ -347,33 +388,81 @@ class RestRequest<T> {
 			.orElse(false);
 	}
 
+	/**
+	 * Read the {@link HttpMethod#PARAM_STREAM} header parameter value.
+	 * @return the stream header parameter value, or false if this header is not set.
+	 */
+	boolean isStreamed() {
+		return this
+			.headers
+			.stream()
+			.filter(h -> HttpMethod.PARAM_STREAM.equals(h.getName()))
+			.map(Header::getValue)
+			.map(BooleanUtils::toBoolean)
+			.findFirst()
+			.orElse(false);
+	}
+
 	/**
 	 * Get the body from the input request.
+	 * <br>
+	 * The whole body is read and kept in memory. Prefer {@link #contentIterator()} for large bodies.
 	 * @return {@link #content} read from {@link HttpServletRequest#getInputStream()}.
 	 */
 	String getContent() {
-		return StringUtils.isEmpty(this.content) ? "" : this.content;
+		if (this.content == null) {
+			try {
+				this.content = IOUtils.toString(this.contentReader());
+			} catch (IOException e) {
+				logger.debug("I/O error reading request content. No content ?", e);
+				this.content = "";
+			}
+		}
+		return this.content;
 	}
 
 	/**
-	 * Get the first custom method from {@link #restResource} that matches the REST request.
-	 * @return an optional for the first matching method.
+	 * Get a reader on the body of the input request.
+	 * <br>
+	 * If the content was already read ({@link #getContent()}), read it from memory.
+	 * Else, read it from {@link HttpServletRequest#getInputStream()}, keeping the head of the content for errors.
+	 * @return a reader on the request body
+	 * @throws IOException could not open the request input stream
 	 */
-	Optional<Method> getCandidate() {
-		return Reflection.getMethods(this.restResource).stream().filter(this::matches).findFirst();
+	private Reader contentReader() throws IOException {
+		if (this.content != null) {
+			return new StringReader(this.content);
+		}
+		String encoding = StringUtils.defaultIfBlank(this.request.getCharacterEncoding(), StandardCharsets.UTF_8.name());
+		return new HeadReader(new InputStreamReader(this.request.getInputStream(), encoding), this.contentHead);
+	}
+
+	/**
+	 * Get the beginning of the content, for error messages.
+	 * @return the abbreviated content, or its abbreviated head if it was not fully read
+	 */
+	private String abbreviatedContent() {
+		return StringUtils.abbreviate(this.content == null ? this.contentHead.toString() : this.content, CONTENT_HEAD);
+	}
+
+	/**
+	 * Get the custom @Rest method route of {@link #restResource} that matched the REST request.
+	 * @return an optional for the matching route.
+	 */
+	Optional<Routes.Match> getRoute() {
+		return Optional.ofNullable(this.route);
 	}
 
 	/**
 	 * Get a parameter from the effective request path ({@link #requestPath}), knowing the path pattern.
+	 * <br>
+	 * The parameter value was captured when the request was routed.
 	 * @param name     the name of the parameter
 	 * @return the parameter value or an empty string if no match
 	 */
 	String getPathParam(String name) {
-		String regex = StringUtils.replace(this.buildRequestPath(), "{" + name + "}", "(.*)");
-		Pattern pattern = Pattern.compile(regex);
-		Matcher matcher = pattern.matcher(this.getRequestPath());
-		if (matcher.find()) {
-			String encodedParameter = matcher.group(1);
+		String encodedParameter = this.route == null ? null : this.route.getPathParameter(name);
+		if (encodedParameter != null) {
 			String encoding = this.request.getCharacterEncoding();
 			encoding = encoding == null ? StandardCharsets.UTF_8.name() : encoding;
 			try {
@@ -392,15 +481,21 @@ class RestRequest<T> {
 	 * @throws YopBadContentException Could not parse the input content
 	 */
 	Collection<T> contentAsYopables() {
-		try {
-			Deserializers.Deserializer<T> deserializer = Deserializers.getFor(this.contentType);
-			return deserializer.deserialize(this.getRestResource(), this.content);
-		} catch (RuntimeException e) {
-			throw new YopBadContentException(
-				"Unable to parse collection input [" + StringUtils.abbreviate(this.content, 50) + "]",
-				e
-			);
-		}
+		List<T> out = new ArrayList<>();
+		this.contentIterator().forEachRemaining(out::add);
+		return out;
+	}
+
+	/**
+	 * Read the input from the request and deserialize it to Yopable objects, 1 at a time.
+	 * <br>
+	 * The body is read from the request input stream as the iterator is consumed
+	 * (see {@link Deserializers#getStreamFor(String)}) : it is never entirely held in memory.
+	 * @return an iterator on the Yopables from the incoming request
+	 * @throws YopBadContentException (from the iterator) Could not parse the input content
+	 */
+	Iterator<T> contentIterator() {
+		return this.contentIterator("Unable to parse collection input");
 	}
 
 	/**
@@ -410,48 +505,74 @@ class RestRequest<T> {
 	 * @throws YopBadContentException Could not parse the input content as JSON object
 	 */
 	T contentAsYopable() {
-		try {
-			Deserializers.Deserializer<T> deserializer = Deserializers.getFor(this.contentType);
-			return deserializer.deserialize(this.getRestResource(), this.content).iterator().next();
-		} catch (RuntimeException e) {
-			throw new YopBadContentException(
-				"Unable to parse single object input [" + StringUtils.abbreviate(this.content, 50) + "]",
-				e
-			);
-		}
+		return this.contentIterator("Unable to parse single object input").next();
 	}
 
 	/**
-	 * Does this method matches the current REST request ?
-	 * @param method the method to check
-	 * @return true if the method is a candidate for the REST request
+	 * Read the input from the request and deserialize it to Yopable objects, 1 at a time.
+	 * Any error reading the content is wrapped into a {@link YopBadContentException}.
+	 * @param error the error message, if the content cannot be read
+	 * @return an iterator on the Yopables from the incoming request
 	 */
-	private boolean matches(Method method) {
-		if (! method.isAnnotationPresent(Rest.class)) {
-			return false;
+	private Iterator<T> contentIterator(String error) {
+		Iterator<T> elements;
+		try {
+			Deserializers.StreamDeserializer<T> deserializer = Deserializers.getStreamFor(this.contentType);
+			elements = deserializer.deserialize(this.getRestResource(), this.contentReader());
+		} catch (IOException | RuntimeException e) {
+			throw new YopBadContentException(error + " [" + this.abbreviatedContent() + "]", e);
 		}
-		String methodPath = method.getAnnotation(Rest.class).path();
-		String methodPathRegex = methodPath.replaceAll(Pattern.quote("{") + ".*" + Pattern.quote("}"), ".+");
-		PathMatcher global = FileSystems.getDefault().getPathMatcher("regex:" + methodPathRegex);
-		return method.isAnnotationPresent(Rest.class)
-			&& Arrays.stream(method.getAnnotation(Rest.class).methods()).anyMatch(s -> this.method.equals(s))
-			&& global.matches(this.subResource);
+
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				try {
+					return elements.hasNext();
+				} catch (RuntimeException e) {
+					throw new YopBadContentException(error + " [" + RestRequest.this.abbreviatedContent() + "]", e);
+				}
+			}
+
+			@Override
+			public T next() {
+				try {
+					return elements.next();
+				} catch (RuntimeException e) {
+					throw new YopBadContentException(error + " [" + RestRequest.this.abbreviatedContent() + "]", e);
+				}
+			}
+		};
 	}
 
 	/**
-	 * Find the yopable resource which {@link Rest#path()} is the closest match to the request path.
-	 * @param requestPath  the incoming request path (no servlet context, no leading '/')
-	 * @param yopablePaths the Yopable paths map
-	 * @return the closest match
-	 * @throws YopNoResourceException No match for the request path. This should trigger an HTTP 404
+	 * A reader that keeps the first {@link #CONTENT_HEAD} (+1) characters it reads.
+	 * <br>
+	 * The request body is streamed : this is what is left of it for error messages.
 	 */
-	@SuppressWarnings("unchecked")
-	private static <T> Class<T> findResource(String requestPath, Yopables yopablePaths) {
-		TreeSet<String> paths = new TreeSet<>(Comparator.comparing(String::length));
-		paths.addAll(yopablePaths.keySet().stream().filter(requestPath::startsWith).collect(Collectors.toSet()));
-		if (! paths.isEmpty()) {
-			return (Class) yopablePaths.get(paths.last());
+	private static class HeadReader extends FilterReader {
+		private final StringBuilder head;
+
+		private HeadReader(Reader in, StringBuilder head) {
+			super(in);
+			this.head = head;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int c = super.read();
+			if (c >= 0 && this.head.length() <= CONTENT_HEAD) {
+				this.head.append((char) c);
+			}
+			return c;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0 && this.head.length() <= CONTENT_HEAD) {
+				this.head.append(buffer, offset, Math.min(read, CONTENT_HEAD + 1 - this.head.length()));
+			}
+			return read;
 		}
-		throw new YopNoResourceException("No REST resource for request path [" + requestPath + "]");
 	}
 }
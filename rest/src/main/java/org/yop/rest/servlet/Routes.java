@@ -0,0 +1,287 @@
+package org.yop.rest.servlet;
+
+import org.apache.http.Header;
+import org.apache.http.NameValuePair;
+import org.yop.orm.annotations.Column;
+import org.yop.orm.exception.YopRuntimeException;
+import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.util.TransformUtil;
+import org.yop.reflection.Reflection;
+import org.yop.rest.annotations.Rest;
+import org.yop.rest.exception.YopNoResourceException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The REST routing table, built once from the registered {@link Yopables} (see {@link YopRestServlet#init()}).
+ * <br>
+ * A request is routed using lookups only. Nothing is scanned or compiled per request :
+ * <ul>
+ *     <li>
+ *         resource : a character trie of the {@link Rest#path()} of the resources.
+ *         The longest resource path the request path starts with is the target resource.
+ *     </li>
+ *     <li>
+ *         custom method : for the target resource, the custom {@link Rest} methods, by HTTP method.
+ *         Each one has a precompiled path template (with its path parameters groups)
+ *         and a prebuilt binder for each of its parameters.
+ *     </li>
+ * </ul>
+ * <b>⚠⚠⚠ The table is not updated : the resources registered after it was built are ignored ! ⚠⚠⚠</b>
+ */
+class Routes {
+
+	/** A path parameter in a {@link Rest#path()} template, e.g. 'search/{search_string}' */
+	private static final Pattern PATH_PARAM = Pattern.compile("\\{([^}]*)}");
+
+	/** The root node of the resource paths trie */
+	private final Node root = new Node();
+
+	/** The custom @Rest methods routes, by resource class and HTTP method */
+	private final Map<Class<?>, Map<String, List<Route>>> routes = new HashMap<>();
+
+	private Routes() {}
+
+	/**
+	 * Build the routing table for some registered resources.
+	 * @param yopables the registered resources, by REST path
+	 * @return the routing table
+	 */
+	static Routes build(Yopables yopables) {
+		Routes table = new Routes();
+		for (Map.Entry<String, Class<?>> resource : yopables.entrySet()) {
+			Node node = table.root;
+			for (char c : resource.getKey().toCharArray()) {
+				node = node.children.computeIfAbsent(c, key -> new Node());
+			}
+			node.resource = new Resource(resource.getKey(), resource.getValue(), version(resource.getValue()));
+
+			Map<String, List<Route>> byHttpMethod = new HashMap<>();
+			for (Method method : Reflection.getMethods(resource.getValue())) {
+				if (method.isAnnotationPresent(Rest.class)) {
+					Route route = new Route(method);
+					for (String httpMethod : method.getAnnotation(Rest.class).methods()) {
+						byHttpMethod.computeIfAbsent(httpMethod, key -> new ArrayList<>()).add(route);
+					}
+				}
+			}
+			table.routes.put(resource.getValue(), byHttpMethod);
+		}
+		return table;
+	}
+
+	/**
+	 * Find the resource whose path is the longest match for the request path.
+	 * @param requestPath the incoming request path (no servlet context, no leading '/')
+	 * @return the closest match
+	 * @throws YopNoResourceException No match for the request path. This should trigger an HTTP 404
+	 */
+	Resource resource(String requestPath) {
+		Node node = this.root;
+		Resource match = node.resource;
+		for (int i = 0; i < requestPath.length(); i++) {
+			node = node.children.get(requestPath.charAt(i));
+			if (node == null) {
+				break;
+			}
+			match = node.resource == null ? match : node.resource;
+		}
+		if (match == null) {
+			throw new YopNoResourceException("No REST resource for request path [" + requestPath + "]");
+		}
+		return match;
+	}
+
+	/**
+	 * Find the custom @Rest method of a resource that matches an HTTP method and a sub-resource path.
+	 * @param resource    the target resource
+	 * @param httpMethod  the HTTP method
+	 * @param subResource the request path, relative to the resource path
+	 * @return the first matching route, with its path parameters. Empty if the request is not a custom one.
+	 */
+	Optional<Match> route(Class<?> resource, String httpMethod, Path subResource) {
+		String path = subResource.toString();
+		Map<String, List<Route>> byHttpMethod = this.routes.getOrDefault(resource, Collections.emptyMap());
+		for (Route route : byHttpMethod.getOrDefault(httpMethod, Collections.emptyList())) {
+			Matcher matcher = route.pattern.matcher(path);
+			if (matcher.matches()) {
+				Map<String, String> parameters = new HashMap<>();
+				for (int i = 0; i < route.parameters.size(); i++) {
+					parameters.put(route.parameters.get(i), matcher.group(i + 1));
+				}
+				return Optional.of(new Match(route, parameters));
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Find the version field of a resource, if declared (see {@link Rest#version()}).
+	 * @param resource the resource class
+	 * @return the version field, null if not declared
+	 * @throws YopRuntimeException the declared version field does not exist or is not a @Column field
+	 */
+	private static Field version(Class<?> resource) {
+		String name = resource.getAnnotation(Rest.class).version();
+		if (name.isEmpty()) {
+			return null;
+		}
+		Field version = Reflection.get(resource, name);
+		if (version == null || ! version.isAnnotationPresent(Column.class)) {
+			throw new YopRuntimeException(
+				"Version field [" + name + "] of REST resource [" + resource.getName() + "] is not a @Column field."
+			);
+		}
+		return version;
+	}
+
+	/**
+	 * A node of the resource paths trie.
+	 */
+	private static class Node {
+		private final Map<Character, Node> children = new HashMap<>();
+		private Resource resource;
+	}
+
+	/**
+	 * A registered REST resource : its path (the {@link Yopables} key), its class and its version field.
+	 */
+	static class Resource {
+		private final String path;
+		private final Class<?> target;
+		private final Field version;
+
+		private Resource(String path, Class<?> target, Field version) {
+			this.path = path;
+			this.target = target;
+			this.version = version;
+		}
+
+		String getPath() {
+			return this.path;
+		}
+
+		Class<?> getTarget() {
+			return this.target;
+		}
+
+		Field getVersion() {
+			return this.version;
+		}
+	}
+
+	/**
+	 * A custom {@link Rest} method route : the method, its compiled path template and its parameter binders.
+	 */
+	static class Route {
+		private final Method method;
+		private final Pattern pattern;
+		private final List<String> parameters = new ArrayList<>();
+		private final List<Binder> binders = new ArrayList<>();
+
+		/**
+		 * Compile the route of a custom {@link Rest} method.
+		 * <br>
+		 * In the path template, every '{name}' is a path parameter. The rest of the template is literal.
+		 * @param method the @Rest method
+		 */
+		private Route(Method method) {
+			this.method = method;
+			this.method.setAccessible(true);
+
+			String path = method.getAnnotation(Rest.class).path();
+			StringBuilder regex = new StringBuilder();
+			Matcher matcher = PATH_PARAM.matcher(path);
+			int last = 0;
+			while (matcher.find()) {
+				regex.append(Pattern.quote(path.substring(last, matcher.start()))).append("(.+)");
+				this.parameters.add(matcher.group(1));
+				last = matcher.end();
+			}
+			regex.append(Pattern.quote(path.substring(last)));
+			this.pattern = Pattern.compile(regex.toString());
+
+			for (Parameter parameter : method.getParameters()) {
+				this.binders.add(binder(parameter));
+			}
+		}
+
+		/**
+		 * Build the binder of a custom method parameter.
+		 * @param parameter the custom method parameter
+		 * @return the binder that computes the parameter value from the request
+		 */
+		private static Binder binder(Parameter parameter) {
+			if (IConnection.class.isAssignableFrom(parameter.getType())) {
+				return (request, connection) -> connection;
+			}
+			if (Header[].class.isAssignableFrom(parameter.getType())) {
+				return (request, connection) -> request.getHeaders();
+			}
+			if (NameValuePair[].class.isAssignableFrom(parameter.getType())) {
+				return (request, connection) -> request.getParameters();
+			}
+			AnnotationToParameter action = AnnotationToParameter.forParameter(parameter);
+			Class<?> type = parameter.getType();
+			return (request, connection) -> TransformUtil.transform(action.computeValue(request, parameter), type);
+		}
+	}
+
+	/**
+	 * A route that matched a request, with the raw (URL encoded) values of its path parameters.
+	 */
+	static class Match {
+		private final Route route;
+		private final Map<String, String> pathParameters;
+
+		private Match(Route route, Map<String, String> pathParameters) {
+			this.route = route;
+			this.pathParameters = pathParameters;
+		}
+
+		/**
+		 * Get the custom method to invoke.
+		 * @return the route method
+		 */
+		Method getMethod() {
+			return this.route.method;
+		}
+
+		/**
+		 * Get the raw value of a path parameter.
+		 * @param name the path parameter name
+		 * @return the URL encoded value, null if no such path parameter
+		 */
+		String getPathParameter(String name) {
+			return this.pathParameters.get(name);
+		}
+
+		/**
+		 * Compute the custom method arguments, using the prebuilt binders.
+		 * @param request    the incoming REST request
+		 * @param connection the JDBC (or other) underlying connection
+		 * @return the custom method arguments
+		 */
+		Object[] arguments(RestRequest<?> request, IConnection connection) {
+			Object[] arguments = new Object[this.route.binders.size()];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = this.route.binders.get(i).bind(request, connection);
+			}
+			return arguments;
+		}
+	}
+
+	/**
+	 * Compute a custom method argument from the REST request.
+	 */
+	@FunctionalInterface
+	private interface Binder {
+		Object bind(RestRequest<?> request, IConnection connection);
+	}
+}
@@ -0,0 +1,137 @@
+package org.yop.rest.servlet;
+
+import org.apache.commons.collections4.MultiValuedMap;
+import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
+import org.yop.orm.query.serialize.Serialize;
+import org.yop.orm.query.sql.Select;
+import org.yop.orm.sql.adapter.IConnection;
+import org.yop.rest.exception.YopResourceInvocationException;
+import org.yop.rest.serialize.Serializers;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A REST response whose output is written to the HTTP response as it is read from the database.
+ * <br>
+ * The {@link Select} query is executed by chunks of root objects (see {@link Select#executeByChunks}).
+ * Every chunk is serialized and flushed to the response output as soon as it is read :
+ * <ul>
+ *     <li>there is no Content-Length : the response uses the chunked transfer encoding</li>
+ *     <li>the response buffer is bounded : {@link #BUFFER_SIZE}</li>
+ *     <li>only 1 chunk of root objects is held in memory at once</li>
+ * </ul>
+ * The query is executed and the output is written in {@link #stream(RestRequest, IConnection)},
+ * which the REST servlet calls while the connection is still open.
+ * <br>
+ * <b>
+ *     ⚠⚠⚠
+ *     Once the first chunk is written, the response is committed :
+ *     an error that occurs afterwards cannot change the response status !
+ *     ⚠⚠⚠
+ * </b>
+ * @param <T> the target type
+ */
+class StreamedResponse<T> implements IRestResponse {
+
+	/** The response buffer size. When full, the buffer is sent as a chunk. */
+	static final int BUFFER_SIZE = 8 * 1024;
+
+	/** The query to execute */
+	private final Select<T> select;
+
+	/** The max number of root objects to read at once */
+	private final long chunkSize;
+
+	/** Execution status code. Default is 200. */
+	private int statusCode = 200;
+
+	/** The output headers to add to the response. */
+	private final MultiValuedMap<String, String> outputHeaders = new ArrayListValuedHashMap<>();
+
+	/**
+	 * Default constructor : the query to execute and the chunk size.
+	 * @param select    the query to execute when streaming
+	 * @param chunkSize the max number of root objects to read at once
+	 */
+	StreamedResponse(Select<T> select, long chunkSize) {
+		this.select = select;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * There is no output object here : the output is written in {@link #stream(RestRequest, IConnection)}.
+	 * @return null
+	 */
+	@Override
+	public Object output() {
+		return null;
+	}
+
+	@Override
+	public int statusCode() {
+		return this.statusCode;
+	}
+
+	@Override
+	public Collection<Map.Entry<String, String>> headers() {
+		return this.outputHeaders.entries();
+	}
+
+	@Override
+	public StreamedResponse<T> header(String key, String value) {
+		this.outputHeaders.put(key, value);
+		return this;
+	}
+
+	@Override
+	public StreamedResponse<T> statusCode(int code) {
+		this.statusCode = code;
+		return this;
+	}
+
+	/**
+	 * Execute the query by chunks and write the serialized chunks to the HTTP response.
+	 * <br>
+	 * The status, the headers and the content type (from the 'Accept' header) are set first.
+	 * <br>
+	 * If an error occurs, the output is left as is : the REST servlet aborts a committed response.
+	 * @param restRequest the incoming REST request
+	 * @param connection  the connection to use
+	 * @throws YopResourceInvocationException an I/O exception occurred writing into the response
+	 */
+	@SuppressWarnings("unchecked")
+	void stream(RestRequest<T> restRequest, IConnection connection) {
+		Serialize<?, T> serializer = this.serializer(restRequest);
+		if (restRequest.joinAll()) {
+			serializer.joinAll();
+		}
+		serializer.joinProfiles(restRequest.profiles().toArray(new String[0]));
+		serializer.fields(restRequest.fields());
+
+		HttpServletResponse resp = restRequest.getResponse();
+		this.headers().forEach(entry -> resp.setHeader(entry.getKey(), entry.getValue()));
+		resp.setStatus(this.statusCode);
+		resp.setContentType(restRequest.accept(Serializers.SUPPORTED));
+		resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		resp.setBufferSize(BUFFER_SIZE);
+
+		try {
+			// Not closed if streaming fails : closing would end the output as if every element were written
+			Serialize.Output<T> output = serializer.open(resp.getWriter());
+			this.select.executeByChunks(connection, this.chunkSize, chunk -> {
+				try {
+					output.write(chunk);
+				} catch (IOException e) {
+					throw new YopResourceInvocationException("Error streaming content for [" + restRequest + "]", e);
+				}
+			});
+			output.close();
+		} catch (IOException e) {
+			throw new YopResourceInvocationException("Error streaming content for [" + restRequest + "]", e);
+		}
+	}
+}
@@ -1,8 +1,12 @@
 package org.yop.rest.servlet;
 
+import com.google.common.collect.Iterators;
 import io.swagger.oas.models.Operation;
 import io.swagger.oas.models.responses.ApiResponses;
+import org.json.JSONArray;
+import org.yop.orm.query.batch.BatchUpsert;
 import org.yop.orm.sql.adapter.IConnection;
+import org.yop.orm.util.ORMUtil;
 import org.yop.reflection.Reflection;
 import org.yop.rest.openapi.OpenAPIUtil;
 import org.yop.rest.serialize.Deserializers;
@@ -12,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static javax.servlet.http.HttpServletResponse.*;
 
@@ -19,6 +24,13 @@ import static javax.servlet.http.HttpServletResponse.*;
  * Specific 'UPSERT' HTTP method.
  * <br>
  * It does an {@link org.yop.orm.query.sql.Upsert} on the request entities.
+ * <br>
+ * The request body is streamed (see {@link RestRequest#contentIterator()}) :
+ * the entities are saved by chunks of {@link #CHUNK_SIZE}, using {@link BatchUpsert}, as they are read.
+ * <br>
+ * The response is the saved entities, with their IDs set.
+ * With the {@link #PARAM_IDS_ONLY} parameter, it is only their IDs, as a JSON array, in the request order :
+ * the saved entities are then released chunk by chunk, which suits very large request bodies.
  */
 public class Upsert implements HttpMethod {
 
@@ -27,49 +39,55 @@ public class Upsert implements HttpMethod {
 
 	static final HttpMethod INSTANCE = new Upsert();
 
+	/** The number of request entities to save in a single {@link BatchUpsert} */
+	static final int CHUNK_SIZE = 500;
+
 	/**
 	 * Execute the "upsert" operation using a {@link org.yop.orm.query.sql.Upsert} query.
 	 * <br>
-	 * Read the joinAll and other parameters.
+	 * Read the joinAll, idsOnly and other parameters.
 	 * @param restRequest the incoming request
 	 * @param connection the JDBC (or other) underlying connection
-	 * @return the incoming yopables (see {@link RestRequest#contentAsYopables()}) with their IDs set.
+	 * @return the incoming yopables (see {@link RestRequest#contentIterator()}) with their IDs set.
+	 *         If {@link RestRequest#idsOnly()} : their IDs, as a JSON array,
+	 *         and the {@link #PARAM_COUNT} header is the number of saved yopables.
 	 */
 	@Override
 	public <T> IRestResponse executeDefault(RestRequest<T> restRequest, IConnection connection) {
 		// The yopables to insert (i.e. id is null) will have their id set after Upsert#execute.
+		// IDs only : the saved yopables are not kept for the response, a saved chunk can be released.
 		Collection<T> output = new ArrayList<>();
+		JSONArray ids = new JSONArray();
+		Consumer<T> saved = restRequest.idsOnly() ? element -> ids.put(ORMUtil.readId(element)) : output::add;
 		Class<T> target = restRequest.getRestResource();
-		Collection<org.yop.orm.query.sql.Upsert<T>> upserts = new ArrayList<>();
 
 		if (restRequest.isPartial()) {
 			String contentType = restRequest.accept(Deserializers.SUPPORTED);
 			PartialDeserializers.Deserializer<T> deserializer = PartialDeserializers.getFor(contentType);
 			List<PartialDeserializers.Partial<T>> objects = deserializer.deserialize(target, restRequest.getContent());
 
+			Collection<org.yop.orm.query.sql.Upsert<T>> upserts = new ArrayList<>();
 			for (PartialDeserializers.Partial<T> partial : objects) {
 				org.yop.orm.query.sql.Upsert<T> upsert = org.yop.orm.query.sql.Upsert.from(target);
 				partial(upsert, partial.getKeys());
 				upsert.onto(partial.getObject());
-				output.add(partial.getObject());
 				upserts.add(upsert);
 			}
+			for (org.yop.orm.query.sql.Upsert<T> upsert : upserts) {
+				execute(upsert, restRequest, connection);
+			}
+			objects.forEach(partial -> saved.accept(partial.getObject()));
 		} else {
-			output.addAll(restRequest.contentAsYopables());
-			upserts.add(org.yop.orm.query.sql.Upsert.from(target).onto(output));
+			Iterators.partition(restRequest.contentIterator(), CHUNK_SIZE).forEachRemaining(chunk -> {
+				execute(BatchUpsert.from(target).onto(chunk), restRequest, connection);
+				chunk.forEach(saved);
+			});
 		}
 
-		for (org.yop.orm.query.sql.Upsert<T> upsert : upserts) {
-			if (restRequest.joinAll()) {
-				upsert.joinAll();
-			}
-			if (restRequest.checkNaturalID()) {
-				upsert.checkNaturalID();
-			}
-			upsert.joinProfiles(restRequest.profiles().toArray(new String[0]));
-			upsert.execute(connection);
+		if (restRequest.idsOnly()) {
+			return RestResponse.wrap(target, ids).header(PARAM_COUNT, String.valueOf(ids.length()));
 		}
-		return RestResponse.wrap(restRequest.getRestResource(), output);
+		return RestResponse.wrap(target, output);
 	}
 
 	@Override
@@ -87,6 +105,7 @@ public class Upsert implements HttpMethod {
 		upsert.getParameters().add(HttpMethod.joinProfilesParameter(yopable));
 		upsert.getParameters().add(HttpMethod.checkNaturalIDParameter(resource));
 		upsert.getParameters().add(HttpMethod.partialParameter(resource));
+		upsert.getParameters().add(HttpMethod.idsOnlyParameter(resource));
 
 		upsert.requestBody(HttpMethod.requestBody(yopable));
 
@@ -99,6 +118,27 @@ public class Upsert implements HttpMethod {
 		return upsert;
 	}
 
+	/**
+	 * Read the joinAll and other parameters and execute the upsert query.
+	 * @param upsert      the upsert query
+	 * @param restRequest the incoming request
+	 * @param connection  the JDBC (or other) underlying connection
+	 */
+	private static <T> void execute(
+		org.yop.orm.query.sql.Upsert<T> upsert,
+		RestRequest<T> restRequest,
+		IConnection connection) {
+
+		if (restRequest.joinAll()) {
+			upsert.joinAll();
+		}
+		if (restRequest.checkNaturalID()) {
+			upsert.checkNaturalID();
+		}
+		upsert.joinProfiles(restRequest.profiles().toArray(new String[0]));
+		upsert.execute(connection);
+	}
+
 	/**
 	 * Set the fields to be updated in the {@link org.yop.orm.query.sql.Upsert} query.
 	 * @param upsert the upsert query
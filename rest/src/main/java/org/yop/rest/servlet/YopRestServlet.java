@@ -6,6 +6,7 @@ import org.apache.http.entity.ContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yop.orm.exception.YopRuntimeException;
+import org.yop.orm.query.sql.Loader;
 import org.yop.orm.sql.adapter.IConnection;
 import org.yop.orm.sql.adapter.jdbc.JDBCConnection;
 import org.yop.reflection.Reflection;
@@ -21,6 +22,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.sql.DataSource;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 
 /**
@@ -34,6 +36,18 @@ import java.sql.SQLException;
  *         Feel free to override {@link #getConnection()} if you directly have a JDBC connection with no JNDI.
  *     </li>
  *     <li>{@link #REQUEST_CHECKER_INIT_PARAM} if you want to add some security logic</li>
+ *     <li>
+ *         {@link #COMPRESSION_THRESHOLD_INIT_PARAM} and {@link #COMPRESSION_LEVEL_INIT_PARAM}
+ *         if you want to tune the gzip/deflate response compression (see {@link Compression}).
+ *     </li>
+ *     <li>
+ *         {@link #ASYNC_INIT_PARAM} if you want the requests to be executed asynchronously, on a bounded executor
+ *         (see {@link AsyncExecution}). The servlet must then be declared as async-supported.
+ *     </li>
+ *     <li>
+ *         {@link #ADMISSION_INIT_PARAM} if you want per resource concurrency limits, with fast 503 rejection
+ *         when a resource is overloaded (see {@link Admission}).
+ *     </li>
  * </ul>
  * Supported HTTP methods :
  * <ul>
@@ -44,6 +58,7 @@ import java.sql.SQLException;
  *     <li>{@link Put} (does {@link Upsert}, not idempotent)</li>
  *     <li>{@link Delete} (not implemented yet)</li>
  * </ul>
+ * A batch of operations, across resources, can be executed in a single transaction : see {@link Batch}.
  */
 public class YopRestServlet extends HttpServlet {
 
@@ -58,11 +73,57 @@ public class YopRestServlet extends HttpServlet {
 	/** Servlet init param : the datasource JNDI name. Optional if you override {@link #getConnection()} */
 	public static final String DATASOURCE_JNDI_INIT_PARAM = "datasource_jndi";
 
+	/** Servlet init param : the min response content length to compress, in bytes. Negative disables. Optional. */
+	public static final String COMPRESSION_THRESHOLD_INIT_PARAM = Compression.THRESHOLD_INIT_PARAM;
+
+	/** Servlet init param : the response compression level, from 0 to 9. Optional. */
+	public static final String COMPRESSION_LEVEL_INIT_PARAM = Compression.LEVEL_INIT_PARAM;
+
+	/** Servlet init param : execute the requests asynchronously, on a dedicated executor (true/false). Optional. */
+	public static final String ASYNC_INIT_PARAM = AsyncExecution.ENABLED_INIT_PARAM;
+
+	/** Servlet init param : the async executor size. Set it to the connection pool size. Optional. */
+	public static final String ASYNC_POOL_SIZE_INIT_PARAM = AsyncExecution.POOL_SIZE_INIT_PARAM;
+
+	/** Servlet init param : the max number of async requests waiting for an executor thread. Optional. */
+	public static final String ASYNC_QUEUE_SIZE_INIT_PARAM = AsyncExecution.QUEUE_SIZE_INIT_PARAM;
+
+	/** Servlet init param : the async request timeout, in milliseconds. Optional. */
+	public static final String ASYNC_TIMEOUT_INIT_PARAM = AsyncExecution.TIMEOUT_INIT_PARAM;
+
+	/** Servlet init param : enable the admission control, per resource bulkheads (true/false). Optional. */
+	public static final String ADMISSION_INIT_PARAM = Admission.ENABLED_INIT_PARAM;
+
+	/** Servlet init param : the default concurrency limit of the by ID GET/HEAD, per resource. Optional. */
+	public static final String ADMISSION_LOOKUP_LIMIT_INIT_PARAM = Admission.LOOKUP_LIMIT_INIT_PARAM;
+
+	/** Servlet init param : the default concurrency limit of the other GET/HEAD, per resource. Optional. */
+	public static final String ADMISSION_QUERY_LIMIT_INIT_PARAM = Admission.QUERY_LIMIT_INIT_PARAM;
+
+	/** Servlet init param : the default concurrency limit of the writes, per resource and method. Optional. */
+	public static final String ADMISSION_WRITE_LIMIT_INIT_PARAM = Admission.WRITE_LIMIT_INIT_PARAM;
+
+	/** Servlet init param : the max number of requests waiting for a full bulkhead. Optional. */
+	public static final String ADMISSION_QUEUE_SIZE_INIT_PARAM = Admission.QUEUE_SIZE_INIT_PARAM;
+
+	/** Servlet init param : the max time a request waits for a full bulkhead, in milliseconds. Optional. */
+	public static final String ADMISSION_QUEUE_TIMEOUT_INIT_PARAM = Admission.QUEUE_TIMEOUT_INIT_PARAM;
+
+	/** Servlet init param : the latency target of the adaptive concurrency limits, in milliseconds. Optional. */
+	public static final String ADMISSION_LATENCY_TARGET_INIT_PARAM = Admission.LATENCY_TARGET_INIT_PARAM;
+
+	/** Servlet init param prefix : the concurrency limit of a bulkhead, e.g. 'admission_limit.Pojo.GET'. Optional. */
+	public static final String ADMISSION_LIMIT_INIT_PARAM_PREFIX = Admission.LIMIT_INIT_PARAM_PREFIX;
+
 	private final Yopables yopablePaths = new Yopables();
+	private Routes routes;
 	private String dataSourceJNDIName;
 	private DataSource dataSource;
 	private Connector connector = this::getConnection;
 	private RequestChecker requestChecker = new RequestChecker() {};
+	private Compression compression;
+	private AsyncExecution async;
+	private Admission admission;
 
 	/**
 	 * Get the connection to the database.
@@ -95,6 +156,8 @@ public class YopRestServlet extends HttpServlet {
 
 	/**
 	 * Register any {@link Rest} class whose package name starts with any of the given ones.
+	 * <br>
+	 * The routing table is built at {@link #init()} : register the classes before the servlet is initialized.
 	 * @param packages package name filter the packages the @Rest class must start with. If empty : no package filter.
 	 * @return the current servlet instance.
 	 */
@@ -105,6 +168,8 @@ public class YopRestServlet extends HttpServlet {
 
 	/**
 	 * Register a {@link Rest} class as REST webservice.
+	 * <br>
+	 * The routing table is built at {@link #init()} : register the classes before the servlet is initialized.
 	 * @param target the target class(s) to register. If not @Rest annotated, do nothing.
 	 * @return the current servlet instance.
 	 */
@@ -118,6 +183,12 @@ public class YopRestServlet extends HttpServlet {
 		super.init();
 		this.yopablePaths.register(this.getInitParameter(PACKAGE_INIT_PARAM));
 
+		// Build the routing table once : no reflection scan and no path compilation per request
+		this.routes = Routes.build(this.yopablePaths);
+		this.compression = Compression.configure(this.getServletConfig());
+		this.async = AsyncExecution.configure(this.getServletConfig());
+		this.admission = Admission.configure(this.getServletConfig());
+
 		// The JNDI data source init param → the underlying connection
 		// It can be null if the getConnection is overridden
 		this.dataSourceJNDIName = this.getInitParameter(DATASOURCE_JNDI_INIT_PARAM);
@@ -143,14 +214,12 @@ public class YopRestServlet extends HttpServlet {
 	protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
 		logger.info("Finding REST resource for GET [{}] ", req.getRequestURI());
 		this.doExecute(req, resp, Get.INSTANCE);
-		resp.setStatus(HttpServletResponse.SC_OK);
 	}
 
 	@Override
 	protected void doHead(HttpServletRequest req, HttpServletResponse resp) {
 		logger.info("Finding REST resource for HEAD [{}] ", req.getRequestURI());
 		this.doExecute(req, resp, Head.INSTANCE);
-		resp.setStatus(HttpServletResponse.SC_OK);
 	}
 
 	@Override
@@ -184,14 +253,59 @@ public class YopRestServlet extends HttpServlet {
 		super.doTrace(req, resp);
 	}
 
+	@Override
+	public void destroy() {
+		if (this.async != null) {
+			this.async.shutdown();
+		}
+		super.destroy();
+	}
+
+	/**
+	 * Serve the request, asynchronously if enabled and supported (see {@link AsyncExecution}).
+	 * @param req  the servlet request
+	 * @param resp the servlet response
+	 * @throws ServletException see {@link HttpServlet#service(HttpServletRequest, HttpServletResponse)}
+	 * @throws IOException an I/O error occurred writing the response
+	 */
 	@Override
 	protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		if (this.async != null && req.isAsyncSupported()) {
+			this.async.dispatch(req, resp, this::compressed);
+			return;
+		}
+		this.compressed(req, resp);
+	}
+
+	/**
+	 * Serve the request, using a compressing response if the client accepts it (see {@link Compression}).
+	 * @param req  the servlet request
+	 * @param resp the servlet response
+	 * @throws ServletException see {@link HttpServlet#service(HttpServletRequest, HttpServletResponse)}
+	 * @throws IOException an I/O error occurred writing the response
+	 */
+	private void compressed(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		HttpServletResponse response = this.compression.wrap(req, resp);
+		// If serving failed, do not finish : the end of the compressed output would complete an aborted response
+		this.serve(req, response);
+		Compression.finish(response);
+	}
+
+	private void serve(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
+			if (Batch.isBatch(req)) {
+				this.doBatch(req, resp);
+				return;
+			}
 			if (Upsert.UPSERT.equals(req.getMethod())) {
 				this.doUpsert(req, resp);
 				return;
 			}
 			super.service(req, resp);
+		} catch (YopResponseAbortedException e) {
+			// The status and part of the output are sent : no error body, let the container close the connection
+			logger.error("YOP Rest resource invocation error after the response was committed. Aborting !", e);
+			throw e;
 		} catch (YopBadContentException e) {
 			logger.error("YOP Rest resource invocation error, Bad request !", e);
 			resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -217,7 +331,13 @@ public class YopRestServlet extends HttpServlet {
 			resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
 			resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
 			resp.getWriter().write(HttpMethod.errorJSON(e).toString());
-		}catch (RuntimeException e) {
+		} catch (YopServiceUnavailableException e) {
+			logger.error("YOP Rest resource invocation error, Service unavailable !", e);
+			resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			resp.setHeader("Retry-After", Admission.RETRY_AFTER);
+			resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
+			resp.getWriter().write(HttpMethod.errorJSON(e).toString());
+		} catch (RuntimeException e) {
 			logger.error("YOP Rest resource invocation error!", e);
 			resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 			resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
@@ -225,6 +345,47 @@ public class YopRestServlet extends HttpServlet {
 		}
 	}
 
+	/**
+	 * Execute a batch of operations in a single connection and transaction (see {@link Batch}).
+	 * <br>
+	 * If an operation failed, the transaction is rolled back. The batch status is then the failed operation status.
+	 * @param req  the servlet request
+	 * @param resp the servlet response
+	 * @throws IOException an I/O exception occurred writing into the response
+	 */
+	private void doBatch(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		logger.info("Executing REST batch [{}] ", req.getRequestURI());
+		Batch batch = new Batch(this.routes, this.requestChecker, req);
+
+		try (Admission.Permit permit = this.admit("Batch." + req.getMethod(), Admission.Lane.WRITE);
+			IConnection connection = this.connector.getConnection();
+			Loader ignored = Loader.open(connection)) {
+			boolean autocommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				batch.execute(req, resp, connection);
+			} catch (RuntimeException e) {
+				connection.rollback();
+				connection.setAutoCommit(autocommit);
+				throw e;
+			}
+			if (batch.status() == HttpServletResponse.SC_OK) {
+				connection.commit();
+			} else {
+				connection.rollback();
+			}
+		} catch (SQLException e) {
+			throw new YopResourceInvocationException("SQL Error executing REST batch [" + req.getRequestURI() + "]", e);
+		}
+
+		String content = batch.results().toString();
+		resp.setStatus(batch.status());
+		resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
+		resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		resp.setContentLength(content.getBytes(StandardCharsets.UTF_8).length);
+		resp.getWriter().write(content);
+	}
+
 	private void doUpsert(HttpServletRequest req, HttpServletResponse resp) {
 		this.doExecute(req, resp, Upsert.INSTANCE);
 		resp.setStatus(HttpServletResponse.SC_OK);
@@ -235,31 +396,44 @@ public class YopRestServlet extends HttpServlet {
 	 * <br>
 	 * <ol>
 	 *     <li>{@link HttpMethod#checkResource(RestRequest)}</li>
+	 *     <li>Enter the resource bulkhead, if admission control is enabled (see {@link Admission})</li>
 	 *     <li>{@link RequestChecker#checkResource(RestRequest, IConnection)} </li>
 	 *     <li>Create transaction</li>
+	 *     <li>GET/HEAD : open a request scoped {@link Loader} on the connection (see {@link Loader#current()})</li>
 	 *     <li>Execute {@link HttpMethod#execute(RestRequest, IConnection)}</li>
-	 *     <li>Commit or Rollback on exception</li>
-	 *     <li>Serialize output to the response using {@link HttpMethod#serialize(Object, RestRequest)}</li>
+	 *     <li>If the output is a {@link StreamedResponse} : stream it to the response</li>
+	 *     <li>Commit or Rollback on exception (a committed response is aborted : {@link YopResponseAbortedException})</li>
+	 *     <li>Serialize output using {@link HttpMethod#serialize(Object, RestRequest)}</li>
+	 *     <li>GET/HEAD : tag the output and answer '304 Not Modified' if applicable (see {@link Conditional})</li>
 	 * </ol>
 	 * @param req    the servlet request
 	 * @param resp   the servlet response
 	 * @param method the method implementation (e.g. {@link Get}, {@link Post}...)
 	 */
+	@SuppressWarnings("unchecked")
 	private <T> void doExecute(HttpServletRequest req, HttpServletResponse resp, HttpMethod method) {
-		RestRequest<T> restRequest = new RestRequest<>(req, resp, this.yopablePaths);
+		RestRequest<T> restRequest = new RestRequest<>(req, resp, this.routes);
 		method.checkResource(restRequest);
 
 		IRestResponse out;
-		try (IConnection connection = this.connector.getConnection()) {
+		try (Admission.Permit permit = this.admit(restRequest);
+			IConnection connection = this.connector.getConnection();
+			Loader ignored = restRequest.isRead() ? Loader.open(connection) : null) {
 			this.requestChecker.checkResource(restRequest, connection);
 
 			boolean autocommit = connection.getAutoCommit();
 			connection.setAutoCommit(false);
 			try {
 				out = method.execute(restRequest, connection);
+				if (out instanceof StreamedResponse) {
+					((StreamedResponse<T>) out).stream(restRequest, connection);
+				}
 			} catch (RuntimeException e) {
 				connection.rollback();
 				connection.setAutoCommit(autocommit);
+				if (resp.isCommitted()) {
+					throw new YopResponseAbortedException("Response committed for [" + restRequest + "]", e);
+				}
 				throw e;
 			}
 			connection.commit();
@@ -270,15 +444,55 @@ public class YopRestServlet extends HttpServlet {
 			);
 		}
 
+		if (out instanceof StreamedResponse) {
+			return;
+		}
+
+		if (out.statusCode() == HttpServletResponse.SC_NOT_MODIFIED) {
+			out.headers().forEach(entry -> resp.setHeader(entry.getKey(), entry.getValue()));
+			resp.setStatus(out.statusCode());
+			return;
+		}
+
 		String serialized = out.serialize(restRequest);
+		if (out.statusCode() == HttpServletResponse.SC_OK
+			&& Conditional.isConditional(restRequest)
+			&& ! Conditional.isTagged(out)) {
+			String etag = Conditional.etag(serialized);
+			Conditional.tag(out, etag, null);
+			if (Conditional.isNotModified(restRequest, etag, null)) {
+				out.statusCode(HttpServletResponse.SC_NOT_MODIFIED);
+			}
+		}
 		out.headers().forEach(entry -> resp.setHeader(entry.getKey(), entry.getValue()));
 		resp.setStatus(out.statusCode());
 
-		if (StringUtils.isNotBlank(serialized)) {
+		if (StringUtils.isNotBlank(serialized) && out.statusCode() != HttpServletResponse.SC_NOT_MODIFIED) {
 			method.write(serialized, restRequest);
 		}
 	}
 
+	/**
+	 * Enter the bulkhead of a request, if admission control is enabled.
+	 * @param restRequest the incoming request
+	 * @return the bulkhead permit, null if there is no admission control
+	 * @throws YopServiceUnavailableException the request is rejected : the resource is overloaded
+	 */
+	private Admission.Permit admit(RestRequest<?> restRequest) {
+		return this.admission == null ? null : this.admission.enter(restRequest);
+	}
+
+	/**
+	 * Enter a bulkhead, if admission control is enabled.
+	 * @param name the bulkhead name
+	 * @param lane the request lane
+	 * @return the bulkhead permit, null if there is no admission control
+	 * @throws YopServiceUnavailableException the request is rejected : the bulkhead is overloaded
+	 */
+	private Admission.Permit admit(String name, Admission.Lane lane) {
+		return this.admission == null ? null : this.admission.enter(name, lane);
+	}
+
 	/**
 	 * A functional interface to a connection.
 	 */
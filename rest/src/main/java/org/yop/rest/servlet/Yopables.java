@@ -1,7 +1,7 @@
 package org.yop.rest.servlet;
 
 import org.apache.commons.lang.StringUtils;
-import org.reflections.Reflections;
+import org.yop.reflection.ClassIndex;
 import org.yop.reflection.Reflection;
 import org.yop.rest.annotations.Rest;
 
@@ -72,6 +72,8 @@ public class Yopables extends HashMap<String, Class<?>> {
 
 	/**
 	 * Find all the {@link Rest} annotated classes using the classloader of this class.
+	 * <br>
+	 * Uses the build time {@link ClassIndex}, which scans the classpath roots that have no index.
 	 * @param classLoader the class loader to use
 	 * @param packages    package filter : the packages the @Rest class must start with. If empty : no package filter.
 	 * @return a set of @Rest classes
@@ -80,8 +82,7 @@ public class Yopables extends HashMap<String, Class<?>> {
 		if (packages == null) {
 			return new HashSet<>(0);
 		}
-		Reflections reflections = new Reflections("", classLoader);
-		Set<Class<?>> candidates = reflections.getTypesAnnotatedWith(Rest.class);
+		Set<Class<?>> candidates = ClassIndex.annotatedWith(classLoader, Rest.class);
 		if (packages.length > 0) {
 			candidates.removeIf(c -> ! StringUtils.startsWithAny(Reflection.packageName(c), packages));
 		}
@@ -0,0 +1,77 @@
+package org.yop.rest.servlet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.yop.rest.simple.model.Pojo;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Testing the {@link Admission} lanes : the lane of a request depends on its HTTP method and ID only.
+ */
+public class AdmissionTest {
+
+	private static final Routes ROUTES = Routes.build(new Yopables().register(Pojo.class));
+
+	@Test
+	public void test_lane_read() {
+		Assert.assertEquals(Admission.Lane.LOOKUP, Admission.Lane.of(request("GET", "pojo/1")));
+		Assert.assertEquals(Admission.Lane.QUERY,  Admission.Lane.of(request("GET", "pojo")));
+		Assert.assertEquals(Admission.Lane.LOOKUP, Admission.Lane.of(request("HEAD", "pojo/1")));
+		Assert.assertEquals(Admission.Lane.QUERY,  Admission.Lane.of(request("HEAD", "pojo")));
+
+		// Conditional GET : still a read
+		Assert.assertEquals(
+			Admission.Lane.LOOKUP,
+			Admission.Lane.of(request("GET", "pojo/1", "If-None-Match", "\"etag\""))
+		);
+	}
+
+	@Test
+	public void test_lane_write() {
+		Assert.assertEquals(Admission.Lane.WRITE, Admission.Lane.of(request("PUT", "pojo")));
+		Assert.assertEquals(Admission.Lane.WRITE, Admission.Lane.of(request("POST", "pojo")));
+		Assert.assertEquals(Admission.Lane.WRITE, Admission.Lane.of(request("DELETE", "pojo/1")));
+		Assert.assertEquals(Admission.Lane.WRITE, Admission.Lane.of(request(Upsert.UPSERT, "pojo")));
+
+		// Conditional PUT/DELETE (optimistic locking) : still a write
+		Assert.assertEquals(Admission.Lane.WRITE, Admission.Lane.of(request("PUT", "pojo/1", "If-Match", "\"etag\"")));
+		Assert.assertEquals(Admission.Lane.WRITE, Admission.Lane.of(request("DELETE", "pojo/1", "If-Match", "\"etag\"")));
+	}
+
+	/**
+	 * Create a REST request on the {@link #ROUTES}, from a minimal HTTP request.
+	 * @param method  the HTTP method
+	 * @param path    the resource path, e.g. 'pojo/1'
+	 * @param headers the HTTP headers, as name/value pairs
+	 * @return a REST request
+	 */
+	private static RestRequest<?> request(String method, String path, String... headers) {
+		Map<String, String> headerValues = new HashMap<>();
+		for (int i = 0; i + 1 < headers.length; i += 2) {
+			headerValues.put(headers[i], headers[i + 1]);
+		}
+
+		HttpServletRequest req = (HttpServletRequest) Proxy.newProxyInstance(
+			AdmissionTest.class.getClassLoader(),
+			new Class<?>[] {HttpServletRequest.class},
+			(proxy, invoked, args) -> {
+				switch (invoked.getName()) {
+					case "getMethod":       return method;
+					case "getRequestURI":   return "/yop/rest/" + path;
+					case "getServletPath":  return "/yop/rest";
+					case "getContextPath":  return "";
+					case "getHeader":       return headerValues.get((String) args[0]);
+					case "getHeaderNames":  return Collections.enumeration(headerValues.keySet());
+					case "getParameterMap": return Collections.emptyMap();
+					default: return null;
+				}
+			}
+		);
+		return new RestRequest<>(req, null, ROUTES);
+	}
+}
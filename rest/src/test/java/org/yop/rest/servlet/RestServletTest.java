@@ -32,10 +32,12 @@ import java.util.Collection;
  * <br>
  * Using Apache http components to send requests to the embedded tomcat.
  * <br>
- * 3 servlets are exposed in the embedded tomcat :
+ * 5 servlets are exposed in the embedded tomcat :
  * <ul>
  *     <li>{@link LoginServlet}   → /yop/login</li>
  *     <li>{@link YopRestServlet} → /yop/rest/*</li>
+ *     <li>{@link YopRestServlet} → /yop/async/* (async execution, admission control)</li>
+ *     <li>{@link YopRestServlet} → /yop/slow/* (async execution, every request times out)</li>
  *     <li>{@link OpenAPIServlet} → /yop/openapi</li>
  * </ul>
  */
@@ -117,6 +119,29 @@ public abstract class RestServletTest extends DBMSSwitch {
 		wrapper.addInitParameter(YopRestServlet.REQUEST_CHECKER_INIT_PARAM, CredentialsChecker.class.getName());
 		wrapper.addInitParameter(YopRestServlet.DATASOURCE_JNDI_INIT_PARAM, null);
 		context.addServletMappingDecoded("/yop/rest/*", YopRestServletWithConnection.class.getSimpleName());
+
+		// The same REST servlet, with async execution and admission control : the by ID GET on Pojo are rejected
+		String async = "Async" + YopRestServletWithConnection.class.getSimpleName();
+		wrapper = Tomcat.addServlet(context, async, new YopRestServletWithConnection());
+		wrapper.addInitParameter(YopRestServlet.PACKAGE_INIT_PARAM, "org.yop");
+		wrapper.addInitParameter(YopRestServlet.REQUEST_CHECKER_INIT_PARAM, CredentialsChecker.class.getName());
+		wrapper.addInitParameter(YopRestServlet.ASYNC_INIT_PARAM, Boolean.TRUE.toString());
+		wrapper.addInitParameter(YopRestServlet.ASYNC_POOL_SIZE_INIT_PARAM, "2");
+		wrapper.addInitParameter(YopRestServlet.ADMISSION_INIT_PARAM, Boolean.TRUE.toString());
+		wrapper.addInitParameter(YopRestServlet.ADMISSION_QUEUE_TIMEOUT_INIT_PARAM, "10");
+		wrapper.addInitParameter(YopRestServlet.ADMISSION_LIMIT_INIT_PARAM_PREFIX + "Pojo.GET.id", "0");
+		wrapper.setAsyncSupported(true);
+		context.addServletMappingDecoded("/yop/async/*", async);
+
+		// The same REST servlet, with async execution and a request checker that always times out
+		String slow = "Slow" + YopRestServletWithConnection.class.getSimpleName();
+		wrapper = Tomcat.addServlet(context, slow, new YopRestServletWithConnection());
+		wrapper.addInitParameter(YopRestServlet.PACKAGE_INIT_PARAM, "org.yop");
+		wrapper.addInitParameter(YopRestServlet.REQUEST_CHECKER_INIT_PARAM, SlowChecker.class.getName());
+		wrapper.addInitParameter(YopRestServlet.ASYNC_INIT_PARAM, Boolean.TRUE.toString());
+		wrapper.addInitParameter(YopRestServlet.ASYNC_TIMEOUT_INIT_PARAM, "100");
+		wrapper.setAsyncSupported(true);
+		context.addServletMappingDecoded("/yop/slow/*", slow);
 	}
 
 	private void addOpenAPIServlet(Context context) {
@@ -0,0 +1,28 @@
+package org.yop.rest.servlet;
+
+import org.yop.orm.sql.adapter.IConnection;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link org.yop.rest.servlet.YopRestServlet.RequestChecker} that takes too long : every request times out.
+ * <br>
+ * {@link #INTERRUPTED} is counted down when the check is interrupted (i.e. the request execution is cancelled).
+ */
+public class SlowChecker implements YopRestServlet.RequestChecker {
+
+	/** Counted down every time a check is interrupted */
+	public static volatile CountDownLatch INTERRUPTED = new CountDownLatch(1);
+
+	@Override
+	public <T> void checkResource(RestRequest<T> request, IConnection connection) {
+		try {
+			TimeUnit.SECONDS.sleep(30);
+		} catch (InterruptedException e) {
+			INTERRUPTED.countDown();
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Slow check interrupted !", e);
+		}
+	}
+}
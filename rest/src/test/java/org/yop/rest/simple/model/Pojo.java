@@ -13,7 +13,7 @@ import org.yop.rest.annotations.Rest;
 /**
  * This POJO simply extends the ORM model {@link Pojo} to add extra REST configuration/behavior.
  */
-@Rest(path = "pojo", description = "This a POJO :-)")
+@Rest(path = "pojo", description = "This a POJO :-)", version = "version")
 public class Pojo extends org.yop.orm.simple.model.Pojo implements Yopable {
 	@Rest(path = "search/{search_string}", methods = "POST")
 	@Parameter(name = "test", description = "This is a test")
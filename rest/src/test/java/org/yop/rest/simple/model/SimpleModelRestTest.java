@@ -3,6 +3,7 @@ package org.yop.rest.simple.model;
 import com.google.common.collect.Sets;
 import com.google.gson.JsonParser;
 import org.apache.commons.codec.digest.Crypt;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
@@ -24,10 +25,15 @@ import org.yop.orm.query.sql.*;
 import org.yop.orm.simple.model.Jopo;
 import org.yop.orm.simple.model.Other;
 import org.yop.orm.simple.model.Pojo;
+import org.yop.orm.sql.Config;
+import org.yop.orm.sql.Executor;
+import org.yop.orm.sql.Query;
+import org.yop.orm.sql.SimpleQuery;
 import org.yop.orm.sql.adapter.IConnection;
 import org.yop.rest.servlet.HttpMethod;
 import org.yop.rest.servlet.LoginServlet;
 import org.yop.rest.servlet.RestServletTest;
+import org.yop.rest.servlet.SlowChecker;
 import org.yop.rest.users.model.Action;
 import org.yop.rest.users.model.Profile;
 import org.yop.rest.users.model.User;
@@ -40,8 +46,13 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.yop.orm.Yop.toN;
 import static org.yop.orm.Yop.upsert;
 
@@ -63,11 +74,23 @@ public class SimpleModelRestTest extends RestServletTest {
 		return "org.yop.rest.simple.model, org.yop.rest.users.model";
 	}
 
+	/** Use the LIMIT paging method on the connections (servlet connections included) */
+	private volatile boolean limitPaging = false;
+
 	@Override
 	public void setUp() throws SQLException, IOException, ClassNotFoundException {
 		super.setUp();
 	}
 
+	@Override
+	protected IConnection getConnection() throws SQLException, ClassNotFoundException {
+		IConnection connection = super.getConnection();
+		if (this.limitPaging) {
+			connection.config().set(Config.SQL_PAGING_METHOD, Paging.Method.LIMIT.name());
+		}
+		return connection;
+	}
+
 	@Test
 	public void test_openAPI() throws IOException, SQLException, ClassNotFoundException {
 		try (IConnection connection = this.getConnection()) {
@@ -392,6 +415,29 @@ public class SimpleModelRestTest extends RestServletTest {
 		}
 	}
 
+	@Test
+	public void test_custom_path_param() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			Pojo newPojo = new Pojo();
+			newPojo.setVersion(1337);
+			newPojo.setType(Pojo.Type.FOO);
+			newPojo.setStringColumn("This is a string with a needle in it");
+			upsert(Pojo.class).onto(newPojo).execute(connection);
+			rogerCanWrite(connection);
+		}
+
+		String sessionCookie = login();
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// POST on custom resource with a URL encoded path parameter → 200, the matching Pojo
+			HttpPost httpPost = new HttpPost("http://localhost:1234/yop/rest/pojo/search/a%20needle");
+			httpPost.setHeader("Cookie", sessionCookie);
+			Response response = doRequest(httpclient, httpPost);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(1337, new JSONArray(response.content).getJSONObject(0).getInt("version"));
+		}
+	}
+
 	@Test
 	public void test_CRUD_Paging() throws SQLException, ClassNotFoundException, IOException {
 		Pojo newPojo;
@@ -467,6 +513,567 @@ public class SimpleModelRestTest extends RestServletTest {
 		}
 	}
 
+	@Test
+	public void test_GET_streaming() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>(20);
+			for (int i = 1; i <= 20; i++) {
+				Pojo newPojo = new Pojo();
+				newPojo.setVersion(i);
+				newPojo.setType(Pojo.Type.FOO);
+				pojos.add(newPojo);
+			}
+			upsert(Pojo.class).onto(pojos).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		String sessionCookie = login();
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// streamed GET with count header, user logged in, user can read → 200, chunked, with content
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			httpGet.setHeader(HttpMethod.PARAM_COUNT,  Boolean.TRUE.toString());
+			httpGet.setHeader(HttpMethod.PARAM_STREAM, Boolean.TRUE.toString());
+			Response response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals("20", response.getHeaderValue("count"));
+			Assert.assertEquals("", response.getHeaderValue("Content-Length"));
+			JSONArray json = new JSONArray(response.content);
+			Assert.assertEquals(20, json.length());
+			Assert.assertEquals(20, json.getJSONObject(19).getInt("version"));
+
+			// streamed GET, XML → 200 with content
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			httpGet.setHeader("Accept", ContentType.APPLICATION_XML.getMimeType());
+			httpGet.setHeader(HttpMethod.PARAM_STREAM, Boolean.TRUE.toString());
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Collection<Pojo> pojos = XML.deserialize(response.content, Pojo.class);
+			Assert.assertEquals(20, pojos.size());
+		}
+	}
+
+	@Test
+	public void test_GET_streaming_error_after_commit() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>(600);
+			for (int i = 1; i <= 600; i++) {
+				Pojo newPojo = new Pojo();
+				newPojo.setVersion(i);
+				newPojo.setType(Pojo.Type.FOO);
+				pojos.add(newPojo);
+			}
+			upsert(Pojo.class).onto(pojos).execute(connection);
+
+			// The Pojo with the greatest ID has an invalid enum ordinal : the 2nd chunk cannot be read
+			long last = pojos.stream().mapToLong(pojo -> (Long) pojo.getId()).max().orElseThrow(IllegalStateException::new);
+			Executor.executeQuery(
+				connection,
+				new SimpleQuery("UPDATE simple_pojo SET TYPE = 99 WHERE id = " + last, Query.Type.UPDATE, connection.config())
+			);
+			rogerCanRead(connection);
+		}
+
+		String sessionCookie = login();
+
+		// Paging with 2 queries would read the whole ID range for the 1st chunk : the 1st chunk would fail
+		this.limitPaging = true;
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// streamed GET, the 1st chunk is sent, the 2nd one fails → 200, then the connection is aborted
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			httpGet.setHeader(HttpMethod.PARAM_STREAM, Boolean.TRUE.toString());
+			try (CloseableHttpResponse response = httpclient.execute(httpGet)) {
+				Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+				try {
+					String content = IOUtils.toString(response.getEntity().getContent(), UTF_8);
+					Assert.fail("The truncated stream should not end normally. Content ends with ["
+						+ StringUtils.right(content, 100) + "]");
+				} catch (IOException e) {
+					logger.info("Truncated stream, as expected", e);
+				}
+			}
+		} finally {
+			this.limitPaging = false;
+		}
+	}
+
+	@Test
+	public void test_GET_conditional() throws SQLException, ClassNotFoundException, IOException {
+		Pojo newPojo = new Pojo();
+		newPojo.setVersion(1);
+		newPojo.setType(Pojo.Type.FOO);
+		try (IConnection connection = this.getConnection()) {
+			upsert(Pojo.class).onto(newPojo).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		String sessionCookie = login();
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// GET on a resource with a version field → 200 with an ETag
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			Response response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			String etag = response.getHeaderValue("ETag");
+			Assert.assertTrue(StringUtils.isNotBlank(etag));
+
+			// Same GET, with the ETag → 304 with no content
+			httpGet.setHeader("If-None-Match", etag);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(304, response.statusCode);
+			Assert.assertTrue(StringUtils.isBlank(response.content));
+
+			// Same GET, with the ETag but another representation (paging) → 200
+			httpGet.setHeader(HttpMethod.PARAM_LIMIT, "1");
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			httpGet.removeHeaders(HttpMethod.PARAM_LIMIT);
+
+			// The version increases → 200 with a new ETag
+			try (IConnection connection = this.getConnection()) {
+				newPojo.setVersion(2);
+				upsert(Pojo.class).onto(newPojo).execute(connection);
+			}
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertNotEquals(etag, response.getHeaderValue("ETag"));
+
+			// GET with a join profile → ETag from the content : a change on a joined object only → 200
+			Pojo child = new Pojo();
+			child.setVersion(1);
+			child.setType(Pojo.Type.BAR);
+			try (IConnection connection = this.getConnection()) {
+				upsert(Pojo.class).onto(child).execute(connection);
+			}
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?joinProfile=pojo_children_and_parent");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			etag = response.getHeaderValue("ETag");
+
+			httpGet.setHeader("If-None-Match", etag);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(304, response.statusCode);
+
+			try (IConnection connection = this.getConnection()) {
+				newPojo.getChildren().add(child);
+				upsert(Pojo.class).onto(newPojo).joinProfiles("pojo_children_and_parent").execute(connection);
+			}
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertNotEquals(etag, response.getHeaderValue("ETag"));
+
+			// GET on a resource with no version field → ETag from the content, 304 if unchanged
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/action");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			etag = response.getHeaderValue("ETag");
+			Assert.assertTrue(StringUtils.isNotBlank(etag));
+
+			httpGet.setHeader("If-None-Match", "\"another one\", " + etag);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(304, response.statusCode);
+			Assert.assertTrue(StringUtils.isBlank(response.content));
+		}
+	}
+
+	@Test
+	public void test_GET_compression() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>(50);
+			for (int i = 1; i <= 50; i++) {
+				Pojo newPojo = new Pojo();
+				newPojo.setVersion(i);
+				newPojo.setType(Pojo.Type.FOO);
+				pojos.add(newPojo);
+			}
+			upsert(Pojo.class).onto(pojos).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		String sessionCookie = login();
+
+		// No transparent decompression here : read the raw compressed content
+		try (CloseableHttpClient httpclient = HttpClients.custom().disableContentCompression().build()) {
+			// GET, gzip accepted, content above the threshold → 200, gzip content with no Content-Length
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			httpGet.setHeader("Accept-Encoding", "deflate;q=0.5, gzip");
+			try (CloseableHttpResponse response = httpclient.execute(httpGet)) {
+				Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+				Assert.assertEquals("gzip", response.getFirstHeader("Content-Encoding").getValue());
+				Assert.assertEquals("Accept-Encoding", response.getFirstHeader("Vary").getValue());
+				Assert.assertNull(response.getFirstHeader("Content-Length"));
+				String content = IOUtils.toString(new GZIPInputStream(response.getEntity().getContent()), UTF_8);
+				Assert.assertEquals(50, new JSONArray(content).length());
+			}
+
+			// streamed GET, deflate accepted → 200, deflate content
+			httpGet.setHeader("Accept-Encoding", "deflate");
+			httpGet.setHeader(HttpMethod.PARAM_STREAM, Boolean.TRUE.toString());
+			try (CloseableHttpResponse response = httpclient.execute(httpGet)) {
+				Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+				Assert.assertEquals("deflate", response.getFirstHeader("Content-Encoding").getValue());
+				String content = IOUtils.toString(new InflaterInputStream(response.getEntity().getContent()), UTF_8);
+				Assert.assertEquals(50, new JSONArray(content).length());
+			}
+
+			// GET, gzip accepted, content under the threshold → 200, not compressed
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			httpGet.setHeader("Accept-Encoding", "gzip");
+			httpGet.setHeader(HttpMethod.PARAM_LIMIT, "1");
+			try (CloseableHttpResponse response = httpclient.execute(httpGet)) {
+				Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+				Assert.assertNull(response.getFirstHeader("Content-Encoding"));
+				Assert.assertNotNull(response.getFirstHeader("Content-Length"));
+				Assert.assertEquals(1, new JSONArray(IOUtils.toString(response.getEntity().getContent(), UTF_8)).length());
+			}
+
+			// GET, compression not accepted → 200, not compressed
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			httpGet.setHeader("Accept-Encoding", "gzip;q=0, identity");
+			try (CloseableHttpResponse response = httpclient.execute(httpGet)) {
+				Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+				Assert.assertNull(response.getFirstHeader("Content-Encoding"));
+				Assert.assertEquals(50, new JSONArray(IOUtils.toString(response.getEntity().getContent(), UTF_8)).length());
+			}
+		}
+	}
+
+	@Test
+	public void test_GET_fields() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>(10);
+			for (int i = 1; i <= 10; i++) {
+				Pojo newPojo = new Pojo();
+				newPojo.setVersion(i);
+				newPojo.setType(Pojo.Type.FOO);
+				newPojo.setPassword("password " + i);
+				newPojo.setStringColumn("string column " + i);
+				pojos.add(newPojo);
+			}
+			upsert(Pojo.class).onto(pojos).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			String sessionCookie = login();
+
+			// GET with fields → 200, only the ID and the requested fields
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?fields=version,type");
+			httpGet.setHeader("Cookie", sessionCookie);
+			Response response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			JSONArray json = new JSONArray(response.content);
+			Assert.assertEquals(10, json.length());
+			for (int i = 0; i < json.length(); i++) {
+				JSONObject pojo = json.getJSONObject(i);
+				Assert.assertEquals(Sets.newHashSet("id", "version", "type"), pojo.keySet());
+			}
+
+			// streamed GET, XML, with fields → 200, no password nor string column
+			httpGet.setHeader(HttpMethod.PARAM_STREAM, Boolean.TRUE.toString());
+			httpGet.setHeader("Accept", ContentType.APPLICATION_XML.getMimeType());
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(10, XML.deserialize(response.content, Pojo.class).size());
+			Assert.assertTrue(response.content.contains("<version>"));
+			Assert.assertFalse(response.content.contains("<password>"));
+			Assert.assertFalse(response.content.contains("<stringColumn>"));
+
+			// GET with an unknown field → 400
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?fields=version,unknown");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(400, response.statusCode);
+		}
+	}
+
+	@Test
+	public void test_GET_filter_sort() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>(10);
+			for (int i = 1; i <= 10; i++) {
+				Pojo newPojo = new Pojo();
+				newPojo.setVersion(i);
+				newPojo.setType(i % 2 == 0 ? Pojo.Type.FOO : Pojo.Type.BAR);
+				newPojo.setStringColumn("string column " + i);
+				pojos.add(newPojo);
+			}
+			upsert(Pojo.class).onto(pojos).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			String sessionCookie = login();
+
+			// GET with a filter and a descending sort → 200, filtered and sorted
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?version=gt:5&sort=-version");
+			httpGet.setHeader("Cookie", sessionCookie);
+			Response response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			JSONArray json = new JSONArray(response.content);
+			Assert.assertEquals(5, json.length());
+			for (int i = 0; i < json.length(); i++) {
+				Assert.assertEquals(10 - i, json.getJSONObject(i).getInt("version"));
+			}
+
+			// GET with several filters, 'in' and an enum → 200, every filter must match
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?version=in:1,2,3,4&type=FOO&sort=version");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			json = new JSONArray(response.content);
+			Assert.assertEquals(2, json.length());
+			Assert.assertEquals(2, json.getJSONObject(0).getInt("version"));
+			Assert.assertEquals(4, json.getJSONObject(1).getInt("version"));
+
+			// GET with 'like' and 'null' filters → 200
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?stringColumn=like:%25column%201%25&password=eq:null");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(2, new JSONArray(response.content).length());
+
+			// GET with an invalid filter value → 400
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?version=gt:abc");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(400, response.statusCode);
+
+			// GET with 'like' on a non String field → 400
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?version=like:1");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(400, response.statusCode);
+
+			// GET with an unknown sort field → 400
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo?sort=-unknown");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(400, response.statusCode);
+		}
+	}
+
+	@Test
+	public void test_GET_async() throws SQLException, ClassNotFoundException, IOException, InterruptedException {
+		try (IConnection connection = this.getConnection()) {
+			Collection<Pojo> pojos = new ArrayList<>(50);
+			for (int i = 1; i <= 50; i++) {
+				Pojo newPojo = new Pojo();
+				newPojo.setVersion(i);
+				newPojo.setType(Pojo.Type.FOO);
+				pojos.add(newPojo);
+			}
+			upsert(Pojo.class).onto(pojos).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// async GET, user not logged in → 401
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/async/pojo");
+			Response response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(401, response.statusCode);
+
+			// async GET, user logged in, user can read → 200 with content, written asynchronously
+			String sessionCookie = login();
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(50, new JSONArray(response.content).length());
+
+			// async streamed GET → 200 with content
+			httpGet.setHeader(HttpMethod.PARAM_STREAM, Boolean.TRUE.toString());
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(50, new JSONArray(response.content).length());
+
+			// async GET on an unknown resource → 404
+			httpGet = new HttpGet("http://localhost:1234/yop/async/unknown");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(404, response.statusCode);
+
+			// async GET that times out → 503, and its execution is cancelled
+			SlowChecker.INTERRUPTED = new CountDownLatch(1);
+			httpGet = new HttpGet("http://localhost:1234/yop/slow/pojo");
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(503, response.statusCode);
+			Assert.assertEquals("1", response.getHeaderValue("Retry-After"));
+			Assert.assertTrue(SlowChecker.INTERRUPTED.await(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void test_admission() throws SQLException, ClassNotFoundException, IOException {
+		Pojo pojo = new Pojo();
+		pojo.setVersion(1);
+		pojo.setType(Pojo.Type.FOO);
+		try (IConnection connection = this.getConnection()) {
+			upsert(Pojo.class).onto(pojo).execute(connection);
+			rogerCanRead(connection);
+		}
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			String sessionCookie = login();
+
+			// GET by ID, its bulkhead has a 0 limit → 503, with a 'Retry-After' header
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/async/pojo/" + pojo.getId());
+			httpGet.setHeader("Cookie", sessionCookie);
+			Response response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(503, response.statusCode);
+			Assert.assertEquals("1", response.getHeaderValue("Retry-After"));
+
+			// GET all, in its own bulkhead → 200
+			httpGet = new HttpGet("http://localhost:1234/yop/async/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(1, new JSONArray(response.content).length());
+
+			// same GET by ID, with no admission control → 200
+			httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo/" + pojo.getId());
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(200, response.statusCode);
+		}
+	}
+
+	@Test
+	public void test_batch() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			rogerCanWrite(connection);
+		}
+
+		String sessionCookie = login();
+		JSONArray pojos = new JSONArray();
+		for (int i = 1; i <= 3; i++) {
+			Pojo pojo = new Pojo();
+			pojo.setVersion(i);
+			pojo.setType(Pojo.Type.FOO);
+			pojos.put(new JSONObject(JSON.from(Pojo.class).toJSON(pojo)));
+		}
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// 2 grouped UPSERT and a GET, user logged in, user can read and write → 200, 1 result per operation
+			JSONArray twoPojos = new JSONArray().put(pojos.get(0)).put(pojos.get(1));
+			JSONArray operations = new JSONArray()
+				.put(new JSONObject().put("method", "UPSERT").put("path", "pojo").put("body", twoPojos))
+				.put(new JSONObject().put("method", "UPSERT").put("path", "pojo").put("body", pojos.get(2)))
+				.put(new JSONObject().put("method", "GET").put("path", "pojo").put("headers", new JSONObject().put("count", "true")));
+			HttpPost httpPost = new HttpPost("http://localhost:1234/yop/rest/_batch");
+			httpPost.setHeader("Cookie", sessionCookie);
+			httpPost.setEntity(new StringEntity(operations.toString(), ContentType.APPLICATION_JSON));
+			Response response = doRequest(httpclient, httpPost);
+			Assert.assertEquals(200, response.statusCode);
+			JSONArray results = new JSONArray(response.content);
+			Assert.assertEquals(3, results.length());
+			Assert.assertEquals(2, results.getJSONObject(0).getJSONArray("body").length());
+			Assert.assertEquals(1, results.getJSONObject(1).getJSONArray("body").length());
+			Assert.assertEquals(3, results.getJSONObject(2).getJSONArray("body").length());
+			Assert.assertEquals("3", results.getJSONObject(2).getJSONObject("headers").getString("count"));
+			long id1 = results.getJSONObject(0).getJSONArray("body").getJSONObject(0).getLong("id");
+			long id3 = results.getJSONObject(1).getJSONArray("body").getJSONObject(0).getLong("id");
+
+			// 2 grouped DELETE and a GET → 200
+			operations = new JSONArray()
+				.put(new JSONObject().put("method", "DELETE").put("path", "pojo/" + id1))
+				.put(new JSONObject().put("method", "DELETE").put("path", "pojo/" + id3))
+				.put(new JSONObject().put("method", "GET").put("path", "pojo"));
+			httpPost.setEntity(new StringEntity(operations.toString(), ContentType.APPLICATION_JSON));
+			response = doRequest(httpclient, httpPost);
+			Assert.assertEquals(200, response.statusCode);
+			results = new JSONArray(response.content);
+			Assert.assertEquals(200, results.getJSONObject(1).getInt("status"));
+			Assert.assertEquals(1, results.getJSONObject(2).getJSONArray("body").length());
+
+			// UPSERT, then an unknown resource → 404, rolled back, the next operation is not executed
+			operations = new JSONArray()
+				.put(new JSONObject().put("method", "UPSERT").put("path", "pojo").put("body", pojos.get(0)))
+				.put(new JSONObject().put("method", "GET").put("path", "unknown"))
+				.put(new JSONObject().put("method", "GET").put("path", "pojo"));
+			httpPost.setEntity(new StringEntity(operations.toString(), ContentType.APPLICATION_JSON));
+			response = doRequest(httpclient, httpPost);
+			Assert.assertEquals(404, response.statusCode);
+			results = new JSONArray(response.content);
+			Assert.assertEquals(200, results.getJSONObject(0).getInt("status"));
+			Assert.assertEquals(404, results.getJSONObject(1).getInt("status"));
+			Assert.assertEquals(424, results.getJSONObject(2).getInt("status"));
+
+			HttpGet httpGet = new HttpGet("http://localhost:1234/yop/rest/pojo");
+			httpGet.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpGet);
+			Assert.assertEquals(1, new JSONArray(response.content).length());
+
+			// Not a JSON array of operations → 400
+			httpPost.setEntity(new StringEntity("{\"method\": \"GET\"}", ContentType.APPLICATION_JSON));
+			response = doRequest(httpclient, httpPost);
+			Assert.assertEquals(400, response.statusCode);
+		}
+	}
+
+	@Test
+	public void test_UPSERT_streaming() throws SQLException, ClassNotFoundException, IOException {
+		try (IConnection connection = this.getConnection()) {
+			rogerCanWrite(connection);
+		}
+
+		String sessionCookie = login();
+
+		try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
+			// UPSERT newline delimited JSON, IDs only, user logged in, user can read and write → 200
+			StringBuilder ndjson = new StringBuilder();
+			for (int i = 1; i <= 3; i++) {
+				Pojo pojo = new Pojo();
+				pojo.setVersion(i);
+				pojo.setType(Pojo.Type.FOO);
+				ndjson.append(JSON.from(Pojo.class).toJSON(pojo)).append("\n");
+			}
+			HttpUpsert httpUpsert = new HttpUpsert("http://localhost:1234/yop/rest/pojo?idsOnly=true");
+			httpUpsert.setEntity(new StringEntity(ndjson.toString(), ContentType.create("application/x-ndjson")));
+			httpUpsert.setHeader("Cookie", sessionCookie);
+			Response response = doRequest(httpclient, httpUpsert);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(3, new JSONArray(response.content).length());
+			Assert.assertEquals("3", response.getHeaderValue("count"));
+			Assert.assertTrue(new JSONArray(response.content).getLong(0) < new JSONArray(response.content).getLong(2));
+
+			// UPSERT XML, user logged in, user can read and write → 200
+			Collection<Pojo> pojos = new ArrayList<>();
+			for (int i = 4; i <= 5; i++) {
+				Pojo pojo = new Pojo();
+				pojo.setVersion(i);
+				pojo.setType(Pojo.Type.BAR);
+				pojos.add(pojo);
+			}
+			httpUpsert = new HttpUpsert("http://localhost:1234/yop/rest/pojo");
+			httpUpsert.setEntity(new StringEntity(XML.from(Pojo.class).onto(pojos).execute(), ContentType.APPLICATION_XML));
+			httpUpsert.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpUpsert);
+			Assert.assertEquals(200, response.statusCode);
+			Assert.assertEquals(2, new JSONArray(response.content).length());
+			Assert.assertTrue(new JSONArray(response.content).getJSONObject(0).has("id"));
+
+			// UPSERT invalid newline delimited JSON → 400
+			httpUpsert = new HttpUpsert("http://localhost:1234/yop/rest/pojo");
+			httpUpsert.setEntity(new StringEntity(ndjson + "{\"version\":", ContentType.create("application/x-ndjson")));
+			httpUpsert.setHeader("Cookie", sessionCookie);
+			response = doRequest(httpclient, httpUpsert);
+			Assert.assertEquals(400, response.statusCode);
+		}
+
+		try (IConnection connection = this.getConnection()) {
+			Assert.assertEquals(5, Select.from(Pojo.class).execute(connection).size());
+		}
+	}
+
 	private static void rogerCanRead(IConnection connection) {
 		User user = new User();
 		user.setName(USER_NAME);